@@ -0,0 +1,35 @@
+#!/usr/bin/env bash
+# Compara el tiempo de ejecución de los programas de benchmarks/ entre una
+# versión anterior del intérprete y la actual, usando el comando medir.
+#
+# Uso: bin/comparar-rendimiento.sh jar-anterior [programa.pseudo...]
+#
+# Variables: PSEUDOCODE_JAR (jar actual), ITERACIONES y CALENTAMIENTO.
+set -euo pipefail
+
+RAIZ="$(cd "$(dirname "${BASH_SOURCE[0]}")/.." && pwd)"
+if [[ $# -lt 1 ]]; then
+    echo "Uso: $0 jar-anterior [programa.pseudo...]" >&2
+    exit 2
+fi
+ANTERIOR="$1"
+shift
+ACTUAL="${PSEUDOCODE_JAR:-$RAIZ/target/pseudocode-interpreter.jar}"
+ITERACIONES="${ITERACIONES:-15}"
+CALENTAMIENTO="${CALENTAMIENTO:-10}"
+
+if [[ $# -eq 0 ]]; then
+    set -- "$RAIZ"/benchmarks/*.pseudo
+fi
+
+# Línea "ejecución:" de la salida de medir.
+ejecucion() {
+    java -jar "$1" medir --iteraciones "$ITERACIONES" --calentamiento "$CALENTAMIENTO" "$2" \
+        | grep 'ejecución:' | sed 's/^ejecución: *//'
+}
+
+for programa in "$@"; do
+    echo "$(basename "$programa")"
+    echo "  anterior: $(ejecucion "$ANTERIOR" "$programa")"
+    echo "  actual:   $(ejecucion "$ACTUAL" "$programa")"
+done
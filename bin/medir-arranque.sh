@@ -0,0 +1,46 @@
+#!/usr/bin/env bash
+# Mide el tiempo hasta la primera línea de salida de un programa corto con y
+# sin el archivo de Class Data Sharing de la aplicación. Las dos mediciones
+# usan bin/pseudocode, así que solo difieren en el archivo CDS.
+#
+# Uso: bin/medir-arranque.sh [programa.pseudo] [repeticiones]
+set -euo pipefail
+
+RAIZ="$(cd "$(dirname "${BASH_SOURCE[0]}")/.." && pwd)"
+PROGRAMA="${1:-$RAIZ/ejemplos/factorial.pseudo}"
+REPETICIONES="${2:-20}"
+JAR="${PSEUDOCODE_JAR:-$RAIZ/target/pseudocode-interpreter.jar}"
+CDS="${PSEUDOCODE_CDS:-$RAIZ/target/pseudocode.jsa}"
+
+if [[ ! -f "$CDS" ]]; then
+    echo "No existe $CDS; genera el archivo con: mvn -Pcds package" >&2
+    exit 1
+fi
+
+# Milisegundos desde el lanzamiento hasta que el programa escribe su primera línea.
+primera_salida() {
+    local inicio fin linea
+    inicio=$(date +%s%N)
+    {
+        IFS= read -r linea || true
+        fin=$(date +%s%N)
+        cat > /dev/null
+    } < <("$@" ejecutar "$PROGRAMA")
+    echo $(( (fin - inicio) / 1000000 ))
+}
+
+# Mediana de las repeticiones de un comando.
+mediana() {
+    local tiempos=()
+    for ((i = 0; i < REPETICIONES; i++)); do
+        tiempos+=("$(primera_salida "$@")")
+    done
+    printf '%s\n' "${tiempos[@]}" | sort -n | awk '{ v[NR] = $1 } END { print v[int((NR + 1) / 2)] }'
+}
+
+sin_cds=$(mediana env PSEUDOCODE_JAR="$JAR" PSEUDOCODE_CDS= "$RAIZ/bin/pseudocode")
+con_cds=$(mediana env PSEUDOCODE_JAR="$JAR" PSEUDOCODE_CDS="$CDS" "$RAIZ/bin/pseudocode")
+
+echo "Programa:        $PROGRAMA ($REPETICIONES repeticiones, mediana)"
+echo "Sin AppCDS:      ${sin_cds} ms hasta la primera línea"
+echo "Con AppCDS:      ${con_cds} ms hasta la primera línea"
@@ -0,0 +1,54 @@
+package ast;
+
+import lexer.Token;
+
+/**
+ * Nodo AST generado por el optimizador para una asignación que actualiza la
+ * propia variable: {@code x = x op expresion}, con op uno de + - * / %.
+ *
+ * El intérprete localiza el símbolo una sola vez y escribe el resultado
+ * directamente en él. La asignación original se conserva en el nodo para las
+ * pasadas y los visitantes que no distinguen este caso.
+ */
+public class ActualizacionCompuesta extends Declaracion {
+    private final Asignacion original;
+    private final String nombre;
+    private final Token.Tipo operador;
+    private final Expresion expresion;
+
+    public ActualizacionCompuesta(Asignacion original) {
+        super(original.getLinea(), original.getColumna());
+        ExpresionBinaria valor = (ExpresionBinaria) original.getValor();
+        this.original = original;
+        this.nombre = original.getNombre();
+        this.operador = valor.getOperador();
+        this.expresion = valor.getDerecha();
+    }
+
+    @Override
+    public <T> T aceptar(VisitanteAST<T> visitante) {
+        return visitante.visitarActualizacionCompuesta(this);
+    }
+
+    public Asignacion getOriginal() {
+        return original;
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    /**
+     * SUMA, RESTA, MULTIPLICACION, DIVISION o MODULO.
+     */
+    public Token.Tipo getOperador() {
+        return operador;
+    }
+
+    /**
+     * Operando derecho de la actualización.
+     */
+    public Expresion getExpresion() {
+        return expresion;
+    }
+}
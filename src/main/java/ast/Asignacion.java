@@ -9,6 +9,11 @@ public class Asignacion extends Declaracion {
     private final Expresion valor;
 
     public Asignacion(String nombre, Expresion valor) {
+        this(nombre, valor, 0, 0);
+    }
+
+    public Asignacion(String nombre, Expresion valor, int linea, int columna) {
+        super(linea, columna);
         this.nombre = nombre;
         this.valor = valor;
     }
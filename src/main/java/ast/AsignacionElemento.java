@@ -0,0 +1,36 @@
+package ast;
+
+/**
+ * Nodo AST que asigna un elemento de un arreglo. Se evalúa primero el valor,
+ * después el arreglo y por último el índice.
+ * Ejemplo: v[i] = 5, m[i][j] = x
+ */
+public class AsignacionElemento extends Declaracion {
+    private final Expresion arreglo;
+    private final Expresion indice;
+    private final Expresion valor;
+
+    public AsignacionElemento(Expresion arreglo, Expresion indice, Expresion valor, int linea, int columna) {
+        super(linea, columna);
+        this.arreglo = arreglo;
+        this.indice = indice;
+        this.valor = valor;
+    }
+
+    @Override
+    public <T> T aceptar(VisitanteAST<T> visitante) {
+        return visitante.visitarAsignacionElemento(this);
+    }
+
+    public Expresion getArreglo() {
+        return arreglo;
+    }
+
+    public Expresion getIndice() {
+        return indice;
+    }
+
+    public Expresion getValor() {
+        return valor;
+    }
+}
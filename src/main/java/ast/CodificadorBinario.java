@@ -0,0 +1,344 @@
+package ast;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static ast.FormatoBinario.*;
+
+/**
+ * Visitante que codifica un programa en el {@link FormatoBinario}. Cada
+ * visita escribe el nodo después de sus hijos y retorna su posición.
+ */
+public class CodificadorBinario implements VisitanteAST<Integer> {
+    private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    private final Map<Object, Integer> indiceConstantes = new HashMap<>();
+    private final List<Object> constantes = new ArrayList<>();
+    private int nodos;
+
+    private CodificadorBinario() {
+        escribirBytes(new byte[TAMANO_CABECERA]); // Se rellena al terminar
+    }
+
+    /**
+     * Retorna el programa codificado en el formato binario.
+     */
+    public static byte[] codificar(Programa programa) {
+        CodificadorBinario codificador = new CodificadorBinario();
+        int raiz = programa.aceptar(codificador);
+        return codificador.terminar(raiz);
+    }
+
+    @Override
+    public Integer visitarPrograma(Programa nodo) {
+        nodos++;
+        return bloque(nodo.getDeclaraciones());
+    }
+
+    @Override
+    public Integer visitarAsignacion(Asignacion nodo) {
+        nodos++;
+        int valor = nodo.getValor().aceptar(this);
+        int posicion = inicio(ASIGNACION);
+        escribirInt(constante(nodo.getNombre()));
+        escribirInt(valor);
+        return posicion;
+    }
+
+    @Override
+    public Integer visitarAsignacionElemento(AsignacionElemento nodo) {
+        nodos++;
+        int valor = nodo.getValor().aceptar(this);
+        int arreglo = nodo.getArreglo().aceptar(this);
+        int indice = nodo.getIndice().aceptar(this);
+        int posicion = inicio(ASIGNACION_ELEMENTO);
+        escribirInt(arreglo);
+        escribirInt(indice);
+        escribirInt(valor);
+        return posicion;
+    }
+
+    @Override
+    public Integer visitarSi(Si nodo) {
+        nodos++;
+        int condicion = nodo.getCondicion().aceptar(this);
+        int entonces = bloque(nodo.getBloqueEntonces());
+        int sino = nodo.getBloqueSino() == null ? -1 : bloque(nodo.getBloqueSino());
+        int posicion = inicio(SI);
+        escribirInt(condicion);
+        escribirInt(entonces);
+        escribirInt(sino);
+        return posicion;
+    }
+
+    @Override
+    public Integer visitarRepite(Repite nodo) {
+        nodos++;
+        int condicion = nodo.getCondicion().aceptar(this);
+        int cuerpo = bloque(nodo.getCuerpo());
+        int posicion = inicio(REPITE);
+        escribirInt(condicion);
+        escribirInt(cuerpo);
+        escribirInt(nodo.getInvariantes().size());
+        for (Invariante invariante : nodo.getInvariantes()) {
+            escribirInt(invariante.getRanura());
+        }
+        return posicion;
+    }
+
+    @Override
+    public Integer visitarEscribir(Escribir nodo) {
+        nodos++;
+        int expresion = nodo.getExpresion().aceptar(this);
+        int posicion = inicio(ESCRIBIR);
+        escribirInt(expresion);
+        return posicion;
+    }
+
+    @Override
+    public Integer visitarExpresionBinaria(ExpresionBinaria nodo) {
+        nodos++;
+        int izquierda = nodo.getIzquierda().aceptar(this);
+        int derecha = nodo.getDerecha().aceptar(this);
+        int posicion = inicio(BINARIA);
+        escribirByte(codigoOperador(nodo.getOperador()));
+        escribirInt(izquierda);
+        escribirInt(derecha);
+        return posicion;
+    }
+
+    @Override
+    public Integer visitarExpresionUnaria(ExpresionUnaria nodo) {
+        nodos++;
+        int operando = nodo.getExpresion().aceptar(this);
+        int posicion = inicio(UNARIA);
+        escribirByte(codigoOperador(nodo.getOperador()));
+        escribirInt(operando);
+        return posicion;
+    }
+
+    @Override
+    public Integer visitarCreacionArreglo(CreacionArreglo nodo) {
+        nodos++;
+        int[] elementos = new int[nodo.getElementos().size()];
+        for (int i = 0; i < elementos.length; i++) {
+            elementos[i] = nodo.getElementos().get(i).aceptar(this);
+        }
+        int longitud = nodo.esRepeticion() ? nodo.getLongitud().aceptar(this) : -1;
+        int posicion = inicio(ARREGLO);
+        escribirInt(elementos.length);
+        for (int elemento : elementos) {
+            escribirInt(elemento);
+        }
+        escribirInt(longitud);
+        return posicion;
+    }
+
+    @Override
+    public Integer visitarIndexacion(Indexacion nodo) {
+        nodos++;
+        int arreglo = nodo.getArreglo().aceptar(this);
+        int indice = nodo.getIndice().aceptar(this);
+        int posicion = inicio(INDEXACION);
+        escribirInt(arreglo);
+        escribirInt(indice);
+        return posicion;
+    }
+
+    @Override
+    public Integer visitarLlamada(Llamada nodo) {
+        nodos++;
+        int[] argumentos = new int[nodo.getArgumentos().size()];
+        for (int i = 0; i < argumentos.length; i++) {
+            argumentos[i] = nodo.getArgumentos().get(i).aceptar(this);
+        }
+        int posicion = inicio(LLAMADA);
+        escribirByte(codigoFuncion(nodo.getFuncion()));
+        escribirInt(argumentos.length);
+        for (int argumento : argumentos) {
+            escribirInt(argumento);
+        }
+        return posicion;
+    }
+
+    @Override
+    public Integer visitarLiteral(Literal nodo) {
+        nodos++;
+        int posicion = inicio(LITERAL);
+        escribirInt(constante(nodo.getValor()));
+        return posicion;
+    }
+
+    @Override
+    public Integer visitarIdentificador(Identificador nodo) {
+        nodos++;
+        int posicion = inicio(IDENTIFICADOR);
+        escribirInt(constante(nodo.getNombre()));
+        return posicion;
+    }
+
+    @Override
+    public Integer visitarInvariante(Invariante nodo) {
+        nodos++;
+        int expresion = nodo.getExpresion().aceptar(this);
+        int posicion = inicio(INVARIANTE);
+        escribirInt(nodo.getRanura());
+        escribirInt(expresion);
+        return posicion;
+    }
+
+    @Override
+    public Integer visitarExpresionCompartida(ExpresionCompartida nodo) {
+        nodos++;
+        int expresion = nodo.getExpresion().aceptar(this);
+        int posicion = inicio(COMPARTIDA);
+        escribirInt(nodo.getRanura());
+        escribirByte((byte) (nodo.esCalculo() ? 1 : 0));
+        escribirInt(expresion);
+        return posicion;
+    }
+
+    @Override
+    public Integer visitarParalelo(Paralelo nodo) {
+        nodos++;
+        int inicio = nodo.getInicio().aceptar(this);
+        int fin = nodo.getFin().aceptar(this);
+        int cuerpo = bloque(nodo.getCuerpo());
+        int posicion = inicio(PARALELO);
+        escribirInt(constante(nodo.getContador()));
+        escribirInt(inicio);
+        escribirInt(fin);
+        escribirInt(cuerpo);
+        escribirInt(nodo.getReducciones().size());
+        for (Paralelo.Reduccion reduccion : nodo.getReducciones()) {
+            escribirByte(codigoReduccion(reduccion.getTipo()));
+            escribirInt(constante(reduccion.getVariable()));
+        }
+        return posicion;
+    }
+
+    @Override
+    public Integer visitarRepiteContado(RepiteContado nodo) {
+        return nodo.getOriginal().aceptar(this);
+    }
+
+    @Override
+    public Integer visitarActualizacionCompuesta(ActualizacionCompuesta nodo) {
+        return nodo.getOriginal().aceptar(this);
+    }
+
+    @Override
+    public Integer visitarExpresionEspecializada(ExpresionEspecializada nodo) {
+        return nodo.getOriginal().aceptar(this);
+    }
+
+    private int bloque(List<Declaracion> declaraciones) {
+        int[] hijos = new int[declaraciones.size()];
+        for (int i = 0; i < hijos.length; i++) {
+            hijos[i] = declaraciones.get(i).aceptar(this);
+        }
+        int posicion = inicio(BLOQUE);
+        escribirInt(hijos.length);
+        for (int hijo : hijos) {
+            escribirInt(hijo);
+        }
+        return posicion;
+    }
+
+    private int inicio(byte tipo) {
+        int posicion = bytes.size();
+        escribirByte(tipo);
+        return posicion;
+    }
+
+    /**
+     * Índice de la constante en la tabla, añadiéndola si aún no está. Los
+     * valores iguales de distinto tipo (1 y 1.0) son constantes distintas.
+     */
+    private int constante(Object valor) {
+        Object clave = valor == null ? NULO : valor; // El byte NULO no puede ser el valor de un literal
+        Integer indice = indiceConstantes.get(clave);
+        if (indice == null) {
+            indice = constantes.size();
+            constantes.add(valor);
+            indiceConstantes.put(clave, indice);
+        }
+        return indice;
+    }
+
+    private byte[] terminar(int raiz) {
+        int tabla = bytes.size();
+        int[] posiciones = new int[constantes.size()];
+        escribirBytes(new byte[4 * posiciones.length]); // Se rellena después
+        for (int i = 0; i < posiciones.length; i++) {
+            posiciones[i] = bytes.size();
+            escribirConstante(constantes.get(i));
+        }
+
+        ByteBuffer resultado = ByteBuffer.wrap(bytes.toByteArray());
+        resultado.putInt(0, MAGIC);
+        resultado.putShort(CABECERA_VERSION, VERSION);
+        resultado.putInt(CABECERA_NODOS, nodos);
+        resultado.putInt(CABECERA_RAIZ, raiz);
+        resultado.putInt(CABECERA_CONSTANTES, tabla);
+        resultado.putInt(CABECERA_NUM_CONSTANTES, posiciones.length);
+        for (int i = 0; i < posiciones.length; i++) {
+            resultado.putInt(tabla + 4 * i, posiciones[i]);
+        }
+        return resultado.array();
+    }
+
+    private void escribirConstante(Object valor) {
+        if (valor == null) {
+            escribirByte(NULO);
+        } else if (valor instanceof Integer) {
+            escribirByte(ENTERO);
+            escribirInt((Integer) valor);
+        } else if (valor instanceof Long) {
+            escribirByte(ENTERO_LARGO);
+            escribirLong((Long) valor);
+        } else if (valor instanceof BigInteger) {
+            byte[] complemento = ((BigInteger) valor).toByteArray();
+            escribirByte(ENTERO_GRANDE);
+            escribirInt(complemento.length);
+            escribirBytes(complemento);
+        } else if (valor instanceof Double) {
+            escribirByte(DECIMAL);
+            escribirLong(Double.doubleToRawLongBits((Double) valor));
+        } else if (valor instanceof String) {
+            byte[] utf8 = ((String) valor).getBytes(StandardCharsets.UTF_8);
+            escribirByte(CADENA);
+            escribirInt(utf8.length);
+            escribirBytes(utf8);
+        } else if (valor instanceof Boolean) {
+            escribirByte((Boolean) valor ? VERDADERO : FALSO);
+        } else {
+            throw new IllegalArgumentException("Literal sin representación binaria: " + valor.getClass());
+        }
+    }
+
+    private void escribirByte(int valor) {
+        bytes.write(valor);
+    }
+
+    private void escribirInt(int valor) {
+        bytes.write(valor >>> 24);
+        bytes.write(valor >>> 16);
+        bytes.write(valor >>> 8);
+        bytes.write(valor);
+    }
+
+    private void escribirLong(long valor) {
+        escribirInt((int) (valor >>> 32));
+        escribirInt((int) valor);
+    }
+
+    private void escribirBytes(byte[] valor) {
+        bytes.write(valor, 0, valor.length);
+    }
+}
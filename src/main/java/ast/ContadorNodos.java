@@ -0,0 +1,139 @@
+package ast;
+
+import java.util.List;
+
+/**
+ * Visitante que cuenta el número de nodos de un árbol sintáctico.
+ */
+public class ContadorNodos implements VisitanteAST<Integer> {
+
+    /**
+     * Cuenta los nodos del árbol cuya raíz es el nodo dado (incluido).
+     */
+    public static int contar(NodoAST nodo) {
+        return nodo.aceptar(new ContadorNodos());
+    }
+
+    @Override
+    public Integer visitarPrograma(Programa nodo) {
+        return 1 + contarBloque(nodo.getDeclaraciones());
+    }
+
+    @Override
+    public Integer visitarAsignacion(Asignacion nodo) {
+        return 1 + nodo.getValor().aceptar(this);
+    }
+
+    @Override
+    public Integer visitarAsignacionElemento(AsignacionElemento nodo) {
+        return 1 + nodo.getArreglo().aceptar(this) + nodo.getIndice().aceptar(this) + nodo.getValor().aceptar(this);
+    }
+
+    @Override
+    public Integer visitarSi(Si nodo) {
+        int total = 1 + nodo.getCondicion().aceptar(this) + contarBloque(nodo.getBloqueEntonces());
+        if (nodo.getBloqueSino() != null) {
+            total += contarBloque(nodo.getBloqueSino());
+        }
+        return total;
+    }
+
+    @Override
+    public Integer visitarRepite(Repite nodo) {
+        return 1 + nodo.getCondicion().aceptar(this) + contarBloque(nodo.getCuerpo());
+    }
+
+    @Override
+    public Integer visitarParalelo(Paralelo nodo) {
+        return 1 + nodo.getInicio().aceptar(this) + nodo.getFin().aceptar(this) + contarBloque(nodo.getCuerpo());
+    }
+
+    @Override
+    public Integer visitarEscribir(Escribir nodo) {
+        return 1 + nodo.getExpresion().aceptar(this);
+    }
+
+    @Override
+    public Integer visitarExpresionBinaria(ExpresionBinaria nodo) {
+        return 1 + nodo.getIzquierda().aceptar(this) + nodo.getDerecha().aceptar(this);
+    }
+
+    @Override
+    public Integer visitarExpresionUnaria(ExpresionUnaria nodo) {
+        return 1 + nodo.getExpresion().aceptar(this);
+    }
+
+    @Override
+    public Integer visitarLiteral(Literal nodo) {
+        return 1;
+    }
+
+    @Override
+    public Integer visitarIdentificador(Identificador nodo) {
+        return 1;
+    }
+
+    @Override
+    public Integer visitarCreacionArreglo(CreacionArreglo nodo) {
+        int total = 1 + contarExpresiones(nodo.getElementos());
+        if (nodo.esRepeticion()) {
+            total += nodo.getLongitud().aceptar(this);
+        }
+        return total;
+    }
+
+    @Override
+    public Integer visitarIndexacion(Indexacion nodo) {
+        return 1 + nodo.getArreglo().aceptar(this) + nodo.getIndice().aceptar(this);
+    }
+
+    @Override
+    public Integer visitarLlamada(Llamada nodo) {
+        return 1 + contarExpresiones(nodo.getArgumentos());
+    }
+
+    @Override
+    public Integer visitarInvariante(Invariante nodo) {
+        return 1 + nodo.getExpresion().aceptar(this);
+    }
+
+    /**
+     * Las apariciones que reutilizan el valor cuentan como un solo nodo,
+     * porque no evalúan su expresión.
+     */
+    @Override
+    public Integer visitarExpresionCompartida(ExpresionCompartida nodo) {
+        return nodo.esCalculo() ? 1 + nodo.getExpresion().aceptar(this) : 1;
+    }
+
+    @Override
+    public Integer visitarExpresionEspecializada(ExpresionEspecializada nodo) {
+        return nodo.getOriginal().aceptar(this);
+    }
+
+    @Override
+    public Integer visitarRepiteContado(RepiteContado nodo) {
+        return nodo.getOriginal().aceptar(this);
+    }
+
+    @Override
+    public Integer visitarActualizacionCompuesta(ActualizacionCompuesta nodo) {
+        return nodo.getOriginal().aceptar(this);
+    }
+
+    private int contarExpresiones(List<Expresion> expresiones) {
+        int total = 0;
+        for (Expresion expresion : expresiones) {
+            total += expresion.aceptar(this);
+        }
+        return total;
+    }
+
+    private int contarBloque(List<Declaracion> declaraciones) {
+        int total = 0;
+        for (Declaracion declaracion : declaraciones) {
+            total += declaracion.aceptar(this);
+        }
+        return total;
+    }
+}
@@ -0,0 +1,43 @@
+package ast;
+
+import java.util.List;
+
+/**
+ * Nodo AST que crea un arreglo nuevo, a partir de sus elementos o repitiendo
+ * un valor.
+ * Ejemplo: [1, 2, 3], [0; n]
+ *
+ * En la forma repetida la lista de elementos tiene solo el valor, que se
+ * evalúa una vez, y la longitud no es nula.
+ */
+public class CreacionArreglo extends Expresion {
+    private final List<Expresion> elementos;
+    private final Expresion longitud;
+
+    public CreacionArreglo(List<Expresion> elementos, Expresion longitud, int linea, int columna) {
+        super(linea, columna);
+        this.elementos = elementos;
+        this.longitud = longitud;
+    }
+
+    @Override
+    public <T> T aceptar(VisitanteAST<T> visitante) {
+        return visitante.visitarCreacionArreglo(this);
+    }
+
+    public List<Expresion> getElementos() {
+        return elementos;
+    }
+
+    /**
+     * Número de repeticiones del valor en la forma {@code [valor; n]}; null
+     * si el arreglo se escribe elemento a elemento.
+     */
+    public Expresion getLongitud() {
+        return longitud;
+    }
+
+    public boolean esRepeticion() {
+        return longitud != null;
+    }
+}
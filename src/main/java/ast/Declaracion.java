@@ -4,4 +4,23 @@ package ast;
  * Clase abstracta base para todas las declaraciones (statements).
  */
 public abstract class Declaracion implements NodoAST {
-} 
\ No newline at end of file
+    private final int posicion; // Ver Posicion
+
+    protected Declaracion() {
+        this(0, 0);
+    }
+
+    protected Declaracion(int linea, int columna) {
+        this.posicion = Posicion.empaquetar(linea, columna);
+    }
+
+    @Override
+    public int getLinea() {
+        return Posicion.linea(posicion);
+    }
+
+    @Override
+    public int getColumna() {
+        return Posicion.columna(posicion);
+    }
+}
@@ -8,6 +8,11 @@ public class Escribir extends Declaracion {
     private final Expresion expresion;
 
     public Escribir(Expresion expresion) {
+        this(expresion, 0, 0);
+    }
+
+    public Escribir(Expresion expresion, int linea, int columna) {
+        super(linea, columna);
         this.expresion = expresion;
     }
 
@@ -4,4 +4,23 @@ package ast;
  * Clase abstracta base para todas las expresiones.
  */
 public abstract class Expresion implements NodoAST {
-} 
\ No newline at end of file
+    private final int posicion; // Ver Posicion
+
+    protected Expresion() {
+        this(0, 0);
+    }
+
+    protected Expresion(int linea, int columna) {
+        this.posicion = Posicion.empaquetar(linea, columna);
+    }
+
+    @Override
+    public int getLinea() {
+        return Posicion.linea(posicion);
+    }
+
+    @Override
+    public int getColumna() {
+        return Posicion.columna(posicion);
+    }
+}
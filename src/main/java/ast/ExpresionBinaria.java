@@ -8,10 +8,15 @@ import lexer.Token;
  */
 public class ExpresionBinaria extends Expresion {
     private final Expresion izquierda;
-    private final Token operador;
+    private final Token.Tipo operador;
     private final Expresion derecha;
 
-    public ExpresionBinaria(Expresion izquierda, Token operador, Expresion derecha) {
+    public ExpresionBinaria(Expresion izquierda, Token.Tipo operador, Expresion derecha) {
+        this(izquierda, operador, derecha, 0, 0);
+    }
+
+    public ExpresionBinaria(Expresion izquierda, Token.Tipo operador, Expresion derecha, int linea, int columna) {
+        super(linea, columna);
         this.izquierda = izquierda;
         this.operador = operador;
         this.derecha = derecha;
@@ -30,7 +35,7 @@ public class ExpresionBinaria extends Expresion {
         return derecha;
     }
 
-    public Token getOperador() {
+    public Token.Tipo getOperador() {
         return operador;
     }
 } 
\ No newline at end of file
@@ -0,0 +1,46 @@
+package ast;
+
+/**
+ * Nodo AST generado por el optimizador para una subexpresión que aparece más
+ * de una vez en un mismo bloque sin que ninguna de sus variables se asigne
+ * entre una aparición y otra.
+ *
+ * La primera aparición (la que calcula) evalúa la expresión y guarda su valor
+ * en una ranura temporal del intérprete; las siguientes leen la ranura. Si la
+ * ranura está vacía, como al reanudar desde un punto de control, la aparición
+ * evalúa la expresión igualmente. La expresión original se conserva para los
+ * visitantes que no distinguen este caso.
+ */
+public class ExpresionCompartida extends Expresion {
+    private final int ranura;
+    private final Expresion expresion;
+    private final boolean calcula;
+
+    public ExpresionCompartida(int ranura, Expresion expresion, boolean calcula) {
+        super(expresion.getLinea(), expresion.getColumna());
+        this.ranura = ranura;
+        this.expresion = expresion;
+        this.calcula = calcula;
+    }
+
+    @Override
+    public <T> T aceptar(VisitanteAST<T> visitante) {
+        return visitante.visitarExpresionCompartida(this);
+    }
+
+    public int getRanura() {
+        return ranura;
+    }
+
+    public Expresion getExpresion() {
+        return expresion;
+    }
+
+    /**
+     * true en la aparición que evalúa la expresión y guarda su valor; false en
+     * las que lo reutilizan.
+     */
+    public boolean esCalculo() {
+        return calcula;
+    }
+}
@@ -0,0 +1,127 @@
+package ast;
+
+/**
+ * Nodo AST generado por el optimizador para una operación binaria con una
+ * forma más barata de evaluar, como {@code x % 8} con una máscara de bits o
+ * {@code i < n} con una comparación entera directa.
+ *
+ * El intérprete aplica la variante rápida solo si los operandos tienen en
+ * ejecución la clase esperada (por ejemplo, Integer); en cualquier otro caso
+ * aplica la operación genérica, así que el resultado y los errores son los
+ * mismos. La expresión original se conserva en el nodo para las pasadas y
+ * los visitantes que no distinguen este caso.
+ */
+public class ExpresionEspecializada extends Expresion {
+
+    public enum Especializacion {
+        /** {@code x % 2^k}: máscara de bits, con el signo del dividendo */
+        RESTO_POTENCIA_DOS,
+        /** {@code x % 2^k == 0}: los k bits bajos son cero */
+        MULTIPLO_POTENCIA_DOS,
+        /** {@code x % 2^k != 0} */
+        NO_MULTIPLO_POTENCIA_DOS,
+        /** {@code x * 2^k} o {@code 2^k * x}: desplazamiento a la izquierda */
+        PRODUCTO_POTENCIA_DOS,
+        /** {@code x / c} con c un literal distinto de cero */
+        COCIENTE_CONSTANTE,
+        /** Comparación entre dos números, sin pasar ambos a Double */
+        COMPARACION_NUMERICA
+    }
+
+    private final Especializacion especializacion;
+    private final ExpresionBinaria original;
+    private final Expresion operando;
+    private final Expresion segundo;
+    private final int bits;
+    private final double divisor;
+    private final double inverso;
+
+    private ExpresionEspecializada(Especializacion especializacion, ExpresionBinaria original,
+                                   Expresion operando, Expresion segundo, int bits, double divisor) {
+        super(original.getLinea(), original.getColumna());
+        this.especializacion = especializacion;
+        this.original = original;
+        this.operando = operando;
+        this.segundo = segundo;
+        this.bits = bits;
+        this.divisor = divisor;
+        this.inverso = divisor != 0 ? inversoExacto(divisor) : 0;
+    }
+
+    /**
+     * Inverso del divisor si es una potencia de dos cuyo inverso también es
+     * un double normal (y por tanto exacto); 0 en otro caso.
+     */
+    public static double inversoExacto(double divisor) {
+        int exponente = Math.getExponent(divisor);
+        if (Math.abs(exponente) > 1000 || Math.abs(divisor) != Math.scalb(1.0, exponente)) {
+            return 0;
+        }
+        return 1 / divisor;
+    }
+
+    /**
+     * Operación con una potencia de dos 2^bits (resto, múltiplo o producto).
+     */
+    public static ExpresionEspecializada conPotenciaDos(Especializacion especializacion, ExpresionBinaria original,
+                                                        Expresion operando, int bits) {
+        return new ExpresionEspecializada(especializacion, original, operando, null, bits, 0);
+    }
+
+    public static ExpresionEspecializada cociente(ExpresionBinaria original, Expresion operando, double divisor) {
+        return new ExpresionEspecializada(Especializacion.COCIENTE_CONSTANTE, original, operando, null, 0, divisor);
+    }
+
+    /**
+     * Comparación del operador de la expresión original entre dos operandos.
+     */
+    public static ExpresionEspecializada comparacion(ExpresionBinaria original, Expresion izquierda,
+                                                     Expresion derecha) {
+        return new ExpresionEspecializada(Especializacion.COMPARACION_NUMERICA, original, izquierda, derecha, 0, 0);
+    }
+
+    @Override
+    public <T> T aceptar(VisitanteAST<T> visitante) {
+        return visitante.visitarExpresionEspecializada(this);
+    }
+
+    public Especializacion getEspecializacion() {
+        return especializacion;
+    }
+
+    public ExpresionBinaria getOriginal() {
+        return original;
+    }
+
+    /**
+     * Operando variable de la operación; en las comparaciones, el izquierdo.
+     */
+    public Expresion getOperando() {
+        return operando;
+    }
+
+    /**
+     * Operando derecho de una comparación; null en el resto de casos.
+     */
+    public Expresion getSegundo() {
+        return segundo;
+    }
+
+    /**
+     * Exponente k de la potencia de dos 2^k con la que se opera.
+     */
+    public int getBits() {
+        return bits;
+    }
+
+    public double getDivisor() {
+        return divisor;
+    }
+
+    /**
+     * Ver {@link #inversoExacto}.
+     */
+    public double getInverso() {
+        return inverso;
+    }
+}
@@ -7,10 +7,15 @@ import lexer.Token;
  * Ejemplo: -x, no condicion
  */
 public class ExpresionUnaria extends Expresion {
-    private final Token operador;
+    private final Token.Tipo operador;
     private final Expresion expresion;
 
-    public ExpresionUnaria(Token operador, Expresion expresion) {
+    public ExpresionUnaria(Token.Tipo operador, Expresion expresion) {
+        this(operador, expresion, 0, 0);
+    }
+
+    public ExpresionUnaria(Token.Tipo operador, Expresion expresion, int linea, int columna) {
+        super(linea, columna);
         this.operador = operador;
         this.expresion = expresion;
     }
@@ -20,7 +25,7 @@ public class ExpresionUnaria extends Expresion {
         return visitante.visitarExpresionUnaria(this);
     }
 
-    public Token getOperador() {
+    public Token.Tipo getOperador() {
         return operador;
     }
 
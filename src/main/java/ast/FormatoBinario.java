@@ -0,0 +1,201 @@
+package ast;
+
+import biblioteca.Funcion;
+import lexer.Token;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Formato binario de un programa, pensado para ejecutarse directamente desde
+ * un archivo proyectado en memoria sin reconstruir los nodos del AST.
+ *
+ * Todos los enteros están en big-endian y todas las posiciones son absolutas
+ * (desde el principio del archivo):
+ * <pre>
+ * cabecera   magic "PSAB" (int), versión (short), reservado (short),
+ *            número de nodos (int), posición del bloque raíz (int),
+ *            posición de la tabla de constantes (int), número de constantes (int)
+ * nodos      tipo (byte) seguido de sus campos:
+ *            BLOQUE         n (int), n posiciones de declaración (int)
+ *            ASIGNACION     constante del nombre (int), expresión (int)
+ *            SI             condición, bloque entonces, bloque sino o -1 (int)
+ *            REPITE         condición, bloque cuerpo, n (int), n ranuras invariantes (int)
+ *            ESCRIBIR       expresión (int)
+ *            BINARIA        operador (byte), izquierda, derecha (int)
+ *            UNARIA         operador (byte), operando (int)
+ *            LITERAL        constante (int)
+ *            IDENTIFICADOR  constante del nombre (int)
+ *            INVARIANTE     ranura (int), expresión (int)
+ *            PARALELO       constante del contador, inicio, fin, bloque cuerpo (int),
+ *                           n (int), n reducciones: tipo (byte), constante de la variable (int)
+ *            COMPARTIDA     ranura (int), calcula (byte: 1 o 0), expresión (int)
+ *            ARREGLO        n (int), n elementos (int), longitud o -1 (int)
+ *            INDEXACION     arreglo, índice (int)
+ *            ASIGNACION_ELEMENTO  arreglo, índice, valor (int)
+ *            LLAMADA        función (byte), n (int), n argumentos (int)
+ * constantes n posiciones (int) seguidas de las constantes: etiqueta (byte)
+ *            y valor (int, long, double, o longitud (int) y bytes para
+ *            cadenas en UTF-8 y enteros grandes en complemento a dos)
+ * </pre>
+ *
+ * Los nodos generados por el optimizador que solo aceleran la ejecución
+ * (como los bucles contados) se guardan en su forma original.
+ */
+public final class FormatoBinario {
+    public static final int MAGIC = 0x50534142; // "PSAB"
+    // Se incrementa al añadir o cambiar tipos de nodo, tablas o campos: un
+    // intérprete anterior no puede leer los nodos nuevos. La versión 2 añade
+    // PARALELO, COMPARTIDA, ARREGLO, INDEXACION, ASIGNACION_ELEMENTO y LLAMADA.
+    public static final short VERSION = 2;
+    public static final int TAMANO_CABECERA = 24;
+
+    // Posiciones de los campos de la cabecera
+    public static final int CABECERA_VERSION = 4;
+    public static final int CABECERA_NODOS = 8;
+    public static final int CABECERA_RAIZ = 12;
+    public static final int CABECERA_CONSTANTES = 16;
+    public static final int CABECERA_NUM_CONSTANTES = 20;
+
+    // Tipos de nodo
+    public static final byte BLOQUE = 1;
+    public static final byte ASIGNACION = 2;
+    public static final byte SI = 3;
+    public static final byte REPITE = 4;
+    public static final byte ESCRIBIR = 5;
+    public static final byte BINARIA = 6;
+    public static final byte UNARIA = 7;
+    public static final byte LITERAL = 8;
+    public static final byte IDENTIFICADOR = 9;
+    public static final byte INVARIANTE = 10;
+    public static final byte PARALELO = 11;
+    public static final byte COMPARTIDA = 12;
+    public static final byte ARREGLO = 13;
+    public static final byte INDEXACION = 14;
+    public static final byte ASIGNACION_ELEMENTO = 15;
+    public static final byte LLAMADA = 16;
+
+    // Etiquetas de las constantes
+    public static final byte NULO = 0;
+    public static final byte ENTERO = 1;
+    public static final byte ENTERO_LARGO = 2;
+    public static final byte ENTERO_GRANDE = 3;
+    public static final byte DECIMAL = 4;
+    public static final byte CADENA = 5;
+    public static final byte VERDADERO = 6;
+    public static final byte FALSO = 7;
+
+    /**
+     * Tipos de reducción de un bucle paralelo por su código en el formato.
+     * Solo se pueden añadir al final.
+     */
+    private static final Paralelo.TipoReduccion[] REDUCCIONES = {
+            Paralelo.TipoReduccion.SUMA, Paralelo.TipoReduccion.PRODUCTO,
+            Paralelo.TipoReduccion.MINIMO, Paralelo.TipoReduccion.MAXIMO
+    };
+
+    /**
+     * Operadores por su código en el formato. Solo se pueden añadir al final,
+     * para que los archivos ya generados sigan siendo válidos.
+     */
+    private static final Token.Tipo[] OPERADORES = {
+            Token.Tipo.SUMA, Token.Tipo.RESTA, Token.Tipo.MULTIPLICACION, Token.Tipo.DIVISION,
+            Token.Tipo.MODULO, Token.Tipo.IGUAL, Token.Tipo.DIFERENTE, Token.Tipo.MAYOR,
+            Token.Tipo.MAYOR_IGUAL, Token.Tipo.MENOR, Token.Tipo.MENOR_IGUAL, Token.Tipo.Y,
+            Token.Tipo.O, Token.Tipo.NO
+    };
+
+    /**
+     * Funciones de la biblioteca por su código en el formato. Solo se pueden
+     * añadir al final.
+     */
+    private static final Funcion[] FUNCIONES = {
+            Funcion.ABS, Funcion.RAIZ, Funcion.POTENCIA, Funcion.PISO, Funcion.TECHO, Funcion.REDONDEAR,
+            Funcion.MIN, Funcion.MAX, Funcion.SEN, Funcion.COS, Funcion.LN, Funcion.LONGITUD,
+            Funcion.MAYUSCULAS, Funcion.MINUSCULAS, Funcion.SUBCADENA, Funcion.POSICION,
+            Funcion.ENTERO, Funcion.DECIMAL, Funcion.TEXTO
+    };
+
+    private FormatoBinario() {
+    }
+
+    /**
+     * Código con el que se guarda un operador.
+     */
+    public static byte codigoOperador(Token.Tipo operador) {
+        for (int i = 0; i < OPERADORES.length; i++) {
+            if (OPERADORES[i] == operador) {
+                return (byte) i;
+            }
+        }
+        throw new IllegalArgumentException("Operador sin código en el formato binario: " + operador);
+    }
+
+    /**
+     * Operador guardado con el código dado.
+     */
+    public static Token.Tipo operador(byte codigo) {
+        if (codigo < 0 || codigo >= OPERADORES.length) {
+            throw new IllegalArgumentException("Código de operador no válido: " + codigo);
+        }
+        return OPERADORES[codigo];
+    }
+
+    /**
+     * Código con el que se guarda un tipo de reducción.
+     */
+    public static byte codigoReduccion(Paralelo.TipoReduccion tipo) {
+        for (int i = 0; i < REDUCCIONES.length; i++) {
+            if (REDUCCIONES[i] == tipo) {
+                return (byte) i;
+            }
+        }
+        throw new IllegalArgumentException("Reducción sin código en el formato binario: " + tipo);
+    }
+
+    /**
+     * Tipo de reducción guardado con el código dado.
+     */
+    public static Paralelo.TipoReduccion reduccion(byte codigo) {
+        if (codigo < 0 || codigo >= REDUCCIONES.length) {
+            throw new IllegalArgumentException("Código de reducción no válido: " + codigo);
+        }
+        return REDUCCIONES[codigo];
+    }
+
+    /**
+     * Código con el que se guarda una función de la biblioteca.
+     */
+    public static byte codigoFuncion(Funcion funcion) {
+        for (int i = 0; i < FUNCIONES.length; i++) {
+            if (FUNCIONES[i] == funcion) {
+                return (byte) i;
+            }
+        }
+        throw new IllegalArgumentException("Función sin código en el formato binario: " + funcion);
+    }
+
+    /**
+     * Función guardada con el código dado.
+     */
+    public static Funcion funcion(byte codigo) {
+        if (codigo < 0 || codigo >= FUNCIONES.length) {
+            throw new IllegalArgumentException("Código de función no válido: " + codigo);
+        }
+        return FUNCIONES[codigo];
+    }
+
+    /**
+     * Indica si el archivo empieza con la cabecera del formato binario.
+     */
+    public static boolean esBinario(Path archivo) throws IOException {
+        try (InputStream entrada = Files.newInputStream(archivo)) {
+            byte[] magic = entrada.readNBytes(4);
+            return magic.length == 4
+                    && ((magic[0] & 0xFF) << 24 | (magic[1] & 0xFF) << 16 | (magic[2] & 0xFF) << 8 | magic[3] & 0xFF)
+                    == MAGIC;
+        }
+    }
+}
@@ -8,6 +8,11 @@ public class Identificador extends Expresion {
     private final String nombre;
 
     public Identificador(String nombre) {
+        this(nombre, 0, 0);
+    }
+
+    public Identificador(String nombre, int linea, int columna) {
+        super(linea, columna);
         this.nombre = nombre;
     }
 
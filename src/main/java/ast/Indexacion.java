@@ -0,0 +1,29 @@
+package ast;
+
+/**
+ * Nodo AST que lee un elemento de un arreglo. Los índices empiezan en 0.
+ * Ejemplo: v[i], m[i][j]
+ */
+public class Indexacion extends Expresion {
+    private final Expresion arreglo;
+    private final Expresion indice;
+
+    public Indexacion(Expresion arreglo, Expresion indice, int linea, int columna) {
+        super(linea, columna);
+        this.arreglo = arreglo;
+        this.indice = indice;
+    }
+
+    @Override
+    public <T> T aceptar(VisitanteAST<T> visitante) {
+        return visitante.visitarIndexacion(this);
+    }
+
+    public Expresion getArreglo() {
+        return arreglo;
+    }
+
+    public Expresion getIndice() {
+        return indice;
+    }
+}
@@ -0,0 +1,35 @@
+package ast;
+
+/**
+ * Nodo AST generado por el optimizador para una expresión invariante de un
+ * bucle repite: ninguna de sus variables se asigna dentro del bucle.
+ *
+ * La expresión se evalúa una sola vez por entrada al bucle, la primera vez
+ * que se necesita, y su valor se guarda en una ranura temporal del intérprete.
+ * Al evaluarse de forma perezosa, una expresión que pudiera fallar (por
+ * ejemplo, una división por cero) solo falla si el programa original la
+ * hubiera llegado a evaluar, y en el mismo punto.
+ */
+public class Invariante extends Expresion {
+    private final int ranura;
+    private final Expresion expresion;
+
+    public Invariante(int ranura, Expresion expresion) {
+        super(expresion.getLinea(), expresion.getColumna());
+        this.ranura = ranura;
+        this.expresion = expresion;
+    }
+
+    @Override
+    public <T> T aceptar(VisitanteAST<T> visitante) {
+        return visitante.visitarInvariante(this);
+    }
+
+    public int getRanura() {
+        return ranura;
+    }
+
+    public Expresion getExpresion() {
+        return expresion;
+    }
+}
@@ -8,6 +8,11 @@ public class Literal extends Expresion {
     private final Object valor;
 
     public Literal(Object valor) {
+        this(valor, 0, 0);
+    }
+
+    public Literal(Object valor, int linea, int columna) {
+        super(linea, columna);
         this.valor = valor;
     }
 
@@ -0,0 +1,35 @@
+package ast;
+
+import biblioteca.Funcion;
+
+import java.util.List;
+
+/**
+ * Nodo AST que llama a una función de la biblioteca. El parser ya ha
+ * resuelto el nombre a la función, así que ejecutar la llamada no busca
+ * nada por nombre.
+ * Ejemplo: raiz(x), min(a, b), longitud(v)
+ */
+public class Llamada extends Expresion {
+    private final Funcion funcion;
+    private final List<Expresion> argumentos;
+
+    public Llamada(Funcion funcion, List<Expresion> argumentos, int linea, int columna) {
+        super(linea, columna);
+        this.funcion = funcion;
+        this.argumentos = argumentos;
+    }
+
+    @Override
+    public <T> T aceptar(VisitanteAST<T> visitante) {
+        return visitante.visitarLlamada(this);
+    }
+
+    public Funcion getFuncion() {
+        return funcion;
+    }
+
+    public List<Expresion> getArgumentos() {
+        return argumentos;
+    }
+}
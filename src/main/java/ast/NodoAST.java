@@ -11,4 +11,14 @@ public interface NodoAST {
      * @return El resultado del procesamiento
      */
     <T> T aceptar(VisitanteAST<T> visitante);
+
+    /**
+     * Línea del código fuente donde comienza el nodo (0 si se desconoce).
+     */
+    int getLinea();
+
+    /**
+     * Columna del código fuente donde comienza el nodo (0 si se desconoce).
+     */
+    int getColumna();
 } 
\ No newline at end of file
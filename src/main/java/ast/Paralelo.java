@@ -0,0 +1,110 @@
+package ast;
+
+import java.util.List;
+
+/**
+ * Nodo AST que representa un bucle paralelo.
+ * Ejemplo: paralelo (i desde 1 hasta n) reduciendo suma total ... fin_paralelo
+ *
+ * El contador toma los valores enteros de inicio a fin (ambos incluidos) y es
+ * local a cada iteración. Las iteraciones pueden ejecutarse en cualquier orden
+ * y a la vez, así que el cuerpo solo puede asignar variables propias de la
+ * iteración y las variables de reducción, de las que cada tarea acumula una
+ * copia privada que se combina al terminar.
+ */
+public class Paralelo extends Declaracion {
+    private final String contador;
+    private final Expresion inicio;
+    private final Expresion fin;
+    private final List<Reduccion> reducciones;
+    private final List<Declaracion> cuerpo;
+
+    /**
+     * Operación con la que se combinan las copias privadas de una variable de
+     * reducción.
+     */
+    public enum TipoReduccion {
+        SUMA("suma"),
+        PRODUCTO("producto"),
+        MINIMO("minimo"),
+        MAXIMO("maximo");
+
+        private final String nombre;
+
+        TipoReduccion(String nombre) {
+            this.nombre = nombre;
+        }
+
+        public String getNombre() {
+            return nombre;
+        }
+
+        /**
+         * Tipo con el nombre dado en el código fuente, o null si no existe.
+         */
+        public static TipoReduccion porNombre(String nombre) {
+            for (TipoReduccion tipo : values()) {
+                if (tipo.nombre.equals(nombre)) {
+                    return tipo;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Variable de reducción con su operación.
+     */
+    public static class Reduccion {
+        private final TipoReduccion tipo;
+        private final String variable;
+
+        public Reduccion(TipoReduccion tipo, String variable) {
+            this.tipo = tipo;
+            this.variable = variable;
+        }
+
+        public TipoReduccion getTipo() {
+            return tipo;
+        }
+
+        public String getVariable() {
+            return variable;
+        }
+    }
+
+    public Paralelo(String contador, Expresion inicio, Expresion fin, List<Reduccion> reducciones,
+                    List<Declaracion> cuerpo, int linea, int columna) {
+        super(linea, columna);
+        this.contador = contador;
+        this.inicio = inicio;
+        this.fin = fin;
+        this.reducciones = reducciones;
+        this.cuerpo = cuerpo;
+    }
+
+    @Override
+    public <T> T aceptar(VisitanteAST<T> visitante) {
+        return visitante.visitarParalelo(this);
+    }
+
+    public String getContador() {
+        return contador;
+    }
+
+    public Expresion getInicio() {
+        return inicio;
+    }
+
+    public Expresion getFin() {
+        return fin;
+    }
+
+    public List<Reduccion> getReducciones() {
+        return reducciones;
+    }
+
+    public List<Declaracion> getCuerpo() {
+        return cuerpo;
+    }
+}
@@ -0,0 +1,31 @@
+package ast;
+
+/**
+ * Posición en el código fuente (línea y columna) empaquetada en un int, para
+ * que cada nodo del AST guarde un solo campo.
+ *
+ * La línea ocupa los 22 bits altos y la columna los 10 bajos. Los valores que
+ * no caben se saturan al máximo representable (línea 4194303, columna 1023).
+ */
+public final class Posicion {
+    private static final int BITS_COLUMNA = 10;
+    private static final int MAXIMA_LINEA = (1 << (32 - BITS_COLUMNA)) - 1;
+    private static final int MAXIMA_COLUMNA = (1 << BITS_COLUMNA) - 1;
+
+    private Posicion() {
+    }
+
+    public static int empaquetar(int linea, int columna) {
+        int l = Math.max(0, Math.min(linea, MAXIMA_LINEA));
+        int c = Math.max(0, Math.min(columna, MAXIMA_COLUMNA));
+        return l << BITS_COLUMNA | c;
+    }
+
+    public static int linea(int posicion) {
+        return posicion >>> BITS_COLUMNA;
+    }
+
+    public static int columna(int posicion) {
+        return posicion & MAXIMA_COLUMNA;
+    }
+}
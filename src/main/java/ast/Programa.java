@@ -21,6 +21,16 @@ public class Programa implements NodoAST {
         return visitante.visitarPrograma(this);
     }
 
+    @Override
+    public int getLinea() {
+        return 1;
+    }
+
+    @Override
+    public int getColumna() {
+        return 1;
+    }
+
     public List<Declaracion> getDeclaraciones() {
         return declaraciones;
     }
@@ -9,10 +9,22 @@ import java.util.List;
 public class Repite extends Declaracion {
     private final Expresion condicion;
     private final List<Declaracion> cuerpo;
+    private final List<Invariante> invariantes; // Expresiones extraídas del bucle por el optimizador
 
     public Repite(Expresion condicion, List<Declaracion> cuerpo) {
+        this(condicion, cuerpo, 0, 0);
+    }
+
+    public Repite(Expresion condicion, List<Declaracion> cuerpo, int linea, int columna) {
+        this(condicion, cuerpo, List.of(), linea, columna);
+    }
+
+    public Repite(Expresion condicion, List<Declaracion> cuerpo, List<Invariante> invariantes,
+                  int linea, int columna) {
+        super(linea, columna);
         this.condicion = condicion;
         this.cuerpo = cuerpo;
+        this.invariantes = invariantes;
     }
 
     @Override
@@ -27,4 +39,11 @@ public class Repite extends Declaracion {
     public List<Declaracion> getCuerpo() {
         return cuerpo;
     }
+
+    /**
+     * Invariantes del bucle cuyo valor debe olvidarse cada vez que se entra en él.
+     */
+    public List<Invariante> getInvariantes() {
+        return invariantes;
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,70 @@
+package ast;
+
+import lexer.Token;
+
+import java.util.List;
+
+/**
+ * Nodo AST generado por el optimizador para un bucle repite contado:
+ * {@code repite (i < limite)} o {@code repite (i <= limite)} cuya última
+ * declaración es {@code i = i + paso} con un paso entero positivo, y en el que
+ * ni el contador ni el límite se asignan en ninguna otra parte del cuerpo.
+ *
+ * El intérprete lo ejecuta con un contador primitivo y comparación directa
+ * cuando el contador y el límite son enteros; en cualquier otro caso ejecuta
+ * el bucle original, que se conserva en el nodo.
+ */
+public class RepiteContado extends Declaracion {
+    private final Repite original;
+    private final String contador;
+    private final Token.Tipo comparador;
+    private final Expresion limite;
+    private final int paso;
+    private final List<Declaracion> cuerpo;
+
+    public RepiteContado(Repite original, String contador, Token.Tipo comparador, Expresion limite, int paso) {
+        super(original.getLinea(), original.getColumna());
+        this.original = original;
+        this.contador = contador;
+        this.comparador = comparador;
+        this.limite = limite;
+        this.paso = paso;
+        List<Declaracion> cuerpoOriginal = original.getCuerpo();
+        this.cuerpo = cuerpoOriginal.subList(0, cuerpoOriginal.size() - 1);
+    }
+
+    @Override
+    public <T> T aceptar(VisitanteAST<T> visitante) {
+        return visitante.visitarRepiteContado(this);
+    }
+
+    public Repite getOriginal() {
+        return original;
+    }
+
+    public String getContador() {
+        return contador;
+    }
+
+    /**
+     * MENOR o MENOR_IGUAL.
+     */
+    public Token.Tipo getComparador() {
+        return comparador;
+    }
+
+    public Expresion getLimite() {
+        return limite;
+    }
+
+    public int getPaso() {
+        return paso;
+    }
+
+    /**
+     * Cuerpo del bucle sin la declaración de incremento del contador.
+     */
+    public List<Declaracion> getCuerpo() {
+        return cuerpo;
+    }
+}
@@ -12,6 +12,11 @@ public class Si extends Declaracion {
     private final List<Declaracion> bloqueSino; // Puede ser null si no hay bloque sino
 
     public Si(Expresion condicion, List<Declaracion> bloqueEntonces, List<Declaracion> bloqueSino) {
+        this(condicion, bloqueEntonces, bloqueSino, 0, 0);
+    }
+
+    public Si(Expresion condicion, List<Declaracion> bloqueEntonces, List<Declaracion> bloqueSino, int linea, int columna) {
+        super(linea, columna);
         this.condicion = condicion;
         this.bloqueEntonces = bloqueEntonces;
         this.bloqueSino = bloqueSino;
@@ -14,4 +14,14 @@ public interface VisitanteAST<T> {
     T visitarExpresionUnaria(ExpresionUnaria nodo);
     T visitarLiteral(Literal nodo);
     T visitarIdentificador(Identificador nodo);
+    T visitarInvariante(Invariante nodo);
+    T visitarRepiteContado(RepiteContado nodo);
+    T visitarActualizacionCompuesta(ActualizacionCompuesta nodo);
+    T visitarParalelo(Paralelo nodo);
+    T visitarExpresionCompartida(ExpresionCompartida nodo);
+    T visitarExpresionEspecializada(ExpresionEspecializada nodo);
+    T visitarCreacionArreglo(CreacionArreglo nodo);
+    T visitarIndexacion(Indexacion nodo);
+    T visitarAsignacionElemento(AsignacionElemento nodo);
+    T visitarLlamada(Llamada nodo);
 } 
\ No newline at end of file
@@ -0,0 +1,260 @@
+package biblioteca;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Funciones de la biblioteca del lenguaje. El parser resuelve el nombre de
+ * cada llamada a una de estas constantes, así que al ejecutar no se busca
+ * ningún nombre: el nodo llama directamente a {@code aplicar}, que cada
+ * constante implementa con su intrínseco de {@link Intrinsecos}.
+ *
+ * Hay una variante de {@code aplicar} por número de argumentos para que las
+ * llamadas de uno y dos argumentos no creen un arreglo. Todas las funciones
+ * son puras: el resultado solo depende de los argumentos.
+ */
+public enum Funcion {
+    // Matemáticas
+    ABS("abs", 1, 1) {
+        @Override
+        public Object aplicar(Object x) {
+            return Intrinsecos.abs(x);
+        }
+    },
+    RAIZ("raiz", 1, 1) {
+        @Override
+        public Object aplicar(Object x) {
+            return Intrinsecos.raiz(x);
+        }
+    },
+    POTENCIA("potencia", 2, 2) {
+        @Override
+        public Object aplicar(Object base, Object exponente) {
+            return Intrinsecos.potencia(base, exponente);
+        }
+    },
+    PISO("piso", 1, 1) {
+        @Override
+        public Object aplicar(Object x) {
+            return Intrinsecos.piso(x);
+        }
+    },
+    TECHO("techo", 1, 1) {
+        @Override
+        public Object aplicar(Object x) {
+            return Intrinsecos.techo(x);
+        }
+    },
+    REDONDEAR("redondear", 1, 1) {
+        @Override
+        public Object aplicar(Object x) {
+            return Intrinsecos.redondear(x);
+        }
+    },
+    /** min(arreglo) o min(a, b, ...) */
+    MIN("min", 1, Funcion.SIN_LIMITE) {
+        @Override
+        public Object aplicar(Object arreglo) {
+            return Intrinsecos.extremo(this, arreglo);
+        }
+
+        @Override
+        public Object aplicar(Object a, Object b) {
+            return Intrinsecos.minimo(a, b);
+        }
+
+        @Override
+        public Object aplicar(Object[] argumentos) {
+            if (argumentos.length == 1) {
+                return aplicar(argumentos[0]);
+            }
+            Object minimo = argumentos[0];
+            for (int i = 1; i < argumentos.length; i++) {
+                minimo = Intrinsecos.minimo(minimo, argumentos[i]);
+            }
+            return minimo;
+        }
+    },
+    /** max(arreglo) o max(a, b, ...) */
+    MAX("max", 1, Funcion.SIN_LIMITE) {
+        @Override
+        public Object aplicar(Object arreglo) {
+            return Intrinsecos.extremo(this, arreglo);
+        }
+
+        @Override
+        public Object aplicar(Object a, Object b) {
+            return Intrinsecos.maximo(a, b);
+        }
+
+        @Override
+        public Object aplicar(Object[] argumentos) {
+            if (argumentos.length == 1) {
+                return aplicar(argumentos[0]);
+            }
+            Object maximo = argumentos[0];
+            for (int i = 1; i < argumentos.length; i++) {
+                maximo = Intrinsecos.maximo(maximo, argumentos[i]);
+            }
+            return maximo;
+        }
+    },
+    SEN("sen", 1, 1) {
+        @Override
+        public Object aplicar(Object x) {
+            return Intrinsecos.seno(x);
+        }
+    },
+    COS("cos", 1, 1) {
+        @Override
+        public Object aplicar(Object x) {
+            return Intrinsecos.coseno(x);
+        }
+    },
+    LN("ln", 1, 1) {
+        @Override
+        public Object aplicar(Object x) {
+            return Intrinsecos.logaritmo(x);
+        }
+    },
+
+    // Cadenas
+    /** Caracteres de una cadena o elementos de un arreglo */
+    LONGITUD("longitud", 1, 1) {
+        @Override
+        public Object aplicar(Object x) {
+            return Intrinsecos.longitud(x);
+        }
+    },
+    MAYUSCULAS("mayusculas", 1, 1) {
+        @Override
+        public Object aplicar(Object x) {
+            return Intrinsecos.mayusculas(x);
+        }
+    },
+    MINUSCULAS("minusculas", 1, 1) {
+        @Override
+        public Object aplicar(Object x) {
+            return Intrinsecos.minusculas(x);
+        }
+    },
+    /** subcadena(texto, inicio, fin), sin incluir fin */
+    SUBCADENA("subcadena", 3, 3) {
+        @Override
+        public Object aplicar(Object[] argumentos) {
+            return Intrinsecos.subcadena(argumentos[0], argumentos[1], argumentos[2]);
+        }
+    },
+    /** posicion(texto, buscado): primera aparición o -1 */
+    POSICION("posicion", 2, 2) {
+        @Override
+        public Object aplicar(Object texto, Object buscado) {
+            return Intrinsecos.posicion(texto, buscado);
+        }
+    },
+
+    // Conversiones
+    ENTERO("entero", 1, 1) {
+        @Override
+        public Object aplicar(Object x) {
+            return Intrinsecos.entero(x);
+        }
+    },
+    DECIMAL("decimal", 1, 1) {
+        @Override
+        public Object aplicar(Object x) {
+            return Intrinsecos.decimal(x);
+        }
+    },
+    TEXTO("texto", 1, 1) {
+        @Override
+        public Object aplicar(Object x) {
+            return Intrinsecos.texto(x);
+        }
+    };
+
+    /** Número máximo de argumentos de las funciones que admiten cualquiera */
+    public static final int SIN_LIMITE = Integer.MAX_VALUE;
+
+    private static final Map<String, Funcion> POR_NOMBRE = new HashMap<>();
+
+    static {
+        for (Funcion funcion : values()) {
+            POR_NOMBRE.put(funcion.nombre, funcion);
+        }
+    }
+
+    private final String nombre;
+    private final int minimoArgumentos;
+    private final int maximoArgumentos;
+
+    Funcion(String nombre, int minimoArgumentos, int maximoArgumentos) {
+        this.nombre = nombre;
+        this.minimoArgumentos = minimoArgumentos;
+        this.maximoArgumentos = maximoArgumentos;
+    }
+
+    /**
+     * Función con el nombre indicado, o null si la biblioteca no la tiene.
+     */
+    public static Funcion buscar(String nombre) {
+        return POR_NOMBRE.get(nombre);
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    /**
+     * Indica si la función se puede llamar con ese número de argumentos.
+     */
+    public boolean admite(int argumentos) {
+        return argumentos >= minimoArgumentos && argumentos <= maximoArgumentos;
+    }
+
+    /**
+     * Número de argumentos que admite, para los mensajes de error.
+     */
+    public String describirArgumentos() {
+        if (maximoArgumentos == SIN_LIMITE) {
+            return minimoArgumentos + " o más argumentos";
+        }
+        return minimoArgumentos + (minimoArgumentos == 1 ? " argumento" : " argumentos");
+    }
+
+    /**
+     * Indica si, con un arreglo como argumento, el resultado depende de sus
+     * elementos (y no solo de su longitud).
+     */
+    public boolean leeElementos() {
+        return this == MIN || this == MAX || this == TEXTO;
+    }
+
+    /**
+     * Aplica la función a un único argumento.
+     */
+    public Object aplicar(Object x) {
+        throw new IllegalStateException(nombre + " no admite 1 argumento");
+    }
+
+    /**
+     * Aplica la función a dos argumentos.
+     */
+    public Object aplicar(Object x, Object y) {
+        throw new IllegalStateException(nombre + " no admite 2 argumentos");
+    }
+
+    /**
+     * Aplica la función a cualquier número de argumentos admitido.
+     */
+    public Object aplicar(Object[] argumentos) {
+        switch (argumentos.length) {
+            case 1:
+                return aplicar(argumentos[0]);
+            case 2:
+                return aplicar(argumentos[0], argumentos[1]);
+            default:
+                throw new IllegalStateException(nombre + " no admite " + argumentos.length + " argumentos");
+        }
+    }
+}
@@ -0,0 +1,308 @@
+package biblioteca;
+
+import diagnosticos.Diagnostico;
+import interpreter.Arreglo;
+import interpreter.Enteros;
+import interpreter.ExcepcionInterpreter;
+import interpreter.Operaciones;
+
+import java.math.BigInteger;
+import java.util.Locale;
+
+/**
+ * Implementación de las funciones de la biblioteca ({@link Funcion}) sobre
+ * argumentos ya evaluados.
+ *
+ * Como en {@link Operaciones}, cada función trata primero los Integer y
+ * Double con operaciones sobre int y double, sin crear más objeto que el
+ * resultado, y después el resto de representaciones. Un argumento fuera del
+ * dominio de la función (como la raíz de un negativo) es un error del
+ * lenguaje, no un NaN.
+ */
+public final class Intrinsecos {
+
+    private Intrinsecos() {
+    }
+
+    // Matemáticas
+
+    public static Object abs(Object x) {
+        if (x instanceof Integer) {
+            int valor = (Integer) x;
+            return valor >= 0 ? x : Enteros.negar(x);
+        }
+        if (x instanceof Double) {
+            return Math.abs((Double) x);
+        }
+        if (Enteros.esEntero(x)) {
+            return Enteros.comparar(x, 0) >= 0 ? x : Enteros.negar(x);
+        }
+        throw noValido(Funcion.ABS, x);
+    }
+
+    public static double raiz(Object x) {
+        double valor = decimal(Funcion.RAIZ, x);
+        if (valor < 0) {
+            throw noValido(Funcion.RAIZ, x);
+        }
+        return Math.sqrt(valor);
+    }
+
+    /**
+     * Entre enteros, con exponente no negativo, el resultado es un entero
+     * exacto; en otro caso es un decimal. Elevar 0 a un exponente negativo
+     * es una división por cero.
+     */
+    public static Object potencia(Object base, Object exponente) {
+        if (Enteros.esEntero(base) && Enteros.esEntero(exponente) && Enteros.comparar(exponente, 0) >= 0) {
+            if (exponente instanceof Integer) {
+                return Enteros.potencia(base, (Integer) exponente);
+            }
+            // Con un exponente que no cabe en un int solo 0, 1 y -1 dan un resultado representable
+            if (Enteros.esCero(base) || Enteros.comparar(base, 1) == 0) {
+                return base;
+            }
+            if (Enteros.comparar(base, -1) == 0) {
+                return Enteros.esCero(Enteros.modulo(exponente, 2)) ? 1 : -1;
+            }
+            throw noValido(Funcion.POTENCIA, exponente);
+        }
+        double b = decimal(Funcion.POTENCIA, base);
+        double e = decimal(Funcion.POTENCIA, exponente);
+        if (b == 0 && e < 0) {
+            throw new ExcepcionInterpreter(Diagnostico.Codigo.DIVISION_POR_CERO);
+        }
+        double resultado = Math.pow(b, e);
+        if (Double.isNaN(resultado) && !Double.isNaN(b) && !Double.isNaN(e)) {
+            throw noValido(Funcion.POTENCIA, base); // Base negativa con exponente fraccionario
+        }
+        return resultado;
+    }
+
+    public static Object piso(Object x) {
+        if (x instanceof Double) {
+            return aEntero(Funcion.PISO, Math.floor((Double) x), x);
+        }
+        return entero(Funcion.PISO, x);
+    }
+
+    public static Object techo(Object x) {
+        if (x instanceof Double) {
+            return aEntero(Funcion.TECHO, Math.ceil((Double) x), x);
+        }
+        return entero(Funcion.TECHO, x);
+    }
+
+    /**
+     * Entero más cercano; a la misma distancia de dos, el par (como el
+     * round de Python).
+     */
+    public static Object redondear(Object x) {
+        if (x instanceof Double) {
+            return aEntero(Funcion.REDONDEAR, Math.rint((Double) x), x);
+        }
+        return entero(Funcion.REDONDEAR, x);
+    }
+
+    public static Object minimo(Object a, Object b) {
+        if (a instanceof Integer && b instanceof Integer) {
+            return (Integer) b < (Integer) a ? b : a;
+        }
+        return Operaciones.compararNumeros(b, a) < 0 ? b : a;
+    }
+
+    public static Object maximo(Object a, Object b) {
+        if (a instanceof Integer && b instanceof Integer) {
+            return (Integer) b > (Integer) a ? b : a;
+        }
+        return Operaciones.compararNumeros(b, a) > 0 ? b : a;
+    }
+
+    /**
+     * Menor (o mayor) de los elementos de un arreglo no vacío.
+     */
+    public static Object extremo(Funcion funcion, Object arreglo) {
+        if (!(arreglo instanceof Arreglo) || ((Arreglo) arreglo).isEmpty()) {
+            throw noValido(funcion, arreglo);
+        }
+        return ((Arreglo) arreglo).extremo(funcion == Funcion.MAX);
+    }
+
+    public static double seno(Object x) {
+        return Math.sin(finito(Funcion.SEN, x));
+    }
+
+    public static double coseno(Object x) {
+        return Math.cos(finito(Funcion.COS, x));
+    }
+
+    public static double logaritmo(Object x) {
+        double valor = decimal(Funcion.LN, x);
+        if (valor <= 0) {
+            throw noValido(Funcion.LN, x);
+        }
+        return Math.log(valor);
+    }
+
+    // Cadenas
+
+    /**
+     * Número de caracteres de una cadena o de elementos de un arreglo.
+     */
+    public static int longitud(Object x) {
+        if (x instanceof CharSequence) {
+            return ((CharSequence) x).length();
+        }
+        if (x instanceof Arreglo) {
+            return ((Arreglo) x).size();
+        }
+        throw noValido(Funcion.LONGITUD, x);
+    }
+
+    public static String mayusculas(Object x) {
+        return cadena(Funcion.MAYUSCULAS, x).toUpperCase(Locale.ROOT);
+    }
+
+    public static String minusculas(Object x) {
+        return cadena(Funcion.MINUSCULAS, x).toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Caracteres desde la posición inicio (incluida) hasta fin (excluida),
+     * con 0 &lt;= inicio &lt;= fin &lt;= longitud.
+     */
+    public static String subcadena(Object x, Object inicio, Object fin) {
+        if (!(x instanceof CharSequence)) {
+            throw noValido(Funcion.SUBCADENA, x);
+        }
+        CharSequence texto = (CharSequence) x;
+        if (!(inicio instanceof Integer) || (Integer) inicio < 0 || (Integer) inicio > texto.length()) {
+            throw noValido(Funcion.SUBCADENA, inicio);
+        }
+        if (!(fin instanceof Integer) || (Integer) fin < (Integer) inicio || (Integer) fin > texto.length()) {
+            throw noValido(Funcion.SUBCADENA, fin);
+        }
+        return texto.subSequence((Integer) inicio, (Integer) fin).toString();
+    }
+
+    /**
+     * Posición de la primera aparición de una cadena dentro de otra, o -1.
+     */
+    public static int posicion(Object x, Object buscada) {
+        if (!(buscada instanceof CharSequence)) {
+            throw noValido(Funcion.POSICION, buscada);
+        }
+        return cadena(Funcion.POSICION, x).indexOf(buscada.toString());
+    }
+
+    // Conversiones
+
+    /**
+     * Entero de un número (truncando hacia cero), de un valor lógico (1 o 0)
+     * o de una cadena con un entero escrito en decimal.
+     */
+    public static Object entero(Object x) {
+        if (Enteros.esEntero(x)) {
+            return x;
+        }
+        if (x instanceof Double) {
+            double valor = (Double) x;
+            return aEntero(Funcion.ENTERO, valor < 0 ? Math.ceil(valor) : Math.floor(valor), x);
+        }
+        if (x instanceof Boolean) {
+            return (Boolean) x ? 1 : 0;
+        }
+        if (x instanceof CharSequence) {
+            String texto = x.toString().trim();
+            try {
+                if (texto.length() <= 9) {
+                    return Integer.parseInt(texto);
+                }
+                return Enteros.normalizar(new BigInteger(texto));
+            } catch (NumberFormatException e) {
+                throw new ExcepcionInterpreter(Diagnostico.Codigo.CONVERSION_NUMERICA, x);
+            }
+        }
+        throw noValido(Funcion.ENTERO, x);
+    }
+
+    /**
+     * Decimal de un número, de un valor lógico (1.0 o 0.0) o de una cadena.
+     */
+    public static double decimal(Object x) {
+        if (x instanceof Boolean) {
+            return (Boolean) x ? 1.0 : 0.0;
+        }
+        if (x instanceof CharSequence) {
+            try {
+                return Double.parseDouble(x.toString().trim());
+            } catch (NumberFormatException e) {
+                throw new ExcepcionInterpreter(Diagnostico.Codigo.CONVERSION_NUMERICA, x);
+            }
+        }
+        return decimal(Funcion.DECIMAL, x);
+    }
+
+    /**
+     * Texto del valor, el mismo que escribiría {@code escribir}.
+     */
+    public static String texto(Object x) {
+        return Operaciones.convertirACadena(x);
+    }
+
+    // Auxiliares
+
+    private static double decimal(Funcion funcion, Object x) {
+        if (x instanceof Double) {
+            return (Double) x;
+        }
+        if (x instanceof Integer) {
+            return (Integer) x;
+        }
+        if (Enteros.esEntero(x)) {
+            return ((Number) x).doubleValue();
+        }
+        throw noValido(funcion, x);
+    }
+
+    private static double finito(Funcion funcion, Object x) {
+        double valor = decimal(funcion, x);
+        if (Double.isInfinite(valor)) {
+            throw noValido(funcion, x);
+        }
+        return valor;
+    }
+
+    /**
+     * Un entero se deja como está; cualquier otro valor no es válido.
+     */
+    private static Object entero(Funcion funcion, Object x) {
+        if (Enteros.esEntero(x)) {
+            return x;
+        }
+        throw noValido(funcion, x);
+    }
+
+    /**
+     * Entero con el valor de un double ya redondeado; NaN e infinito no
+     * tienen valor entero.
+     */
+    private static Object aEntero(Funcion funcion, double redondeado, Object original) {
+        if (Double.isNaN(redondeado) || Double.isInfinite(redondeado)) {
+            throw noValido(funcion, original);
+        }
+        return Enteros.desdeDecimal(redondeado);
+    }
+
+    private static String cadena(Funcion funcion, Object x) {
+        if (x instanceof CharSequence) {
+            return x.toString();
+        }
+        throw noValido(funcion, x);
+    }
+
+    private static ExcepcionInterpreter noValido(Funcion funcion, Object argumento) {
+        return new ExcepcionInterpreter(Diagnostico.Codigo.ARGUMENTO_NO_VALIDO, funcion.getNombre(),
+                Operaciones.convertirACadena(argumento));
+    }
+}
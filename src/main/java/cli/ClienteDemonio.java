@@ -0,0 +1,58 @@
+package cli;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Path;
+
+/**
+ * Cliente ligero del {@link Demonio}: envía el código de un programa y vuelca
+ * la salida recibida en la salida estándar a medida que llega.
+ */
+public class ClienteDemonio {
+    private final Path ruta;
+
+    public ClienteDemonio(Path ruta) {
+        this.ruta = ruta;
+    }
+
+    /**
+     * Envía la petición y retorna el código de salida informado por el demonio.
+     */
+    public int enviar(byte operacion, byte[] codigo, PrintStream salida, PrintStream errores)
+            throws IOException {
+        try (SocketChannel canal = SocketChannel.open(StandardProtocolFamily.UNIX)) {
+            canal.connect(UnixDomainSocketAddress.of(ruta));
+
+            DataOutputStream peticion = new DataOutputStream(Channels.newOutputStream(canal));
+            peticion.writeByte(operacion);
+            peticion.writeInt(codigo.length);
+            peticion.write(codigo);
+            peticion.flush();
+
+            DataInputStream respuesta = new DataInputStream(Channels.newInputStream(canal));
+            while (true) {
+                byte tipo = respuesta.readByte();
+                int longitud = respuesta.readInt();
+                if (tipo == Demonio.FIN) {
+                    int codigoSalida = respuesta.readInt();
+                    salida.flush();
+                    return codigoSalida;
+                }
+                byte[] datos = respuesta.readNBytes(longitud);
+                if (tipo == Demonio.ERROR) {
+                    errores.write(datos);
+                    errores.flush();
+                } else {
+                    salida.write(datos);
+                    salida.flush();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,659 @@
+package cli;
+
+import ast.CodificadorBinario;
+import ast.FormatoBinario;
+import ast.Programa;
+import diagnosticos.Diagnostico;
+import diagnosticos.ExcepcionLenguaje;
+import diagnosticos.InformeDiagnosticos;
+import interpreter.Perfilador;
+import interpreter.PuntoDeControl;
+import interpreter.PuntosDeControl;
+import interpreter.Traza;
+import optimizer.Optimizador;
+import parser.ExcepcionParser;
+import symbols.ExcepcionSimbolos;
+import translator.ExcepcionTraductor;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Modo no interactivo de la línea de comandos: subcomandos guiados por
+ * argumentos que leen de un archivo o de la entrada estándar y escriben en la
+ * salida estándar o en un archivo, pensados para usarse en tuberías.
+ *
+ * Esta clase solo se carga cuando hay argumentos, de modo que el arranque no
+ * paga el menú interactivo ni el banner.
+ */
+public class Comandos {
+    public static final int EXITO = 0;
+    public static final int ERROR_EJECUCION = 1;
+    public static final int ERROR_USO = 2;
+    public static final int ERROR_ENTRADA_SALIDA = 3;
+    public static final int ERROR_SINTAXIS = 4;
+    public static final int ERROR_SIMBOLOS = 5;
+    public static final int ERROR_TRADUCCION = 6;
+
+    private static final String USO =
+            "Uso: pseudocode <comando> [opciones] [archivo|-]\n" +
+            "\n" +
+            "Comandos:\n" +
+            "  ejecutar [archivo|-] [-o salida]     Interpreta el programa\n" +
+            "  traducir [archivo|-] [-o salida]     Traduce el programa a Python\n" +
+            "  compilar [archivo|-] -o programa.psb Guarda el AST en formato binario, que\n" +
+            "                                       ejecutar acepta en lugar del código\n" +
+            "  verificar archivo... | -             Comprueba la sintaxis sin ejecutar\n" +
+            "  medir [archivo|-] [--iteraciones N] [--calentamiento N]\n" +
+            "                                       Mide el tiempo de análisis y ejecución\n" +
+            "  perfilar [archivo|-] [-o listado]    Ejecuta y muestra el perfil por línea\n" +
+            "  entrenar archivo|directorio...       Ejecución de entrenamiento para el archivo CDS\n" +
+            "  repl                                 Sesión interactiva que conserva las variables\n" +
+            "  reproducir traza [programa]          Recorre una traza sin volver a ejecutar\n" +
+            "\n" +
+            "Opciones de ejecutar, traducir, medir y perfilar:\n" +
+            "  --sin-optimizar                      No aplica las pasadas de optimización\n" +
+            "  --informe                            Muestra en stderr las optimizaciones aplicadas\n" +
+            "\n" +
+            "Opciones de ejecutar y medir:\n" +
+            "  --motor arbol|clausuras              Recorre el AST (por defecto) o lo compila a clausuras\n" +
+            "  --regiones-paralelas                 Ejecuta en paralelo los bucles de nivel superior\n" +
+            "                                       que no comparten variables (motor arbol)\n" +
+            "\n" +
+            "Opciones de ejecutar:\n" +
+            "  --punto-control archivo              Guarda periódicamente el estado de la ejecución\n" +
+            "  --intervalo-punto-control MS         Milisegundos entre puntos de control (60000)\n" +
+            "  --reanudar                           Continúa desde el último punto de control\n" +
+            "  --traza archivo                      Registra declaraciones, ramas y asignaciones\n" +
+            "\n" +
+            "  demonio [--socket ruta]              Servidor residente (socket de dominio Unix)\n" +
+            "  cliente (ejecutar|traducir) [archivo|-] [--socket ruta]\n" +
+            "                                       Envía la petición al demonio\n" +
+            "\n" +
+            "Sin archivo, o con \"-\", el código se lee de la entrada estándar.\n" +
+            "Códigos de salida: 0 éxito, 1 error de ejecución, 2 uso incorrecto,\n" +
+            "3 error de entrada/salida, 4 error de sintaxis, 5 error de símbolos,\n" +
+            "6 error de traducción.\n";
+
+    private final List<String> posicionales = new ArrayList<>();
+    private String archivoSalida;
+    private Path socket;
+    private int iteraciones = 20;
+    private int calentamiento = 5;
+    private boolean optimizar = true;
+    private boolean informe;
+    private Path puntoControl;
+    private int intervaloPuntoControl = 60_000;
+    private boolean reanudar;
+    private Path archivoTraza;
+    private boolean clausuras;
+    private boolean regionesParalelas;
+
+    /**
+     * Ejecuta el subcomando descrito por los argumentos y retorna el código de salida.
+     */
+    public static int ejecutar(String[] args) {
+        Comandos comandos = new Comandos();
+        try {
+            comandos.leerOpciones(args);
+        } catch (ErrorDeUso e) {
+            System.err.println("Error: " + e.getMessage());
+            System.err.print(USO);
+            return ERROR_USO;
+        }
+        return comandos.despachar();
+    }
+
+    /**
+     * Traduce una excepción del lenguaje al código de salida correspondiente,
+     * buscando en la cadena de causas la excepción más específica.
+     */
+    public static int codigoDeSalida(Throwable error) {
+        int codigo = ERROR_EJECUCION;
+        for (Throwable actual = error; actual != null; actual = actual.getCause()) {
+            if (actual instanceof ExcepcionParser) {
+                return ERROR_SINTAXIS;
+            } else if (actual instanceof ExcepcionSimbolos) {
+                return ERROR_SIMBOLOS;
+            } else if (actual instanceof ExcepcionTraductor) {
+                return ERROR_TRADUCCION;
+            } else if (actual instanceof IOException) {
+                codigo = ERROR_ENTRADA_SALIDA;
+            }
+        }
+        return codigo;
+    }
+
+    private void leerOpciones(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            switch (arg) {
+                case "-o":
+                case "--salida":
+                    archivoSalida = valor(args, ++i, arg);
+                    break;
+                case "--socket":
+                    socket = Paths.get(valor(args, ++i, arg));
+                    break;
+                case "--iteraciones":
+                    iteraciones = entero(valor(args, ++i, arg), arg);
+                    break;
+                case "--calentamiento":
+                    calentamiento = entero(valor(args, ++i, arg), arg);
+                    break;
+                case "--sin-optimizar":
+                    optimizar = false;
+                    break;
+                case "--informe":
+                    informe = true;
+                    break;
+                case "--punto-control":
+                    puntoControl = Paths.get(valor(args, ++i, arg));
+                    break;
+                case "--intervalo-punto-control":
+                    intervaloPuntoControl = entero(valor(args, ++i, arg), arg);
+                    break;
+                case "--reanudar":
+                    reanudar = true;
+                    break;
+                case "--motor":
+                    String motor = valor(args, ++i, arg);
+                    if (!motor.equals("arbol") && !motor.equals("clausuras")) {
+                        throw new ErrorDeUso("Motor desconocido: " + motor + " (arbol o clausuras)");
+                    }
+                    clausuras = motor.equals("clausuras");
+                    break;
+                case "--regiones-paralelas":
+                    regionesParalelas = true;
+                    break;
+                case "--traza":
+                    archivoTraza = Paths.get(valor(args, ++i, arg));
+                    break;
+                default:
+                    if (arg.startsWith("-") && !arg.equals("-") && !esAyuda(arg)) {
+                        throw new ErrorDeUso("Opción desconocida: " + arg);
+                    }
+                    posicionales.add(arg);
+            }
+        }
+        if (posicionales.isEmpty()) {
+            throw new ErrorDeUso("Falta el comando");
+        }
+    }
+
+    private static boolean esAyuda(String arg) {
+        return arg.equals("-h") || arg.equals("--help") || arg.equals("--ayuda");
+    }
+
+    private static String valor(String[] args, int indice, String opcion) {
+        if (indice >= args.length) {
+            throw new ErrorDeUso("La opción " + opcion + " necesita un valor");
+        }
+        return args[indice];
+    }
+
+    private static int entero(String texto, String opcion) {
+        try {
+            int valor = Integer.parseInt(texto);
+            if (valor < 0) {
+                throw new NumberFormatException();
+            }
+            return valor;
+        } catch (NumberFormatException e) {
+            throw new ErrorDeUso("Valor no válido para " + opcion + ": " + texto);
+        }
+    }
+
+    private int despachar() {
+        String comando = posicionales.get(0);
+        List<String> archivos = posicionales.subList(1, posicionales.size());
+        try {
+            switch (comando) {
+                case "ejecutar":
+                    return ejecutarPrograma(unico(archivos));
+                case "traducir":
+                    return traducirPrograma(unico(archivos));
+                case "compilar":
+                    return compilar(unico(archivos));
+                case "verificar":
+                    return verificar(archivos.isEmpty() ? List.of("-") : archivos);
+                case "medir":
+                    return medir(unico(archivos));
+                case "perfilar":
+                    return perfilar(unico(archivos));
+                case "entrenar":
+                    return entrenar(archivos);
+                case "reproducir":
+                    if (archivos.isEmpty() || archivos.size() > 2) {
+                        throw new ErrorDeUso("Uso: reproducir traza [programa]");
+                    }
+                    return new Reproductor(System.out, System.console() != null && archivoSalida == null)
+                            .reproducir(Paths.get(archivos.get(0)),
+                                    archivos.size() == 2 ? Paths.get(archivos.get(1)) : null);
+                case "repl":
+                    if (!archivos.isEmpty()) {
+                        throw new ErrorDeUso("repl no acepta archivos");
+                    }
+                    return new Repl(System.in, System.out, System.err, System.console() != null).ejecutar();
+                case "demonio":
+                    if (!archivos.isEmpty()) {
+                        throw new ErrorDeUso("demonio no acepta archivos");
+                    }
+                    new Demonio(socket != null ? socket : Demonio.rutaPorDefecto()).atender();
+                    return EXITO;
+                case "cliente":
+                    return cliente(archivos);
+                case "ayuda":
+                case "--ayuda":
+                case "-h":
+                case "--help":
+                    System.out.print(USO);
+                    return EXITO;
+                default:
+                    throw new ErrorDeUso("Comando desconocido: " + comando);
+            }
+        } catch (ErrorDeUso e) {
+            System.err.println("Error: " + e.getMessage());
+            System.err.print(USO);
+            return ERROR_USO;
+        } catch (IOException e) {
+            System.err.println("Error: " + e.getMessage());
+            return ERROR_ENTRADA_SALIDA;
+        } catch (RuntimeException e) {
+            System.err.println("Error: " + e.getMessage());
+            return codigoDeSalida(e);
+        }
+    }
+
+    private static String unico(List<String> archivos) {
+        if (archivos.size() > 1) {
+            throw new ErrorDeUso("Se esperaba un único archivo");
+        }
+        return archivos.isEmpty() ? "-" : archivos.get(0);
+    }
+
+    private int ejecutarPrograma(String archivo) throws IOException {
+        if (!archivo.equals("-") && Files.isRegularFile(Paths.get(archivo))
+                && FormatoBinario.esBinario(Paths.get(archivo))) {
+            return ejecutarCompilado(Paths.get(archivo));
+        }
+        String codigo = leer(archivo);
+        Programa programa = preparar(codigo);
+        if (reanudar && puntoControl == null) {
+            throw new ErrorDeUso("--reanudar necesita --punto-control");
+        }
+        if (regionesParalelas && (clausuras || puntoControl != null || archivoTraza != null)) {
+            throw new ErrorDeUso("--regiones-paralelas no admite el motor de clausuras, puntos de control ni trazas");
+        }
+        if (clausuras) {
+            if (puntoControl != null || archivoTraza != null) {
+                throw new ErrorDeUso("El motor de clausuras no admite puntos de control ni trazas");
+            }
+            try (PrintStream salida = abrirSalida()) {
+                Procesador.interpretarClausuras(programa, salida);
+            }
+            return EXITO;
+        }
+        try (Traza traza = abrirTraza(codigo)) {
+            if (puntoControl != null) {
+                return ejecutarConPuntosDeControl(codigo, programa, traza);
+            }
+            try (PrintStream salida = abrirSalida()) {
+                if (regionesParalelas) {
+                    Procesador.interpretarRegionesParalelas(programa, salida);
+                } else {
+                    Procesador.interpretar(programa, salida, null, null, null, traza);
+                }
+            }
+            return EXITO;
+        }
+    }
+
+    /**
+     * Abre la traza pedida con --traza, o retorna null si no se pidió.
+     */
+    private Traza abrirTraza(String codigo) throws IOException {
+        if (archivoTraza == null) {
+            return null;
+        }
+        return new Traza(Files.newOutputStream(archivoTraza), crc(codigo)) {
+            @Override
+            public void close() throws IOException {
+                super.close();
+                if (getDescartados() > 0) {
+                    System.err.println("Traza: " + getDescartados()
+                            + " registros descartados por falta de espacio en el búfer");
+                }
+            }
+        };
+    }
+
+    /**
+     * Ejecuta guardando puntos de control y, con --reanudar, continuando desde
+     * el último. Si la salida es un archivo se recorta a los bytes que el
+     * programa había escrito al tomar el punto de control. El archivo de puntos
+     * de control se elimina cuando el programa termina.
+     */
+    private int ejecutarConPuntosDeControl(String codigo, Programa programa, Traza traza) throws IOException {
+        try (PuntosDeControl puntos = PuntosDeControl.abrir(puntoControl, huella(codigo), intervaloPuntoControl)) {
+            PuntoDeControl reanudacion = reanudar ? puntos.ultimo() : null;
+            if (reanudacion == null) {
+                if (reanudar) {
+                    System.err.println("No hay punto de control en " + puntoControl + "; se ejecuta desde el principio");
+                }
+                puntos.descartar();
+            } else {
+                System.err.println("Reanudando tras " + reanudacion.getDeclaracionesEjecutadas()
+                        + " declaraciones y " + reanudacion.getBytesSalida() + " bytes de salida");
+            }
+
+            long bytesPrevios = reanudacion == null ? 0 : reanudacion.getBytesSalida();
+            try (PrintStream salida = abrirSalida(bytesPrevios)) {
+                Procesador.interpretar(programa, salida, null, puntos, reanudacion, traza);
+            }
+            puntos.eliminar();
+        }
+        return EXITO;
+    }
+
+    /**
+     * Identifica el programa y sus opciones de optimización, de las que
+     * depende la forma del AST al que apuntan los puntos de control.
+     */
+    private long huella(String codigo) {
+        return crc(codigo) << 1 | (optimizar ? 1 : 0);
+    }
+
+    static long crc(String codigo) {
+        CRC32 crc = new CRC32();
+        crc.update(codigo.getBytes(StandardCharsets.UTF_8));
+        return crc.getValue();
+    }
+
+    /**
+     * Ejecuta un programa generado por compilar proyectando el archivo en
+     * memoria; no se analiza ni se optimiza nada.
+     */
+    private int ejecutarCompilado(Path archivo) throws IOException {
+        if (puntoControl != null || reanudar || archivoTraza != null) {
+            throw new ErrorDeUso("Los puntos de control y las trazas necesitan el código fuente del programa");
+        }
+        MappedByteBuffer programa;
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            programa = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+        }
+        try (PrintStream salida = abrirSalida()) {
+            Procesador.interpretarBinario(programa, salida);
+        }
+        return EXITO;
+    }
+
+    private int compilar(String archivo) throws IOException {
+        if (archivoSalida == null || archivoSalida.equals("-")) {
+            throw new ErrorDeUso("compilar necesita -o archivo");
+        }
+        byte[] binario = CodificadorBinario.codificar(preparar(leer(archivo)));
+        Files.write(Paths.get(archivoSalida), binario);
+        return EXITO;
+    }
+
+    private int traducirPrograma(String archivo) throws IOException {
+        String codigoPython = Procesador.traducir(preparar(leer(archivo)));
+        try (PrintStream salida = abrirSalida()) {
+            salida.print(codigoPython);
+        }
+        return EXITO;
+    }
+
+    /**
+     * Analiza cada archivo y escribe un registro compacto por error; con
+     * varios archivos añade en stderr un resumen por código de error.
+     */
+    private int verificar(List<String> archivos) throws IOException {
+        int resultado = EXITO;
+        try (PrintStream salida = abrirSalida()) {
+            InformeDiagnosticos informe = new InformeDiagnosticos(salida);
+            for (String archivo : archivos) {
+                String nombre = archivo.equals("-") ? "<entrada estándar>" : archivo;
+                try {
+                    Procesador.analizar(leer(archivo));
+                    informe.correcto();
+                } catch (ExcepcionLenguaje e) {
+                    informe.registrar(nombre, e.getDiagnostico());
+                    resultado = Math.max(resultado, codigoDeSalida(e));
+                } catch (RuntimeException e) {
+                    informe.registrar(nombre, Diagnostico.de(Diagnostico.Codigo.EJECUCION, e.getMessage()));
+                    resultado = Math.max(resultado, codigoDeSalida(e));
+                } catch (IOException e) {
+                    informe.registrar(nombre, Diagnostico.de(Diagnostico.Codigo.ENTRADA_SALIDA, e.getMessage()));
+                    resultado = Math.max(resultado, ERROR_ENTRADA_SALIDA);
+                }
+            }
+            if (archivos.size() > 1) {
+                salida.flush();
+                informe.escribirResumen(System.err);
+            }
+        }
+        return resultado;
+    }
+
+    private int medir(String archivo) throws IOException {
+        if (regionesParalelas && clausuras) {
+            throw new ErrorDeUso("--regiones-paralelas no admite el motor de clausuras");
+        }
+        String codigo = leer(archivo);
+        PrintStream descarte = new PrintStream(OutputStream.nullOutputStream());
+
+        for (int i = 0; i < calentamiento; i++) {
+            ejecutarConMotor(preparar(codigo), descarte);
+        }
+
+        long[] analisis = new long[Math.max(iteraciones, 1)];
+        long[] ejecucion = new long[analisis.length];
+        for (int i = 0; i < analisis.length; i++) {
+            long inicio = System.nanoTime();
+            Programa programa = preparar(codigo);
+            long medio = System.nanoTime();
+            ejecutarConMotor(programa, descarte);
+            long fin = System.nanoTime();
+            analisis[i] = medio - inicio;
+            ejecucion[i] = fin - medio;
+        }
+
+        try (PrintStream salida = abrirSalida()) {
+            salida.printf("iteraciones: %d (calentamiento: %d)%n", analisis.length, calentamiento);
+            imprimirTiempos(salida, "análisis", analisis);
+            imprimirTiempos(salida, "ejecución", ejecucion);
+        }
+        return EXITO;
+    }
+
+    private void ejecutarConMotor(Programa programa, PrintStream salida) {
+        if (clausuras) {
+            Procesador.interpretarClausuras(programa, salida);
+        } else if (regionesParalelas) {
+            Procesador.interpretarRegionesParalelas(programa, salida);
+        } else {
+            Procesador.interpretar(programa, salida);
+        }
+    }
+
+    private static void imprimirTiempos(PrintStream salida, String fase, long[] tiempos) {
+        long minimo = Long.MAX_VALUE;
+        long total = 0;
+        for (long tiempo : tiempos) {
+            minimo = Math.min(minimo, tiempo);
+            total += tiempo;
+        }
+        salida.printf("%-10s media %10.3f ms   mínimo %10.3f ms%n",
+                fase + ":", total / (double) tiempos.length / 1_000_000.0, minimo / 1_000_000.0);
+    }
+
+    /**
+     * Analiza, ejecuta (descartando la salida) y traduce cada programa para que
+     * la JVM cargue todas las clases del intérprete. Se usa como ejecución de
+     * entrenamiento al generar el archivo de Class Data Sharing de la aplicación.
+     */
+    private int entrenar(List<String> rutas) throws IOException {
+        if (rutas.isEmpty()) {
+            throw new ErrorDeUso("entrenar necesita al menos un archivo o directorio");
+        }
+        List<Path> programas = new ArrayList<>();
+        for (String ruta : rutas) {
+            Path origen = Paths.get(ruta);
+            if (Files.isDirectory(origen)) {
+                try (Stream<Path> contenido = Files.walk(origen)) {
+                    contenido.filter(archivo -> archivo.toString().endsWith(".pseudo"))
+                            .sorted()
+                            .forEach(programas::add);
+                }
+            } else {
+                programas.add(origen);
+            }
+        }
+
+        PrintStream descarte = new PrintStream(OutputStream.nullOutputStream());
+        int resultado = EXITO;
+        for (Path programa : programas) {
+            try {
+                Programa ast = preparar(Files.readString(programa));
+                Procesador.interpretar(ast, descarte);
+                Procesador.traducir(ast);
+            } catch (RuntimeException e) {
+                System.err.println(programa + ": " + e.getMessage());
+                resultado = Math.max(resultado, codigoDeSalida(e));
+            }
+        }
+        System.err.println("Programas de entrenamiento: " + programas.size());
+        return resultado;
+    }
+
+    private int perfilar(String archivo) throws IOException {
+        String codigo = leer(archivo);
+        Programa programa = preparar(codigo);
+        Perfilador perfilador = new Perfilador();
+        try {
+            Procesador.interpretar(programa, System.out, perfilador);
+        } finally {
+            System.out.flush();
+            if (archivoSalida != null) {
+                Files.writeString(Paths.get(archivoSalida), perfilador.generarListadoAnotado(codigo));
+                String base = archivoSalida.replaceAll("\\.[^.]*$", "");
+                Files.writeString(Paths.get(base + ".collapsed"), perfilador.generarPilasColapsadas());
+            } else {
+                System.err.print(perfilador.generarListadoAnotado(codigo));
+            }
+        }
+        return EXITO;
+    }
+
+    private int cliente(List<String> argumentos) throws IOException {
+        if (argumentos.isEmpty() || argumentos.size() > 2) {
+            throw new ErrorDeUso("Uso: cliente (ejecutar|traducir) [archivo|-]");
+        }
+        byte operacion;
+        switch (argumentos.get(0)) {
+            case "ejecutar": operacion = Demonio.EJECUTAR; break;
+            case "traducir": operacion = Demonio.TRADUCIR; break;
+            default:
+                throw new ErrorDeUso("Operación desconocida: " + argumentos.get(0));
+        }
+        String archivo = argumentos.size() == 2 ? argumentos.get(1) : "-";
+        byte[] codigo = archivo.equals("-")
+                ? System.in.readAllBytes()
+                : Files.readAllBytes(Paths.get(archivo));
+        return new ClienteDemonio(socket != null ? socket : Demonio.rutaPorDefecto())
+                .enviar(operacion, codigo, System.out, System.err);
+    }
+
+    /**
+     * Analiza el código y, salvo que se haya pedido lo contrario, lo optimiza.
+     */
+    private Programa preparar(String codigo) {
+        Programa programa = Procesador.analizar(codigo);
+        if (!optimizar) {
+            return programa;
+        }
+        Optimizador optimizador = new Optimizador();
+        programa = Procesador.optimizar(programa, optimizador);
+        if (informe) {
+            for (String transformacion : optimizador.getInforme()) {
+                System.err.println(transformacion);
+            }
+            informe = false; // Solo la primera vez cuando se prepara varias veces (medir)
+        }
+        return programa;
+    }
+
+    private static String leer(String archivo) throws IOException {
+        if (archivo.equals("-")) {
+            return new String(System.in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        Path ruta = Paths.get(archivo);
+        if (!Files.exists(ruta)) {
+            throw new IOException("El archivo no existe: " + archivo);
+        }
+        return Files.readString(ruta);
+    }
+
+    /**
+     * Abre el destino de la salida. La salida estándar se envuelve en un búfer
+     * (sin vaciado por línea) para no pagar una llamada al sistema por cada
+     * "escribir" cuando se usa en una tubería; cerrar el flujo solo lo vacía.
+     */
+    private PrintStream abrirSalida() throws IOException {
+        return abrirSalida(0);
+    }
+
+    /**
+     * Abre el destino de la salida conservando, si es un archivo, sus primeros
+     * {@code bytesPrevios} bytes (la salida anterior a un punto de control).
+     */
+    private PrintStream abrirSalida(long bytesPrevios) throws IOException {
+        if (bytesPrevios > 0 && archivoSalida != null && !archivoSalida.equals("-")) {
+            FileChannel canal = FileChannel.open(Paths.get(archivoSalida),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            if (canal.size() < bytesPrevios) {
+                canal.close();
+                throw new IOException("La salida " + archivoSalida + " tiene menos bytes que los "
+                        + bytesPrevios + " registrados en el punto de control");
+            }
+            canal.truncate(bytesPrevios);
+            canal.position(bytesPrevios);
+            return new PrintStream(new BufferedOutputStream(Channels.newOutputStream(canal), 1 << 16), false);
+        }
+        if (archivoSalida == null || archivoSalida.equals("-")) {
+            return new PrintStream(new BufferedOutputStream(System.out, 1 << 16), false) {
+                @Override
+                public void close() {
+                    flush();
+                }
+            };
+        }
+        return new PrintStream(new BufferedOutputStream(Files.newOutputStream(Paths.get(archivoSalida)), 1 << 16),
+                false);
+    }
+
+    /**
+     * Error en los argumentos de la línea de comandos.
+     */
+    private static class ErrorDeUso extends RuntimeException {
+        ErrorDeUso(String mensaje) {
+            super(mensaje);
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package cli;
+
+import ast.Programa;
+import metricas.MetricasInterprete;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Servidor residente que atiende peticiones de ejecución y traducción sobre
+ * un socket de dominio Unix, de modo que todas las peticiones se sirven desde
+ * una JVM ya arrancada y con el código del intérprete compilado por el JIT.
+ *
+ * Protocolo (todos los enteros en big-endian):
+ * - Petición: operación (1 byte, {@link #EJECUTAR} o {@link #TRADUCIR}),
+ *   longitud del código (int) y el código en UTF-8.
+ * - Respuesta: secuencia de tramas tipo (1 byte) + longitud (int) + datos.
+ *   Las tramas {@link #SALIDA} y {@link #ERROR} se envían a medida que el
+ *   programa escribe; la trama {@link #FIN} lleva el código de salida (int)
+ *   y cierra la respuesta.
+ *
+ * Cada petición se atiende en su propio hilo con un AST, un intérprete y una
+ * tabla de símbolos nuevos, por lo que las peticiones no comparten estado.
+ */
+public class Demonio {
+    public static final byte EJECUTAR = 'E';
+    public static final byte TRADUCIR = 'T';
+    public static final byte SALIDA = 'S';
+    public static final byte ERROR = 'R';
+    public static final byte FIN = 'F';
+
+    /**
+     * Tamaño máximo aceptado para el código de una petición.
+     */
+    private static final int TAMANO_MAXIMO = 64 * 1024 * 1024;
+
+    private static final String PROGRAMA_CALENTAMIENTO =
+            "n = 1\n" +
+            "s = \"\"\n" +
+            "repite (n <= 200)\n" +
+            "    si (n % 3 == 0 y no (n % 5 == 0)) entonces\n" +
+            "        s = s + \"x\"\n" +
+            "    sino\n" +
+            "        s = \"y\"\n" +
+            "    fin_si\n" +
+            "    n = n + 1 * 2 - 1\n" +
+            "fin_repite\n" +
+            "escribir n / 2\n";
+
+    private final Path ruta;
+    private final ExecutorService hilos;
+
+    public Demonio(Path ruta) {
+        this.ruta = ruta;
+        this.hilos = Executors.newCachedThreadPool(tarea -> {
+            Thread hilo = new Thread(tarea, "demonio-peticion");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+    }
+
+    /**
+     * Ruta por defecto del socket: {@code pseudocode.sock} en el directorio temporal.
+     */
+    public static Path rutaPorDefecto() {
+        return Path.of(System.getProperty("java.io.tmpdir"), "pseudocode.sock");
+    }
+
+    /**
+     * Calienta el intérprete, abre el socket y atiende peticiones hasta que el
+     * proceso termina.
+     */
+    public void atender() throws IOException {
+        MetricasInterprete.instancia().registrar();
+        calentar();
+
+        Files.deleteIfExists(ruta);
+        try (ServerSocketChannel servidor = ServerSocketChannel.open(StandardProtocolFamily.UNIX)) {
+            servidor.bind(UnixDomainSocketAddress.of(ruta));
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    Files.deleteIfExists(ruta);
+                } catch (IOException e) {
+                    // El proceso termina de todas formas
+                }
+            }));
+            System.err.println("Demonio escuchando en " + ruta);
+
+            while (true) {
+                SocketChannel cliente = servidor.accept();
+                hilos.execute(() -> atenderPeticion(cliente));
+            }
+        }
+    }
+
+    /**
+     * Ejecuta y traduce un programa representativo varias veces para que el
+     * JIT compile el lexer, el parser, el intérprete y el traductor antes de
+     * recibir la primera petición.
+     */
+    private void calentar() {
+        PrintStream descarte = new PrintStream(OutputStream.nullOutputStream());
+        for (int i = 0; i < 500; i++) {
+            Programa programa = Procesador.optimizar(Procesador.analizar(PROGRAMA_CALENTAMIENTO));
+            Procesador.interpretar(programa, descarte);
+            Procesador.traducir(programa);
+        }
+    }
+
+    private void atenderPeticion(SocketChannel canal) {
+        try (canal) {
+            DataInputStream entrada = new DataInputStream(Channels.newInputStream(canal));
+            byte operacion = entrada.readByte();
+            int longitud = entrada.readInt();
+            if (longitud < 0 || longitud > TAMANO_MAXIMO) {
+                enviarTrama(canal, ERROR, ("Petición demasiado grande: " + longitud + " bytes\n")
+                        .getBytes(StandardCharsets.UTF_8));
+                enviarFin(canal, 1);
+                return;
+            }
+            String codigo = new String(entrada.readNBytes(longitud), StandardCharsets.UTF_8);
+
+            PrintStream salida = new PrintStream(
+                    new BufferedOutputStream(new SalidaEnTramas(canal, SALIDA)), true, StandardCharsets.UTF_8);
+            int codigoSalida = 0;
+            try {
+                Programa programa = Procesador.optimizar(Procesador.analizar(codigo));
+                if (operacion == TRADUCIR) {
+                    salida.print(Procesador.traducir(programa));
+                } else if (operacion == EJECUTAR) {
+                    Procesador.interpretar(programa, salida);
+                } else {
+                    throw new IllegalArgumentException("Operación desconocida: " + (char) operacion);
+                }
+            } catch (RuntimeException e) {
+                codigoSalida = Comandos.codigoDeSalida(e);
+                salida.flush();
+                enviarTrama(canal, ERROR, ("Error: " + e.getMessage() + "\n").getBytes(StandardCharsets.UTF_8));
+            }
+            salida.flush();
+            enviarFin(canal, codigoSalida);
+        } catch (IOException e) {
+            // El cliente cerró la conexión; no hay a quién informar
+        }
+    }
+
+    private static void enviarFin(SocketChannel canal, int codigoSalida) throws IOException {
+        enviarTrama(canal, FIN, ByteBuffer.allocate(4).putInt(codigoSalida).array());
+    }
+
+    static void enviarTrama(SocketChannel canal, byte tipo, byte[] datos) throws IOException {
+        enviarTrama(canal, tipo, datos, 0, datos.length);
+    }
+
+    static void enviarTrama(SocketChannel canal, byte tipo, byte[] datos, int desde, int longitud)
+            throws IOException {
+        ByteBuffer cabecera = ByteBuffer.allocate(5).put(tipo).putInt(longitud).flip();
+        ByteBuffer cuerpo = ByteBuffer.wrap(datos, desde, longitud);
+        synchronized (canal) {
+            while (cabecera.hasRemaining() || cuerpo.hasRemaining()) {
+                canal.write(new ByteBuffer[] {cabecera, cuerpo});
+            }
+        }
+    }
+
+    /**
+     * Flujo que envía cada bloque escrito como una trama del tipo indicado.
+     */
+    private static class SalidaEnTramas extends OutputStream {
+        private final SocketChannel canal;
+        private final byte tipo;
+
+        SalidaEnTramas(SocketChannel canal, byte tipo) {
+            this.canal = canal;
+            this.tipo = tipo;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            enviarTrama(canal, tipo, new byte[] {(byte) b});
+        }
+
+        @Override
+        public void write(byte[] b, int desde, int longitud) throws IOException {
+            if (longitud > 0) {
+                enviarTrama(canal, tipo, b, desde, longitud);
+            }
+        }
+    }
+}
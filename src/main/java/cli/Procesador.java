@@ -0,0 +1,232 @@
+package cli;
+
+import ast.ContadorNodos;
+import ast.Programa;
+import interpreter.CompiladorClausuras;
+import interpreter.InterpreteBinario;
+import interpreter.Interpreter;
+import interpreter.Perfilador;
+import interpreter.PuntoDeControl;
+import interpreter.PuntosDeControl;
+import interpreter.Traza;
+import lexer.Lexer;
+import lexer.Token;
+import metricas.ContadorBytes;
+import metricas.EventoAnalisisLexico;
+import metricas.EventoAnalisisSintactico;
+import metricas.EventoEjecucion;
+import metricas.EventoOptimizacion;
+import metricas.MetricasInterprete;
+import optimizer.Optimizador;
+import parser.Parser;
+import translator.TraductorPython;
+
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
+import java.util.List;
+
+/**
+ * Ejecuta las fases del intérprete (léxica, sintáctica, optimización,
+ * ejecución y traducción) emitiendo eventos JFR y actualizando las métricas JMX.
+ *
+ * Los eventos solo calculan sus campos cuando JFR está grabando, por lo que
+ * fuera de una grabación el coste se reduce a leer la hora del sistema.
+ */
+public final class Procesador {
+
+    private Procesador() {
+    }
+
+    /**
+     * Convierte el código fuente en el AST del programa.
+     */
+    public static Programa analizar(String codigo) {
+        MetricasInterprete metricas = MetricasInterprete.instancia();
+        try {
+            EventoAnalisisLexico eventoLexico = new EventoAnalisisLexico();
+            eventoLexico.begin();
+            List<Token> tokens = new Lexer(codigo).analizarTokens();
+            eventoLexico.end();
+            if (eventoLexico.shouldCommit()) {
+                eventoLexico.setCaracteres(codigo.length());
+                eventoLexico.setTokens(tokens.size());
+                eventoLexico.commit();
+            }
+
+            EventoAnalisisSintactico eventoSintactico = new EventoAnalisisSintactico();
+            eventoSintactico.begin();
+            Programa programa = new Parser(tokens).analizarPrograma();
+            eventoSintactico.end();
+            if (eventoSintactico.shouldCommit()) {
+                eventoSintactico.setTokens(tokens.size());
+                eventoSintactico.setNodos(ContadorNodos.contar(programa));
+                eventoSintactico.commit();
+            }
+            return programa;
+        } catch (RuntimeException e) {
+            metricas.registrarError(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Aplica las pasadas de optimización al programa.
+     */
+    public static Programa optimizar(Programa programa, Optimizador optimizador) {
+        try {
+            EventoOptimizacion evento = new EventoOptimizacion();
+            evento.begin();
+            Programa optimizado = optimizador.optimizar(programa);
+            evento.end();
+            if (evento.shouldCommit()) {
+                evento.setNodos(ContadorNodos.contar(programa));
+                evento.setNodosOptimizados(ContadorNodos.contar(optimizado));
+                evento.setTransformaciones(optimizador.getInforme().size());
+                evento.commit();
+            }
+            return optimizado;
+        } catch (RuntimeException e) {
+            MetricasInterprete.instancia().registrarError(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Aplica las pasadas de optimización con un optimizador nuevo.
+     */
+    public static Programa optimizar(Programa programa) {
+        return optimizar(programa, new Optimizador());
+    }
+
+    /**
+     * Interpreta el programa escribiendo su salida en el flujo indicado.
+     */
+    public static void interpretar(Programa programa, PrintStream destino) {
+        interpretar(programa, destino, null);
+    }
+
+    /**
+     * Interpreta el programa registrando el perfil de ejecución en el
+     * perfilador indicado (puede ser nulo).
+     */
+    public static void interpretar(Programa programa, PrintStream destino, Perfilador perfilador) {
+        interpretar(programa, destino, perfilador, null, null);
+    }
+
+    /**
+     * Interpreta el programa guardando puntos de control periódicos (si
+     * puntosControl no es nulo) y, si se indica, continuando desde un punto de
+     * control anterior. En ese caso el destino debe recibir la salida a
+     * continuación de los bytes que el programa ya había escrito.
+     */
+    public static void interpretar(Programa programa, PrintStream destino, Perfilador perfilador,
+                                   PuntosDeControl puntosControl, PuntoDeControl reanudacion) {
+        interpretar(programa, destino, perfilador, puntosControl, reanudacion, null);
+    }
+
+    /**
+     * Como la anterior, registrando además la ejecución en la traza indicada
+     * (puede ser nula).
+     */
+    public static void interpretar(Programa programa, PrintStream destino, Perfilador perfilador,
+                                   PuntosDeControl puntosControl, PuntoDeControl reanudacion, Traza traza) {
+        ContadorBytes contador = new ContadorBytes(destino);
+        PrintStream salida = new PrintStream(contador, false);
+        Interpreter interpreter = new Interpreter(salida);
+        interpreter.setPerfilador(perfilador);
+        interpreter.setTraza(traza);
+        if (puntosControl != null) {
+            long bytesPrevios = reanudacion == null ? 0 : reanudacion.getBytesSalida();
+            interpreter.setPuntosDeControl(puntosControl, () -> bytesPrevios + contador.getBytes());
+        }
+        if (reanudacion != null) {
+            interpreter.reanudar(reanudacion);
+        }
+
+        medirEjecucion(() -> interpreter.interpretar(programa), interpreter::getDeclaracionesEjecutadas,
+                () -> ContadorNodos.contar(programa), contador, salida);
+    }
+
+    /**
+     * Interpreta el programa ejecutando en paralelo, en el pool común, las
+     * regiones de nivel superior que no comparten variables.
+     */
+    public static void interpretarRegionesParalelas(Programa programa, PrintStream destino) {
+        ContadorBytes contador = new ContadorBytes(destino);
+        PrintStream salida = new PrintStream(contador, false);
+        Interpreter interpreter = new Interpreter(salida);
+        interpreter.setRegionesParalelas(ForkJoinPool.commonPool());
+        medirEjecucion(() -> interpreter.interpretar(programa), interpreter::getDeclaracionesEjecutadas,
+                () -> ContadorNodos.contar(programa), contador, salida);
+    }
+
+    /**
+     * Interpreta un programa compilado al formato binario (normalmente un
+     * archivo proyectado en memoria) sin reconstruir su AST.
+     */
+    public static void interpretarBinario(ByteBuffer programa, PrintStream destino) {
+        ContadorBytes contador = new ContadorBytes(destino);
+        PrintStream salida = new PrintStream(contador, false);
+        InterpreteBinario interpreter = new InterpreteBinario(salida);
+
+        medirEjecucion(() -> interpreter.interpretar(programa), interpreter::getDeclaracionesEjecutadas,
+                () -> InterpreteBinario.verificarCabecera(programa), contador, salida);
+    }
+
+    /**
+     * Ejecuta el programa con el motor de clausuras en lugar del intérprete.
+     */
+    public static void interpretarClausuras(Programa programa, PrintStream destino) {
+        ContadorBytes contador = new ContadorBytes(destino);
+        PrintStream salida = new PrintStream(contador, false);
+        CompiladorClausuras motor = new CompiladorClausuras(salida);
+        medirEjecucion(() -> motor.interpretar(programa), motor::getDeclaracionesEjecutadas,
+                () -> ContadorNodos.contar(programa), contador, salida);
+    }
+
+    /**
+     * Ejecuta un motor emitiendo el evento JFR de ejecución y actualizando
+     * las métricas, también cuando el programa termina con error.
+     */
+    private static void medirEjecucion(Runnable ejecucion, LongSupplier declaraciones, IntSupplier nodos,
+                                       ContadorBytes contador, PrintStream salida) {
+        MetricasInterprete metricas = MetricasInterprete.instancia();
+        EventoEjecucion evento = new EventoEjecucion();
+        metricas.inicioEjecucion();
+        evento.begin();
+        String error = null;
+        try {
+            ejecucion.run();
+        } catch (RuntimeException e) {
+            error = MetricasInterprete.clasificar(e);
+            metricas.registrarError(e);
+            throw e;
+        } finally {
+            salida.flush();
+            evento.end();
+            metricas.finEjecucion(declaraciones.getAsLong(), contador.getBytes());
+            if (evento.shouldCommit()) {
+                evento.setNodos(nodos.getAsInt());
+                evento.setDeclaracionesEjecutadas(declaraciones.getAsLong());
+                evento.setBytesSalida(contador.getBytes());
+                evento.setError(error);
+                evento.commit();
+            }
+        }
+    }
+
+    /**
+     * Traduce el programa a Python.
+     */
+    public static String traducir(Programa programa) {
+        try {
+            return new TraductorPython().traducir(programa);
+        } catch (RuntimeException e) {
+            MetricasInterprete.instancia().registrarError(e);
+            throw e;
+        }
+    }
+}
@@ -1,17 +1,13 @@
 package cli;
 
 import ast.Programa;
-import interpreter.Interpreter;
-import lexer.Lexer;
-import lexer.Token;
-import parser.Parser;
-import translator.TraductorPython;
+import interpreter.Perfilador;
+import metricas.MetricasInterprete;
 
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.List;
 import java.util.Scanner;
 
 /**
@@ -19,12 +15,17 @@ import java.util.Scanner;
  * 
  * Modos de uso:
  * - Sin argumentos: Modo interactivo
- * - Con archivo: Interpreta el archivo
- * - Con archivo y -t: Traduce a Python
+ * - Con argumentos: Subcomandos no interactivos (ver {@link Comandos})
  */
 public class PseudocodeCLI {
     
     public static void main(String[] args) {
+        if (Boolean.getBoolean("pseudocode.jmx")) {
+            MetricasInterprete.instancia().registrar();
+        }
+        if (args.length > 0) {
+            System.exit(Comandos.ejecutar(args));
+        }
         PseudocodeCLI cli = new PseudocodeCLI();
         cli.iniciar();
     }
@@ -37,7 +38,7 @@ public class PseudocodeCLI {
         boolean salir = false;
         
         while (!salir) {
-            System.out.print("\nSelecciona una opción (1-4): ");
+            System.out.print("\nSelecciona una opción (1-5): ");
             String opcion = scanner.nextLine().trim();
             
             switch (opcion) {
@@ -56,17 +57,24 @@ public class PseudocodeCLI {
                     break;
                     
                 case "3":
-                    mostrarAyuda();
+                    System.out.print("Ingresa la ruta del archivo: ");
+                    String archivoPerfilar = scanner.nextLine().trim();
+                    perfilarArchivo(archivoPerfilar);
                     mostrarMenu();
                     break;
                     
                 case "4":
+                    mostrarAyuda();
+                    mostrarMenu();
+                    break;
+                    
+                case "5":
                     salir = true;
                     System.out.println("¡Hasta pronto!");
                     break;
                     
                 default:
-                    System.out.println("Opción no válida. Por favor, selecciona 1-4.");
+                    System.out.println("Opción no válida. Por favor, selecciona 1-5.");
                     mostrarMenu();
             }
         }
@@ -78,8 +86,9 @@ public class PseudocodeCLI {
         System.out.println("\nMenú Principal:");
         System.out.println("1. Interpretar archivo");
         System.out.println("2. Traducir a Python");
-        System.out.println("3. Ayuda");
-        System.out.println("4. Salir");
+        System.out.println("3. Perfilar archivo");
+        System.out.println("4. Ayuda");
+        System.out.println("5. Salir");
     }
     
     private void mostrarBanner() {
@@ -95,12 +104,15 @@ public class PseudocodeCLI {
         System.out.println("\nUso del programa:");
         System.out.println("1. Interpretar archivo: Ejecuta el código pseudocódigo directamente");
         System.out.println("2. Traducir a Python: Convierte el código a Python");
-        System.out.println("3. Ayuda: Muestra esta información");
-        System.out.println("4. Salir: Termina el programa");
+        System.out.println("3. Perfilar archivo: Ejecuta el código midiendo ejecuciones y tiempo por línea");
+        System.out.println("4. Ayuda: Muestra esta información");
+        System.out.println("5. Salir: Termina el programa");
         System.out.println("\nSintaxis del pseudocódigo:");
         System.out.println("  Variables:     x = 5");
         System.out.println("  Condicional:   si (x > 0) entonces ... sino ... fin_si");
         System.out.println("  Bucle:         repite (x > 0) ... fin_repite");
+        System.out.println("  Arreglos:      a = [1, 2, 3]   b = [0; 10]   a[0] = b[1]");
+        System.out.println("  Funciones:     raiz(x)  abs(x)  min(a, b)  longitud(s)  texto(x) ...");
         System.out.println("  Salida:        escribir \"Hola mundo\"");
         System.out.println("  Operadores:    +, -, *, /, %, ==, !=, <, >, <=, >=, y, o, no");
     }
@@ -137,26 +149,49 @@ public class PseudocodeCLI {
         }
     }
     
-    private String ejecutarCodigo(String codigo, boolean traducir) {
+    private void perfilarArchivo(String nombreArchivo) {
         try {
-            // Análisis léxico
-            Lexer lexer = new Lexer(codigo);
-            List<Token> tokens = lexer.analizarTokens();
+            String codigo = leerArchivo(nombreArchivo);
+            System.out.println("\nPerfilando archivo: " + nombreArchivo);
+            System.out.println("═".repeat(50));
             
-            // Análisis sintáctico
-            Parser parser = new Parser(tokens);
-            Programa programa = parser.analizarPrograma();
+            Programa programa = Procesador.optimizar(Procesador.analizar(codigo));
+            Perfilador perfilador = new Perfilador();
+            try {
+                Procesador.interpretar(programa, System.out, perfilador);
+            } finally {
+                String base = nombreArchivo.replaceAll("\\.[^.]*$", "");
+                String nombreListado = base + ".perfil.txt";
+                String nombrePilas = base + ".collapsed";
+                String listado = perfilador.generarListadoAnotado(codigo);
+                Files.write(Paths.get(nombreListado), listado.getBytes());
+                Files.write(Paths.get(nombrePilas), perfilador.generarPilasColapsadas().getBytes());
+                
+                System.out.println("\n" + "═".repeat(50));
+                System.out.println(listado);
+                System.out.println("Listado anotado guardado en: " + nombreListado);
+                System.out.println("Pilas colapsadas (flamegraph) guardadas en: " + nombrePilas);
+            }
+        } catch (IOException e) {
+            System.err.println("Error: No se pudo procesar el archivo: " + nombreArchivo);
+        } catch (Exception e) {
+            System.err.println("Error: " + e.getMessage());
+        }
+    }
+    
+    private String ejecutarCodigo(String codigo, boolean traducir) {
+        try {
+            // Análisis léxico y sintáctico
+            Programa programa = Procesador.optimizar(Procesador.analizar(codigo));
             
             if (traducir) {
                 // Traducir a Python
-                TraductorPython traductor = new TraductorPython();
-                String codigoPython = traductor.traducir(programa);
+                String codigoPython = Procesador.traducir(programa);
                 System.out.println(codigoPython);
                 return codigoPython;
             } else {
                 // Interpretar
-                Interpreter interpreter = new Interpreter();
-                interpreter.interpretar(programa);
+                Procesador.interpretar(programa, System.out);
                 return null;
             }
             
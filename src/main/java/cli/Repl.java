@@ -0,0 +1,242 @@
+package cli;
+
+import ast.Escribir;
+import ast.Expresion;
+import ast.Programa;
+import interpreter.Interpreter;
+import lexer.Lexer;
+import lexer.Token;
+import optimizer.Optimizador;
+import parser.Parser;
+import symbols.Simbolo;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Sesión interactiva que ejecuta el código línea a línea sobre un mismo
+ * intérprete, de modo que las variables definidas se conservan entre entradas.
+ *
+ * Cada entrada se analiza por separado; si deja abierto un bloque si o repite
+ * se sigue leyendo hasta su fin_si o fin_repite. Una entrada que es solo una
+ * expresión se escribe. Los AST ya compilados se guardan por texto, así que
+ * repetir una entrada no vuelve a analizarla ni a optimizarla.
+ */
+public class Repl {
+    private static final int TAMANO_CACHE = 256;
+    private static final String AYUDA =
+            "Escribe declaraciones o expresiones; las expresiones se muestran.\n" +
+            "  :variables   Muestra las variables definidas\n" +
+            "  :tiempo      Activa o desactiva la medición de cada entrada\n" +
+            "  :ayuda       Muestra esta ayuda\n" +
+            "  :salir       Termina la sesión (también fin de entrada)\n";
+
+    private final BufferedReader entrada;
+    private final PrintStream salida;
+    private final PrintStream errores;
+    private final boolean interactivo;
+    private final Interpreter interpreter;
+    private final Map<String, Programa> compilados = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Programa> mayor) {
+            return size() > TAMANO_CACHE;
+        }
+    };
+    private boolean medirTiempo;
+
+    /**
+     * @param interactivo si se muestran los indicadores de entrada
+     */
+    public Repl(InputStream entrada, PrintStream salida, PrintStream errores, boolean interactivo) {
+        this.entrada = new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8));
+        this.salida = salida;
+        this.errores = errores;
+        this.interactivo = interactivo;
+        this.interpreter = new Interpreter(salida);
+    }
+
+    /**
+     * Lee y ejecuta entradas hasta el fin de la entrada o :salir. Retorna
+     * el código de salida de la última entrada que falló, o 0 si ninguna falló.
+     */
+    public int ejecutar() throws IOException {
+        if (interactivo) {
+            salida.println("Pseudocódigo interactivo. :ayuda para ver los comandos, :salir para terminar.");
+        }
+        StringBuilder pendiente = new StringBuilder();
+        int resultado = Comandos.EXITO;
+
+        while (true) {
+            if (interactivo) {
+                salida.print(pendiente.length() == 0 ? "> " : "... ");
+                salida.flush();
+            }
+            String linea = entrada.readLine();
+            if (linea == null) {
+                break;
+            }
+            if (pendiente.length() == 0) {
+                String recortada = linea.trim();
+                if (recortada.isEmpty()) {
+                    continue;
+                }
+                if (recortada.startsWith(":")) {
+                    if (!comandoDeSesion(recortada)) {
+                        break;
+                    }
+                    continue;
+                }
+            }
+
+            pendiente.append(linea).append('\n');
+            String texto = pendiente.toString();
+            long inicio = System.nanoTime();
+            try {
+                Programa programa = compilados.get(texto);
+                if (programa == null) {
+                    List<Token> tokens = new Lexer(texto).analizarTokens();
+                    if (bloquesAbiertos(tokens) > 0) {
+                        continue; // Falta el fin del bloque
+                    }
+                    programa = compilar(tokens);
+                    compilados.put(texto, programa);
+                }
+                pendiente.setLength(0);
+                interpreter.interpretar(programa);
+            } catch (RuntimeException e) {
+                pendiente.setLength(0);
+                salida.flush();
+                errores.println("Error: " + e.getMessage());
+                resultado = Comandos.codigoDeSalida(e);
+            }
+            salida.flush();
+            if (medirTiempo) {
+                errores.printf("(%.3f ms)%n", (System.nanoTime() - inicio) / 1_000_000.0);
+            }
+        }
+        salida.flush();
+        return resultado;
+    }
+
+    /**
+     * Ejecuta un comando de la sesión. Retorna false si la sesión debe terminar.
+     */
+    private boolean comandoDeSesion(String comando) {
+        switch (comando) {
+            case ":salir":
+                return false;
+            case ":variables":
+                mostrarVariables();
+                break;
+            case ":tiempo":
+                medirTiempo = !medirTiempo;
+                salida.println("Medición de tiempo " + (medirTiempo ? "activada" : "desactivada"));
+                break;
+            case ":ayuda":
+                salida.print(AYUDA);
+                break;
+            default:
+                errores.println("Comando desconocido: " + comando + " (:ayuda para ver los comandos)");
+        }
+        salida.flush();
+        return true;
+    }
+
+    private void mostrarVariables() {
+        Map<String, Simbolo> variables = new TreeMap<>();
+        for (Map<String, Simbolo> ambito : interpreter.getTablaSimbolos().getAmbitos()) {
+            variables.putAll(ambito);
+        }
+        for (Map.Entry<String, Simbolo> variable : variables.entrySet()) {
+            Simbolo simbolo = variable.getValue();
+            salida.println(variable.getKey() + " = " + simbolo.getValor() + " (" + simbolo.getTipo() + ")");
+        }
+    }
+
+    /**
+     * Número de bloques si/repite/paralelo que quedan sin cerrar en la entrada.
+     */
+    private static int bloquesAbiertos(List<Token> tokens) {
+        int abiertos = 0;
+        for (Token token : tokens) {
+            switch (token.getTipo()) {
+                case SI:
+                case REPITE:
+                case PARALELO:
+                    abiertos++;
+                    break;
+                case FIN_SI:
+                case FIN_REPITE:
+                case FIN_PARALELO:
+                    abiertos--;
+                    break;
+                default:
+                    break;
+            }
+        }
+        return abiertos;
+    }
+
+    /**
+     * Analiza la entrada como declaraciones o, si no empieza como una
+     * declaración, como una expresión que se escribe.
+     */
+    private static Programa compilar(List<Token> tokens) {
+        Token primero = tokens.get(0);
+        boolean esDeclaracion;
+        switch (primero.getTipo()) {
+            case SI:
+            case REPITE:
+            case PARALELO:
+            case ESCRIBIR:
+                esDeclaracion = true;
+                break;
+            case IDENTIFICADOR:
+                esDeclaracion = tokens.get(saltarIndices(tokens, 1)).getTipo() == Token.Tipo.ASIGNACION;
+                break;
+            default:
+                esDeclaracion = false;
+        }
+
+        Programa programa;
+        if (esDeclaracion) {
+            programa = new Parser(tokens).analizarPrograma();
+        } else {
+            Expresion expresion = new Parser(tokens).analizarExpresion();
+            programa = new Programa(List.of(new Escribir(expresion, primero.getLinea(), primero.getColumna())));
+        }
+        return new Optimizador(false).optimizar(programa);
+    }
+
+    /**
+     * Posición del primer token tras los índices que siguen a un
+     * identificador, para distinguir {@code a[i] = v} de la expresión
+     * {@code a[i]}.
+     */
+    private static int saltarIndices(List<Token> tokens, int posicion) {
+        while (tokens.get(posicion).getTipo() == Token.Tipo.CORCHETE_IZQ) {
+            int abiertos = 0;
+            do {
+                Token.Tipo tipo = tokens.get(posicion).getTipo();
+                if (tipo == Token.Tipo.FIN_ARCHIVO) {
+                    return posicion;
+                }
+                if (tipo == Token.Tipo.CORCHETE_IZQ) {
+                    abiertos++;
+                } else if (tipo == Token.Tipo.CORCHETE_DER) {
+                    abiertos--;
+                }
+                posicion++;
+            } while (abiertos > 0);
+        }
+        return posicion;
+    }
+}
@@ -0,0 +1,151 @@
+package cli;
+
+import interpreter.LectorTraza;
+import interpreter.Traza;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Recorre una traza de ejecución mostrando cada declaración (con su código,
+ * si se indica el programa), las decisiones de si y repite y los valores
+ * asignados, sin volver a ejecutar el programa.
+ *
+ * En modo paso a paso se detiene antes de cada declaración; el estado de las
+ * variables se reconstruye a partir de las asignaciones registradas.
+ *
+ * Si la traza perdió registros porque el búfer estaba lleno, se avisa antes
+ * de empezar y en cada hueco, y las variables reconstruidas después de un
+ * hueco se marcan como posiblemente desactualizadas.
+ */
+public class Reproductor {
+    private static final String AYUDA_PASOS =
+            "[Enter] siguiente  c continuar  v variables  q salir";
+
+    private final PrintStream salida;
+    private final boolean pasoAPaso;
+    private final Map<String, Object> variables = new LinkedHashMap<>();
+
+    public Reproductor(PrintStream salida, boolean pasoAPaso) {
+        this.salida = salida;
+        this.pasoAPaso = pasoAPaso;
+    }
+
+    /**
+     * Reproduce la traza. Retorna el código de salida del comando.
+     *
+     * @param programa código fuente que generó la traza (puede ser nulo)
+     */
+    public int reproducir(Path archivoTraza, Path programa) throws IOException {
+        List<String> lineas = null;
+        BufferedReader teclado = pasoAPaso ? new BufferedReader(new InputStreamReader(System.in)) : null;
+        boolean detenerse = pasoAPaso;
+
+        long descartados = LectorTraza.contarDescartados(Files.newInputStream(archivoTraza));
+        if (descartados > 0) {
+            System.err.println("Aviso: la traza perdió " + descartados + " registros porque el búfer estaba lleno; "
+                    + "faltan declaraciones y asignaciones en los puntos marcados");
+        }
+
+        try (LectorTraza lector = new LectorTraza(Files.newInputStream(archivoTraza))) {
+            if (programa != null) {
+                String codigo = Files.readString(programa);
+                if (Comandos.crc(codigo) != lector.getCrcFuente()) {
+                    System.err.println("Aviso: " + programa + " no es el código que generó la traza; "
+                            + "las líneas mostradas pueden no corresponder");
+                }
+                lineas = codigo.lines().toList();
+            }
+
+            LectorTraza.Evento evento;
+            while ((evento = lector.siguiente()) != null) {
+                switch (evento.getTipo()) {
+                    case Traza.DECLARACION:
+                        if (detenerse) {
+                            String orden = pedirOrden(teclado, lector.getDescartados());
+                            if (orden.equals("q")) {
+                                return Comandos.EXITO;
+                            }
+                            if (orden.equals("c")) {
+                                detenerse = false;
+                            }
+                        }
+                        salida.printf("%5d:%-3d %s%n", evento.getLinea(), evento.getColumna(),
+                                codigoDe(lineas, evento.getLinea()));
+                        break;
+                    case Traza.RAMA:
+                        salida.println("          -> " + describirRama(evento.getDecision()));
+                        break;
+                    case Traza.ASIGNACION:
+                        variables.put(evento.getNombre(), evento.getValor());
+                        salida.println("          " + evento.getNombre() + " = " + evento.getValor());
+                        break;
+                    case Traza.HUECO:
+                        salida.println("          ... " + evento.getCantidad()
+                                + " registros descartados (búfer lleno) ...");
+                        break;
+                    case Traza.FIN:
+                        salida.println("Fin de la traza: " + evento.getValor() + " registros, "
+                                + evento.getCantidad() + " descartados");
+                        break;
+                    default:
+                        break;
+                }
+            }
+        }
+        salida.flush();
+        return Comandos.EXITO;
+    }
+
+    /**
+     * Espera una orden del usuario; "v" muestra las variables y sigue esperando.
+     *
+     * @param descartados registros perdidos hasta este punto de la traza
+     */
+    private String pedirOrden(BufferedReader teclado, long descartados) throws IOException {
+        while (true) {
+            salida.print(AYUDA_PASOS + "> ");
+            salida.flush();
+            String linea = teclado.readLine();
+            if (linea == null) {
+                return "q";
+            }
+            String orden = linea.trim();
+            if (!orden.equals("v")) {
+                return orden;
+            }
+            for (Map.Entry<String, Object> variable : variables.entrySet()) {
+                salida.println("  " + variable.getKey() + " = " + variable.getValue());
+            }
+            if (descartados > 0) {
+                salida.println("  (se perdieron " + descartados
+                        + " registros antes de este punto: algún valor puede no ser el último asignado)");
+            }
+        }
+    }
+
+    private static String codigoDe(List<String> lineas, int linea) {
+        if (lineas == null || linea < 1 || linea > lineas.size()) {
+            return "";
+        }
+        return lineas.get(linea - 1).trim();
+    }
+
+    private static String describirRama(byte decision) {
+        switch (decision) {
+            case Traza.RAMA_ENTONCES: return "entonces";
+            case Traza.RAMA_SINO: return "sino";
+            case Traza.RAMA_NINGUNA: return "condición falsa, sin sino";
+            case Traza.RAMA_ITERA: return "itera";
+            case Traza.RAMA_SALE: return "sale del bucle";
+            default: return "decisión " + decision;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package diagnosticos;
+
+/**
+ * Error del lenguaje descrito como un registro compacto: un código, la
+ * posición en el código fuente (0 si no se conoce) y los argumentos de la
+ * plantilla del mensaje. El texto se forma solo cuando se pide, así que crear
+ * un diagnóstico cuesta poco más que guardar sus campos.
+ */
+public final class Diagnostico {
+    private final Codigo codigo;
+    private final int linea;
+    private final int columna;
+    private final Object[] argumentos;
+
+    /**
+     * Tipos de error, con la plantilla (en el formato de String.format) de su
+     * mensaje.
+     */
+    public enum Codigo {
+        SINTAXIS("%s cerca de '%s'"),
+        VARIABLE_NO_DEFINIDA("Variable no definida: %s"),
+        TIPOS_INCOMPATIBLES("Incompatibilidad de tipos: no se puede asignar %s a %s"),
+        DIVISION_POR_CERO("División por cero"),
+        MODULO_POR_CERO("División por cero en módulo"),
+        MODULO_NO_ENTERO("El operador módulo solo funciona con enteros"),
+        NEGACION_NO_NUMERICA("No se puede negar: %s"),
+        CONVERSION_NUMERICA("No se puede convertir a número: %s"),
+        TIPOS_NO_COMPARABLES("No se pueden comparar estos tipos: %s y %s"),
+        LIMITES_PARALELO("Los límites de un bucle paralelo deben ser enteros"),
+        ASIGNACION_EN_PARALELO("El bucle paralelo no puede asignar la variable '%s' porque no es de reducción"),
+        REDUCCION_NO_NUMERICA("La reducción %s necesita una variable numérica: %s"),
+        NO_ES_ARREGLO("No se puede indexar un valor que no es un arreglo: %s"),
+        INDICE_NO_ENTERO("El índice de un arreglo debe ser entero: %s"),
+        INDICE_FUERA_DE_RANGO("Índice %s fuera del arreglo de %d elementos"),
+        LONGITUD_NO_VALIDA("La longitud de un arreglo debe ser un entero no negativo: %s"),
+        ARGUMENTO_NO_VALIDO("Argumento no válido para %s: %s"),
+        TRADUCCION("%s"),
+        ENTRADA_SALIDA("%s"),
+        EJECUCION("%s");
+
+        private final String plantilla;
+
+        Codigo(String plantilla) {
+            this.plantilla = plantilla;
+        }
+
+        public String getPlantilla() {
+            return plantilla;
+        }
+    }
+
+    public Diagnostico(Codigo codigo, int linea, int columna, Object... argumentos) {
+        this.codigo = codigo;
+        this.linea = linea;
+        this.columna = columna;
+        this.argumentos = argumentos;
+    }
+
+    /**
+     * Diagnóstico sin posición conocida.
+     */
+    public static Diagnostico de(Codigo codigo, Object... argumentos) {
+        return new Diagnostico(codigo, 0, 0, argumentos);
+    }
+
+    /**
+     * El mismo diagnóstico en la posición indicada.
+     */
+    public Diagnostico enPosicion(int linea, int columna) {
+        return new Diagnostico(codigo, linea, columna, argumentos);
+    }
+
+    public Codigo getCodigo() {
+        return codigo;
+    }
+
+    public int getLinea() {
+        return linea;
+    }
+
+    public int getColumna() {
+        return columna;
+    }
+
+    public boolean tienePosicion() {
+        return linea > 0;
+    }
+
+    public Object[] getArgumentos() {
+        return argumentos;
+    }
+
+    /**
+     * Mensaje sin la posición.
+     */
+    public String getMensaje() {
+        return argumentos.length == 0 ? codigo.plantilla : String.format(codigo.plantilla, argumentos);
+    }
+
+    /**
+     * Forma compacta de una línea: "línea:columna: CÓDIGO mensaje".
+     */
+    @Override
+    public String toString() {
+        return linea + ":" + columna + ": " + codigo + " " + getMensaje();
+    }
+}
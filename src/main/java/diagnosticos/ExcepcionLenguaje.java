@@ -0,0 +1,39 @@
+package diagnosticos;
+
+/**
+ * Base de las excepciones del lenguaje (errores del programa, no del
+ * intérprete). Llevan un {@link Diagnostico} y no capturan la pila de Java,
+ * que no dice nada sobre el programa y es lo más caro de crear una excepción;
+ * el mensaje se forma solo cuando se pide.
+ */
+public class ExcepcionLenguaje extends RuntimeException {
+    private Diagnostico diagnostico;
+
+    protected ExcepcionLenguaje(Diagnostico diagnostico, Throwable causa) {
+        super(null, causa, false, false);
+        this.diagnostico = diagnostico;
+    }
+
+    public Diagnostico getDiagnostico() {
+        return diagnostico;
+    }
+
+    /**
+     * Anota la posición de la declaración en la que se produjo el error, si
+     * aún no tiene una: la primera que se anota es la más interna.
+     */
+    public void ubicar(int linea, int columna) {
+        if (!diagnostico.tienePosicion() && linea > 0) {
+            diagnostico = diagnostico.enPosicion(linea, columna);
+        }
+    }
+
+    @Override
+    public String getMessage() {
+        String mensaje = diagnostico.getMensaje();
+        if (!diagnostico.tienePosicion()) {
+            return mensaje;
+        }
+        return mensaje + " en línea " + diagnostico.getLinea() + ", columna " + diagnostico.getColumna();
+    }
+}
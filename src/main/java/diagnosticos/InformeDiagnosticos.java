@@ -0,0 +1,63 @@
+package diagnosticos;
+
+import java.io.PrintStream;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Informe de una verificación en bloque: escribe un registro compacto por
+ * diagnóstico a medida que llegan ("origen:línea:columna: CÓDIGO mensaje") y
+ * cuenta cuántos hay de cada código para el resumen final. No guarda los
+ * diagnósticos, así que su memoria no crece con el número de archivos.
+ */
+public class InformeDiagnosticos {
+    private final PrintStream salida;
+    private final Map<Diagnostico.Codigo, Long> porCodigo = new EnumMap<>(Diagnostico.Codigo.class);
+    private long origenes;
+    private long origenesConErrores;
+
+    public InformeDiagnosticos(PrintStream salida) {
+        this.salida = salida;
+    }
+
+    /**
+     * Registra un origen (normalmente un archivo) verificado sin errores.
+     */
+    public void correcto() {
+        origenes++;
+    }
+
+    /**
+     * Registra un origen con un diagnóstico.
+     */
+    public void registrar(String origen, Diagnostico diagnostico) {
+        origenes++;
+        origenesConErrores++;
+        porCodigo.merge(diagnostico.getCodigo(), 1L, Long::sum);
+        salida.print(origen);
+        salida.print(':');
+        salida.println(diagnostico);
+    }
+
+    public long getOrigenes() {
+        return origenes;
+    }
+
+    public long getOrigenesConErrores() {
+        return origenesConErrores;
+    }
+
+    public Map<Diagnostico.Codigo, Long> getPorCodigo() {
+        return porCodigo;
+    }
+
+    /**
+     * Escribe el total de orígenes verificados y de diagnósticos por código.
+     */
+    public void escribirResumen(PrintStream destino) {
+        destino.println(origenes + " verificados, " + origenesConErrores + " con errores");
+        for (Map.Entry<Diagnostico.Codigo, Long> entrada : porCodigo.entrySet()) {
+            destino.println("  " + entrada.getKey() + ": " + entrada.getValue());
+        }
+    }
+}
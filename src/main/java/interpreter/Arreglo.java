@@ -0,0 +1,286 @@
+package interpreter;
+
+import diagnosticos.Diagnostico;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.RandomAccess;
+import java.util.Set;
+
+/**
+ * Valor arreglo del lenguaje: una secuencia de longitud fija de valores de
+ * cualquier tipo. Se comparte por referencia, así que asignar un arreglo a
+ * otra variable no lo copia.
+ *
+ * Mientras todos los elementos son Integer se guardan en un int[], y mientras
+ * todos son Double en un double[]; al asignar un elemento de otra clase el
+ * contenido pasa a un Object[] y ya no vuelve a especializarse. Así un arreglo
+ * numérico ocupa 4 u 8 bytes por elemento, sin un objeto por cada uno, y los
+ * valores leídos son los mismos que se escribieron.
+ *
+ * Es una lista para que la tabla de símbolos lo reconozca sin depender del
+ * intérprete (ver {@code Simbolo.inferirTipo}).
+ */
+public final class Arreglo extends AbstractList<Object> implements RandomAccess {
+    // int[], double[] u Object[]. Es volatile porque los tramos de un bucle
+    // paralelo pueden leer el arreglo mientras otro lo generaliza
+    private volatile Object datos;
+    private final int longitud;
+
+    private Arreglo(Object datos, int longitud) {
+        this.datos = datos;
+        this.longitud = longitud;
+    }
+
+    /**
+     * Arreglo con los elementos indicados, con el almacenamiento más compacto
+     * que admiten.
+     */
+    static Arreglo deElementos(Object[] elementos) {
+        boolean enteros = true;
+        boolean decimales = true;
+        for (Object elemento : elementos) {
+            enteros &= elemento instanceof Integer;
+            decimales &= elemento instanceof Double;
+        }
+        if (enteros) {
+            int[] valores = new int[elementos.length];
+            for (int i = 0; i < valores.length; i++) {
+                valores[i] = (Integer) elementos[i];
+            }
+            return new Arreglo(valores, valores.length);
+        }
+        if (decimales) {
+            double[] valores = new double[elementos.length];
+            for (int i = 0; i < valores.length; i++) {
+                valores[i] = (Double) elementos[i];
+            }
+            return new Arreglo(valores, valores.length);
+        }
+        return new Arreglo(elementos, elementos.length);
+    }
+
+    /**
+     * Arreglo de la longitud indicada con todos sus elementos iguales al valor.
+     */
+    static Arreglo repetido(Object valor, int longitud) {
+        if (valor instanceof Integer) {
+            int[] valores = new int[longitud];
+            int entero = (Integer) valor;
+            if (entero != 0) {
+                Arrays.fill(valores, entero);
+            }
+            return new Arreglo(valores, longitud);
+        }
+        if (valor instanceof Double) {
+            double[] valores = new double[longitud];
+            Arrays.fill(valores, (Double) valor);
+            return new Arreglo(valores, longitud);
+        }
+        Object[] valores = new Object[longitud];
+        Arrays.fill(valores, valor);
+        return new Arreglo(valores, longitud);
+    }
+
+    /**
+     * Arreglo que usa directamente el almacenamiento indicado (int[], double[]
+     * u Object[]), sin copiarlo.
+     */
+    static Arreglo conDatos(Object datos) {
+        int longitud;
+        if (datos instanceof int[]) {
+            longitud = ((int[]) datos).length;
+        } else if (datos instanceof double[]) {
+            longitud = ((double[]) datos).length;
+        } else {
+            longitud = ((Object[]) datos).length;
+        }
+        return new Arreglo(datos, longitud);
+    }
+
+    /**
+     * Almacenamiento actual: int[], double[] u Object[].
+     */
+    Object getDatos() {
+        return datos;
+    }
+
+    @Override
+    public int size() {
+        return longitud;
+    }
+
+    @Override
+    public Object get(int indice) {
+        if (indice < 0 || indice >= longitud) {
+            throw new IndexOutOfBoundsException(indice);
+        }
+        return leer(datos, indice);
+    }
+
+    /**
+     * Elemento en la posición indicada por un valor del lenguaje.
+     */
+    Object obtener(Object indice) {
+        return leer(datos, posicion(indice));
+    }
+
+    private static Object leer(Object datos, int i) {
+        if (datos instanceof int[]) {
+            return ((int[]) datos)[i];
+        }
+        if (datos instanceof double[]) {
+            return ((double[]) datos)[i];
+        }
+        return ((Object[]) datos)[i];
+    }
+
+    /**
+     * Asigna el elemento en la posición indicada por un valor del lenguaje,
+     * generalizando el almacenamiento si el valor no cabe en él.
+     */
+    void asignar(Object indice, Object valor) {
+        int i = posicion(indice);
+        Object actual = datos;
+        if (actual instanceof int[]) {
+            if (valor instanceof Integer) {
+                ((int[]) actual)[i] = (Integer) valor;
+                return;
+            }
+        } else if (actual instanceof double[]) {
+            if (valor instanceof Double) {
+                ((double[]) actual)[i] = (Double) valor;
+                return;
+            }
+        } else {
+            ((Object[]) actual)[i] = valor;
+            return;
+        }
+        generalizar(actual)[i] = valor;
+    }
+
+    /**
+     * Como {@link #asignar}, para los tramos de un bucle paralelo: escribir
+     * con el monitor del arreglo evita que una escritura en el almacenamiento
+     * especializado se pierda mientras otro tramo lo generaliza.
+     */
+    synchronized void asignarSincronizado(Object indice, Object valor) {
+        asignar(indice, valor);
+    }
+
+    private Object[] generalizar(Object actual) {
+        Object[] objetos = new Object[longitud];
+        for (int i = 0; i < longitud; i++) {
+            objetos[i] = leer(actual, i);
+        }
+        datos = objetos;
+        return objetos;
+    }
+
+    /**
+     * Comprueba que el índice es un entero dentro del arreglo.
+     */
+    private int posicion(Object indice) {
+        if (indice instanceof Integer) {
+            int i = (Integer) indice;
+            if (i >= 0 && i < longitud) {
+                return i;
+            }
+        } else if (!Enteros.esEntero(indice)) {
+            throw new ExcepcionInterpreter(Diagnostico.Codigo.INDICE_NO_ENTERO, Operaciones.convertirACadena(indice));
+        }
+        throw new ExcepcionInterpreter(Diagnostico.Codigo.INDICE_FUERA_DE_RANGO, indice, longitud);
+    }
+
+    /**
+     * Menor elemento, o el mayor si {@code mayor} es true, con las
+     * comparaciones del lenguaje; entre elementos iguales se queda con el
+     * primero. Los int[] y double[] se recorren sin crear objetos. El arreglo
+     * no puede estar vacío.
+     */
+    public Object extremo(boolean mayor) {
+        int signo = mayor ? 1 : -1;
+        Object actual = datos;
+        if (actual instanceof int[]) {
+            int[] valores = (int[]) actual;
+            int extremo = valores[0];
+            for (int i = 1; i < longitud; i++) {
+                if (Integer.compare(valores[i], extremo) * signo > 0) {
+                    extremo = valores[i];
+                }
+            }
+            return extremo;
+        }
+        if (actual instanceof double[]) {
+            double[] valores = (double[]) actual;
+            double extremo = valores[0];
+            for (int i = 1; i < longitud; i++) {
+                if (Double.compare(valores[i], extremo) * signo > 0) {
+                    extremo = valores[i];
+                }
+            }
+            return extremo;
+        }
+        Object[] valores = (Object[]) actual;
+        Object extremo = valores[0];
+        for (int i = 1; i < longitud; i++) {
+            if (Operaciones.compararNumeros(valores[i], extremo) * signo > 0) {
+                extremo = valores[i];
+            }
+        }
+        return extremo;
+    }
+
+    /**
+     * Texto del arreglo como lo escribe {@code escribir}: {@code [1, 2, 3]},
+     * con los elementos como se escribirían solos. Un arreglo que se contiene
+     * a sí mismo se escribe como {@code [...]} en la repetición.
+     */
+    @Override
+    public String toString() {
+        StringBuilder texto = new StringBuilder();
+        escribirTexto(texto, Collections.newSetFromMap(new IdentityHashMap<>()), Integer.MAX_VALUE);
+        return texto.toString();
+    }
+
+    /**
+     * Principio del texto del arreglo: se deja de añadir elementos en cuanto
+     * el texto pasa de {@code maximo} caracteres, así que no cuesta más que
+     * eso aunque el arreglo sea muy largo.
+     */
+    String texto(int maximo) {
+        StringBuilder texto = new StringBuilder();
+        escribirTexto(texto, Collections.newSetFromMap(new IdentityHashMap<>()), maximo);
+        return texto.toString();
+    }
+
+    private void escribirTexto(StringBuilder texto, Set<Arreglo> enCurso, int maximo) {
+        if (!enCurso.add(this)) {
+            texto.append("[...]");
+            return;
+        }
+        Object actual = datos;
+        texto.append('[');
+        for (int i = 0; i < longitud && texto.length() <= maximo; i++) {
+            if (i > 0) {
+                texto.append(", ");
+            }
+            if (actual instanceof int[]) {
+                texto.append(((int[]) actual)[i]);
+            } else if (actual instanceof double[]) {
+                texto.append(((double[]) actual)[i]);
+            } else {
+                Object elemento = ((Object[]) actual)[i];
+                if (elemento instanceof Arreglo) {
+                    ((Arreglo) elemento).escribirTexto(texto, enCurso, maximo);
+                } else {
+                    texto.append(Operaciones.convertirACadena(elemento));
+                }
+            }
+        }
+        texto.append(']');
+        enCurso.remove(this);
+    }
+}
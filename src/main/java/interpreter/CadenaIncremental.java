@@ -0,0 +1,122 @@
+package interpreter;
+
+/**
+ * Valor de cadena optimizado para concatenaciones sucesivas como
+ * {@code s = s + x} dentro de un bucle.
+ *
+ * Varias cadenas pueden compartir el mismo StringBuilder: cada una es una vista
+ * de sus primeros {@code longitud} caracteres. Como el contenido de esa zona
+ * nunca se modifica, añadir al final de la vista más larga escribe directamente
+ * en el builder (coste amortizado O(1)); añadir a una vista anterior, cuyo
+ * builder ya ha crecido por otro camino, copia primero su contenido.
+ *
+ * El String plano solo se construye (y se guarda) cuando hace falta para
+ * escribir, comparar o concatenar por la izquierda.
+ */
+public final class CadenaIncremental implements CharSequence {
+
+    /**
+     * Longitud a partir de la cual una concatenación de cadenas planas pasa a
+     * representarse con un builder compartido. Por debajo copiar es más barato
+     * que mantener el builder.
+     */
+    static final int LONGITUD_MINIMA = 256;
+
+    private final StringBuilder contenido;
+    private final int longitud;
+    private String plano;
+
+    private CadenaIncremental(StringBuilder contenido, int longitud) {
+        this.contenido = contenido;
+        this.longitud = longitud;
+    }
+
+    /**
+     * Concatena dos cadenas planas, creando un builder compartido si el
+     * resultado es suficientemente largo.
+     */
+    static CharSequence concatenar(String izquierda, String derecha) {
+        int total = izquierda.length() + derecha.length();
+        if (total < LONGITUD_MINIMA) {
+            return izquierda.concat(derecha);
+        }
+        StringBuilder contenido = new StringBuilder(total * 2);
+        contenido.append(izquierda).append(derecha);
+        return new CadenaIncremental(contenido, total);
+    }
+
+    /**
+     * Retorna una nueva cadena con el texto añadido al final de esta.
+     */
+    CadenaIncremental anadir(String texto) {
+        synchronized (contenido) {
+            if (contenido.length() == longitud) {
+                contenido.append(texto);
+                return new CadenaIncremental(contenido, contenido.length());
+            }
+            // El builder ya se extendió desde esta vista: copiar al escribir
+            StringBuilder copia = new StringBuilder((longitud + texto.length()) * 2);
+            copia.append(contenido, 0, longitud).append(texto);
+            return new CadenaIncremental(copia, copia.length());
+        }
+    }
+
+    @Override
+    public int length() {
+        return longitud;
+    }
+
+    @Override
+    public char charAt(int indice) {
+        if (indice < 0 || indice >= longitud) {
+            throw new IndexOutOfBoundsException(indice);
+        }
+        synchronized (contenido) {
+            return contenido.charAt(indice);
+        }
+    }
+
+    @Override
+    public CharSequence subSequence(int desde, int hasta) {
+        String resultado = plano;
+        if (resultado != null) {
+            return resultado.subSequence(desde, hasta);
+        }
+        if (desde < 0 || hasta > longitud || desde > hasta) {
+            throw new IndexOutOfBoundsException("[" + desde + ", " + hasta + ") fuera de " + longitud);
+        }
+        synchronized (contenido) {
+            return contenido.substring(desde, hasta); // Copia solo el tramo, no la cadena entera
+        }
+    }
+
+    /**
+     * Copia los primeros caracteres en el array indicado, con un solo
+     * bloqueo y sin crear objetos.
+     */
+    void copiarPrefijo(int caracteres, char[] destino) {
+        if (caracteres < 0 || caracteres > longitud) {
+            throw new IndexOutOfBoundsException(caracteres);
+        }
+        String resultado = plano;
+        if (resultado != null) {
+            resultado.getChars(0, caracteres, destino, 0);
+            return;
+        }
+        synchronized (contenido) {
+            contenido.getChars(0, caracteres, destino, 0);
+        }
+    }
+
+    @Override
+    public String toString() {
+        String resultado = plano;
+        if (resultado == null) {
+            synchronized (contenido) {
+                resultado = contenido.substring(0, longitud);
+            }
+            plano = resultado;
+        }
+        return resultado;
+    }
+}
@@ -0,0 +1,624 @@
+package interpreter;
+
+import ast.*;
+import biblioteca.Funcion;
+import biblioteca.Intrinsecos;
+import diagnosticos.ExcepcionLenguaje;
+import lexer.Token;
+import symbols.ExcepcionSimbolos;
+import symbols.Simbolo;
+import symbols.TablaSimbolos;
+
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BinaryOperator;
+
+/**
+ * Motor de ejecución alternativo a {@link Interpreter}: compila el programa
+ * una sola vez en un árbol de clausuras y después solo las invoca.
+ *
+ * Todo lo que no cambia entre ejecuciones de un nodo se decide al compilar:
+ * qué operador aplica cada expresión, el valor de cada literal y el nombre de
+ * cada variable. Así la ejecución no paga el doble despacho del visitante ni
+ * el switch por operador, y HotSpot puede integrar las clausuras de un mismo
+ * bucle. La semántica es la del intérprete: ambos usan {@link Operaciones},
+ * evalúan los dos operandos de y/o y cuentan las declaraciones igual.
+ *
+ * No admite perfilado, trazas ni puntos de control.
+ */
+public class CompiladorClausuras implements VisitanteAST<Object> {
+    private final TablaSimbolos tablaSimbolos;
+    private final PrintStream salida;
+    private long declaracionesEjecutadas;
+    private Object[] temporales = new Object[0]; // Ranuras de los nodos Invariante y ExpresionCompartida (null = sin calcular)
+    private boolean concurrente; // En los tramos de un bucle paralelo, que pueden escribir en el mismo arreglo
+
+    /**
+     * Expresión compilada.
+     */
+    @FunctionalInterface
+    public interface Evaluable {
+        Object evaluar();
+    }
+
+    /**
+     * Declaración compilada.
+     */
+    @FunctionalInterface
+    public interface Ejecutable {
+        void ejecutar();
+    }
+
+    public CompiladorClausuras(PrintStream salida) {
+        this(salida, new TablaSimbolos());
+    }
+
+    CompiladorClausuras(PrintStream salida, TablaSimbolos tablaSimbolos) {
+        this.tablaSimbolos = tablaSimbolos;
+        this.salida = salida;
+    }
+
+    /**
+     * Compila el programa en clausuras ligadas a este motor. El resultado se
+     * puede ejecutar con {@link #ejecutar}.
+     */
+    public Ejecutable compilar(Programa programa) {
+        return (Ejecutable) programa.aceptar(this);
+    }
+
+    /**
+     * Ejecuta un programa ya compilado por este motor.
+     */
+    public void ejecutar(Ejecutable programa) {
+        try {
+            programa.ejecutar();
+        } catch (ExcepcionLenguaje e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ExcepcionInterpreter("Error durante la interpretación: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Compila y ejecuta un programa completo.
+     */
+    public void interpretar(Programa programa) {
+        ejecutar(compilar(programa));
+    }
+
+    @Override
+    public Object visitarPrograma(Programa nodo) {
+        return bloque(nodo.getDeclaraciones());
+    }
+
+    @Override
+    public Object visitarAsignacion(Asignacion nodo) {
+        String nombre = nodo.getNombre();
+        Evaluable valor = expresion(nodo.getValor());
+        TablaSimbolos tabla = tablaSimbolos;
+        return (Ejecutable) () -> {
+            Object resultado = valor.evaluar();
+            if (tabla.existe(nombre)) {
+                tabla.asignar(nombre, resultado);
+            } else {
+                tabla.definir(nombre, resultado);
+            }
+        };
+    }
+
+    @Override
+    public Object visitarAsignacionElemento(AsignacionElemento nodo) {
+        Evaluable valor = expresion(nodo.getValor());
+        Evaluable arreglo = expresion(nodo.getArreglo());
+        Evaluable indice = expresion(nodo.getIndice());
+        if (concurrente) {
+            return (Ejecutable) () -> {
+                Object resultado = valor.evaluar();
+                Operaciones.asignarElementoSincronizado(arreglo.evaluar(), indice.evaluar(), resultado);
+            };
+        }
+        return (Ejecutable) () -> {
+            Object resultado = valor.evaluar();
+            Operaciones.asignarElemento(arreglo.evaluar(), indice.evaluar(), resultado);
+        };
+    }
+
+    @Override
+    public Object visitarSi(Si nodo) {
+        Evaluable condicion = expresion(nodo.getCondicion());
+        Ejecutable entonces = bloqueEnAmbito(nodo.getBloqueEntonces());
+        if (nodo.getBloqueSino() == null) {
+            return (Ejecutable) () -> {
+                if (Operaciones.esVerdadero(condicion.evaluar())) {
+                    entonces.ejecutar();
+                }
+            };
+        }
+        Ejecutable sino = bloqueEnAmbito(nodo.getBloqueSino());
+        return (Ejecutable) () -> {
+            if (Operaciones.esVerdadero(condicion.evaluar())) {
+                entonces.ejecutar();
+            } else {
+                sino.ejecutar();
+            }
+        };
+    }
+
+    @Override
+    public Object visitarRepite(Repite nodo) {
+        Evaluable condicion = expresion(nodo.getCondicion());
+        Ejecutable cuerpo = bloqueEnAmbito(nodo.getCuerpo());
+        Ejecutable olvidar = olvidarInvariantes(nodo.getInvariantes());
+        return (Ejecutable) () -> {
+            olvidar.ejecutar();
+            while (Operaciones.esVerdadero(condicion.evaluar())) {
+                cuerpo.ejecutar();
+            }
+        };
+    }
+
+    @Override
+    public Object visitarRepiteContado(RepiteContado nodo) {
+        Ejecutable generico = (Ejecutable) visitarRepite(nodo.getOriginal());
+        String nombreContador = nodo.getContador();
+        Evaluable limite = expresion(nodo.getLimite());
+        Ejecutable cuerpo = bloqueEnAmbito(nodo.getCuerpo());
+        Ejecutable olvidar = olvidarInvariantes(nodo.getOriginal().getInvariantes());
+        int paso = nodo.getPaso();
+        boolean incluyeLimite = nodo.getComparador() == Token.Tipo.MENOR_IGUAL;
+        TablaSimbolos tabla = tablaSimbolos;
+
+        // Igual que en Interpreter: contador long guardado como Integer mientras quepa
+        return (Ejecutable) () -> {
+            Object valorContador = tabla.obtener(nombreContador);
+            Object valorLimite = limite.evaluar();
+            if (!(valorContador instanceof Integer) || !(valorLimite instanceof Integer)) {
+                generico.ejecutar();
+                return;
+            }
+            olvidar.ejecutar();
+            Simbolo simbolo = tabla.obtenerSimbolo(nombreContador);
+            long contador = (Integer) valorContador;
+            int tope = (Integer) valorLimite;
+            while (incluyeLimite ? contador <= tope : contador < tope) {
+                cuerpo.ejecutar();
+                contador += paso;
+                simbolo.setValor(contador <= Integer.MAX_VALUE ? (Object) (int) contador : (Object) contador);
+                declaracionesEjecutadas++; // La declaración de incremento
+            }
+        };
+    }
+
+    @Override
+    public Object visitarActualizacionCompuesta(ActualizacionCompuesta nodo) {
+        String nombre = nodo.getNombre();
+        Evaluable expresion = expresion(nodo.getExpresion());
+        TablaSimbolos tabla = tablaSimbolos;
+        BinaryOperator<Object> operacion;
+        switch (nodo.getOperador()) {
+            case SUMA:
+                operacion = Operaciones::sumar;
+                break;
+            case RESTA:
+                operacion = Operaciones::restar;
+                break;
+            case MULTIPLICACION:
+                operacion = Operaciones::multiplicar;
+                break;
+            case DIVISION:
+                operacion = Operaciones::dividir;
+                break;
+            case MODULO:
+                operacion = Operaciones::modulo;
+                break;
+            default:
+                throw new ExcepcionInterpreter("Operador de actualización no soportado: " + nodo.getOperador());
+        }
+        return (Ejecutable) () -> {
+            Simbolo simbolo = tabla.obtenerSimbolo(nombre);
+            if (simbolo == null) {
+                throw ExcepcionSimbolos.noDefinida(nombre);
+            }
+            tabla.asignar(simbolo, operacion.apply(simbolo.getValor(), expresion.evaluar()));
+        };
+    }
+
+    @Override
+    public Object visitarParalelo(Paralelo nodo) {
+        Evaluable inicio = expresion(nodo.getInicio());
+        Evaluable fin = expresion(nodo.getFin());
+        List<Declaracion> cuerpo = nodo.getCuerpo();
+        TablaSimbolos tabla = tablaSimbolos;
+        PrintStream destino = salida;
+        // Las clausuras quedan ligadas a una tabla y una salida, así que cada
+        // tramo compila el cuerpo con su propio motor
+        return (Ejecutable) () -> {
+            EjecucionBucleParalelo bucle = new EjecucionBucleParalelo(nodo, inicio.evaluar(), fin.evaluar(), tabla);
+            declaracionesEjecutadas += bucle.ejecutarEnParalelo(ForkJoinPool.commonPool(), tabla, destino, null,
+                    (propia, salidaTramo, cancelado) -> {
+                        CompiladorClausuras motor = new CompiladorClausuras(salidaTramo, propia);
+                        motor.concurrente = true;
+                        Ejecutable compilado = motor.bloque(cuerpo);
+                        return new EjecucionBucleParalelo.Tramo(compilado::ejecutar,
+                                motor::getDeclaracionesEjecutadas);
+                    });
+        };
+    }
+
+    @Override
+    public Object visitarEscribir(Escribir nodo) {
+        Evaluable expresion = expresion(nodo.getExpresion());
+        PrintStream destino = salida;
+        return (Ejecutable) () -> destino.println(Operaciones.convertirACadena(expresion.evaluar()));
+    }
+
+    @Override
+    public Object visitarExpresionBinaria(ExpresionBinaria nodo) {
+        Evaluable izquierda = expresion(nodo.getIzquierda());
+        Evaluable derecha = expresion(nodo.getDerecha());
+        switch (nodo.getOperador()) {
+            case SUMA:
+                return (Evaluable) () -> Operaciones.sumar(izquierda.evaluar(), derecha.evaluar());
+            case RESTA:
+                return (Evaluable) () -> Operaciones.restar(izquierda.evaluar(), derecha.evaluar());
+            case MULTIPLICACION:
+                return (Evaluable) () -> Operaciones.multiplicar(izquierda.evaluar(), derecha.evaluar());
+            case DIVISION:
+                return (Evaluable) () -> Operaciones.dividir(izquierda.evaluar(), derecha.evaluar());
+            case MODULO:
+                return (Evaluable) () -> Operaciones.modulo(izquierda.evaluar(), derecha.evaluar());
+            case IGUAL:
+                return (Evaluable) () -> Operaciones.sonIguales(izquierda.evaluar(), derecha.evaluar());
+            case DIFERENTE:
+                return (Evaluable) () -> !Operaciones.sonIguales(izquierda.evaluar(), derecha.evaluar());
+            case MAYOR:
+                return (Evaluable) () -> Operaciones.comparar(izquierda.evaluar(), derecha.evaluar()) > 0;
+            case MAYOR_IGUAL:
+                return (Evaluable) () -> Operaciones.comparar(izquierda.evaluar(), derecha.evaluar()) >= 0;
+            case MENOR:
+                return (Evaluable) () -> Operaciones.comparar(izquierda.evaluar(), derecha.evaluar()) < 0;
+            case MENOR_IGUAL:
+                return (Evaluable) () -> Operaciones.comparar(izquierda.evaluar(), derecha.evaluar()) <= 0;
+            case Y:
+                return (Evaluable) () -> {
+                    // Se evalúan ambos operandos, como en el intérprete
+                    Object izq = izquierda.evaluar();
+                    Object der = derecha.evaluar();
+                    return Operaciones.esVerdadero(izq) && Operaciones.esVerdadero(der);
+                };
+            case O:
+                return (Evaluable) () -> {
+                    Object izq = izquierda.evaluar();
+                    Object der = derecha.evaluar();
+                    return Operaciones.esVerdadero(izq) || Operaciones.esVerdadero(der);
+                };
+            default:
+                throw new ExcepcionInterpreter("Operador binario no soportado: " + nodo.getOperador());
+        }
+    }
+
+    @Override
+    public Object visitarExpresionUnaria(ExpresionUnaria nodo) {
+        Evaluable operando = expresion(nodo.getExpresion());
+        switch (nodo.getOperador()) {
+            case RESTA:
+                return (Evaluable) () -> Operaciones.unaria(Token.Tipo.RESTA, operando.evaluar());
+            case NO:
+                return (Evaluable) () -> !Operaciones.esVerdadero(operando.evaluar());
+            default:
+                throw new ExcepcionInterpreter("Operador unario no soportado: " + nodo.getOperador());
+        }
+    }
+
+    @Override
+    public Object visitarExpresionEspecializada(ExpresionEspecializada nodo) {
+        Evaluable operando = expresion(nodo.getOperando());
+        int bits = nodo.getBits();
+        switch (nodo.getEspecializacion()) {
+            case RESTO_POTENCIA_DOS:
+                return (Evaluable) () -> Operaciones.restoPotenciaDos(operando.evaluar(), bits);
+            case MULTIPLO_POTENCIA_DOS:
+                return (Evaluable) () -> Operaciones.esMultiploPotenciaDos(operando.evaluar(), bits);
+            case NO_MULTIPLO_POTENCIA_DOS:
+                return (Evaluable) () -> !Operaciones.esMultiploPotenciaDos(operando.evaluar(), bits);
+            case PRODUCTO_POTENCIA_DOS:
+                return (Evaluable) () -> Operaciones.productoPotenciaDos(operando.evaluar(), bits);
+            case COCIENTE_CONSTANTE: {
+                double divisor = nodo.getDivisor();
+                double inverso = nodo.getInverso();
+                return (Evaluable) () -> Operaciones.dividirPorConstante(operando.evaluar(), divisor, inverso);
+            }
+            default:
+                return comparacionNumerica(nodo.getOriginal().getOperador(), operando, nodo.getSegundo());
+        }
+    }
+
+    /**
+     * Comparación entre números con el operador ya resuelto. Si el operando
+     * derecho es un literal Integer (como en {@code i < 100}) se compara con
+     * la constante sin evaluarlo.
+     */
+    private Evaluable comparacionNumerica(Token.Tipo operador, Evaluable izquierda, Expresion segundo) {
+        if (segundo instanceof Literal && ((Literal) segundo).getValor() instanceof Integer) {
+            Integer constante = (Integer) ((Literal) segundo).getValor();
+            int c = constante;
+            switch (operador) {
+                case MENOR:
+                    return (Evaluable) () -> {
+                        Object x = izquierda.evaluar();
+                        return x instanceof Integer ? (Integer) x < c : Operaciones.compararNumeros(x, constante) < 0;
+                    };
+                case MENOR_IGUAL:
+                    return (Evaluable) () -> {
+                        Object x = izquierda.evaluar();
+                        return x instanceof Integer ? (Integer) x <= c : Operaciones.compararNumeros(x, constante) <= 0;
+                    };
+                case MAYOR:
+                    return (Evaluable) () -> {
+                        Object x = izquierda.evaluar();
+                        return x instanceof Integer ? (Integer) x > c : Operaciones.compararNumeros(x, constante) > 0;
+                    };
+                case MAYOR_IGUAL:
+                    return (Evaluable) () -> {
+                        Object x = izquierda.evaluar();
+                        return x instanceof Integer ? (Integer) x >= c : Operaciones.compararNumeros(x, constante) >= 0;
+                    };
+                case IGUAL:
+                    return (Evaluable) () -> {
+                        Object x = izquierda.evaluar();
+                        return x instanceof Integer ? (Integer) x == c : Operaciones.sonNumerosIguales(x, constante);
+                    };
+                case DIFERENTE:
+                    return (Evaluable) () -> {
+                        Object x = izquierda.evaluar();
+                        return x instanceof Integer ? (Integer) x != c : !Operaciones.sonNumerosIguales(x, constante);
+                    };
+                default:
+                    break;
+            }
+        }
+        Evaluable derecha = expresion(segundo);
+        switch (operador) {
+            case MENOR:
+                return (Evaluable) () -> Operaciones.compararNumeros(izquierda.evaluar(), derecha.evaluar()) < 0;
+            case MENOR_IGUAL:
+                return (Evaluable) () -> Operaciones.compararNumeros(izquierda.evaluar(), derecha.evaluar()) <= 0;
+            case MAYOR:
+                return (Evaluable) () -> Operaciones.compararNumeros(izquierda.evaluar(), derecha.evaluar()) > 0;
+            case MAYOR_IGUAL:
+                return (Evaluable) () -> Operaciones.compararNumeros(izquierda.evaluar(), derecha.evaluar()) >= 0;
+            case IGUAL:
+                return (Evaluable) () -> Operaciones.sonNumerosIguales(izquierda.evaluar(), derecha.evaluar());
+            default:
+                return (Evaluable) () -> !Operaciones.sonNumerosIguales(izquierda.evaluar(), derecha.evaluar());
+        }
+    }
+
+    @Override
+    public Object visitarCreacionArreglo(CreacionArreglo nodo) {
+        Evaluable[] elementos = new Evaluable[nodo.getElementos().size()];
+        for (int i = 0; i < elementos.length; i++) {
+            elementos[i] = expresion(nodo.getElementos().get(i));
+        }
+        if (nodo.esRepeticion()) {
+            Evaluable valor = elementos[0];
+            Evaluable longitud = expresion(nodo.getLongitud());
+            return (Evaluable) () -> {
+                Object repetido = valor.evaluar();
+                return Operaciones.repetirArreglo(repetido, longitud.evaluar());
+            };
+        }
+        return (Evaluable) () -> {
+            Object[] valores = new Object[elementos.length];
+            for (int i = 0; i < valores.length; i++) {
+                valores[i] = elementos[i].evaluar();
+            }
+            return Operaciones.crearArreglo(valores);
+        };
+    }
+
+    @Override
+    public Object visitarIndexacion(Indexacion nodo) {
+        Evaluable arreglo = expresion(nodo.getArreglo());
+        Evaluable indice = expresion(nodo.getIndice());
+        return (Evaluable) () -> {
+            Object valor = arreglo.evaluar();
+            return Operaciones.elemento(valor, indice.evaluar());
+        };
+    }
+
+    /**
+     * Las funciones más usadas en bucles numéricos se compilan a una llamada
+     * directa a su intrínseco, que HotSpot puede integrar en la clausura; el
+     * resto llama a la función a través de la constante.
+     */
+    @Override
+    public Object visitarLlamada(Llamada nodo) {
+        Funcion funcion = nodo.getFuncion();
+        Evaluable[] argumentos = new Evaluable[nodo.getArgumentos().size()];
+        for (int i = 0; i < argumentos.length; i++) {
+            argumentos[i] = expresion(nodo.getArgumentos().get(i));
+        }
+        if (argumentos.length == 1) {
+            Evaluable x = argumentos[0];
+            switch (funcion) {
+                case ABS:
+                    return (Evaluable) () -> Intrinsecos.abs(x.evaluar());
+                case RAIZ:
+                    return (Evaluable) () -> Intrinsecos.raiz(x.evaluar());
+                case PISO:
+                    return (Evaluable) () -> Intrinsecos.piso(x.evaluar());
+                case REDONDEAR:
+                    return (Evaluable) () -> Intrinsecos.redondear(x.evaluar());
+                case LONGITUD:
+                    return (Evaluable) () -> Intrinsecos.longitud(x.evaluar());
+                default:
+                    return (Evaluable) () -> funcion.aplicar(x.evaluar());
+            }
+        }
+        if (argumentos.length == 2) {
+            Evaluable a = argumentos[0];
+            Evaluable b = argumentos[1];
+            switch (funcion) {
+                case MIN:
+                    return (Evaluable) () -> {
+                        Object primero = a.evaluar();
+                        return Intrinsecos.minimo(primero, b.evaluar());
+                    };
+                case MAX:
+                    return (Evaluable) () -> {
+                        Object primero = a.evaluar();
+                        return Intrinsecos.maximo(primero, b.evaluar());
+                    };
+                default:
+                    return (Evaluable) () -> {
+                        Object primero = a.evaluar();
+                        return funcion.aplicar(primero, b.evaluar());
+                    };
+            }
+        }
+        return (Evaluable) () -> {
+            Object[] valores = new Object[argumentos.length];
+            for (int i = 0; i < valores.length; i++) {
+                valores[i] = argumentos[i].evaluar();
+            }
+            return funcion.aplicar(valores);
+        };
+    }
+
+    @Override
+    public Object visitarLiteral(Literal nodo) {
+        Object valor = nodo.getValor();
+        return (Evaluable) () -> valor;
+    }
+
+    @Override
+    public Object visitarIdentificador(Identificador nodo) {
+        String nombre = nodo.getNombre();
+        TablaSimbolos tabla = tablaSimbolos;
+        return (Evaluable) () -> tabla.obtener(nombre);
+    }
+
+    @Override
+    public Object visitarInvariante(Invariante nodo) {
+        int ranura = nodo.getRanura();
+        Evaluable expresion = expresion(nodo.getExpresion());
+        return (Evaluable) () -> {
+            if (ranura >= temporales.length) {
+                temporales = Arrays.copyOf(temporales, Math.max(ranura + 1, temporales.length * 2));
+            }
+            Object valor = temporales[ranura];
+            if (valor == null) {
+                valor = expresion.evaluar();
+                temporales[ranura] = valor;
+            }
+            return valor;
+        };
+    }
+
+    @Override
+    public Object visitarExpresionCompartida(ExpresionCompartida nodo) {
+        int ranura = nodo.getRanura();
+        Evaluable expresion = expresion(nodo.getExpresion());
+        if (nodo.esCalculo()) {
+            return (Evaluable) () -> {
+                if (ranura >= temporales.length) {
+                    temporales = Arrays.copyOf(temporales, Math.max(ranura + 1, temporales.length * 2));
+                }
+                Object valor = expresion.evaluar();
+                temporales[ranura] = valor;
+                return valor;
+            };
+        }
+        return (Evaluable) () -> {
+            Object valor = ranura < temporales.length ? temporales[ranura] : null;
+            return valor != null ? valor : expresion.evaluar(); // Ranura vacía: ver ExpresionCompartida
+        };
+    }
+
+    private Evaluable expresion(Expresion expresion) {
+        return (Evaluable) expresion.aceptar(this);
+    }
+
+    /**
+     * Bloque compilado. Un error del lenguaje que sale de una declaración
+     * recibe su posición, igual que en el intérprete.
+     */
+    private Ejecutable bloque(List<Declaracion> declaraciones) {
+        Ejecutable[] compiladas = new Ejecutable[declaraciones.size()];
+        for (int i = 0; i < compiladas.length; i++) {
+            compiladas[i] = (Ejecutable) declaraciones.get(i).aceptar(this);
+        }
+        if (compiladas.length == 1) {
+            Ejecutable unica = compiladas[0];
+            Declaracion declaracion = declaraciones.get(0);
+            return () -> {
+                declaracionesEjecutadas++;
+                try {
+                    unica.ejecutar();
+                } catch (ExcepcionLenguaje e) {
+                    e.ubicar(declaracion.getLinea(), declaracion.getColumna());
+                    throw e;
+                }
+            };
+        }
+        return () -> {
+            for (int i = 0; i < compiladas.length; i++) {
+                declaracionesEjecutadas++;
+                try {
+                    compiladas[i].ejecutar();
+                } catch (ExcepcionLenguaje e) {
+                    Declaracion declaracion = declaraciones.get(i);
+                    e.ubicar(declaracion.getLinea(), declaracion.getColumna());
+                    throw e;
+                }
+            }
+        };
+    }
+
+    /**
+     * Bloque de un si o de un repite, que se ejecuta en su propio ámbito.
+     */
+    private Ejecutable bloqueEnAmbito(List<Declaracion> declaraciones) {
+        Ejecutable bloque = bloque(declaraciones);
+        TablaSimbolos tabla = tablaSimbolos;
+        return () -> {
+            tabla.entrarAmbito();
+            try {
+                bloque.ejecutar();
+            } finally {
+                tabla.salirAmbito();
+            }
+        };
+    }
+
+    private Ejecutable olvidarInvariantes(List<Invariante> invariantes) {
+        if (invariantes.isEmpty()) {
+            return () -> { };
+        }
+        int[] ranuras = invariantes.stream().mapToInt(Invariante::getRanura).toArray();
+        return () -> {
+            for (int ranura : ranuras) {
+                if (ranura < temporales.length) {
+                    temporales[ranura] = null;
+                }
+            }
+        };
+    }
+
+    /**
+     * Retorna el número de declaraciones ejecutadas por este motor.
+     */
+    public long getDeclaracionesEjecutadas() {
+        return declaracionesEjecutadas;
+    }
+
+    /**
+     * Obtiene la tabla de símbolos actual (para debugging/testing).
+     */
+    public TablaSimbolos getTablaSimbolos() {
+        return tablaSimbolos;
+    }
+}
@@ -0,0 +1,340 @@
+package interpreter;
+
+import diagnosticos.Diagnostico;
+import ast.Paralelo;
+import ast.Paralelo.Reduccion;
+import optimizer.Analisis;
+import symbols.ExcepcionSimbolos;
+import symbols.Simbolo;
+import symbols.TablaSimbolos;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntConsumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Ejecuta un bucle {@link Paralelo}, común a todos los motores de ejecución.
+ *
+ * Las iteraciones se reparten en tramos contiguos, que se ejecutan como
+ * tareas de un ForkJoinPool: cada tarea divide su rango de tramos por la
+ * mitad hasta quedarse con uno, de modo que los hilos libres roban las
+ * mitades pendientes de los ocupados. Cada tramo tiene su propio motor, su
+ * tabla de símbolos (con una vista de solo lectura de las variables visibles
+ * al empezar el bucle) y su búfer de salida, y una copia privada de cada
+ * variable de reducción.
+ *
+ * El número de tramos depende solo del número de iteraciones, no del de
+ * núcleos, y las copias privadas se combinan en orden de tramo, así que el
+ * resultado es siempre el mismo: exactamente el de la ejecución en secuencia
+ * para las reducciones enteras (los enteros no desbordan) y para mínimos y
+ * máximos. La salida se escribe en orden de iteración. Si una iteración
+ * falla se escribe la salida anterior al error, se cancelan los tramos
+ * posteriores y se lanza su excepción.
+ */
+final class EjecucionBucleParalelo {
+    private static final int TRAMOS = 64;
+
+    /**
+     * Crea el motor que ejecuta el cuerpo del bucle en un tramo.
+     */
+    @FunctionalInterface
+    interface Motor {
+        Tramo crear(TablaSimbolos tabla, PrintStream salida, BooleanSupplier cancelado);
+    }
+
+    /**
+     * Motor de un tramo: ejecuta el cuerpo una vez en el ámbito actual de su
+     * tabla y cuenta las declaraciones que ejecuta.
+     */
+    static final class Tramo {
+        private final Runnable iteracion;
+        private final LongSupplier declaraciones;
+
+        Tramo(Runnable iteracion, LongSupplier declaraciones) {
+            this.iteracion = iteracion;
+            this.declaraciones = declaraciones;
+        }
+    }
+
+    private final String contador;
+    private final List<Reduccion> reducciones;
+    private final long inicio;
+    private final long iteraciones;
+    private final int tramos;
+    private final Object[] iniciales; // Valor de partida de la copia privada de cada reducción
+
+    /**
+     * Comprueba el bucle antes de ejecutarlo: los límites deben ser enteros,
+     * las variables de reducción deben existir y el cuerpo no puede asignar
+     * ninguna otra variable ya definida, porque las iteraciones no se ejecutan
+     * en orden.
+     */
+    EjecucionBucleParalelo(Paralelo nodo, Object inicio, Object fin, TablaSimbolos tabla) {
+        this(nodo.getContador(), nodo.getReducciones(), Analisis.variablesAsignadas(nodo.getCuerpo()),
+                inicio, fin, tabla);
+    }
+
+    /**
+     * @param asignadas variables que asigna el cuerpo del bucle
+     */
+    EjecucionBucleParalelo(String contador, List<Reduccion> reducciones, Set<String> asignadas,
+                           Object inicio, Object fin, TablaSimbolos tabla) {
+        if (!esLimite(inicio) || !esLimite(fin)) {
+            throw new ExcepcionInterpreter(Diagnostico.Codigo.LIMITES_PARALELO);
+        }
+        this.contador = contador;
+        this.reducciones = reducciones;
+        this.inicio = ((Number) inicio).longValue();
+        long ultimo = ((Number) fin).longValue();
+        if (ultimo < this.inicio) {
+            this.iteraciones = 0;
+        } else if (ultimo - this.inicio < 0 || ultimo - this.inicio == Long.MAX_VALUE) {
+            throw new ExcepcionInterpreter("Demasiadas iteraciones en el bucle paralelo");
+        } else {
+            this.iteraciones = ultimo - this.inicio + 1;
+        }
+        this.tramos = (int) Math.min(TRAMOS, iteraciones);
+
+        this.iniciales = new Object[reducciones.size()];
+        for (int r = 0; r < iniciales.length; r++) {
+            Reduccion reduccion = reducciones.get(r);
+            Simbolo simbolo = tabla.obtenerSimbolo(reduccion.getVariable());
+            if (simbolo == null) {
+                throw ExcepcionSimbolos.noDefinida(reduccion.getVariable());
+            }
+            iniciales[r] = valorInicial(reduccion, simbolo);
+        }
+
+        for (String variable : asignadas) {
+            if (!variable.equals(contador) && !esReduccion(variable) && tabla.existe(variable)) {
+                throw new ExcepcionInterpreter(Diagnostico.Codigo.ASIGNACION_EN_PARALELO, variable);
+            }
+        }
+    }
+
+    private static boolean esLimite(Object valor) {
+        return valor instanceof Integer || valor instanceof Long;
+    }
+
+    private boolean esReduccion(String variable) {
+        for (Reduccion reduccion : reducciones) {
+            if (reduccion.getVariable().equals(variable)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Las sumas y los productos parten del elemento neutro y el mínimo y el
+     * máximo del valor actual de la variable.
+     */
+    private static Object valorInicial(Reduccion reduccion, Simbolo simbolo) {
+        switch (reduccion.getTipo()) {
+            case SUMA:
+            case PRODUCTO:
+                int neutro = reduccion.getTipo() == Paralelo.TipoReduccion.SUMA ? 0 : 1;
+                if (simbolo.getTipo() == Simbolo.TipoSimbolo.ENTERO) {
+                    return neutro;
+                }
+                if (simbolo.getTipo() == Simbolo.TipoSimbolo.DECIMAL) {
+                    return (double) neutro;
+                }
+                throw new ExcepcionInterpreter(Diagnostico.Codigo.REDUCCION_NO_NUMERICA,
+                        reduccion.getTipo().getNombre(), reduccion.getVariable());
+            default:
+                return simbolo.getValor();
+        }
+    }
+
+    /**
+     * Ejecuta los tramos en orden en el hilo actual, con el motor que llama,
+     * para que el perfil y la traza vean cada declaración. El resultado es el
+     * mismo que en paralelo.
+     */
+    void ejecutarEnSecuencia(TablaSimbolos tabla, Runnable iteracion) {
+        Object[][] parciales = new Object[tramos][];
+        for (int tramo = 0; tramo < tramos; tramo++) {
+            parciales[tramo] = ejecutarTramo(tramo, tabla, iteracion, null);
+        }
+        combinar(parciales, tabla);
+    }
+
+    /**
+     * Ejecuta los tramos en el pool, escribe su salida en orden en el destino
+     * y asigna el resultado de las reducciones.
+     *
+     * @param exterior cancelación del motor que llama (null si no tiene)
+     * @return declaraciones ejecutadas por los motores de los tramos
+     */
+    long ejecutarEnParalelo(ForkJoinPool pool, TablaSimbolos tabla, PrintStream destino,
+                            BooleanSupplier exterior, Motor motor) {
+        if (tramos == 0) {
+            return 0;
+        }
+        Map<String, Simbolo> vista = vista(tabla);
+        ByteArrayOutputStream[] salidas = new ByteArrayOutputStream[tramos];
+        Object[][] parciales = new Object[tramos][];
+        Throwable[] errores = new Throwable[tramos];
+        long[] declaraciones = new long[tramos];
+        AtomicInteger primerFallo = new AtomicInteger(Integer.MAX_VALUE);
+
+        pool.invoke(new Tramos(0, tramos, indice -> {
+            if (primerFallo.get() < indice || (exterior != null && exterior.getAsBoolean())) {
+                return;
+            }
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            salidas[indice] = buffer;
+            PrintStream salida = new PrintStream(buffer, false, StandardCharsets.UTF_8);
+            TablaSimbolos propia = new TablaSimbolos(vista);
+            BooleanSupplier cancelado = exterior == null
+                    ? () -> primerFallo.get() < indice
+                    : () -> primerFallo.get() < indice || exterior.getAsBoolean();
+            Tramo tramo = motor.crear(propia, salida, cancelado);
+            try {
+                parciales[indice] = ejecutarTramo(indice, propia, tramo.iteracion, cancelado);
+            } catch (EjecucionCancelada e) {
+                // La salida y el resultado de este tramo ya no importan
+            } catch (Throwable e) {
+                errores[indice] = e;
+                primerFallo.accumulateAndGet(indice, Math::min);
+            } finally {
+                salida.flush();
+                declaraciones[indice] = tramo.declaraciones.getAsLong();
+            }
+        }));
+
+        long total = 0;
+        for (int tramo = 0; tramo < tramos; tramo++) {
+            if (salidas[tramo] != null) {
+                destino.print(salidas[tramo].toString(StandardCharsets.UTF_8));
+            }
+            total += declaraciones[tramo];
+            if (errores[tramo] != null) {
+                EjecucionParalela.lanzarError(errores[tramo]);
+            }
+            if (parciales[tramo] == null) {
+                throw new EjecucionCancelada(); // Lo canceló el motor que llama
+            }
+        }
+        combinar(parciales, tabla);
+        return total;
+    }
+
+    /**
+     * Variables visibles en la tabla, del ámbito más externo al más interno.
+     */
+    private static Map<String, Simbolo> vista(TablaSimbolos tabla) {
+        Map<String, Simbolo> vista = new HashMap<>();
+        for (Map<String, Simbolo> ambito : tabla.getAmbitos()) {
+            vista.putAll(ambito);
+        }
+        return vista;
+    }
+
+    /**
+     * Ejecuta las iteraciones de un tramo, cada una en su propio ámbito, y
+     * retorna el valor final de las copias privadas de las reducciones.
+     */
+    private Object[] ejecutarTramo(int tramo, TablaSimbolos tabla, Runnable iteracion, BooleanSupplier cancelado) {
+        long base = iteraciones / tramos;
+        long resto = iteraciones % tramos;
+        long desde = inicio + base * tramo + Math.min(tramo, resto);
+        long hasta = desde + base + (tramo < resto ? 1 : 0);
+
+        tabla.entrarAmbito();
+        try {
+            for (int r = 0; r < iniciales.length; r++) {
+                tabla.definir(reducciones.get(r).getVariable(), iniciales[r]);
+            }
+            for (long valor = desde; valor < hasta; valor++) {
+                if (cancelado != null && cancelado.getAsBoolean()) {
+                    throw new EjecucionCancelada();
+                }
+                tabla.entrarAmbito();
+                try {
+                    tabla.definir(contador, valor == (int) valor ? (Object) (int) valor : (Object) valor);
+                    iteracion.run();
+                } finally {
+                    tabla.salirAmbito();
+                }
+            }
+            Object[] parciales = new Object[iniciales.length];
+            for (int r = 0; r < parciales.length; r++) {
+                parciales[r] = tabla.obtener(reducciones.get(r).getVariable());
+            }
+            return parciales;
+        } finally {
+            tabla.salirAmbito();
+        }
+    }
+
+    /**
+     * Combina las copias privadas con el valor actual de cada variable de
+     * reducción, en orden de tramo, y asigna el resultado.
+     */
+    private void combinar(Object[][] parciales, TablaSimbolos tabla) {
+        for (int r = 0; r < reducciones.size(); r++) {
+            Reduccion reduccion = reducciones.get(r);
+            Object acumulado = tabla.obtener(reduccion.getVariable());
+            for (Object[] parcial : parciales) {
+                Object valor = parcial[r];
+                switch (reduccion.getTipo()) {
+                    case SUMA:
+                        acumulado = Operaciones.sumar(acumulado, valor);
+                        break;
+                    case PRODUCTO:
+                        acumulado = Operaciones.multiplicar(acumulado, valor);
+                        break;
+                    case MINIMO:
+                        if (Operaciones.comparar(valor, acumulado) < 0) {
+                            acumulado = valor;
+                        }
+                        break;
+                    case MAXIMO:
+                        if (Operaciones.comparar(valor, acumulado) > 0) {
+                            acumulado = valor;
+                        }
+                        break;
+                }
+            }
+            tabla.asignar(reduccion.getVariable(), acumulado);
+        }
+    }
+
+    /**
+     * Ejecuta un rango de tramos: lo divide por la mitad mientras tenga más
+     * de uno, para que los hilos libres puedan robar la otra mitad.
+     */
+    private static final class Tramos extends RecursiveAction {
+        private final int desde;
+        private final int hasta;
+        private final IntConsumer ejecutar;
+
+        Tramos(int desde, int hasta, IntConsumer ejecutar) {
+            this.desde = desde;
+            this.hasta = hasta;
+            this.ejecutar = ejecutar;
+        }
+
+        @Override
+        protected void compute() {
+            if (hasta - desde == 1) {
+                ejecutar.accept(desde);
+                return;
+            }
+            int mitad = (desde + hasta) >>> 1;
+            invokeAll(new Tramos(desde, mitad, ejecutar), new Tramos(mitad, hasta, ejecutar));
+        }
+    }
+}
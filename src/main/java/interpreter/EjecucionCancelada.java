@@ -0,0 +1,11 @@
+package interpreter;
+
+/**
+ * Interrumpe una región o un tramo de un bucle paralelo que ya no debe seguir
+ * porque falló una parte anterior del programa.
+ */
+class EjecucionCancelada extends RuntimeException {
+    EjecucionCancelada() {
+        super(null, null, false, false);
+    }
+}
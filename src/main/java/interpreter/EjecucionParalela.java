@@ -0,0 +1,144 @@
+package interpreter;
+
+import optimizer.GrafoDependencias;
+import optimizer.GrafoDependencias.Region;
+import symbols.Simbolo;
+import symbols.TablaSimbolos;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Ejecuta las regiones de un {@link GrafoDependencias} en un ForkJoinPool:
+ * cada región se lanza en cuanto terminan las regiones de las que depende.
+ *
+ * Cada región tiene su propio intérprete, con su pila de ámbitos y su búfer
+ * de salida; todas comparten el ámbito global, que durante la ejecución es un
+ * mapa concurrente. El grafo garantiza que dos regiones que pueden ejecutarse
+ * a la vez no acceden a la misma variable global si una de ellas la escribe.
+ *
+ * La salida de cada región se vuelca en orden de programa en cuanto terminan
+ * ella y todas las anteriores. Si una región falla se vuelca su salida hasta
+ * el error, se cancelan las regiones posteriores y se lanza su excepción,
+ * igual que si el programa se hubiera ejecutado en secuencia.
+ */
+final class EjecucionParalela {
+    private final List<Region> regiones;
+    private final ForkJoinPool pool;
+    private final Map<String, Simbolo> global;
+    private final AtomicInteger[] pendientes;
+    private final CountDownLatch[] terminadas;
+    private final ByteArrayOutputStream[] salidas;
+    private final long[] declaraciones;
+    private final Throwable[] errores;
+    private final AtomicInteger primerFallo = new AtomicInteger(Integer.MAX_VALUE);
+
+    EjecucionParalela(GrafoDependencias grafo, ForkJoinPool pool, Map<String, Simbolo> global) {
+        this.regiones = grafo.getRegiones();
+        this.pool = pool;
+        this.global = new ConcurrentHashMap<>(global);
+        int total = regiones.size();
+        this.pendientes = new AtomicInteger[total];
+        this.terminadas = new CountDownLatch[total];
+        this.salidas = new ByteArrayOutputStream[total];
+        this.declaraciones = new long[total];
+        this.errores = new Throwable[total];
+        for (int i = 0; i < total; i++) {
+            pendientes[i] = new AtomicInteger(regiones.get(i).getPredecesores());
+            terminadas[i] = new CountDownLatch(1);
+        }
+    }
+
+    /**
+     * Ejecuta todas las regiones escribiendo su salida en el destino y deja en
+     * la tabla el ámbito global resultante.
+     *
+     * @return declaraciones ejecutadas
+     */
+    long ejecutar(PrintStream destino, TablaSimbolos tabla) {
+        for (Region region : regiones) {
+            if (region.getPredecesores() == 0) {
+                lanzar(region);
+            }
+        }
+
+        long total = 0;
+        try {
+            for (int i = 0; i < regiones.size(); i++) {
+                esperar(i);
+                destino.print(salidas[i].toString(StandardCharsets.UTF_8));
+                total += declaraciones[i];
+                if (errores[i] != null) {
+                    // Las regiones posteriores se cancelan solas; se espera a que paren
+                    for (int j = i + 1; j < regiones.size(); j++) {
+                        esperar(j);
+                    }
+                    lanzarError(errores[i]);
+                }
+            }
+        } finally {
+            tabla.restaurarAmbitos(List.of(global));
+        }
+        return total;
+    }
+
+    private void lanzar(Region region) {
+        pool.execute(() -> ejecutarRegion(region));
+    }
+
+    private void ejecutarRegion(Region region) {
+        int indice = region.getIndice();
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        salidas[indice] = buffer;
+        // Una región posterior a un fallo no se ejecuta (ni termina de ejecutarse)
+        if (primerFallo.get() > indice) {
+            PrintStream salida = new PrintStream(buffer, false, StandardCharsets.UTF_8);
+            Interpreter interprete = new Interpreter(salida, new TablaSimbolos(global));
+            interprete.setCancelacion(() -> primerFallo.get() < indice);
+            try {
+                interprete.ejecutarRegion(region.getDeclaraciones());
+            } catch (EjecucionCancelada e) {
+                // La salida y el estado de esta región ya no importan
+            } catch (Throwable e) {
+                errores[indice] = e;
+                primerFallo.accumulateAndGet(indice, Math::min);
+            } finally {
+                salida.flush();
+                declaraciones[indice] = interprete.getDeclaracionesEjecutadas();
+            }
+        }
+        terminadas[indice].countDown();
+        for (Region sucesor : region.getSucesores()) {
+            if (pendientes[sucesor.getIndice()].decrementAndGet() == 0) {
+                lanzar(sucesor);
+            }
+        }
+    }
+
+    private void esperar(int indice) {
+        try {
+            terminadas[indice].await();
+        } catch (InterruptedException e) {
+            primerFallo.set(-1);
+            Thread.currentThread().interrupt();
+            throw new ExcepcionInterpreter("Ejecución interrumpida");
+        }
+    }
+
+    static void lanzarError(Throwable error) {
+        if (error instanceof RuntimeException) {
+            throw (RuntimeException) error;
+        }
+        if (error instanceof Error) {
+            throw (Error) error;
+        }
+        throw new ExcepcionInterpreter(error.getMessage(), error);
+    }
+}
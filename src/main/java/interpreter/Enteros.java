@@ -0,0 +1,190 @@
+package interpreter;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+/**
+ * Aritmética entera exacta del lenguaje.
+ *
+ * Un valor entero se representa siempre con el tipo más pequeño en el que cabe:
+ * Integer, Long o BigInteger. Las operaciones entre Integer se hacen con int y
+ * solo si el resultado desborda se repiten con long; las operaciones con long
+ * pasan a BigInteger únicamente al desbordar. Así el caso habitual no reserva
+ * nada más que el Integer del resultado y nunca pierde precisión.
+ */
+public final class Enteros {
+    private Enteros() {
+    }
+
+    /**
+     * Indica si el valor es un entero del lenguaje (Integer, Long o BigInteger).
+     */
+    public static boolean esEntero(Object valor) {
+        return valor instanceof Integer || valor instanceof Long || valor instanceof BigInteger;
+    }
+
+    public static Object sumar(Object izquierda, Object derecha) {
+        if (izquierda instanceof Integer && derecha instanceof Integer) {
+            int x = (Integer) izquierda;
+            int y = (Integer) derecha;
+            int r = x + y;
+            if (((x ^ r) & (y ^ r)) < 0) {
+                return (long) x + y;
+            }
+            return r;
+        }
+        if (!(izquierda instanceof BigInteger) && !(derecha instanceof BigInteger)) {
+            long x = ((Number) izquierda).longValue();
+            long y = ((Number) derecha).longValue();
+            long r = x + y;
+            if (((x ^ r) & (y ^ r)) < 0) {
+                return BigInteger.valueOf(x).add(BigInteger.valueOf(y));
+            }
+            return normalizar(r);
+        }
+        return normalizar(aBigInteger(izquierda).add(aBigInteger(derecha)));
+    }
+
+    public static Object restar(Object izquierda, Object derecha) {
+        if (izquierda instanceof Integer && derecha instanceof Integer) {
+            int x = (Integer) izquierda;
+            int y = (Integer) derecha;
+            int r = x - y;
+            if (((x ^ y) & (x ^ r)) < 0) {
+                return (long) x - y;
+            }
+            return r;
+        }
+        if (!(izquierda instanceof BigInteger) && !(derecha instanceof BigInteger)) {
+            long x = ((Number) izquierda).longValue();
+            long y = ((Number) derecha).longValue();
+            long r = x - y;
+            if (((x ^ y) & (x ^ r)) < 0) {
+                return BigInteger.valueOf(x).subtract(BigInteger.valueOf(y));
+            }
+            return normalizar(r);
+        }
+        return normalizar(aBigInteger(izquierda).subtract(aBigInteger(derecha)));
+    }
+
+    public static Object multiplicar(Object izquierda, Object derecha) {
+        if (izquierda instanceof Integer && derecha instanceof Integer) {
+            return normalizar((long) (Integer) izquierda * (Integer) derecha);
+        }
+        if (!(izquierda instanceof BigInteger) && !(derecha instanceof BigInteger)) {
+            long x = ((Number) izquierda).longValue();
+            long y = ((Number) derecha).longValue();
+            long alto = Math.multiplyHigh(x, y);
+            long r = x * y;
+            if ((alto == 0 && r >= 0) || (alto == -1 && r < 0)) {
+                return normalizar(r);
+            }
+            return BigInteger.valueOf(x).multiply(BigInteger.valueOf(y));
+        }
+        return normalizar(aBigInteger(izquierda).multiply(aBigInteger(derecha)));
+    }
+
+    /**
+     * Resto con el signo del dividendo, como el operador % de Java. El divisor
+     * no puede ser cero.
+     */
+    public static Object modulo(Object izquierda, Object derecha) {
+        if (izquierda instanceof Integer && derecha instanceof Integer) {
+            return (Integer) izquierda % (Integer) derecha;
+        }
+        if (!(izquierda instanceof BigInteger) && !(derecha instanceof BigInteger)) {
+            return normalizar(((Number) izquierda).longValue() % ((Number) derecha).longValue());
+        }
+        return normalizar(aBigInteger(izquierda).remainder(aBigInteger(derecha)));
+    }
+
+    public static Object negar(Object valor) {
+        if (valor instanceof Integer) {
+            int x = (Integer) valor;
+            return x == Integer.MIN_VALUE ? -(long) x : (Object) (-x);
+        }
+        if (valor instanceof Long) {
+            long x = (Long) valor;
+            return x == Long.MIN_VALUE ? BigInteger.valueOf(x).negate() : normalizar(-x);
+        }
+        return normalizar(((BigInteger) valor).negate());
+    }
+
+    public static int comparar(Object izquierda, Object derecha) {
+        if (!(izquierda instanceof BigInteger) && !(derecha instanceof BigInteger)) {
+            return Long.compare(((Number) izquierda).longValue(), ((Number) derecha).longValue());
+        }
+        return aBigInteger(izquierda).compareTo(aBigInteger(derecha));
+    }
+
+    public static boolean esCero(Object valor) {
+        if (valor instanceof BigInteger) {
+            return ((BigInteger) valor).signum() == 0;
+        }
+        return ((Number) valor).longValue() == 0;
+    }
+
+    /**
+     * Base elevada a un exponente no negativo, por cuadrados sucesivos: con
+     * long mientras no desborda y con BigInteger después.
+     */
+    public static Object potencia(Object base, int exponente) {
+        if (base instanceof Integer || base instanceof Long) {
+            long factor = ((Number) base).longValue();
+            long resultado = 1;
+            try {
+                for (int e = exponente; e > 0; e >>= 1) {
+                    if ((e & 1) != 0) {
+                        resultado = Math.multiplyExact(resultado, factor);
+                    }
+                    if (e > 1) {
+                        factor = Math.multiplyExact(factor, factor);
+                    }
+                }
+                return normalizar(resultado);
+            } catch (ArithmeticException e) {
+                // Desborda: se repite con BigInteger
+            }
+        }
+        return normalizar(aBigInteger(base).pow(exponente));
+    }
+
+    /**
+     * Entero con el valor de un double sin parte decimal (finito).
+     */
+    public static Object desdeDecimal(double valor) {
+        if (valor >= Integer.MIN_VALUE && valor <= Integer.MAX_VALUE) {
+            return (int) valor;
+        }
+        if (valor >= -0x1p63 && valor < 0x1p63) {
+            return (long) valor;
+        }
+        return normalizar(new BigDecimal(valor).toBigInteger());
+    }
+
+    private static Object normalizar(long valor) {
+        int corto = (int) valor;
+        return corto == valor ? (Object) corto : (Object) valor;
+    }
+
+    /**
+     * Retorna el valor con la representación más pequeña en la que cabe.
+     */
+    public static Object normalizar(BigInteger valor) {
+        int bits = valor.bitLength();
+        if (bits < 32) {
+            return valor.intValue();
+        }
+        if (bits < 64) {
+            return valor.longValue();
+        }
+        return valor;
+    }
+
+    private static BigInteger aBigInteger(Object valor) {
+        if (valor instanceof BigInteger) {
+            return (BigInteger) valor;
+        }
+        return BigInteger.valueOf(((Number) valor).longValue());
+    }
+}
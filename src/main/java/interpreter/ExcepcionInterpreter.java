@@ -1,15 +1,22 @@
 package interpreter;
 
+import diagnosticos.Diagnostico;
+import diagnosticos.ExcepcionLenguaje;
+
 /**
  * Excepción lanzada cuando ocurre un error durante la interpretación.
  */
-public class ExcepcionInterpreter extends RuntimeException {
+public class ExcepcionInterpreter extends ExcepcionLenguaje {
     
     public ExcepcionInterpreter(String mensaje) {
-        super(mensaje);
+        this(mensaje, null);
     }
     
     public ExcepcionInterpreter(String mensaje, Throwable causa) {
-        super(mensaje, causa);
+        super(Diagnostico.de(Diagnostico.Codigo.EJECUCION, mensaje), causa);
+    }
+    
+    public ExcepcionInterpreter(Diagnostico.Codigo codigo, Object... argumentos) {
+        super(Diagnostico.de(codigo, argumentos), null);
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,479 @@
+package interpreter;
+
+import ast.Paralelo;
+import biblioteca.Funcion;
+import diagnosticos.ExcepcionLenguaje;
+import lexer.Token;
+import symbols.TablaSimbolos;
+
+import java.io.PrintStream;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import static ast.FormatoBinario.*;
+
+/**
+ * Intérprete que ejecuta un programa en el {@link ast.FormatoBinario}
+ * directamente desde el búfer (normalmente un archivo proyectado en memoria),
+ * leyendo cada nodo en su posición sin crear objetos del AST.
+ *
+ * Las constantes se decodifican la primera vez que se usan. La semántica es
+ * la misma que la de {@link Interpreter}: ambos usan {@link Operaciones}.
+ */
+public class InterpreteBinario {
+    private final TablaSimbolos tablaSimbolos;
+    private final PrintStream salida;
+    private ByteBuffer datos;
+    private Object[] constantes;
+    private int tablaConstantes;
+    private int nodos;
+    private long declaracionesEjecutadas;
+    private Object[] temporales = new Object[0]; // Ranuras de los nodos INVARIANTE y COMPARTIDA (null = sin calcular)
+    private final boolean concurrente; // En los tramos de un bucle paralelo, que pueden escribir en el mismo arreglo
+
+    public InterpreteBinario(PrintStream salida) {
+        this.tablaSimbolos = new TablaSimbolos();
+        this.salida = salida;
+        this.concurrente = false;
+    }
+
+    /**
+     * Intérprete de un tramo de bucle paralelo: lee el mismo programa y
+     * comparte las constantes ya decodificadas (las carreras al decodificar
+     * una constante solo repiten el trabajo, porque los valores son inmutables).
+     */
+    private InterpreteBinario(PrintStream salida, TablaSimbolos tablaSimbolos, InterpreteBinario programa) {
+        this.tablaSimbolos = tablaSimbolos;
+        this.salida = salida;
+        this.datos = programa.datos.duplicate();
+        this.constantes = programa.constantes;
+        this.tablaConstantes = programa.tablaConstantes;
+        this.nodos = programa.nodos;
+        this.concurrente = true;
+    }
+
+    /**
+     * Comprueba la cabecera y retorna el número de nodos del programa.
+     *
+     * Además de la firma y la versión, comprueba que las posiciones de la
+     * cabecera caen dentro del archivo y que la tabla de constantes cabe en
+     * él, para que un archivo truncado o dañado se rechace antes de reservar
+     * memoria a partir de sus campos.
+     */
+    public static int verificarCabecera(ByteBuffer programa) {
+        if (programa.limit() < TAMANO_CABECERA || programa.getInt(0) != MAGIC) {
+            throw new ExcepcionInterpreter("El archivo no es un programa compilado");
+        }
+        short version = programa.getShort(CABECERA_VERSION);
+        if (version != VERSION) {
+            throw new ExcepcionInterpreter("Versión de programa compilado no soportada: " + version
+                    + " (se esperaba " + VERSION + ")");
+        }
+        int limite = programa.limit();
+        int nodos = programa.getInt(CABECERA_NODOS);
+        if (nodos <= 0 || nodos > limite - TAMANO_CABECERA) {
+            throw danado("número de nodos " + nodos + " (posición " + CABECERA_NODOS + ")");
+        }
+        int tabla = programa.getInt(CABECERA_CONSTANTES);
+        if (tabla < TAMANO_CABECERA || tabla > limite) {
+            throw danado("posición de la tabla de constantes " + tabla + " (posición " + CABECERA_CONSTANTES
+                    + ", el archivo tiene " + limite + " bytes)");
+        }
+        int raiz = programa.getInt(CABECERA_RAIZ);
+        if (raiz < TAMANO_CABECERA || raiz >= tabla) {
+            throw danado("posición del bloque raíz " + raiz + " (posición " + CABECERA_RAIZ + ")");
+        }
+        int constantes = programa.getInt(CABECERA_NUM_CONSTANTES);
+        if (constantes < 0 || constantes > (limite - tabla) / 4) {
+            throw danado("número de constantes " + constantes + " (posición " + CABECERA_NUM_CONSTANTES
+                    + ", la tabla en la posición " + tabla + " no cabe en el archivo)");
+        }
+        return nodos;
+    }
+
+    /**
+     * Interpreta el programa codificado en el búfer.
+     */
+    public void interpretar(ByteBuffer programa) {
+        datos = programa.duplicate().order(ByteOrder.BIG_ENDIAN);
+        try {
+            nodos = verificarCabecera(datos);
+            tablaConstantes = datos.getInt(CABECERA_CONSTANTES);
+            constantes = new Object[datos.getInt(CABECERA_NUM_CONSTANTES)];
+            ejecutarBloque(datos.getInt(CABECERA_RAIZ));
+        } catch (IndexOutOfBoundsException e) {
+            // Las lecturas de cada nodo se comprueban en ejecutar y evaluar; esto solo queda como red
+            throw danado("lectura fuera del archivo de " + datos.limit() + " bytes", e);
+        } catch (ExcepcionLenguaje e) {
+            throw e; // El formato no guarda posiciones, así que el error no las lleva
+        } catch (Exception e) {
+            throw new ExcepcionInterpreter("Error durante la interpretación: " + e.getMessage(), e);
+        }
+    }
+
+    private void ejecutarBloque(int bloque) {
+        int cantidad = cantidadEn(bloque + 1, 4);
+        for (int i = 0; i < cantidad; i++) {
+            declaracionesEjecutadas++;
+            ejecutar(nodoEn(bloque, bloque + 5 + 4 * i));
+        }
+    }
+
+    private void ejecutar(int nodo) {
+        switch (datos.get(nodo)) {
+            case ASIGNACION: {
+                String nombre = (String) constanteEn(nodo + 1);
+                Object valor = evaluar(nodoEn(nodo, nodo + 5));
+                if (tablaSimbolos.existe(nombre)) {
+                    tablaSimbolos.asignar(nombre, valor);
+                } else {
+                    tablaSimbolos.definir(nombre, valor);
+                }
+                break;
+            }
+            case ASIGNACION_ELEMENTO: {
+                Object valor = evaluar(nodoEn(nodo, nodo + 9));
+                Object arreglo = evaluar(nodoEn(nodo, nodo + 1));
+                Object indice = evaluar(nodoEn(nodo, nodo + 5));
+                if (concurrente) {
+                    Operaciones.asignarElementoSincronizado(arreglo, indice, valor);
+                } else {
+                    Operaciones.asignarElemento(arreglo, indice, valor);
+                }
+                break;
+            }
+            case SI: {
+                int bloque = Operaciones.esVerdadero(evaluar(nodoEn(nodo, nodo + 1)))
+                        ? nodoEn(nodo, nodo + 5)
+                        : nodoOpcionalEn(nodo, nodo + 9);
+                if (bloque >= 0) {
+                    ejecutarEnAmbito(bloque);
+                }
+                break;
+            }
+            case REPITE: {
+                int invariantes = cantidadEn(nodo + 9, 4);
+                for (int i = 0; i < invariantes; i++) {
+                    int ranura = ranuraEn(nodo + 13 + 4 * i);
+                    if (ranura < temporales.length) {
+                        temporales[ranura] = null;
+                    }
+                }
+                int condicion = nodoEn(nodo, nodo + 1);
+                int cuerpo = nodoEn(nodo, nodo + 5);
+                while (Operaciones.esVerdadero(evaluar(condicion))) {
+                    ejecutarEnAmbito(cuerpo);
+                }
+                break;
+            }
+            case ESCRIBIR:
+                salida.println(Operaciones.convertirACadena(evaluar(nodoEn(nodo, nodo + 1))));
+                break;
+            case PARALELO:
+                ejecutarParalelo(nodo);
+                break;
+            default:
+                throw danado("tipo de declaración " + datos.get(nodo) + " en la posición " + nodo);
+        }
+    }
+
+    private void ejecutarParalelo(int nodo) {
+        String contador = (String) constanteEn(nodo + 1);
+        Object inicio = evaluar(nodoEn(nodo, nodo + 5));
+        Object fin = evaluar(nodoEn(nodo, nodo + 9));
+        int cuerpo = nodoEn(nodo, nodo + 13);
+        int cantidad = cantidadEn(nodo + 17, 5);
+        List<Paralelo.Reduccion> reducciones = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            int posicion = nodo + 21 + 5 * i;
+            Paralelo.TipoReduccion tipo;
+            try {
+                tipo = reduccion(datos.get(posicion));
+            } catch (IllegalArgumentException e) {
+                throw danado("reducción " + datos.get(posicion) + " en la posición " + posicion);
+            }
+            reducciones.add(new Paralelo.Reduccion(tipo, (String) constanteEn(posicion + 1)));
+        }
+        Set<String> asignadas = new HashSet<>();
+        variablesAsignadas(cuerpo, asignadas);
+
+        EjecucionBucleParalelo bucle = new EjecucionBucleParalelo(contador, reducciones, asignadas,
+                inicio, fin, tablaSimbolos);
+        declaracionesEjecutadas += bucle.ejecutarEnParalelo(ForkJoinPool.commonPool(), tablaSimbolos, salida, null,
+                (tabla, destino, cancelado) -> {
+                    InterpreteBinario interprete = new InterpreteBinario(destino, tabla, this);
+                    return new EjecucionBucleParalelo.Tramo(() -> interprete.ejecutarBloque(cuerpo),
+                            interprete::getDeclaracionesEjecutadas);
+                });
+    }
+
+    /**
+     * Añade las variables que asignan las declaraciones del bloque y de sus
+     * bloques anidados.
+     */
+    private void variablesAsignadas(int bloque, Set<String> asignadas) {
+        int cantidad = cantidadEn(bloque + 1, 4);
+        for (int i = 0; i < cantidad; i++) {
+            int nodo = nodoEn(bloque, bloque + 5 + 4 * i);
+            switch (datos.get(nodo)) {
+                case ASIGNACION:
+                    asignadas.add((String) constanteEn(nodo + 1));
+                    break;
+                case SI:
+                    variablesAsignadas(nodoEn(nodo, nodo + 5), asignadas);
+                    int sino = nodoOpcionalEn(nodo, nodo + 9);
+                    if (sino >= 0) {
+                        variablesAsignadas(sino, asignadas);
+                    }
+                    break;
+                case REPITE:
+                    variablesAsignadas(nodoEn(nodo, nodo + 5), asignadas);
+                    break;
+                case PARALELO:
+                    asignadas.add((String) constanteEn(nodo + 1));
+                    variablesAsignadas(nodoEn(nodo, nodo + 13), asignadas);
+                    for (int r = 0, n = cantidadEn(nodo + 17, 5); r < n; r++) {
+                        asignadas.add((String) constanteEn(nodo + 22 + 5 * r));
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    private void ejecutarEnAmbito(int bloque) {
+        tablaSimbolos.entrarAmbito();
+        try {
+            ejecutarBloque(bloque);
+        } finally {
+            tablaSimbolos.salirAmbito();
+        }
+    }
+
+    private Object evaluar(int nodo) {
+        switch (datos.get(nodo)) {
+            case BINARIA: {
+                Object izquierda = evaluar(nodoEn(nodo, nodo + 2));
+                Object derecha = evaluar(nodoEn(nodo, nodo + 6));
+                return Operaciones.binaria(operadorEn(nodo + 1), izquierda, derecha);
+            }
+            case UNARIA:
+                return Operaciones.unaria(operadorEn(nodo + 1), evaluar(nodoEn(nodo, nodo + 2)));
+            case LITERAL:
+                return constanteEn(nodo + 1);
+            case IDENTIFICADOR:
+                return tablaSimbolos.obtener((String) constanteEn(nodo + 1));
+            case ARREGLO: {
+                int cantidad = cantidadEn(nodo + 1, 4);
+                int longitud = nodoOpcionalEn(nodo, nodo + 5 + 4 * cantidad);
+                if (longitud >= 0) {
+                    Object valor = evaluar(nodoEn(nodo, nodo + 5));
+                    return Operaciones.repetirArreglo(valor, evaluar(longitud));
+                }
+                Object[] valores = new Object[cantidad];
+                for (int i = 0; i < cantidad; i++) {
+                    valores[i] = evaluar(nodoEn(nodo, nodo + 5 + 4 * i));
+                }
+                return Operaciones.crearArreglo(valores);
+            }
+            case INDEXACION: {
+                Object arreglo = evaluar(nodoEn(nodo, nodo + 1));
+                return Operaciones.elemento(arreglo, evaluar(nodoEn(nodo, nodo + 5)));
+            }
+            case LLAMADA: {
+                Funcion funcion = funcionEn(nodo + 1);
+                int cantidad = cantidadEn(nodo + 2, 4);
+                if (cantidad == 1) {
+                    return funcion.aplicar(evaluar(nodoEn(nodo, nodo + 6)));
+                }
+                if (cantidad == 2) {
+                    Object primero = evaluar(nodoEn(nodo, nodo + 6));
+                    return funcion.aplicar(primero, evaluar(nodoEn(nodo, nodo + 10)));
+                }
+                Object[] valores = new Object[cantidad];
+                for (int i = 0; i < cantidad; i++) {
+                    valores[i] = evaluar(nodoEn(nodo, nodo + 6 + 4 * i));
+                }
+                return funcion.aplicar(valores);
+            }
+            case INVARIANTE: {
+                int ranura = ranuraEn(nodo + 1);
+                if (ranura >= temporales.length) {
+                    temporales = Arrays.copyOf(temporales, Math.max(ranura + 1, temporales.length * 2));
+                }
+                Object valor = temporales[ranura];
+                if (valor == null) {
+                    valor = evaluar(nodoEn(nodo, nodo + 5));
+                    temporales[ranura] = valor;
+                }
+                return valor;
+            }
+            case COMPARTIDA: {
+                int ranura = ranuraEn(nodo + 1);
+                if (ranura >= temporales.length) {
+                    temporales = Arrays.copyOf(temporales, Math.max(ranura + 1, temporales.length * 2));
+                }
+                Object valor = datos.get(nodo + 5) != 0 ? null : temporales[ranura];
+                if (valor == null) {
+                    valor = evaluar(nodoEn(nodo, nodo + 6));
+                    temporales[ranura] = valor;
+                }
+                return valor;
+            }
+            default:
+                throw danado("tipo de expresión " + datos.get(nodo) + " en la posición " + nodo);
+        }
+    }
+
+    private Funcion funcionEn(int posicion) {
+        byte codigo = datos.get(posicion);
+        try {
+            return funcion(codigo);
+        } catch (IllegalArgumentException e) {
+            throw danado("función " + codigo + " en la posición " + posicion);
+        }
+    }
+
+    private Token.Tipo operadorEn(int posicion) {
+        byte codigo = datos.get(posicion);
+        try {
+            return operador(codigo);
+        } catch (IllegalArgumentException e) {
+            throw danado("operador " + codigo + " en la posición " + posicion);
+        }
+    }
+
+    /**
+     * Posición del hijo guardada en el campo indicado del nodo padre. El
+     * codificador escribe cada nodo después de sus hijos, así que el hijo
+     * tiene que quedar entre la cabecera y el padre; eso además impide que
+     * un archivo dañado forme ciclos y la recursión no termine.
+     */
+    private int nodoEn(int padre, int campo) {
+        int posicion = datos.getInt(campo);
+        if (posicion < TAMANO_CABECERA || posicion >= padre) {
+            throw danado("posición de nodo " + posicion + " en el campo de la posición " + campo);
+        }
+        return posicion;
+    }
+
+    /**
+     * Como {@link #nodoEn}, pero el campo puede valer -1 (sin nodo).
+     */
+    private int nodoOpcionalEn(int padre, int campo) {
+        return datos.getInt(campo) == -1 ? -1 : nodoEn(padre, campo);
+    }
+
+    /**
+     * Número de elementos de tamaño fijo que siguen al campo indicado, que
+     * tienen que caber en el archivo.
+     */
+    private int cantidadEn(int campo, int tamano) {
+        int cantidad = datos.getInt(campo);
+        if (cantidad < 0 || cantidad > (datos.limit() - campo - 4) / tamano) {
+            throw danado("número de elementos " + cantidad + " en el campo de la posición " + campo);
+        }
+        return cantidad;
+    }
+
+    /**
+     * Ranura temporal guardada en el campo indicado. Cada ranura pertenece
+     * al menos a un nodo, así que no puede haber más ranuras que nodos.
+     */
+    private int ranuraEn(int campo) {
+        int ranura = datos.getInt(campo);
+        if (ranura < 0 || ranura >= nodos) {
+            throw danado("ranura " + ranura + " en el campo de la posición " + campo);
+        }
+        return ranura;
+    }
+
+    private static ExcepcionInterpreter danado(String detalle) {
+        return new ExcepcionInterpreter("Programa compilado dañado: " + detalle);
+    }
+
+    private static ExcepcionInterpreter danado(String detalle, Throwable causa) {
+        return new ExcepcionInterpreter("Programa compilado dañado: " + detalle, causa);
+    }
+
+    /**
+     * Constante cuyo índice está guardado en el campo indicado.
+     */
+    private Object constanteEn(int campo) {
+        int indice = datos.getInt(campo);
+        if (indice < 0 || indice >= constantes.length) {
+            throw danado("constante " + indice + " en el campo de la posición " + campo
+                    + " (la tabla tiene " + constantes.length + ")");
+        }
+        Object valor = constantes[indice];
+        if (valor == null) {
+            int posicion = datos.getInt(tablaConstantes + 4 * indice);
+            if (posicion < tablaConstantes + 4 * constantes.length || posicion >= datos.limit()) {
+                throw danado("posición de la constante " + indice + ": " + posicion);
+            }
+            valor = decodificarConstante(posicion);
+            constantes[indice] = valor;
+        }
+        return valor;
+    }
+
+    private Object decodificarConstante(int posicion) {
+        byte etiqueta = datos.get(posicion);
+        switch (etiqueta) {
+            case NULO:
+                return null;
+            case ENTERO:
+                return datos.getInt(posicion + 1);
+            case ENTERO_LARGO:
+                return datos.getLong(posicion + 1);
+            case ENTERO_GRANDE:
+                return new BigInteger(leerBytes(posicion + 1));
+            case DECIMAL:
+                return datos.getDouble(posicion + 1);
+            case CADENA:
+                return new String(leerBytes(posicion + 1), StandardCharsets.UTF_8);
+            case VERDADERO:
+                return Boolean.TRUE;
+            case FALSO:
+                return Boolean.FALSE;
+            default:
+                throw danado("etiqueta de constante " + etiqueta + " en la posición " + posicion);
+        }
+    }
+
+    /**
+     * Lee un bloque de bytes precedido por su longitud.
+     */
+    private byte[] leerBytes(int posicion) {
+        int longitud = datos.getInt(posicion);
+        if (longitud < 0 || longitud > datos.limit() - posicion - 4) {
+            throw danado("longitud " + longitud + " de la constante en la posición " + (posicion - 1));
+        }
+        byte[] contenido = new byte[longitud];
+        datos.get(posicion + 4, contenido);
+        return contenido;
+    }
+
+    /**
+     * Retorna el número de declaraciones ejecutadas por este intérprete.
+     */
+    public long getDeclaracionesEjecutadas() {
+        return declaracionesEjecutadas;
+    }
+
+    /**
+     * Obtiene la tabla de símbolos actual (para debugging/testing).
+     */
+    public TablaSimbolos getTablaSimbolos() {
+        return tablaSimbolos;
+    }
+}
@@ -1,11 +1,21 @@
 package interpreter;
 
 import ast.*;
+import diagnosticos.ExcepcionLenguaje;
 import lexer.Token;
+import optimizer.GrafoDependencias;
+import symbols.ExcepcionSimbolos;
+import symbols.Simbolo;
 import symbols.TablaSimbolos;
 
+import java.io.IOException;
 import java.io.PrintStream;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BooleanSupplier;
+import java.util.function.LongSupplier;
 
 /**
  * Intérprete que ejecuta el código pseudocódigo representado en el AST.
@@ -13,32 +23,127 @@ import java.util.List;
 public class Interpreter implements VisitanteAST<Object> {
     private final TablaSimbolos tablaSimbolos;
     private final PrintStream salida;
+    private Perfilador perfilador;
+    private Traza traza;
+    private long declaracionesEjecutadas;
+    private Object[] temporales = new Object[0]; // Ranuras de los nodos Invariante y ExpresionCompartida (null = sin calcular)
+    private ForkJoinPool regionesParalelas;
+    private BooleanSupplier cancelacion; // Solo en los intérpretes de las regiones paralelas
+    private boolean concurrente; // En los tramos de un bucle paralelo, que pueden escribir en el mismo arreglo
+    
+    // Puntos de control: posición actual (rama e índice por nivel de bloque)
+    private PuntosDeControl puntosControl;
+    private LongSupplier bytesSalida;
+    private long proximoPuntoControl;
+    private int comprobacionesPendientes;
+    private int profundidad;
+    private int[] ramas = new int[16];
+    private int[] indices = new int[16];
+    private PuntoDeControl reanudacion; // No nulo mientras se desciende hasta el punto de reanudación
     
     public Interpreter() {
         this(System.out);
     }
     
     public Interpreter(PrintStream salida) {
-        this.tablaSimbolos = new TablaSimbolos();
+        this(salida, new TablaSimbolos());
+    }
+    
+    Interpreter(PrintStream salida, TablaSimbolos tablaSimbolos) {
+        this.tablaSimbolos = tablaSimbolos;
         this.salida = salida;
     }
     
     /**
-     * Interpreta un programa completo.
+     * Interpreta un programa completo. Los errores del lenguaje se propagan
+     * tal cual, con la posición de la declaración en la que se produjeron.
      */
     public void interpretar(Programa programa) {
         try {
             programa.aceptar(this);
+        } catch (ExcepcionLenguaje e) {
+            throw e;
         } catch (Exception e) {
             throw new ExcepcionInterpreter("Error durante la interpretación: " + e.getMessage(), e);
         }
     }
     
+    /**
+     * Activa el perfilado de las declaraciones ejecutadas a partir de ahora.
+     * Con un perfilador nulo la ejecución no paga ningún coste adicional.
+     */
+    public void setPerfilador(Perfilador perfilador) {
+        this.perfilador = perfilador;
+    }
+    
+    /**
+     * Activa el registro de la ejecución en la traza indicada (o lo desactiva
+     * con null). Mientras está activo los bucles contados se ejecutan por el
+     * camino genérico, para registrar cada evaluación de la condición.
+     */
+    public void setTraza(Traza traza) {
+        this.traza = traza;
+    }
+    
+    /**
+     * Ejecuta en el pool indicado, en paralelo, las regiones de nivel superior
+     * del programa que no comparten variables (ver {@link GrafoDependencias});
+     * con null se ejecuta todo en secuencia. La salida es la misma que en
+     * secuencia. No se aplica mientras hay perfilado, traza o puntos de control.
+     */
+    public void setRegionesParalelas(ForkJoinPool pool) {
+        this.regionesParalelas = pool;
+    }
+    
+    void setCancelacion(BooleanSupplier cancelacion) {
+        this.cancelacion = cancelacion;
+    }
+    
+    /**
+     * Ejecuta las declaraciones de una región paralela o del cuerpo de un
+     * bucle paralelo en el ámbito actual.
+     */
+    void ejecutarRegion(List<Declaracion> declaraciones) {
+        ejecutarBloque(declaraciones, 0);
+    }
+    
+    /**
+     * Activa los puntos de control periódicos. Mientras están activos los
+     * bucles contados se ejecutan por el camino genérico, de modo que la
+     * posición de cada declaración coincide con la del AST.
+     *
+     * @param bytesSalida bytes escritos hasta ahora en la salida del programa
+     */
+    public void setPuntosDeControl(PuntosDeControl puntosControl, LongSupplier bytesSalida) {
+        this.puntosControl = puntosControl;
+        this.bytesSalida = bytesSalida;
+        this.proximoPuntoControl = System.nanoTime() + puntosControl.getIntervalo();
+        this.comprobacionesPendientes = 1;
+    }
+    
+    /**
+     * Restaura el estado del punto de control; la siguiente llamada a
+     * {@link #interpretar} continúa desde la declaración en la que se tomó.
+     */
+    public void reanudar(PuntoDeControl punto) {
+        tablaSimbolos.restaurarAmbitos(punto.getAmbitos());
+        declaracionesEjecutadas = punto.getDeclaracionesEjecutadas();
+        reanudacion = punto;
+    }
+    
     @Override
     public Object visitarPrograma(Programa nodo) {
-        for (Declaracion declaracion : nodo.getDeclaraciones()) {
-            declaracion.aceptar(this);
+        if (regionesParalelas != null && perfilador == null && traza == null && puntosControl == null
+                && reanudacion == null && tablaSimbolos.numeroAmbitos() == 1) {
+            Map<String, Simbolo> global = tablaSimbolos.getAmbitos().get(0);
+            GrafoDependencias grafo = new GrafoDependencias(nodo.getDeclaraciones(), global.keySet());
+            if (grafo.getRegionesConBucles() >= 2) {
+                EjecucionParalela ejecucion = new EjecucionParalela(grafo, regionesParalelas, global);
+                declaracionesEjecutadas += ejecucion.ejecutar(salida, tablaSimbolos);
+                return null;
+            }
         }
+        ejecutarBloque(nodo.getDeclaraciones(), 0);
         return null;
     }
     
@@ -52,29 +157,61 @@ public class Interpreter implements VisitanteAST<Object> {
         } else {
             tablaSimbolos.definir(nodo.getNombre(), valor);
         }
+        if (traza != null) {
+            traza.asignacion(nodo.getLinea(), nodo.getColumna(), nodo.getNombre(), valor);
+        }
         
         return null;
     }
     
+    /**
+     * Asigna un elemento de un arreglo. No se registra en la traza: el
+     * arreglo sigue siendo el mismo valor.
+     */
+    @Override
+    public Object visitarAsignacionElemento(AsignacionElemento nodo) {
+        Object valor = nodo.getValor().aceptar(this);
+        Object arreglo = nodo.getArreglo().aceptar(this);
+        Object indice = nodo.getIndice().aceptar(this);
+        if (concurrente) {
+            Operaciones.asignarElementoSincronizado(arreglo, indice, valor);
+        } else {
+            Operaciones.asignarElemento(arreglo, indice, valor);
+        }
+        return null;
+    }
+    
     @Override
     public Object visitarSi(Si nodo) {
+        if (reanudacion != null) {
+            // La condición ya se evaluó y el ámbito de la rama ya está restaurado
+            int rama = reanudacion.getRamas()[profundidad];
+            try {
+                ejecutarBloque(rama == 0 ? nodo.getBloqueEntonces() : nodo.getBloqueSino(), rama);
+            } finally {
+                tablaSimbolos.salirAmbito();
+            }
+            return null;
+        }
+        
         Object condicion = nodo.getCondicion().aceptar(this);
+        boolean verdadera = esVerdadero(condicion);
+        if (traza != null) {
+            traza.rama(nodo.getLinea(), nodo.getColumna(), verdadera ? Traza.RAMA_ENTONCES
+                    : nodo.getBloqueSino() != null ? Traza.RAMA_SINO : Traza.RAMA_NINGUNA);
+        }
         
-        if (esVerdadero(condicion)) {
+        if (verdadera) {
             tablaSimbolos.entrarAmbito();
             try {
-                for (Declaracion declaracion : nodo.getBloqueEntonces()) {
-                    declaracion.aceptar(this);
-                }
+                ejecutarBloque(nodo.getBloqueEntonces(), 0);
             } finally {
                 tablaSimbolos.salirAmbito();
             }
         } else if (nodo.getBloqueSino() != null) {
             tablaSimbolos.entrarAmbito();
             try {
-                for (Declaracion declaracion : nodo.getBloqueSino()) {
-                    declaracion.aceptar(this);
-                }
+                ejecutarBloque(nodo.getBloqueSino(), 1);
             } finally {
                 tablaSimbolos.salirAmbito();
             }
@@ -85,17 +222,30 @@ public class Interpreter implements VisitanteAST<Object> {
     
     @Override
     public Object visitarRepite(Repite nodo) {
+        for (Invariante invariante : nodo.getInvariantes()) {
+            if (invariante.getRanura() < temporales.length) {
+                temporales[invariante.getRanura()] = null;
+            }
+        }
+        
+        // Al reanudar, la iteración en curso ya evaluó la condición y su ámbito está restaurado
+        boolean iteracionEnCurso = reanudacion != null;
         while (true) {
-            Object condicion = nodo.getCondicion().aceptar(this);
-            if (!esVerdadero(condicion)) {
-                break;
+            if (!iteracionEnCurso) {
+                Object condicion = nodo.getCondicion().aceptar(this);
+                boolean verdadera = esVerdadero(condicion);
+                if (traza != null) {
+                    traza.rama(nodo.getLinea(), nodo.getColumna(), verdadera ? Traza.RAMA_ITERA : Traza.RAMA_SALE);
+                }
+                if (!verdadera) {
+                    break;
+                }
+                tablaSimbolos.entrarAmbito();
             }
+            iteracionEnCurso = false;
             
-            tablaSimbolos.entrarAmbito();
             try {
-                for (Declaracion declaracion : nodo.getCuerpo()) {
-                    declaracion.aceptar(this);
-                }
+                ejecutarBloque(nodo.getCuerpo(), 0);
             } finally {
                 tablaSimbolos.salirAmbito();
             }
@@ -107,7 +257,7 @@ public class Interpreter implements VisitanteAST<Object> {
     @Override
     public Object visitarEscribir(Escribir nodo) {
         Object valor = nodo.getExpresion().aceptar(this);
-        salida.println(convertirACadena(valor));
+        salida.println(Operaciones.convertirACadena(valor));
         return null;
     }
     
@@ -115,56 +265,56 @@ public class Interpreter implements VisitanteAST<Object> {
     public Object visitarExpresionBinaria(ExpresionBinaria nodo) {
         Object izquierda = nodo.getIzquierda().aceptar(this);
         Object derecha = nodo.getDerecha().aceptar(this);
-        
-        switch (nodo.getOperador().getTipo()) {
-            case SUMA:
-                return sumar(izquierda, derecha);
-            case RESTA:
-                return restar(izquierda, derecha);
-            case MULTIPLICACION:
-                return multiplicar(izquierda, derecha);
-            case DIVISION:
-                return dividir(izquierda, derecha);
-            case MODULO:
-                return modulo(izquierda, derecha);
-            case IGUAL:
-                return sonIguales(izquierda, derecha);
-            case DIFERENTE:
-                return !sonIguales(izquierda, derecha);
-            case MAYOR:
-                return comparar(izquierda, derecha) > 0;
-            case MAYOR_IGUAL:
-                return comparar(izquierda, derecha) >= 0;
-            case MENOR:
-                return comparar(izquierda, derecha) < 0;
-            case MENOR_IGUAL:
-                return comparar(izquierda, derecha) <= 0;
-            case Y:
-                return esVerdadero(izquierda) && esVerdadero(derecha);
-            case O:
-                return esVerdadero(izquierda) || esVerdadero(derecha);
-            default:
-                throw new ExcepcionInterpreter("Operador binario no soportado: " + nodo.getOperador().getTipo());
-        }
+        return Operaciones.binaria(nodo.getOperador(), izquierda, derecha);
     }
     
     @Override
     public Object visitarExpresionUnaria(ExpresionUnaria nodo) {
         Object operando = nodo.getExpresion().aceptar(this);
-        
-        switch (nodo.getOperador().getTipo()) {
-            case RESTA:
-                if (operando instanceof Integer) {
-                    return -(Integer) operando;
-                } else if (operando instanceof Double) {
-                    return -(Double) operando;
-                } else {
-                    throw new ExcepcionInterpreter("No se puede negar: " + operando);
+        return Operaciones.unaria(nodo.getOperador(), operando);
+    }
+    
+    @Override
+    public Object visitarCreacionArreglo(CreacionArreglo nodo) {
+        List<Expresion> elementos = nodo.getElementos();
+        if (nodo.esRepeticion()) {
+            Object valor = elementos.get(0).aceptar(this);
+            return Operaciones.repetirArreglo(valor, nodo.getLongitud().aceptar(this));
+        }
+        Object[] valores = new Object[elementos.size()];
+        for (int i = 0; i < valores.length; i++) {
+            valores[i] = elementos.get(i).aceptar(this);
+        }
+        return Operaciones.crearArreglo(valores);
+    }
+    
+    @Override
+    public Object visitarIndexacion(Indexacion nodo) {
+        Object arreglo = nodo.getArreglo().aceptar(this);
+        return Operaciones.elemento(arreglo, nodo.getIndice().aceptar(this));
+    }
+    
+    /**
+     * Los argumentos se evalúan de izquierda a derecha; con uno o dos se
+     * llama a la función sin crear un arreglo de argumentos.
+     */
+    @Override
+    public Object visitarLlamada(Llamada nodo) {
+        List<Expresion> argumentos = nodo.getArgumentos();
+        switch (argumentos.size()) {
+            case 1:
+                return nodo.getFuncion().aplicar(argumentos.get(0).aceptar(this));
+            case 2: {
+                Object primero = argumentos.get(0).aceptar(this);
+                return nodo.getFuncion().aplicar(primero, argumentos.get(1).aceptar(this));
+            }
+            default: {
+                Object[] valores = new Object[argumentos.size()];
+                for (int i = 0; i < valores.length; i++) {
+                    valores[i] = argumentos.get(i).aceptar(this);
                 }
-            case NO:
-                return !esVerdadero(operando);
-            default:
-                throw new ExcepcionInterpreter("Operador unario no soportado: " + nodo.getOperador().getTipo());
+                return nodo.getFuncion().aplicar(valores);
+            }
         }
     }
     
@@ -178,111 +328,252 @@ public class Interpreter implements VisitanteAST<Object> {
         return tablaSimbolos.obtener(nodo.getNombre());
     }
     
-    // Métodos auxiliares para operaciones
-    
-    private Object sumar(Object izquierda, Object derecha) {
-        if (izquierda instanceof String || derecha instanceof String) {
-            return convertirACadena(izquierda) + convertirACadena(derecha);
+    @Override
+    public Object visitarRepiteContado(RepiteContado nodo) {
+        Repite original = nodo.getOriginal();
+        if (perfilador != null || traza != null || puntosControl != null || reanudacion != null) {
+            // El perfil y la traza deben ver también la declaración de incremento
+            // y los puntos de control usan las posiciones del bucle original
+            return visitarRepite(original);
         }
         
-        if (izquierda instanceof Integer && derecha instanceof Integer) {
-            return (Integer) izquierda + (Integer) derecha;
+        Object valorContador = tablaSimbolos.obtener(nodo.getContador());
+        Object valorLimite = nodo.getLimite().aceptar(this);
+        if (!(valorContador instanceof Integer) || !(valorLimite instanceof Integer)) {
+            return visitarRepite(original);
+        }
+        
+        for (Invariante invariante : original.getInvariantes()) {
+            if (invariante.getRanura() < temporales.length) {
+                temporales[invariante.getRanura()] = null;
+            }
+        }
+        
+        // El contador es long para que el último incremento no desborde; se
+        // guarda como Integer mientras quepa, igual que haría la suma genérica
+        Simbolo simbolo = tablaSimbolos.obtenerSimbolo(nodo.getContador());
+        long contador = (Integer) valorContador;
+        int limite = (Integer) valorLimite;
+        int paso = nodo.getPaso();
+        boolean incluyeLimite = nodo.getComparador() == Token.Tipo.MENOR_IGUAL;
+        List<Declaracion> cuerpo = nodo.getCuerpo();
+        
+        while (incluyeLimite ? contador <= limite : contador < limite) {
+            tablaSimbolos.entrarAmbito();
+            try {
+                ejecutarBloque(cuerpo, 0);
+            } finally {
+                tablaSimbolos.salirAmbito();
+            }
+            contador += paso;
+            simbolo.setValor(contador <= Integer.MAX_VALUE ? (Object) (int) contador : (Object) contador);
+            declaracionesEjecutadas++; // La declaración de incremento
         }
         
-        return convertirADecimal(izquierda) + convertirADecimal(derecha);
+        return null;
     }
     
-    private Object restar(Object izquierda, Object derecha) {
-        if (izquierda instanceof Integer && derecha instanceof Integer) {
-            return (Integer) izquierda - (Integer) derecha;
+    @Override
+    public Object visitarActualizacionCompuesta(ActualizacionCompuesta nodo) {
+        Simbolo simbolo = tablaSimbolos.obtenerSimbolo(nodo.getNombre());
+        if (simbolo == null) {
+            throw ExcepcionSimbolos.noDefinida(nodo.getNombre());
         }
-        
-        return convertirADecimal(izquierda) - convertirADecimal(derecha);
+        Object valor = Operaciones.binaria(nodo.getOperador(), simbolo.getValor(), nodo.getExpresion().aceptar(this));
+        tablaSimbolos.asignar(simbolo, valor);
+        if (traza != null) {
+            traza.asignacion(nodo.getLinea(), nodo.getColumna(), nodo.getNombre(), valor);
+        }
+        return null;
     }
     
-    private Object multiplicar(Object izquierda, Object derecha) {
-        if (izquierda instanceof Integer && derecha instanceof Integer) {
-            return (Integer) izquierda * (Integer) derecha;
+    @Override
+    public Object visitarParalelo(Paralelo nodo) {
+        EjecucionBucleParalelo bucle = new EjecucionBucleParalelo(nodo, nodo.getInicio().aceptar(this),
+                nodo.getFin().aceptar(this), tablaSimbolos);
+        List<Declaracion> cuerpo = nodo.getCuerpo();
+        if (perfilador != null || traza != null) {
+            // El perfil y la traza deben ver cada declaración del cuerpo. No se
+            // toman puntos de control dentro: el bucle cuenta como una declaración
+            PuntosDeControl puntos = puntosControl;
+            puntosControl = null;
+            try {
+                bucle.ejecutarEnSecuencia(tablaSimbolos, () -> ejecutarBloque(cuerpo, 0));
+            } finally {
+                puntosControl = puntos;
+            }
+            return null;
         }
-        
-        return convertirADecimal(izquierda) * convertirADecimal(derecha);
+        declaracionesEjecutadas += bucle.ejecutarEnParalelo(ForkJoinPool.commonPool(), tablaSimbolos, salida,
+                cancelacion, (tabla, destino, cancelado) -> {
+                    Interpreter interprete = new Interpreter(destino, tabla);
+                    interprete.setCancelacion(cancelado);
+                    interprete.concurrente = true;
+                    return new EjecucionBucleParalelo.Tramo(() -> interprete.ejecutarRegion(cuerpo),
+                            interprete::getDeclaracionesEjecutadas);
+                });
+        return null;
     }
     
-    private Object dividir(Object izquierda, Object derecha) {
-        double der = convertirADecimal(derecha);
-        if (der == 0) {
-            throw new ExcepcionInterpreter("División por cero");
+    @Override
+    public Object visitarInvariante(Invariante nodo) {
+        int ranura = nodo.getRanura();
+        if (ranura >= temporales.length) {
+            temporales = Arrays.copyOf(temporales, Math.max(ranura + 1, temporales.length * 2));
+        }
+        Object valor = temporales[ranura];
+        if (valor == null) {
+            valor = nodo.getExpresion().aceptar(this);
+            temporales[ranura] = valor;
+        }
+        return valor;
+    }
+    
+    @Override
+    public Object visitarExpresionEspecializada(ExpresionEspecializada nodo) {
+        Object operando = nodo.getOperando().aceptar(this);
+        switch (nodo.getEspecializacion()) {
+            case RESTO_POTENCIA_DOS:
+                return Operaciones.restoPotenciaDos(operando, nodo.getBits());
+            case MULTIPLO_POTENCIA_DOS:
+                return Operaciones.esMultiploPotenciaDos(operando, nodo.getBits());
+            case NO_MULTIPLO_POTENCIA_DOS:
+                return !Operaciones.esMultiploPotenciaDos(operando, nodo.getBits());
+            case PRODUCTO_POTENCIA_DOS:
+                return Operaciones.productoPotenciaDos(operando, nodo.getBits());
+            case COCIENTE_CONSTANTE:
+                return Operaciones.dividirPorConstante(operando, nodo.getDivisor(), nodo.getInverso());
+            default:
+                return Operaciones.compararNumeros(nodo.getOriginal().getOperador(), operando,
+                        nodo.getSegundo().aceptar(this));
         }
-        
-        return convertirADecimal(izquierda) / der;
     }
     
-    private Object modulo(Object izquierda, Object derecha) {
-        if (!(izquierda instanceof Integer) || !(derecha instanceof Integer)) {
-            throw new ExcepcionInterpreter("El operador módulo solo funciona con enteros");
+    @Override
+    public Object visitarExpresionCompartida(ExpresionCompartida nodo) {
+        int ranura = nodo.getRanura();
+        if (ranura >= temporales.length) {
+            temporales = Arrays.copyOf(temporales, Math.max(ranura + 1, temporales.length * 2));
         }
-        
-        int der = (Integer) derecha;
-        if (der == 0) {
-            throw new ExcepcionInterpreter("División por cero en módulo");
+        Object valor = nodo.esCalculo() ? null : temporales[ranura];
+        if (valor == null) {
+            valor = nodo.getExpresion().aceptar(this);
+            temporales[ranura] = valor;
         }
-        
-        return (Integer) izquierda % der;
+        return valor;
     }
     
-    private boolean sonIguales(Object izquierda, Object derecha) {
-        if (izquierda == null && derecha == null) return true;
-        if (izquierda == null || derecha == null) return false;
-        
-        // Comparación especial para números
-        if (esNumero(izquierda) && esNumero(derecha)) {
-            return convertirADecimal(izquierda).equals(convertirADecimal(derecha));
+    /**
+     * Ejecuta un bloque de declaraciones.
+     *
+     * @param rama 0 para el bloque del programa, el cuerpo de un repite o el
+     *             bloque entonces de un si; 1 para el bloque sino
+     */
+    private void ejecutarBloque(List<Declaracion> declaraciones, int rama) {
+        if (puntosControl != null || reanudacion != null) {
+            ejecutarBloqueConPosicion(declaraciones, rama);
+            return;
+        }
+        for (Declaracion declaracion : declaraciones) {
+            if (cancelacion != null && cancelacion.getAsBoolean()) {
+                throw new EjecucionCancelada();
+            }
+            declaracionesEjecutadas++;
+            ejecutarDeclaracion(declaracion);
         }
-        
-        return izquierda.equals(derecha);
     }
     
-    private int comparar(Object izquierda, Object derecha) {
-        if (esNumero(izquierda) && esNumero(derecha)) {
-            Double izq = convertirADecimal(izquierda);
-            Double der = convertirADecimal(derecha);
-            return izq.compareTo(der);
+    /**
+     * Variante de ejecutarBloque que mantiene la posición actual para poder
+     * tomar puntos de control y reanudar desde ellos.
+     */
+    private void ejecutarBloqueConPosicion(List<Declaracion> declaraciones, int rama) {
+        int nivel = profundidad++;
+        if (nivel == indices.length) {
+            ramas = Arrays.copyOf(ramas, nivel * 2);
+            indices = Arrays.copyOf(indices, nivel * 2);
         }
+        ramas[nivel] = rama;
         
-        if (izquierda instanceof String && derecha instanceof String) {
-            return ((String) izquierda).compareTo((String) derecha);
+        int inicio = 0;
+        if (reanudacion != null) {
+            inicio = reanudacion.getIndices()[nivel];
+            if (nivel == reanudacion.getIndices().length - 1) {
+                reanudacion = null; // Llegamos a la declaración en la que se tomó el punto de control
+            }
         }
         
-        throw new ExcepcionInterpreter("No se pueden comparar estos tipos: " + 
-                                     izquierda.getClass() + " y " + derecha.getClass());
+        try {
+            for (int i = inicio; i < declaraciones.size(); i++) {
+                indices[nivel] = i;
+                if (reanudacion == null) {
+                    if (puntosControl != null && --comprobacionesPendientes == 0) {
+                        comprobarPuntoDeControl();
+                    }
+                    declaracionesEjecutadas++;
+                }
+                ejecutarDeclaracion(declaraciones.get(i));
+            }
+        } finally {
+            profundidad--;
+        }
     }
     
-    private boolean esVerdadero(Object objeto) {
-        if (objeto == null) return false;
-        if (objeto instanceof Boolean) return (Boolean) objeto;
-        if (objeto instanceof Integer) return (Integer) objeto != 0;
-        if (objeto instanceof Double) return (Double) objeto != 0.0;
-        if (objeto instanceof String) return !((String) objeto).isEmpty();
-        return true;
+    private void ejecutarDeclaracion(Declaracion declaracion) {
+        if (traza != null) {
+            traza.declaracion(declaracion.getLinea(), declaracion.getColumna());
+        }
+        try {
+            if (perfilador == null) {
+                declaracion.aceptar(this);
+            } else {
+                perfilador.entrar(declaracion);
+                try {
+                    declaracion.aceptar(this);
+                } finally {
+                    perfilador.salir();
+                }
+            }
+        } catch (ExcepcionLenguaje e) {
+            e.ubicar(declaracion.getLinea(), declaracion.getColumna());
+            throw e;
+        }
     }
     
-    private boolean esNumero(Object objeto) {
-        return objeto instanceof Integer || objeto instanceof Double;
+    /**
+     * Consulta el reloj solo cada cierto número de declaraciones y guarda un
+     * punto de control si ha pasado el intervalo.
+     */
+    private void comprobarPuntoDeControl() {
+        comprobacionesPendientes = 1024;
+        long ahora = System.nanoTime();
+        if (ahora < proximoPuntoControl) {
+            return;
+        }
+        salida.flush();
+        PuntoDeControl punto = new PuntoDeControl(puntosControl.getHuella(), declaracionesEjecutadas,
+                bytesSalida.getAsLong(), Arrays.copyOf(ramas, profundidad), Arrays.copyOf(indices, profundidad),
+                tablaSimbolos.getAmbitos());
+        try {
+            puntosControl.guardar(punto);
+        } catch (IOException e) {
+            throw new ExcepcionInterpreter("No se pudo guardar el punto de control: " + e.getMessage(), e);
+        }
+        proximoPuntoControl = System.nanoTime() + puntosControl.getIntervalo();
     }
     
-    private Double convertirADecimal(Object objeto) {
-        if (objeto instanceof Integer) {
-            return ((Integer) objeto).doubleValue();
-        } else if (objeto instanceof Double) {
-            return (Double) objeto;
-        } else {
-            throw new ExcepcionInterpreter("No se puede convertir a número: " + objeto);
-        }
+    /**
+     * Valor de verdad de un valor cualquiera, tal como lo usan las condiciones.
+     */
+    public static boolean esVerdadero(Object objeto) {
+        return Operaciones.esVerdadero(objeto);
     }
     
-    private String convertirACadena(Object objeto) {
-        if (objeto == null) return "null";
-        return objeto.toString();
+    /**
+     * Retorna el número de declaraciones ejecutadas por este intérprete.
+     */
+    public long getDeclaracionesEjecutadas() {
+        return declaracionesEjecutadas;
     }
     
     /**
@@ -0,0 +1,226 @@
+package interpreter;
+
+import ast.Posicion;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lee, registro a registro, una traza escrita por {@link Traza}.
+ */
+public class LectorTraza implements Closeable {
+    private final DataInputStream entrada;
+    private final long crcFuente;
+    private final List<String> nombres = new ArrayList<>();
+    private boolean terminada;
+    private long descartados;
+
+    public LectorTraza(InputStream origen) throws IOException {
+        this.entrada = new DataInputStream(new BufferedInputStream(origen, 1 << 16));
+        if (entrada.readInt() != Traza.MAGIC) {
+            throw new IOException("El archivo no es una traza de ejecución");
+        }
+        short version = entrada.readShort();
+        if (version != Traza.VERSION) {
+            throw new IOException("Versión de traza no soportada: " + version + " (se esperaba " + Traza.VERSION + ")");
+        }
+        entrada.readShort();
+        this.crcFuente = entrada.readLong();
+    }
+
+    /**
+     * CRC32 del código fuente del programa que generó la traza.
+     */
+    public long getCrcFuente() {
+        return crcFuente;
+    }
+
+    /**
+     * Registros descartados en la traza (por tener el búfer lleno al
+     * registrarlos), leyéndola entera. Si la traza tiene registro FIN se usa
+     * su total; si está cortada, la suma de los HUECO leídos.
+     */
+    public static long contarDescartados(InputStream origen) throws IOException {
+        try (LectorTraza lector = new LectorTraza(origen)) {
+            while (lector.siguiente() != null) {
+                // siguiente() acumula los descartados
+            }
+            return lector.getDescartados();
+        }
+    }
+
+    /**
+     * Registros descartados en la parte de la traza leída hasta ahora.
+     */
+    public long getDescartados() {
+        return descartados;
+    }
+
+    /**
+     * Retorna el siguiente evento, o null al llegar al final. Los registros
+     * de nombres se procesan internamente y no se retornan. Una traza sin
+     * registro FIN (el proceso murió) termina en el último registro completo.
+     */
+    public Evento siguiente() throws IOException {
+        while (!terminada) {
+            int tipo = entrada.read();
+            if (tipo < 0) {
+                terminada = true;
+                return null;
+            }
+            try {
+                switch (tipo) {
+                    case Traza.DECLARACION:
+                        return new Evento(Traza.DECLARACION, entrada.readInt(), null, null, 0, 0);
+                    case Traza.RAMA:
+                        return new Evento(Traza.RAMA, entrada.readInt(), null, null, entrada.readByte(), 0);
+                    case Traza.NOMBRE: {
+                        int id = entrada.readInt();
+                        String nombre = new String(entrada.readNBytes(entrada.readUnsignedShort()),
+                                StandardCharsets.UTF_8);
+                        if (id != nombres.size()) {
+                            throw new IOException("Traza dañada: nombre " + id + " fuera de orden");
+                        }
+                        nombres.add(nombre);
+                        break;
+                    }
+                    case Traza.ASIGNACION: {
+                        int posicion = entrada.readInt();
+                        int id = entrada.readInt();
+                        if (id < 0 || id >= nombres.size()) {
+                            throw new IOException("Traza dañada: nombre " + id + " desconocido");
+                        }
+                        return new Evento(Traza.ASIGNACION, posicion, nombres.get(id), leerValor(), 0, 0);
+                    }
+                    case Traza.HUECO: {
+                        int cantidad = entrada.readInt();
+                        descartados += cantidad;
+                        return new Evento(Traza.HUECO, 0, null, null, 0, cantidad);
+                    }
+                    case Traza.FIN: {
+                        long escritos = entrada.readLong();
+                        descartados = entrada.readLong();
+                        terminada = true;
+                        return new Evento(Traza.FIN, 0, null, escritos, 0, descartados);
+                    }
+                    default:
+                        throw new IOException("Traza dañada: tipo de registro " + tipo);
+                }
+            } catch (EOFException e) {
+                terminada = true; // Registro a medias: el proceso terminó mientras se volcaba
+                return null;
+            }
+        }
+        return null;
+    }
+
+    private Object leerValor() throws IOException {
+        byte etiqueta = entrada.readByte();
+        switch (etiqueta) {
+            case Traza.VALOR_NULO:
+                return null;
+            case Traza.VALOR_ENTERO:
+                return entrada.readInt();
+            case Traza.VALOR_LARGO:
+                return entrada.readLong();
+            case Traza.VALOR_DECIMAL:
+                return entrada.readDouble();
+            case Traza.VALOR_VERDADERO:
+                return Boolean.TRUE;
+            case Traza.VALOR_FALSO:
+                return Boolean.FALSE;
+            case Traza.VALOR_TEXTO: {
+                int longitud = entrada.readInt();
+                String inicio = new String(entrada.readNBytes(entrada.readUnsignedShort()), StandardCharsets.UTF_8);
+                return inicio.length() < longitud
+                        ? inicio + "… (" + longitud + " caracteres)"
+                        : inicio;
+            }
+            case Traza.VALOR_ARREGLO: {
+                int elementos = entrada.readInt();
+                boolean recortado = entrada.readByte() != 0;
+                String inicio = new String(entrada.readNBytes(entrada.readUnsignedShort()), StandardCharsets.UTF_8);
+                return recortado ? inicio + "… (" + elementos + " elementos)" : inicio;
+            }
+            default:
+                throw new IOException("Traza dañada: etiqueta de valor " + etiqueta);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        entrada.close();
+    }
+
+    /**
+     * Un registro de la traza.
+     */
+    public static class Evento {
+        private final byte tipo;
+        private final int posicion;
+        private final String nombre;
+        private final Object valor;
+        private final byte decision;
+        private final long cantidad;
+
+        Evento(byte tipo, int posicion, String nombre, Object valor, int decision, long cantidad) {
+            this.tipo = tipo;
+            this.posicion = posicion;
+            this.nombre = nombre;
+            this.valor = valor;
+            this.decision = (byte) decision;
+            this.cantidad = cantidad;
+        }
+
+        /**
+         * Tipo del registro: DECLARACION, RAMA, ASIGNACION, HUECO o FIN de {@link Traza}.
+         */
+        public byte getTipo() {
+            return tipo;
+        }
+
+        public int getLinea() {
+            return Posicion.linea(posicion);
+        }
+
+        public int getColumna() {
+            return Posicion.columna(posicion);
+        }
+
+        /**
+         * Variable asignada (solo en ASIGNACION).
+         */
+        public String getNombre() {
+            return nombre;
+        }
+
+        /**
+         * Valor asignado (en ASIGNACION; las cadenas largas vienen recortadas)
+         * o registros escritos (en FIN).
+         */
+        public Object getValor() {
+            return valor;
+        }
+
+        /**
+         * Decisión de un registro RAMA (una de las constantes RAMA_* de {@link Traza}).
+         */
+        public byte getDecision() {
+            return decision;
+        }
+
+        /**
+         * Registros descartados (en HUECO y FIN).
+         */
+        public long getCantidad() {
+            return cantidad;
+        }
+    }
+}
@@ -0,0 +1,387 @@
+package interpreter;
+
+import diagnosticos.Diagnostico;
+import lexer.Token;
+
+import java.math.BigInteger;
+
+/**
+ * Semántica de los operadores del lenguaje sobre valores ya evaluados,
+ * compartida por todas las formas de ejecutar un programa.
+ *
+ * Los enteros son Integer, Long o BigInteger (ver {@link Enteros}), los
+ * decimales Double, las cadenas cualquier CharSequence y los arreglos
+ * {@link Arreglo}.
+ */
+public final class Operaciones {
+
+    private Operaciones() {
+    }
+
+    /**
+     * Aplica un operador binario a sus dos operandos (ambos ya evaluados).
+     */
+    public static Object binaria(Token.Tipo operador, Object izquierda, Object derecha) {
+        switch (operador) {
+            case SUMA:
+                return sumar(izquierda, derecha);
+            case RESTA:
+                return restar(izquierda, derecha);
+            case MULTIPLICACION:
+                return multiplicar(izquierda, derecha);
+            case DIVISION:
+                return dividir(izquierda, derecha);
+            case MODULO:
+                return modulo(izquierda, derecha);
+            case IGUAL:
+                return sonIguales(izquierda, derecha);
+            case DIFERENTE:
+                return !sonIguales(izquierda, derecha);
+            case MAYOR:
+                return comparar(izquierda, derecha) > 0;
+            case MAYOR_IGUAL:
+                return comparar(izquierda, derecha) >= 0;
+            case MENOR:
+                return comparar(izquierda, derecha) < 0;
+            case MENOR_IGUAL:
+                return comparar(izquierda, derecha) <= 0;
+            case Y:
+                return esVerdadero(izquierda) && esVerdadero(derecha);
+            case O:
+                return esVerdadero(izquierda) || esVerdadero(derecha);
+            default:
+                throw new ExcepcionInterpreter("Operador binario no soportado: " + operador);
+        }
+    }
+
+    /**
+     * Aplica un operador unario a su operando ya evaluado.
+     */
+    public static Object unaria(Token.Tipo operador, Object operando) {
+        switch (operador) {
+            case RESTA:
+                if (Enteros.esEntero(operando)) {
+                    return Enteros.negar(operando);
+                } else if (operando instanceof Double) {
+                    return -(Double) operando;
+                } else {
+                    throw new ExcepcionInterpreter(Diagnostico.Codigo.NEGACION_NO_NUMERICA, String.valueOf(operando));
+                }
+            case NO:
+                return !esVerdadero(operando);
+            default:
+                throw new ExcepcionInterpreter("Operador unario no soportado: " + operador);
+        }
+    }
+
+    public static Object sumar(Object izquierda, Object derecha) {
+        if (izquierda instanceof Integer && derecha instanceof Integer) {
+            return Enteros.sumar(izquierda, derecha);
+        }
+        
+        if (izquierda instanceof CadenaIncremental) {
+            return ((CadenaIncremental) izquierda).anadir(convertirACadena(derecha));
+        }
+        if (izquierda instanceof CharSequence || derecha instanceof CharSequence) {
+            return CadenaIncremental.concatenar(convertirACadena(izquierda), convertirACadena(derecha));
+        }
+        
+        if (Enteros.esEntero(izquierda) && Enteros.esEntero(derecha)) {
+            return Enteros.sumar(izquierda, derecha);
+        }
+        
+        return convertirADecimal(izquierda) + convertirADecimal(derecha);
+    }
+    
+    public static Object restar(Object izquierda, Object derecha) {
+        if (Enteros.esEntero(izquierda) && Enteros.esEntero(derecha)) {
+            return Enteros.restar(izquierda, derecha);
+        }
+        
+        return convertirADecimal(izquierda) - convertirADecimal(derecha);
+    }
+    
+    public static Object multiplicar(Object izquierda, Object derecha) {
+        if (Enteros.esEntero(izquierda) && Enteros.esEntero(derecha)) {
+            return Enteros.multiplicar(izquierda, derecha);
+        }
+        
+        return convertirADecimal(izquierda) * convertirADecimal(derecha);
+    }
+    
+    public static Object dividir(Object izquierda, Object derecha) {
+        double der = convertirADecimal(derecha);
+        if (der == 0) {
+            throw new ExcepcionInterpreter(Diagnostico.Codigo.DIVISION_POR_CERO);
+        }
+        
+        return convertirADecimal(izquierda) / der;
+    }
+    
+    public static Object modulo(Object izquierda, Object derecha) {
+        if (!Enteros.esEntero(izquierda) || !Enteros.esEntero(derecha)) {
+            throw new ExcepcionInterpreter(Diagnostico.Codigo.MODULO_NO_ENTERO);
+        }
+        
+        if (Enteros.esCero(derecha)) {
+            throw new ExcepcionInterpreter(Diagnostico.Codigo.MODULO_POR_CERO);
+        }
+        
+        return Enteros.modulo(izquierda, derecha);
+    }
+    
+    public static boolean sonIguales(Object izquierda, Object derecha) {
+        izquierda = aplanar(izquierda);
+        derecha = aplanar(derecha);
+        if (izquierda == null && derecha == null) return true;
+        if (izquierda == null || derecha == null) return false;
+        if (izquierda instanceof Arreglo && derecha instanceof Arreglo) {
+            return sonArreglosIguales((Arreglo) izquierda, (Arreglo) derecha);
+        }
+        
+        // Comparación especial para números
+        if (Enteros.esEntero(izquierda) && Enteros.esEntero(derecha)) {
+            return Enteros.comparar(izquierda, derecha) == 0;
+        }
+        if (esNumero(izquierda) && esNumero(derecha)) {
+            return convertirADecimal(izquierda).equals(convertirADecimal(derecha));
+        }
+        
+        return izquierda.equals(derecha);
+    }
+    
+    /**
+     * Dos arreglos son iguales si tienen la misma longitud y sus elementos
+     * son iguales uno a uno, con la igualdad del lenguaje (así [1] == [1.0]).
+     */
+    private static boolean sonArreglosIguales(Arreglo izquierda, Arreglo derecha) {
+        if (izquierda == derecha) return true;
+        if (izquierda.size() != derecha.size()) return false;
+        for (int i = 0; i < izquierda.size(); i++) {
+            if (!sonIguales(izquierda.get(i), derecha.get(i))) return false;
+        }
+        return true;
+    }
+    
+    public static int comparar(Object izquierda, Object derecha) {
+        izquierda = aplanar(izquierda);
+        derecha = aplanar(derecha);
+        if (Enteros.esEntero(izquierda) && Enteros.esEntero(derecha)) {
+            return Enteros.comparar(izquierda, derecha);
+        }
+        if (esNumero(izquierda) && esNumero(derecha)) {
+            Double izq = convertirADecimal(izquierda);
+            Double der = convertirADecimal(derecha);
+            return izq.compareTo(der);
+        }
+        
+        if (izquierda instanceof String && derecha instanceof String) {
+            return ((String) izquierda).compareTo((String) derecha);
+        }
+        
+        throw new ExcepcionInterpreter(Diagnostico.Codigo.TIPOS_NO_COMPARABLES,
+                izquierda.getClass(), derecha.getClass());
+    }
+    
+    // Variantes de las operaciones para los nodos ExpresionEspecializada. Cada
+    // una trata deprisa los operandos Integer (o Double) y delega el resto de
+    // casos en la operación genérica, con los mismos resultados y errores.
+
+    /**
+     * {@code x % 2^bits} con el signo del dividendo, como {@link #modulo}.
+     */
+    public static Object restoPotenciaDos(Object x, int bits) {
+        int mascara = (1 << bits) - 1;
+        if (x instanceof Integer) {
+            int valor = (Integer) x;
+            int resto = valor & mascara;
+            return valor < 0 && resto != 0 ? resto - (1 << bits) : resto;
+        }
+        if (x instanceof Long) {
+            long valor = (Long) x;
+            int resto = (int) (valor & mascara);
+            return valor < 0 && resto != 0 ? resto - (1 << bits) : resto;
+        }
+        return modulo(x, 1 << bits);
+    }
+
+    /**
+     * {@code x % 2^bits == 0}.
+     */
+    public static boolean esMultiploPotenciaDos(Object x, int bits) {
+        if (x instanceof Integer) {
+            return ((Integer) x & ((1 << bits) - 1)) == 0;
+        }
+        if (x instanceof Long) {
+            return ((Long) x & ((1L << bits) - 1)) == 0;
+        }
+        return sonIguales(modulo(x, 1 << bits), 0);
+    }
+
+    /**
+     * {@code x * 2^bits}, con bits entre 1 y 30: el desplazamiento de un int
+     * siempre cabe en un long.
+     */
+    public static Object productoPotenciaDos(Object x, int bits) {
+        if (x instanceof Integer) {
+            long producto = (long) (Integer) x << bits;
+            int corto = (int) producto;
+            return corto == producto ? (Object) corto : (Object) producto;
+        }
+        return multiplicar(x, 1 << bits);
+    }
+
+    /**
+     * {@code x / divisor} con un divisor constante distinto de cero. Si se
+     * conoce su inverso exacto (distinto de 0) se multiplica por él, que da
+     * el mismo resultado que la división.
+     */
+    public static Object dividirPorConstante(Object x, double divisor, double inverso) {
+        double valor;
+        if (x instanceof Integer) {
+            valor = (Integer) x;
+        } else if (x instanceof Double) {
+            valor = (Double) x;
+        } else {
+            return dividir(x, divisor);
+        }
+        return inverso != 0 ? valor * inverso : valor / divisor;
+    }
+
+    /**
+     * Aplica un operador de comparación a dos números como {@link #binaria}:
+     * entre Integer se compara con int y entre Integer y Double con double,
+     * sin crear objetos.
+     */
+    public static boolean compararNumeros(Token.Tipo operador, Object izquierda, Object derecha) {
+        switch (operador) {
+            case IGUAL:
+                return sonNumerosIguales(izquierda, derecha);
+            case DIFERENTE:
+                return !sonNumerosIguales(izquierda, derecha);
+            case MAYOR:
+                return compararNumeros(izquierda, derecha) > 0;
+            case MAYOR_IGUAL:
+                return compararNumeros(izquierda, derecha) >= 0;
+            case MENOR:
+                return compararNumeros(izquierda, derecha) < 0;
+            case MENOR_IGUAL:
+                return compararNumeros(izquierda, derecha) <= 0;
+            default:
+                return (Boolean) binaria(operador, izquierda, derecha);
+        }
+    }
+
+    /**
+     * Igual que {@link #comparar}.
+     */
+    public static int compararNumeros(Object izquierda, Object derecha) {
+        if (izquierda instanceof Integer && derecha instanceof Integer) {
+            return Integer.compare((Integer) izquierda, (Integer) derecha);
+        }
+        if (esIntegerODouble(izquierda) && esIntegerODouble(derecha)) {
+            return Double.compare(((Number) izquierda).doubleValue(), ((Number) derecha).doubleValue());
+        }
+        return comparar(izquierda, derecha);
+    }
+
+    /**
+     * Igual que {@link #sonIguales}. Para los Double, {@code Double.compare}
+     * distingue 0.0 de -0.0 e iguala NaN consigo mismo, como {@code equals}.
+     */
+    public static boolean sonNumerosIguales(Object izquierda, Object derecha) {
+        if (izquierda instanceof Integer && derecha instanceof Integer) {
+            return ((Integer) izquierda).intValue() == (Integer) derecha;
+        }
+        if (esIntegerODouble(izquierda) && esIntegerODouble(derecha)) {
+            return Double.compare(((Number) izquierda).doubleValue(), ((Number) derecha).doubleValue()) == 0;
+        }
+        return sonIguales(izquierda, derecha);
+    }
+
+    private static boolean esIntegerODouble(Object valor) {
+        return valor instanceof Integer || valor instanceof Double;
+    }
+
+    /**
+     * Valor de verdad de un valor cualquiera, tal como lo usan las condiciones.
+     */
+    public static boolean esVerdadero(Object objeto) {
+        if (objeto == null) return false;
+        if (objeto instanceof Boolean) return (Boolean) objeto;
+        if (objeto instanceof Integer) return (Integer) objeto != 0;
+        if (objeto instanceof Long || objeto instanceof BigInteger) return !Enteros.esCero(objeto);
+        if (objeto instanceof Double) return (Double) objeto != 0.0;
+        if (objeto instanceof CharSequence) return ((CharSequence) objeto).length() > 0;
+        if (objeto instanceof Arreglo) return !((Arreglo) objeto).isEmpty();
+        return true;
+    }
+    
+    // Arreglos
+
+    public static Arreglo crearArreglo(Object[] elementos) {
+        return Arreglo.deElementos(elementos);
+    }
+
+    /**
+     * Arreglo {@code [valor; longitud]}: la longitud debe ser un Integer no
+     * negativo.
+     */
+    public static Arreglo repetirArreglo(Object valor, Object longitud) {
+        if (!(longitud instanceof Integer) || (Integer) longitud < 0) {
+            throw new ExcepcionInterpreter(Diagnostico.Codigo.LONGITUD_NO_VALIDA, convertirACadena(longitud));
+        }
+        return Arreglo.repetido(valor, (Integer) longitud);
+    }
+
+    public static Object elemento(Object arreglo, Object indice) {
+        return comoArreglo(arreglo).obtener(indice);
+    }
+
+    public static void asignarElemento(Object arreglo, Object indice, Object valor) {
+        comoArreglo(arreglo).asignar(indice, valor);
+    }
+
+    /**
+     * Como {@link #asignarElemento}, para los tramos de un bucle paralelo, que
+     * pueden escribir a la vez en el mismo arreglo.
+     */
+    public static void asignarElementoSincronizado(Object arreglo, Object indice, Object valor) {
+        comoArreglo(arreglo).asignarSincronizado(indice, valor);
+    }
+
+    private static Arreglo comoArreglo(Object valor) {
+        if (valor instanceof Arreglo) {
+            return (Arreglo) valor;
+        }
+        throw new ExcepcionInterpreter(Diagnostico.Codigo.NO_ES_ARREGLO, convertirACadena(valor));
+    }
+    
+    private static boolean esNumero(Object objeto) {
+        return objeto instanceof Double || Enteros.esEntero(objeto);
+    }
+    
+    private static Double convertirADecimal(Object objeto) {
+        if (objeto instanceof Integer) {
+            return ((Integer) objeto).doubleValue();
+        } else if (objeto instanceof Double) {
+            return (Double) objeto;
+        } else if (objeto instanceof Long || objeto instanceof BigInteger) {
+            return ((Number) objeto).doubleValue();
+        } else {
+            throw new ExcepcionInterpreter(Diagnostico.Codigo.CONVERSION_NUMERICA, String.valueOf(objeto));
+        }
+    }
+    
+    /**
+     * Sustituye una cadena incremental por su String plano.
+     */
+    private static Object aplanar(Object objeto) {
+        return objeto instanceof CadenaIncremental ? objeto.toString() : objeto;
+    }
+    
+    public static String convertirACadena(Object objeto) {
+        if (objeto == null) return "null";
+        return objeto.toString();
+    }
+}
@@ -0,0 +1,201 @@
+package interpreter;
+
+import ast.*;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+/**
+ * Perfilador de ejecución que registra, para cada declaración, cuántas veces
+ * se ejecutó y cuánto tiempo consumió.
+ *
+ * Los tiempos se acumulan sobre un árbol de contextos de llamada (cada nodo es
+ * una declaración dentro de la pila de declaraciones que la contienen), de modo
+ * que se puede generar tanto un archivo de pilas colapsadas compatible con
+ * flamegraph como un listado del código fuente anotado por línea.
+ */
+public class Perfilador {
+    private final Contexto raiz;
+    private Contexto actual;
+
+    public Perfilador() {
+        this.raiz = new Contexto(null, null);
+        this.actual = raiz;
+    }
+
+    /**
+     * Marca el inicio de la ejecución de una declaración.
+     */
+    public void entrar(Declaracion declaracion) {
+        Contexto hijo = actual.hijos.get(declaracion);
+        if (hijo == null) {
+            hijo = new Contexto(declaracion, actual);
+            actual.hijos.put(declaracion, hijo);
+        }
+        hijo.ejecuciones++;
+        hijo.inicio = System.nanoTime();
+        actual = hijo;
+    }
+
+    /**
+     * Marca el final de la declaración iniciada más recientemente.
+     */
+    public void salir() {
+        Contexto terminado = actual;
+        long duracion = System.nanoTime() - terminado.inicio;
+        terminado.tiempoTotal += duracion;
+        actual = terminado.padre;
+        if (actual != raiz) {
+            actual.tiempoHijos += duracion;
+        }
+    }
+
+    /**
+     * Retorna las estadísticas agregadas por declaración, sumando todos los
+     * contextos en los que aparece.
+     */
+    public Map<Declaracion, Estadistica> estadisticasPorDeclaracion() {
+        Map<Declaracion, Estadistica> resultado = new IdentityHashMap<>();
+        recorrer(raiz, contexto -> resultado
+                .computeIfAbsent(contexto.declaracion, d -> new Estadistica())
+                .acumular(contexto));
+        return resultado;
+    }
+
+    /**
+     * Retorna las estadísticas agregadas por línea del código fuente.
+     */
+    public Map<Integer, Estadistica> estadisticasPorLinea() {
+        Map<Integer, Estadistica> resultado = new TreeMap<>();
+        recorrer(raiz, contexto -> resultado
+                .computeIfAbsent(contexto.declaracion.getLinea(), l -> new Estadistica())
+                .acumular(contexto));
+        return resultado;
+    }
+
+    /**
+     * Genera las pilas colapsadas ("marco;marco;marco valor") con el tiempo
+     * propio en nanosegundos, listas para flamegraph.pl o speedscope.
+     */
+    public String generarPilasColapsadas() {
+        StringBuilder sb = new StringBuilder();
+        List<String> pila = new ArrayList<>();
+        pila.add("programa");
+        generarPilas(raiz, pila, sb);
+        return sb.toString();
+    }
+
+    private void generarPilas(Contexto contexto, List<String> pila, StringBuilder sb) {
+        for (Contexto hijo : contexto.hijos.values()) {
+            pila.add(describir(hijo.declaracion));
+            long propio = hijo.tiempoTotal - hijo.tiempoHijos;
+            if (propio > 0) {
+                sb.append(String.join(";", pila)).append(' ').append(propio).append('\n');
+            }
+            generarPilas(hijo, pila, sb);
+            pila.remove(pila.size() - 1);
+        }
+    }
+
+    /**
+     * Genera el código fuente anotado con ejecuciones, tiempo propio y tiempo
+     * total (en milisegundos) de las declaraciones que comienzan en cada línea.
+     */
+    public String generarListadoAnotado(String fuente) {
+        Map<Integer, Estadistica> porLinea = estadisticasPorLinea();
+        String[] lineas = fuente.split("\n", -1);
+
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%12s %12s %12s  %5s  %s%n",
+                "ejecuciones", "propio (ms)", "total (ms)", "línea", "código"));
+        for (int i = 0; i < lineas.length; i++) {
+            Estadistica estadistica = porLinea.get(i + 1);
+            String codigo = lineas[i].replace("\r", "");
+            if (estadistica == null) {
+                sb.append(String.format("%12s %12s %12s  %5d  %s%n", "", "", "", i + 1, codigo));
+            } else {
+                sb.append(String.format("%12d %12.3f %12.3f  %5d  %s%n",
+                        estadistica.getEjecuciones(),
+                        estadistica.getTiempoPropio() / 1_000_000.0,
+                        estadistica.getTiempoTotal() / 1_000_000.0,
+                        i + 1, codigo));
+            }
+        }
+        return sb.toString();
+    }
+
+    private void recorrer(Contexto contexto, Consumer<Contexto> accion) {
+        for (Contexto hijo : contexto.hijos.values()) {
+            accion.accept(hijo);
+            recorrer(hijo, accion);
+        }
+    }
+
+    private String describir(Declaracion declaracion) {
+        String nombre;
+        if (declaracion instanceof Asignacion) {
+            nombre = "asignacion " + ((Asignacion) declaracion).getNombre();
+        } else if (declaracion instanceof ActualizacionCompuesta) {
+            nombre = "asignacion " + ((ActualizacionCompuesta) declaracion).getNombre();
+        } else if (declaracion instanceof Si) {
+            nombre = "si";
+        } else if (declaracion instanceof Repite || declaracion instanceof RepiteContado) {
+            nombre = "repite";
+        } else if (declaracion instanceof Escribir) {
+            nombre = "escribir";
+        } else {
+            nombre = declaracion.getClass().getSimpleName().toLowerCase();
+        }
+        return nombre + ":" + declaracion.getLinea();
+    }
+
+    /**
+     * Nodo del árbol de contextos: una declaración ejecutada bajo una pila concreta.
+     */
+    private static class Contexto {
+        private final Declaracion declaracion;
+        private final Contexto padre;
+        private final Map<Declaracion, Contexto> hijos = new LinkedHashMap<>();
+        private long ejecuciones;
+        private long tiempoTotal;
+        private long tiempoHijos;
+        private long inicio;
+
+        Contexto(Declaracion declaracion, Contexto padre) {
+            this.declaracion = declaracion;
+            this.padre = padre;
+        }
+    }
+
+    /**
+     * Ejecuciones y tiempos (en nanosegundos) acumulados.
+     */
+    public static class Estadistica {
+        private long ejecuciones;
+        private long tiempoTotal;
+        private long tiempoPropio;
+
+        private void acumular(Contexto contexto) {
+            ejecuciones += contexto.ejecuciones;
+            tiempoTotal += contexto.tiempoTotal;
+            tiempoPropio += contexto.tiempoTotal - contexto.tiempoHijos;
+        }
+
+        public long getEjecuciones() {
+            return ejecuciones;
+        }
+
+        public long getTiempoTotal() {
+            return tiempoTotal;
+        }
+
+        public long getTiempoPropio() {
+            return tiempoPropio;
+        }
+    }
+}
@@ -0,0 +1,291 @@
+package interpreter;
+
+import symbols.Simbolo;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Estado de un intérprete en una frontera entre declaraciones: la posición en
+ * el AST, la pila de ámbitos de la tabla de símbolos y los bytes de salida ya
+ * emitidos.
+ *
+ * La posición es un camino desde el bloque del programa: en cada nivel, la
+ * rama del bloque (0 para el cuerpo o el bloque entonces, 1 para el bloque
+ * sino) y el índice de la declaración. En el último nivel el índice es la
+ * siguiente declaración a ejecutar; en los anteriores es la declaración
+ * compuesta (si o repite) cuyo bloque se está ejecutando.
+ *
+ * Formato binario (big-endian): huella (long), declaraciones ejecutadas
+ * (long), bytes de salida (long), número de niveles (int) y por nivel rama
+ * (byte) e índice (int), número de ámbitos (int) y por ámbito el número de
+ * símbolos (int) y por símbolo nombre, tipo (byte) y valor etiquetado.
+ *
+ * Un arreglo se escribe entero la primera vez que aparece: la clase de su
+ * almacenamiento (byte), la longitud (int) y los elementos. Las siguientes
+ * apariciones del mismo arreglo, en la misma u otra variable o dentro de sí
+ * mismo, son una referencia a su número de orden, de modo que al reanudar las
+ * variables siguen compartiendo el arreglo.
+ */
+public class PuntoDeControl {
+    private static final byte ENTERO = 0;
+    private static final byte LARGO = 1;
+    private static final byte ENTERO_GRANDE = 2;
+    private static final byte DECIMAL = 3;
+    private static final byte CADENA = 4;
+    private static final byte BOOLEANO = 5;
+    private static final byte ARREGLO = 6;
+    private static final byte REFERENCIA = 7;
+
+    // Clase del almacenamiento de un arreglo
+    private static final byte ENTEROS = 0;
+    private static final byte DECIMALES = 1;
+    private static final byte OBJETOS = 2;
+
+    private final long huella;
+    private final long declaracionesEjecutadas;
+    private final long bytesSalida;
+    private final int[] ramas;
+    private final int[] indices;
+    private final List<Map<String, Simbolo>> ambitos;
+
+    public PuntoDeControl(long huella, long declaracionesEjecutadas, long bytesSalida,
+                          int[] ramas, int[] indices, List<Map<String, Simbolo>> ambitos) {
+        this.huella = huella;
+        this.declaracionesEjecutadas = declaracionesEjecutadas;
+        this.bytesSalida = bytesSalida;
+        this.ramas = ramas;
+        this.indices = indices;
+        this.ambitos = ambitos;
+    }
+
+    /**
+     * Identifica el programa (y sus opciones de optimización) al que
+     * pertenece el punto de control.
+     */
+    public long getHuella() {
+        return huella;
+    }
+
+    public long getDeclaracionesEjecutadas() {
+        return declaracionesEjecutadas;
+    }
+
+    /**
+     * Bytes que el programa había escrito en su salida al tomar el punto de control.
+     */
+    public long getBytesSalida() {
+        return bytesSalida;
+    }
+
+    int[] getRamas() {
+        return ramas;
+    }
+
+    int[] getIndices() {
+        return indices;
+    }
+
+    List<Map<String, Simbolo>> getAmbitos() {
+        return ambitos;
+    }
+
+    void escribir(DataOutputStream salida) throws IOException {
+        salida.writeLong(huella);
+        salida.writeLong(declaracionesEjecutadas);
+        salida.writeLong(bytesSalida);
+        salida.writeInt(indices.length);
+        for (int i = 0; i < indices.length; i++) {
+            salida.writeByte(ramas[i]);
+            salida.writeInt(indices[i]);
+        }
+        salida.writeInt(ambitos.size());
+        Map<Arreglo, Integer> arreglos = new IdentityHashMap<>();
+        for (Map<String, Simbolo> ambito : ambitos) {
+            salida.writeInt(ambito.size());
+            for (Map.Entry<String, Simbolo> entrada : ambito.entrySet()) {
+                Simbolo simbolo = entrada.getValue();
+                salida.writeUTF(entrada.getKey());
+                salida.writeByte(simbolo.getTipo().ordinal());
+                escribirValor(salida, simbolo.getValor(), arreglos);
+            }
+        }
+    }
+
+    static PuntoDeControl leer(DataInputStream entrada) throws IOException {
+        long huella = entrada.readLong();
+        long declaraciones = entrada.readLong();
+        long bytesSalida = entrada.readLong();
+        int niveles = entrada.readInt();
+        int[] ramas = new int[niveles];
+        int[] indices = new int[niveles];
+        for (int i = 0; i < niveles; i++) {
+            ramas[i] = entrada.readByte();
+            indices[i] = entrada.readInt();
+        }
+        int numeroAmbitos = entrada.readInt();
+        List<Map<String, Simbolo>> ambitos = new ArrayList<>(numeroAmbitos);
+        Simbolo.TipoSimbolo[] tipos = Simbolo.TipoSimbolo.values();
+        List<Arreglo> arreglos = new ArrayList<>();
+        for (int i = 0; i < numeroAmbitos; i++) {
+            int simbolos = entrada.readInt();
+            Map<String, Simbolo> ambito = new HashMap<>();
+            for (int j = 0; j < simbolos; j++) {
+                String nombre = entrada.readUTF();
+                Simbolo.TipoSimbolo tipo = tipos[entrada.readByte()];
+                ambito.put(nombre, new Simbolo(nombre, leerValor(entrada, arreglos), tipo));
+            }
+            ambitos.add(ambito);
+        }
+        return new PuntoDeControl(huella, declaraciones, bytesSalida, ramas, indices, ambitos);
+    }
+
+    /**
+     * @param arreglos número de orden de los arreglos ya escritos
+     */
+    private static void escribirValor(DataOutputStream salida, Object valor, Map<Arreglo, Integer> arreglos)
+            throws IOException {
+        if (valor instanceof Integer) {
+            salida.writeByte(ENTERO);
+            salida.writeInt((Integer) valor);
+        } else if (valor instanceof Long) {
+            salida.writeByte(LARGO);
+            salida.writeLong((Long) valor);
+        } else if (valor instanceof BigInteger) {
+            byte[] bytes = ((BigInteger) valor).toByteArray();
+            salida.writeByte(ENTERO_GRANDE);
+            salida.writeInt(bytes.length);
+            salida.write(bytes);
+        } else if (valor instanceof Double) {
+            salida.writeByte(DECIMAL);
+            salida.writeDouble((Double) valor);
+        } else if (valor instanceof CharSequence) {
+            byte[] bytes = valor.toString().getBytes(StandardCharsets.UTF_8);
+            salida.writeByte(CADENA);
+            salida.writeInt(bytes.length);
+            salida.write(bytes);
+        } else if (valor instanceof Boolean) {
+            salida.writeByte(BOOLEANO);
+            salida.writeBoolean((Boolean) valor);
+        } else if (valor instanceof Arreglo) {
+            escribirArreglo(salida, (Arreglo) valor, arreglos);
+        } else {
+            throw new ExcepcionInterpreter("Valor no admitido en un punto de control: " + valor);
+        }
+    }
+
+    private static void escribirArreglo(DataOutputStream salida, Arreglo arreglo, Map<Arreglo, Integer> arreglos)
+            throws IOException {
+        Integer numero = arreglos.get(arreglo);
+        if (numero != null) {
+            salida.writeByte(REFERENCIA);
+            salida.writeInt(numero);
+            return;
+        }
+        arreglos.put(arreglo, arreglos.size());
+        salida.writeByte(ARREGLO);
+        Object datos = arreglo.getDatos();
+        if (datos instanceof int[]) {
+            int[] enteros = (int[]) datos;
+            salida.writeByte(ENTEROS);
+            salida.writeInt(enteros.length);
+            for (int entero : enteros) {
+                salida.writeInt(entero);
+            }
+        } else if (datos instanceof double[]) {
+            double[] decimales = (double[]) datos;
+            salida.writeByte(DECIMALES);
+            salida.writeInt(decimales.length);
+            for (double decimal : decimales) {
+                salida.writeDouble(decimal);
+            }
+        } else {
+            Object[] objetos = (Object[]) datos;
+            salida.writeByte(OBJETOS);
+            salida.writeInt(objetos.length);
+            for (Object objeto : objetos) {
+                escribirValor(salida, objeto, arreglos);
+            }
+        }
+    }
+
+    /**
+     * @param arreglos arreglos ya leídos, por número de orden
+     */
+    private static Object leerValor(DataInputStream entrada, List<Arreglo> arreglos) throws IOException {
+        byte etiqueta = entrada.readByte();
+        switch (etiqueta) {
+            case ENTERO:
+                return entrada.readInt();
+            case LARGO:
+                return entrada.readLong();
+            case ENTERO_GRANDE:
+                return new BigInteger(entrada.readNBytes(entrada.readInt()));
+            case DECIMAL:
+                return entrada.readDouble();
+            case CADENA:
+                return new String(entrada.readNBytes(entrada.readInt()), StandardCharsets.UTF_8);
+            case BOOLEANO:
+                return entrada.readBoolean();
+            case ARREGLO:
+                return leerArreglo(entrada, arreglos);
+            case REFERENCIA: {
+                int numero = entrada.readInt();
+                if (numero < 0 || numero >= arreglos.size()) {
+                    throw new IOException("Referencia a un arreglo desconocido: " + numero);
+                }
+                return arreglos.get(numero);
+            }
+            default:
+                throw new IOException("Etiqueta de valor desconocida: " + etiqueta);
+        }
+    }
+
+    private static Arreglo leerArreglo(DataInputStream entrada, List<Arreglo> arreglos) throws IOException {
+        byte clase = entrada.readByte();
+        int longitud = entrada.readInt();
+        if (longitud < 0) {
+            throw new IOException("Longitud de arreglo no válida: " + longitud);
+        }
+        switch (clase) {
+            case ENTEROS: {
+                int[] enteros = new int[longitud];
+                Arreglo arreglo = Arreglo.conDatos(enteros);
+                arreglos.add(arreglo);
+                for (int i = 0; i < longitud; i++) {
+                    enteros[i] = entrada.readInt();
+                }
+                return arreglo;
+            }
+            case DECIMALES: {
+                double[] decimales = new double[longitud];
+                Arreglo arreglo = Arreglo.conDatos(decimales);
+                arreglos.add(arreglo);
+                for (int i = 0; i < longitud; i++) {
+                    decimales[i] = entrada.readDouble();
+                }
+                return arreglo;
+            }
+            case OBJETOS: {
+                // Se registra antes de leer los elementos, que pueden referirse a él
+                Object[] objetos = new Object[longitud];
+                Arreglo arreglo = Arreglo.conDatos(objetos);
+                arreglos.add(arreglo);
+                for (int i = 0; i < longitud; i++) {
+                    objetos[i] = leerValor(entrada, arreglos);
+                }
+                return arreglo;
+            }
+            default:
+                throw new IOException("Clase de arreglo desconocida: " + clase);
+        }
+    }
+}
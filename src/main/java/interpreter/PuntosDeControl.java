@@ -0,0 +1,248 @@
+package interpreter;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Archivo de puntos de control de un programa, escrito mediante un archivo
+ * proyectado en memoria.
+ *
+ * El archivo tiene una cabecera y dos ranuras que se escriben de forma
+ * alterna, de modo que siempre queda intacto el punto de control anterior:
+ *
+ * <pre>
+ * cabecera: magia "PSCP" (int), versión (int), capacidad de cada ranura (int), reservado (int)
+ * ranura:   secuencia (long), longitud (int), CRC32 de los datos (int), datos
+ * </pre>
+ *
+ * La secuencia se escribe la última; al leer se elige la ranura con mayor
+ * secuencia cuyo CRC coincide, así que un proceso que muere a mitad de una
+ * escritura deja disponible el punto de control previo. Guardar solo copia los
+ * datos en la memoria proyectada (el sistema operativo los lleva al disco), por
+ * lo que la pausa del programa es la serialización del estado.
+ */
+public class PuntosDeControl implements Closeable {
+    private static final int MAGIA = 0x50534350; // "PSCP"
+    private static final int VERSION = 1;
+    private static final int CABECERA = 16;
+    private static final int CABECERA_RANURA = 16;
+    private static final int CAPACIDAD_INICIAL = 64 * 1024;
+    // Las dos ranuras y la cabecera tienen que caber en un solo MappedByteBuffer
+    private static final int CAPACIDAD_MAXIMA = (Integer.MAX_VALUE - CABECERA) / 2 - CABECERA_RANURA;
+
+    private final Path ruta;
+    private final long huella;
+    private final long intervalo;
+    private final Bufer bufer = new Bufer();
+    private FileChannel canal;
+    private MappedByteBuffer mapa;
+    private int capacidad;
+    private long secuencia;
+
+    private PuntosDeControl(Path ruta, long huella, long intervalo) {
+        this.ruta = ruta;
+        this.huella = huella;
+        this.intervalo = intervalo;
+    }
+
+    /**
+     * Abre (o crea) el archivo de puntos de control.
+     *
+     * @param huella           identifica el programa; un punto de control de otro
+     *                         programa no se puede reanudar
+     * @param intervaloMillis  tiempo mínimo entre dos puntos de control
+     */
+    public static PuntosDeControl abrir(Path ruta, long huella, long intervaloMillis) throws IOException {
+        PuntosDeControl puntos = new PuntosDeControl(ruta, huella, intervaloMillis * 1_000_000L);
+        if (Files.exists(ruta) && Files.size(ruta) >= CABECERA) {
+            puntos.proyectar();
+            if (puntos.mapa.getInt(0) == MAGIA && puntos.mapa.getInt(4) == VERSION
+                    && puntos.mapa.capacity() == tamano(puntos.mapa.getInt(8))) {
+                puntos.capacidad = puntos.mapa.getInt(8);
+                puntos.secuencia = Math.max(puntos.mapa.getLong(CABECERA), puntos.mapa.getLong(desplazamiento(1, puntos.capacidad)));
+                return puntos;
+            }
+            puntos.canal.close();
+        }
+        puntos.crear(CAPACIDAD_INICIAL, 0, null, 0, 0);
+        return puntos;
+    }
+
+    public long getHuella() {
+        return huella;
+    }
+
+    /**
+     * Tiempo mínimo, en nanosegundos, entre dos puntos de control.
+     */
+    public long getIntervalo() {
+        return intervalo;
+    }
+
+    /**
+     * Retorna el último punto de control válido, o null si no hay ninguno.
+     *
+     * @throws ExcepcionInterpreter si el punto de control pertenece a otro programa
+     */
+    public PuntoDeControl ultimo() throws IOException {
+        int mejor = -1;
+        long mejorSecuencia = 0;
+        for (int ranura = 0; ranura < 2; ranura++) {
+            int inicio = desplazamiento(ranura, capacidad);
+            long secuenciaRanura = mapa.getLong(inicio);
+            if (secuenciaRanura > mejorSecuencia && esValida(inicio)) {
+                mejor = ranura;
+                mejorSecuencia = secuenciaRanura;
+            }
+        }
+        if (mejor < 0) {
+            return null;
+        }
+        int inicio = desplazamiento(mejor, capacidad);
+        byte[] datos = new byte[mapa.getInt(inicio + 8)];
+        mapa.get(inicio + CABECERA_RANURA, datos);
+        PuntoDeControl punto = PuntoDeControl.leer(new DataInputStream(new ByteArrayInputStream(datos)));
+        if (punto.getHuella() != huella) {
+            throw new ExcepcionInterpreter("El punto de control de " + ruta + " pertenece a otro programa");
+        }
+        return punto;
+    }
+
+    /**
+     * Invalida los puntos de control guardados, para empezar una ejecución nueva.
+     */
+    public void descartar() {
+        for (int ranura = 0; ranura < 2; ranura++) {
+            int inicio = desplazamiento(ranura, capacidad);
+            mapa.putLong(inicio, 0);
+            mapa.putInt(inicio + 8, 0);
+        }
+        secuencia = 0;
+    }
+
+    /**
+     * Guarda el punto de control en la ranura más antigua.
+     */
+    void guardar(PuntoDeControl punto) throws IOException {
+        bufer.reset();
+        punto.escribir(new DataOutputStream(bufer));
+        byte[] datos = bufer.datos();
+        int longitud = bufer.size();
+        CRC32 crc = new CRC32();
+        crc.update(datos, 0, longitud);
+        long siguiente = secuencia + 1;
+
+        int ranura = (int) (siguiente & 1);
+        if (longitud > capacidad) {
+            // Crece el archivo: se reescribe entero con el nuevo punto en la
+            // ranura que le toca, para que el siguiente no lo sobrescriba
+            if (longitud > CAPACIDAD_MAXIMA) {
+                throw new IOException("El punto de control ocupa " + longitud
+                        + " bytes y el máximo es " + CAPACIDAD_MAXIMA);
+            }
+            long nuevaCapacidad = Math.max(2L * capacidad, longitud + longitud / 2L);
+            canal.close();
+            crear((int) Math.min(nuevaCapacidad, CAPACIDAD_MAXIMA), ranura, datos, longitud, siguiente);
+            secuencia = siguiente;
+            return;
+        }
+
+        int inicio = desplazamiento(ranura, capacidad);
+        mapa.put(inicio + CABECERA_RANURA, datos, 0, longitud);
+        mapa.putInt(inicio + 8, longitud);
+        mapa.putInt(inicio + 12, (int) crc.getValue());
+        mapa.putLong(inicio, siguiente);
+        secuencia = siguiente;
+    }
+
+    /**
+     * Elimina el archivo (el programa terminó y no hay nada que reanudar).
+     */
+    public void eliminar() throws IOException {
+        close();
+        Files.deleteIfExists(ruta);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (canal.isOpen()) {
+            mapa.force();
+            canal.close();
+        }
+    }
+
+    private boolean esValida(int inicio) {
+        int longitud = mapa.getInt(inicio + 8);
+        if (longitud <= 0 || longitud > capacidad) {
+            return false;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(mapa.slice(inicio + CABECERA_RANURA, longitud));
+        return (int) crc.getValue() == mapa.getInt(inicio + 12);
+    }
+
+    /**
+     * Crea un archivo nuevo junto al definitivo y lo mueve de forma atómica,
+     * con el punto de control indicado (si lo hay) en la ranura indicada.
+     */
+    private void crear(int nuevaCapacidad, int ranura, byte[] datos, int longitud, long secuenciaDatos)
+            throws IOException {
+        Path temporal = ruta.resolveSibling(ruta.getFileName() + ".tmp");
+        try (FileChannel nuevo = FileChannel.open(temporal, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer nuevoMapa = nuevo.map(FileChannel.MapMode.READ_WRITE, 0, tamano(nuevaCapacidad));
+            nuevoMapa.putInt(0, MAGIA).putInt(4, VERSION).putInt(8, nuevaCapacidad);
+            if (datos != null) {
+                CRC32 crc = new CRC32();
+                crc.update(datos, 0, longitud);
+                int inicio = desplazamiento(ranura, nuevaCapacidad);
+                nuevoMapa.put(inicio + CABECERA_RANURA, datos, 0, longitud);
+                nuevoMapa.putInt(inicio + 8, longitud);
+                nuevoMapa.putInt(inicio + 12, (int) crc.getValue());
+                nuevoMapa.putLong(inicio, secuenciaDatos);
+            }
+            nuevoMapa.force();
+        }
+        Files.move(temporal, ruta, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        proyectar();
+        capacidad = nuevaCapacidad;
+    }
+
+    private void proyectar() throws IOException {
+        canal = FileChannel.open(ruta, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        mapa = canal.map(FileChannel.MapMode.READ_WRITE, 0, canal.size());
+    }
+
+    private static long tamano(int capacidad) {
+        return CABECERA + 2L * (CABECERA_RANURA + capacidad);
+    }
+
+    private static int desplazamiento(int ranura, int capacidad) {
+        return CABECERA + ranura * (CABECERA_RANURA + capacidad);
+    }
+
+    /**
+     * ByteArrayOutputStream que se reutiliza entre puntos de control y expone
+     * su array interno sin copiarlo.
+     */
+    private static class Bufer extends ByteArrayOutputStream {
+        Bufer() {
+            super(CAPACIDAD_INICIAL);
+        }
+
+        byte[] datos() {
+            return buf;
+        }
+    }
+}
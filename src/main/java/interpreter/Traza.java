@@ -0,0 +1,386 @@
+package interpreter;
+
+import ast.Posicion;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Registro binario de una ejecución: declaraciones ejecutadas, decisiones de
+ * los si y repite y valores asignados, para poder examinarla después con
+ * {@link LectorTraza} sin volver a ejecutar el programa.
+ *
+ * El intérprete escribe los registros en un búfer circular en memoria y un
+ * hilo aparte los vuelca al archivo, de modo que la ejecución nunca espera a
+ * la entrada/salida. El búfer tiene un solo productor (el intérprete) y un
+ * solo consumidor (el hilo de volcado) y no usa bloqueos. Si el búfer está
+ * lleno el registro se descarta y se cuenta; antes del siguiente registro que
+ * quepa se escribe un registro HUECO con el número de registros perdidos.
+ *
+ * Formato (big-endian): cabecera con magic "PSTR" (int), versión (short),
+ * reservado (short) y CRC32 del código fuente (long), seguida de registros
+ * que empiezan por su tipo (byte):
+ * <pre>
+ * DECLARACION  posición (int, ver {@link Posicion})
+ * RAMA         posición (int), decisión (byte, ver las constantes RAMA_*)
+ * NOMBRE       identificador (int), nombre (short con la longitud y UTF-8)
+ * ASIGNACION   posición (int), identificador del nombre (int), valor
+ * HUECO        registros descartados (int)
+ * FIN          registros escritos (long), registros descartados (long)
+ * </pre>
+ * Los valores llevan una etiqueta (byte) y su contenido; las cadenas y los
+ * enteros grandes se guardan como texto recortado a {@value #MAXIMO_TEXTO}
+ * caracteres junto con su longitud real, y los arreglos como su número de
+ * elementos, si el texto está recortado (byte) y el principio de su texto.
+ * Asignar un elemento de un arreglo no se registra.
+ */
+public class Traza implements Closeable {
+    public static final int MAGIC = 0x50535452; // "PSTR"
+    public static final short VERSION = 1;
+
+    public static final byte DECLARACION = 1;
+    public static final byte RAMA = 2;
+    public static final byte NOMBRE = 3;
+    public static final byte ASIGNACION = 4;
+    public static final byte HUECO = 5;
+    public static final byte FIN = 6;
+
+    public static final byte RAMA_ENTONCES = 0;
+    public static final byte RAMA_SINO = 1;
+    public static final byte RAMA_NINGUNA = 2; // Condición falsa sin bloque sino
+    public static final byte RAMA_ITERA = 3;
+    public static final byte RAMA_SALE = 4;
+
+    public static final byte VALOR_NULO = 0;
+    public static final byte VALOR_ENTERO = 1;
+    public static final byte VALOR_LARGO = 2;
+    public static final byte VALOR_DECIMAL = 3;
+    public static final byte VALOR_VERDADERO = 4;
+    public static final byte VALOR_FALSO = 5;
+    public static final byte VALOR_TEXTO = 6;
+    public static final byte VALOR_ARREGLO = 7;
+
+    public static final int MAXIMO_TEXTO = 64;
+    public static final int CAPACIDAD_POR_DEFECTO = 4 << 20;
+    private static final long PAUSA_NANOS = 200_000;
+
+    // Búfer circular: el productor escribe en [cola, cabeza) y publica cabeza;
+    // el consumidor vuelca hasta la cabeza publicada y avanza la cola
+    private final byte[] bufer;
+    private final int mascara;
+    private final AtomicLong cabezaPublicada = new AtomicLong();
+    private final AtomicLong cola = new AtomicLong();
+
+    // Estado del productor (solo lo usa el hilo del intérprete)
+    private long cabeza;
+    private long colaConocida;
+    private long escritos;
+    private long descartados;
+    private int huecoPendiente;
+    private final char[] prefijo = new char[MAXIMO_TEXTO];
+    private final Map<String, Integer> nombres = new HashMap<>();
+
+    private final DataOutputStream salida;
+    private final Thread volcador;
+    private volatile boolean terminar;
+    private volatile IOException error;
+
+    /**
+     * @param capacidad tamaño del búfer en bytes (se redondea a potencia de dos)
+     */
+    public Traza(OutputStream destino, long crcFuente, int capacidad) throws IOException {
+        int tamano = Integer.highestOneBit(Math.max(capacidad, 1024) - 1) << 1;
+        this.bufer = new byte[tamano];
+        this.mascara = tamano - 1;
+        this.salida = new DataOutputStream(new BufferedOutputStream(destino, 1 << 16));
+        salida.writeInt(MAGIC);
+        salida.writeShort(VERSION);
+        salida.writeShort(0);
+        salida.writeLong(crcFuente);
+
+        this.volcador = new Thread(this::volcar, "traza-volcado");
+        volcador.setDaemon(true);
+        volcador.start();
+    }
+
+    public Traza(OutputStream destino, long crcFuente) throws IOException {
+        this(destino, crcFuente, CAPACIDAD_POR_DEFECTO);
+    }
+
+    /**
+     * Registra el inicio de una declaración.
+     */
+    public void declaracion(int linea, int columna) {
+        if (reservar(5)) {
+            escribirByte(DECLARACION);
+            escribirInt(Posicion.empaquetar(linea, columna));
+            publicar();
+        }
+    }
+
+    /**
+     * Registra la decisión tomada por un si o por una evaluación de la
+     * condición de un repite.
+     */
+    public void rama(int linea, int columna, byte decision) {
+        if (reservar(6)) {
+            escribirByte(RAMA);
+            escribirInt(Posicion.empaquetar(linea, columna));
+            escribirByte(decision);
+            publicar();
+        }
+    }
+
+    /**
+     * Registra el valor asignado a una variable.
+     */
+    public void asignacion(int linea, int columna, String nombre, Object valor) {
+        Integer id = nombres.get(nombre);
+        if (id == null) {
+            byte[] utf8 = nombre.getBytes(StandardCharsets.UTF_8);
+            if (!reservar(7 + utf8.length)) {
+                return; // Se reintenta con la siguiente asignación a la variable
+            }
+            id = nombres.size();
+            escribirByte(NOMBRE);
+            escribirInt(id);
+            escribirByte(utf8.length >>> 8);
+            escribirByte(utf8.length);
+            escribirBytes(utf8);
+            publicar();
+            nombres.put(nombre, id);
+        }
+
+        CharSequence texto = null;
+        int tamanoValor;
+        if (valor == null || valor instanceof Boolean) {
+            tamanoValor = 1;
+        } else if (valor instanceof Integer) {
+            tamanoValor = 5;
+        } else if (valor instanceof Long || valor instanceof Double) {
+            tamanoValor = 9;
+        } else if (valor instanceof Arreglo) {
+            // Solo el principio: el texto de un arreglo largo costaría más que la asignación
+            texto = ((Arreglo) valor).texto(MAXIMO_TEXTO);
+            tamanoValor = 8 + 3 * Math.min(texto.length(), MAXIMO_TEXTO);
+        } else {
+            texto = valor instanceof CharSequence ? (CharSequence) valor : valor.toString();
+            tamanoValor = 7 + 3 * Math.min(texto.length(), MAXIMO_TEXTO); // Máximo en UTF-8
+        }
+
+        if (!reservar(9 + tamanoValor)) {
+            return;
+        }
+        escribirByte(ASIGNACION);
+        escribirInt(Posicion.empaquetar(linea, columna));
+        escribirInt(id);
+        if (valor == null) {
+            escribirByte(VALOR_NULO);
+        } else if (valor instanceof Boolean) {
+            escribirByte((Boolean) valor ? VALOR_VERDADERO : VALOR_FALSO);
+        } else if (valor instanceof Integer) {
+            escribirByte(VALOR_ENTERO);
+            escribirInt((Integer) valor);
+        } else if (valor instanceof Long) {
+            escribirByte(VALOR_LARGO);
+            escribirLong((Long) valor);
+        } else if (valor instanceof Double) {
+            escribirByte(VALOR_DECIMAL);
+            escribirLong(Double.doubleToRawLongBits((Double) valor));
+        } else if (valor instanceof Arreglo) {
+            escribirByte(VALOR_ARREGLO);
+            escribirInt(((Arreglo) valor).size());
+            escribirByte(texto.length() > MAXIMO_TEXTO ? 1 : 0);
+            escribirTexto(texto);
+        } else {
+            escribirByte(VALOR_TEXTO);
+            escribirInt(texto.length());
+            escribirTexto(texto);
+        }
+        publicar();
+    }
+
+    /**
+     * Registros descartados hasta ahora porque el búfer estaba lleno.
+     */
+    public long getDescartados() {
+        return descartados;
+    }
+
+    /**
+     * Vuelca los registros pendientes, escribe el registro FIN y cierra el
+     * destino. Lanza el primer error de escritura del hilo de volcado, si lo hubo.
+     */
+    @Override
+    public void close() throws IOException {
+        terminar = true;
+        LockSupport.unpark(volcador);
+        try {
+            volcador.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrumpido al cerrar la traza", e);
+        }
+        try {
+            if (error == null) {
+                if (huecoPendiente > 0) {
+                    salida.writeByte(HUECO);
+                    salida.writeInt(huecoPendiente);
+                }
+                salida.writeByte(FIN);
+                salida.writeLong(escritos);
+                salida.writeLong(descartados);
+            }
+            salida.close();
+        } catch (IOException e) {
+            if (error == null) {
+                error = e;
+            }
+        }
+        if (error != null) {
+            throw error;
+        }
+    }
+
+    /**
+     * Comprueba que caben {@code bytes} más el registro HUECO pendiente y, si
+     * lo hay, lo escribe. Si no caben, cuenta el registro como descartado.
+     */
+    private boolean reservar(int bytes) {
+        int necesarios = huecoPendiente > 0 ? bytes + 5 : bytes;
+        if (cabeza + necesarios - colaConocida > bufer.length) {
+            colaConocida = cola.getAcquire();
+            if (cabeza + necesarios - colaConocida > bufer.length) {
+                descartados++;
+                huecoPendiente++;
+                return false;
+            }
+        }
+        if (huecoPendiente > 0) {
+            escribirByte(HUECO);
+            escribirInt(huecoPendiente);
+            huecoPendiente = 0;
+        }
+        escritos++;
+        return true;
+    }
+
+    private void publicar() {
+        cabezaPublicada.setRelease(cabeza);
+    }
+
+    private void escribirByte(int valor) {
+        bufer[(int) cabeza & mascara] = (byte) valor;
+        cabeza++;
+    }
+
+    private void escribirInt(int valor) {
+        escribirByte(valor >>> 24);
+        escribirByte(valor >>> 16);
+        escribirByte(valor >>> 8);
+        escribirByte(valor);
+    }
+
+    private void escribirLong(long valor) {
+        escribirInt((int) (valor >>> 32));
+        escribirInt((int) valor);
+    }
+
+    /**
+     * Escribe los primeros {@value #MAXIMO_TEXTO} caracteres en UTF-8
+     * precedidos de su longitud en bytes (short), sin crear objetos: los
+     * caracteres se copian primero en un array reutilizado.
+     */
+    private void escribirTexto(CharSequence texto) {
+        int caracteres = Math.min(texto.length(), MAXIMO_TEXTO);
+        if (texto instanceof String) {
+            ((String) texto).getChars(0, caracteres, prefijo, 0);
+        } else if (texto instanceof CadenaIncremental) {
+            ((CadenaIncremental) texto).copiarPrefijo(caracteres, prefijo); // Evita sincronizar por carácter
+        } else {
+            for (int i = 0; i < caracteres; i++) {
+                prefijo[i] = texto.charAt(i);
+            }
+        }
+        long marca = cabeza;
+        cabeza += 2;
+        for (int i = 0; i < caracteres; i++) {
+            char c = prefijo[i];
+            if (c < 0x80) {
+                escribirByte(c);
+            } else if (c < 0x800) {
+                escribirByte(0xC0 | c >> 6);
+                escribirByte(0x80 | c & 0x3F);
+            } else if (Character.isHighSurrogate(c) && i + 1 < caracteres
+                    && Character.isLowSurrogate(prefijo[i + 1])) {
+                int punto = Character.toCodePoint(c, prefijo[++i]);
+                escribirByte(0xF0 | punto >> 18);
+                escribirByte(0x80 | punto >> 12 & 0x3F);
+                escribirByte(0x80 | punto >> 6 & 0x3F);
+                escribirByte(0x80 | punto & 0x3F);
+            } else {
+                escribirByte(0xE0 | c >> 12);
+                escribirByte(0x80 | c >> 6 & 0x3F);
+                escribirByte(0x80 | c & 0x3F);
+            }
+        }
+        int bytes = (int) (cabeza - marca - 2);
+        bufer[(int) marca & mascara] = (byte) (bytes >>> 8);
+        bufer[(int) (marca + 1) & mascara] = (byte) bytes;
+    }
+
+    private void escribirBytes(byte[] valor) {
+        for (byte b : valor) {
+            escribirByte(b);
+        }
+    }
+
+    /**
+     * Bucle del hilo de volcado: escribe en el destino todo lo publicado y,
+     * cuando no hay nada nuevo, vacía el búfer de salida y espera un momento.
+     */
+    private void volcar() {
+        boolean pendienteDeVaciar = false;
+        while (true) {
+            long desde = cola.getPlain();
+            long hasta = cabezaPublicada.getAcquire();
+            if (desde == hasta) {
+                if (terminar && cabezaPublicada.getAcquire() == desde) {
+                    return;
+                }
+                if (pendienteDeVaciar && error == null) {
+                    try {
+                        salida.flush();
+                    } catch (IOException e) {
+                        error = e;
+                    }
+                    pendienteDeVaciar = false;
+                }
+                LockSupport.parkNanos(PAUSA_NANOS);
+                continue;
+            }
+
+            if (error == null) {
+                try {
+                    int inicio = (int) desde & mascara;
+                    int longitud = (int) (hasta - desde);
+                    int primerTramo = Math.min(longitud, bufer.length - inicio);
+                    salida.write(bufer, inicio, primerTramo);
+                    salida.write(bufer, 0, longitud - primerTramo);
+                    pendienteDeVaciar = true;
+                } catch (IOException e) {
+                    error = e; // A partir de aquí se descarta lo publicado para no bloquear al intérprete
+                }
+            }
+            cola.setRelease(hasta);
+        }
+    }
+}
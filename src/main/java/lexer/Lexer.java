@@ -26,6 +26,8 @@ public class Lexer {
         palabrasClave.put("repite", Token.Tipo.REPITE);
         palabrasClave.put("fin_repite", Token.Tipo.FIN_REPITE);
         palabrasClave.put("escribir", Token.Tipo.ESCRIBIR);
+        palabrasClave.put("paralelo", Token.Tipo.PARALELO);
+        palabrasClave.put("fin_paralelo", Token.Tipo.FIN_PARALELO);
         palabrasClave.put("y", Token.Tipo.Y);
         palabrasClave.put("o", Token.Tipo.O);
         palabrasClave.put("no", Token.Tipo.NO);
@@ -58,6 +60,9 @@ public class Lexer {
         switch (c) {
             case '(': agregarToken(Token.Tipo.PARENTESIS_IZQ); break;
             case ')': agregarToken(Token.Tipo.PARENTESIS_DER); break;
+            case '[': agregarToken(Token.Tipo.CORCHETE_IZQ); break;
+            case ']': agregarToken(Token.Tipo.CORCHETE_DER); break;
+            case ',': agregarToken(Token.Tipo.COMA); break;
             case ';': agregarToken(Token.Tipo.PUNTO_COMA); break;
             case '+': agregarToken(Token.Tipo.SUMA); break;
             case '-': agregarToken(Token.Tipo.RESTA); break;
@@ -16,6 +16,8 @@ public class Token {
         REPITE("repite"),
         FIN_REPITE("fin_repite"),
         ESCRIBIR("escribir"),
+        PARALELO("paralelo"),
+        FIN_PARALELO("fin_paralelo"),
 
         // Identificadores y literales
         IDENTIFICADOR(null),
@@ -42,6 +44,9 @@ public class Token {
         // Delimitadores
         PARENTESIS_IZQ("("),
         PARENTESIS_DER(")"),
+        CORCHETE_IZQ("["),
+        CORCHETE_DER("]"),
+        COMA(","),
         PUNTO_COMA(";"),
 
         // Especiales
@@ -0,0 +1,32 @@
+package metricas;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Flujo de salida que cuenta los bytes que pasan hacia el flujo envuelto.
+ */
+public class ContadorBytes extends FilterOutputStream {
+    private long bytes;
+
+    public ContadorBytes(OutputStream destino) {
+        super(destino);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        out.write(b);
+        bytes++;
+    }
+
+    @Override
+    public void write(byte[] b, int desde, int longitud) throws IOException {
+        out.write(b, desde, longitud);
+        bytes += longitud;
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+}
@@ -0,0 +1,32 @@
+package metricas;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento JFR emitido al terminar el análisis léxico de un código fuente.
+ */
+@Name("pseudocode.AnalisisLexico")
+@Label("Análisis léxico")
+@Category({"Pseudocódigo", "Fases"})
+@Description("Conversión del código fuente en tokens")
+@StackTrace(false)
+public class EventoAnalisisLexico extends Event {
+    @Label("Caracteres del código fuente")
+    private int caracteres;
+
+    @Label("Tokens")
+    private int tokens;
+
+    public void setCaracteres(int caracteres) {
+        this.caracteres = caracteres;
+    }
+
+    public void setTokens(int tokens) {
+        this.tokens = tokens;
+    }
+}
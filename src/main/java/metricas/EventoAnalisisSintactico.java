@@ -0,0 +1,32 @@
+package metricas;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento JFR emitido al terminar el análisis sintáctico de una lista de tokens.
+ */
+@Name("pseudocode.AnalisisSintactico")
+@Label("Análisis sintáctico")
+@Category({"Pseudocódigo", "Fases"})
+@Description("Construcción del AST a partir de los tokens")
+@StackTrace(false)
+public class EventoAnalisisSintactico extends Event {
+    @Label("Tokens")
+    private int tokens;
+
+    @Label("Nodos del AST")
+    private int nodos;
+
+    public void setTokens(int tokens) {
+        this.tokens = tokens;
+    }
+
+    public void setNodos(int nodos) {
+        this.nodos = nodos;
+    }
+}
@@ -0,0 +1,48 @@
+package metricas;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento JFR emitido al terminar (con o sin éxito) la ejecución de un programa.
+ */
+@Name("pseudocode.Ejecucion")
+@Label("Ejecución")
+@Category({"Pseudocódigo", "Fases"})
+@Description("Interpretación de un programa completo")
+@StackTrace(false)
+public class EventoEjecucion extends Event {
+    @Label("Nodos del AST")
+    private int nodos;
+
+    @Label("Declaraciones ejecutadas")
+    private long declaracionesEjecutadas;
+
+    @Label("Bytes de salida")
+    @DataAmount
+    private long bytesSalida;
+
+    @Label("Error")
+    private String error;
+
+    public void setNodos(int nodos) {
+        this.nodos = nodos;
+    }
+
+    public void setDeclaracionesEjecutadas(long declaracionesEjecutadas) {
+        this.declaracionesEjecutadas = declaracionesEjecutadas;
+    }
+
+    public void setBytesSalida(long bytesSalida) {
+        this.bytesSalida = bytesSalida;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
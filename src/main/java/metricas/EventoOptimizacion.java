@@ -0,0 +1,39 @@
+package metricas;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento JFR emitido al terminar las pasadas de optimización sobre el AST.
+ */
+@Name("pseudocode.Optimizacion")
+@Label("Optimización")
+@Category({"Pseudocódigo", "Fases"})
+@Description("Pasadas de optimización sobre el AST")
+@StackTrace(false)
+public class EventoOptimizacion extends Event {
+    @Label("Nodos antes de optimizar")
+    private int nodos;
+
+    @Label("Nodos después de optimizar")
+    private int nodosOptimizados;
+
+    @Label("Transformaciones")
+    private int transformaciones;
+
+    public void setNodos(int nodos) {
+        this.nodos = nodos;
+    }
+
+    public void setNodosOptimizados(int nodosOptimizados) {
+        this.nodosOptimizados = nodosOptimizados;
+    }
+
+    public void setTransformaciones(int transformaciones) {
+        this.transformaciones = transformaciones;
+    }
+}
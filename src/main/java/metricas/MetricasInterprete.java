@@ -0,0 +1,139 @@
+package metricas;
+
+import interpreter.ExcepcionInterpreter;
+import parser.ExcepcionParser;
+import symbols.ExcepcionSimbolos;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contadores globales del intérprete, publicados como MXBean.
+ *
+ * Los contadores se actualizan siempre (son LongAdder, sin contención entre
+ * hilos); el registro en el servidor JMX de la plataforma solo se hace cuando
+ * se llama a {@link #registrar()}, para no cargar JMX en ejecuciones cortas.
+ */
+public class MetricasInterprete implements MetricasInterpreteMXBean {
+    public static final String NOMBRE_OBJETO = "pseudocode:type=MetricasInterprete";
+
+    private static final MetricasInterprete INSTANCIA = new MetricasInterprete();
+
+    private final AtomicInteger ejecucionesEnCurso = new AtomicInteger();
+    private final LongAdder ejecucionesTotales = new LongAdder();
+    private final LongAdder declaracionesEjecutadas = new LongAdder();
+    private final LongAdder bytesSalida = new LongAdder();
+    private final Map<String, LongAdder> errores = new ConcurrentHashMap<>();
+    private boolean registrado;
+
+    private MetricasInterprete() {
+    }
+
+    public static MetricasInterprete instancia() {
+        return INSTANCIA;
+    }
+
+    /**
+     * Registra el MXBean en el servidor de la plataforma (idempotente).
+     */
+    public synchronized void registrar() {
+        if (registrado) {
+            return;
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, new ObjectName(NOMBRE_OBJETO));
+            registrado = true;
+        } catch (JMException e) {
+            throw new IllegalStateException("No se pudo registrar el MXBean " + NOMBRE_OBJETO, e);
+        }
+    }
+
+    public void inicioEjecucion() {
+        ejecucionesEnCurso.incrementAndGet();
+        ejecucionesTotales.increment();
+    }
+
+    public void finEjecucion(long declaraciones, long bytes) {
+        ejecucionesEnCurso.decrementAndGet();
+        declaracionesEjecutadas.add(declaraciones);
+        bytesSalida.add(bytes);
+    }
+
+    /**
+     * Contabiliza un error por el tipo de excepción que lo originó. Si la
+     * excepción envuelve a otra del lenguaje (por ejemplo, un ExcepcionSimbolos
+     * dentro de un ExcepcionInterpreter), se cuenta la más interna.
+     */
+    public void registrarError(Throwable error) {
+        errores.computeIfAbsent(clasificar(error), tipo -> new LongAdder()).increment();
+    }
+
+    /**
+     * Retorna el nombre simple de la excepción del lenguaje más interna de la
+     * cadena de causas, o el de la propia excepción si no hay ninguna.
+     */
+    public static String clasificar(Throwable error) {
+        Throwable clasificada = error;
+        for (Throwable actual = error; actual != null; actual = actual.getCause()) {
+            if (actual instanceof ExcepcionParser
+                    || actual instanceof ExcepcionInterpreter
+                    || actual instanceof ExcepcionSimbolos) {
+                clasificada = actual;
+            }
+        }
+        return clasificada.getClass().getSimpleName();
+    }
+
+    @Override
+    public int getEjecucionesEnCurso() {
+        return ejecucionesEnCurso.get();
+    }
+
+    @Override
+    public long getEjecucionesTotales() {
+        return ejecucionesTotales.sum();
+    }
+
+    @Override
+    public long getDeclaracionesEjecutadas() {
+        return declaracionesEjecutadas.sum();
+    }
+
+    @Override
+    public long getBytesSalida() {
+        return bytesSalida.sum();
+    }
+
+    @Override
+    public long getErroresParser() {
+        return contarErrores(ExcepcionParser.class.getSimpleName());
+    }
+
+    @Override
+    public long getErroresInterpreter() {
+        return contarErrores(ExcepcionInterpreter.class.getSimpleName());
+    }
+
+    @Override
+    public long getErroresSimbolos() {
+        return contarErrores(ExcepcionSimbolos.class.getSimpleName());
+    }
+
+    @Override
+    public Map<String, Long> getErroresPorTipo() {
+        Map<String, Long> resultado = new TreeMap<>();
+        errores.forEach((tipo, contador) -> resultado.put(tipo, contador.sum()));
+        return resultado;
+    }
+
+    private long contarErrores(String tipo) {
+        LongAdder contador = errores.get(tipo);
+        return contador == null ? 0 : contador.sum();
+    }
+}
@@ -0,0 +1,39 @@
+package metricas;
+
+import java.util.Map;
+
+/**
+ * Atributos JMX expuestos por el intérprete.
+ */
+public interface MetricasInterpreteMXBean {
+    /**
+     * Número de programas que se están ejecutando en este momento.
+     */
+    int getEjecucionesEnCurso();
+
+    /**
+     * Número de programas ejecutados desde el arranque (terminados o no).
+     */
+    long getEjecucionesTotales();
+
+    /**
+     * Declaraciones ejecutadas entre todas las ejecuciones terminadas.
+     */
+    long getDeclaracionesEjecutadas();
+
+    /**
+     * Bytes escritos por las declaraciones "escribir" de todas las ejecuciones.
+     */
+    long getBytesSalida();
+
+    long getErroresParser();
+
+    long getErroresInterpreter();
+
+    long getErroresSimbolos();
+
+    /**
+     * Número de errores agrupados por el nombre simple de la excepción.
+     */
+    Map<String, Long> getErroresPorTipo();
+}
@@ -0,0 +1,47 @@
+package optimizer;
+
+import ast.*;
+import lexer.Token;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Pasada que reconoce las asignaciones {@code x = x op expresion}, con op
+ * aritmético, y las sustituye por un nodo {@link ActualizacionCompuesta}.
+ *
+ * Solo se reconoce la variable como operando izquierdo: {@code x = e + x}
+ * no se transforma, porque la suma también concatena cadenas y no es
+ * conmutativa en ese caso.
+ */
+public class ActualizacionesCompuestas extends Reescritor {
+    private static final Set<Token.Tipo> OPERADORES = EnumSet.of(Token.Tipo.SUMA, Token.Tipo.RESTA,
+            Token.Tipo.MULTIPLICACION, Token.Tipo.DIVISION, Token.Tipo.MODULO);
+
+    private final Optimizador optimizador;
+
+    public ActualizacionesCompuestas(Optimizador optimizador) {
+        this.optimizador = optimizador;
+    }
+
+    @Override
+    public NodoAST visitarAsignacion(Asignacion nodo) {
+        NodoAST reescrito = super.visitarAsignacion(nodo);
+        Asignacion asignacion = (Asignacion) reescrito;
+        if (!(asignacion.getValor() instanceof ExpresionBinaria)) {
+            return asignacion;
+        }
+        ExpresionBinaria valor = (ExpresionBinaria) asignacion.getValor();
+        if (!OPERADORES.contains(valor.getOperador()) || !(valor.getIzquierda() instanceof Identificador)
+                || !((Identificador) valor.getIzquierda()).getNombre().equals(asignacion.getNombre())) {
+            return asignacion;
+        }
+        optimizador.informar(asignacion.getLinea(), "actualización en el sitio de '" + asignacion.getNombre() + "'");
+        return new ActualizacionCompuesta(asignacion);
+    }
+
+    @Override
+    public NodoAST visitarActualizacionCompuesta(ActualizacionCompuesta nodo) {
+        return nodo;
+    }
+}
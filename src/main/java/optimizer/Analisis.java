@@ -0,0 +1,276 @@
+package optimizer;
+
+import ast.*;
+import biblioteca.Funcion;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Consultas sobre el AST que comparten las pasadas del optimizador.
+ */
+public final class Analisis {
+
+    /**
+     * Nombre con el que las consultas cuentan el contenido de todos los
+     * arreglos: leer un elemento lo lee y asignar un elemento lo asigna. Como
+     * varias variables pueden referirse al mismo arreglo, no se distingue de
+     * qué arreglo se trata. No es un nombre válido de variable.
+     *
+     * Comparar un arreglo entero, concatenarlo a una cadena o escribirlo
+     * también lee su contenido; como el tipo de una variable no siempre se
+     * conoce, se cuenta así cualquier operando que pueda ser un arreglo (ver
+     * {@link #leeContenidoArreglos}).
+     */
+    public static final String CONTENIDO_ARREGLOS = "[]";
+
+    private Analisis() {
+    }
+
+    /**
+     * Nombres de todas las variables asignadas en el bloque, incluidos los
+     * bloques anidados.
+     */
+    public static Set<String> variablesAsignadas(List<Declaracion> bloque) {
+        Recolector recolector = new Recolector();
+        recolector.recorrerBloque(bloque);
+        return recolector.asignadas;
+    }
+
+    /**
+     * Nombres de todas las variables leídas en el bloque, incluidas las
+     * condiciones y los bloques anidados.
+     */
+    public static Set<String> variablesLeidas(List<Declaracion> bloque) {
+        Recolector recolector = new Recolector();
+        recolector.recorrerBloque(bloque);
+        return recolector.leidas;
+    }
+
+    /**
+     * Nombres de las variables leídas por una expresión.
+     */
+    public static Set<String> variablesLeidas(Expresion expresion) {
+        Recolector recolector = new Recolector();
+        expresion.aceptar(recolector);
+        return recolector.leidas;
+    }
+
+    /**
+     * Indica si evaluar la operación puede leer el contenido de un arreglo
+     * entero: una igualdad, una desigualdad o una suma (que concatena) con un
+     * operando que puede ser un arreglo.
+     */
+    public static boolean leeContenidoArreglos(ExpresionBinaria nodo) {
+        switch (nodo.getOperador()) {
+            case SUMA:
+            case IGUAL:
+            case DIFERENTE:
+                return puedeSerArreglo(nodo.getIzquierda()) || puedeSerArreglo(nodo.getDerecha());
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Indica si la llamada puede leer el contenido de un arreglo entero: una
+     * función que usa los elementos (como min o texto) con un argumento que
+     * puede ser un arreglo.
+     */
+    public static boolean leeContenidoArreglos(Llamada nodo) {
+        if (nodo.getFuncion().leeElementos()) {
+            for (Expresion argumento : nodo.getArgumentos()) {
+                if (puedeSerArreglo(argumento)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Indica si el valor de la expresión puede ser un arreglo. Los operadores
+     * nunca producen uno, así que basta con mirar la forma de la expresión;
+     * de las funciones, solo min y max de un arreglo de arreglos.
+     */
+    private static boolean puedeSerArreglo(Expresion expresion) {
+        if (expresion instanceof Invariante) {
+            return puedeSerArreglo(((Invariante) expresion).getExpresion());
+        }
+        if (expresion instanceof ExpresionCompartida) {
+            return puedeSerArreglo(((ExpresionCompartida) expresion).getExpresion());
+        }
+        if (expresion instanceof Llamada) {
+            Llamada llamada = (Llamada) expresion;
+            return llamada.getArgumentos().size() == 1
+                    && (llamada.getFuncion() == Funcion.MIN || llamada.getFuncion() == Funcion.MAX);
+        }
+        return expresion instanceof Identificador || expresion instanceof Indexacion
+                || expresion instanceof CreacionArreglo;
+    }
+
+    /**
+     * Recorre el AST acumulando las variables asignadas y leídas.
+     */
+    private static class Recolector implements VisitanteAST<Void> {
+        private final Set<String> asignadas = new HashSet<>();
+        private final Set<String> leidas = new HashSet<>();
+
+        void recorrerBloque(List<Declaracion> bloque) {
+            if (bloque != null) {
+                for (Declaracion declaracion : bloque) {
+                    declaracion.aceptar(this);
+                }
+            }
+        }
+
+        @Override
+        public Void visitarPrograma(Programa nodo) {
+            recorrerBloque(nodo.getDeclaraciones());
+            return null;
+        }
+
+        @Override
+        public Void visitarAsignacion(Asignacion nodo) {
+            asignadas.add(nodo.getNombre());
+            nodo.getValor().aceptar(this);
+            return null;
+        }
+
+        @Override
+        public Void visitarAsignacionElemento(AsignacionElemento nodo) {
+            asignadas.add(CONTENIDO_ARREGLOS);
+            nodo.getArreglo().aceptar(this);
+            nodo.getIndice().aceptar(this);
+            nodo.getValor().aceptar(this);
+            return null;
+        }
+
+        @Override
+        public Void visitarSi(Si nodo) {
+            nodo.getCondicion().aceptar(this);
+            recorrerBloque(nodo.getBloqueEntonces());
+            recorrerBloque(nodo.getBloqueSino());
+            return null;
+        }
+
+        @Override
+        public Void visitarRepite(Repite nodo) {
+            nodo.getCondicion().aceptar(this);
+            recorrerBloque(nodo.getCuerpo());
+            return null;
+        }
+
+        @Override
+        public Void visitarEscribir(Escribir nodo) {
+            if (puedeSerArreglo(nodo.getExpresion())) {
+                leidas.add(CONTENIDO_ARREGLOS);
+            }
+            nodo.getExpresion().aceptar(this);
+            return null;
+        }
+
+        @Override
+        public Void visitarExpresionBinaria(ExpresionBinaria nodo) {
+            if (leeContenidoArreglos(nodo)) {
+                leidas.add(CONTENIDO_ARREGLOS);
+            }
+            nodo.getIzquierda().aceptar(this);
+            nodo.getDerecha().aceptar(this);
+            return null;
+        }
+
+        @Override
+        public Void visitarExpresionUnaria(ExpresionUnaria nodo) {
+            nodo.getExpresion().aceptar(this);
+            return null;
+        }
+
+        @Override
+        public Void visitarLiteral(Literal nodo) {
+            return null;
+        }
+
+        @Override
+        public Void visitarIdentificador(Identificador nodo) {
+            leidas.add(nodo.getNombre());
+            return null;
+        }
+
+        @Override
+        public Void visitarCreacionArreglo(CreacionArreglo nodo) {
+            for (Expresion elemento : nodo.getElementos()) {
+                elemento.aceptar(this);
+            }
+            if (nodo.esRepeticion()) {
+                nodo.getLongitud().aceptar(this);
+            }
+            return null;
+        }
+
+        @Override
+        public Void visitarIndexacion(Indexacion nodo) {
+            leidas.add(CONTENIDO_ARREGLOS);
+            nodo.getArreglo().aceptar(this);
+            nodo.getIndice().aceptar(this);
+            return null;
+        }
+
+        @Override
+        public Void visitarLlamada(Llamada nodo) {
+            if (leeContenidoArreglos(nodo)) {
+                leidas.add(CONTENIDO_ARREGLOS);
+            }
+            for (Expresion argumento : nodo.getArgumentos()) {
+                argumento.aceptar(this);
+            }
+            return null;
+        }
+
+        @Override
+        public Void visitarInvariante(Invariante nodo) {
+            nodo.getExpresion().aceptar(this);
+            return null;
+        }
+
+        @Override
+        public Void visitarExpresionCompartida(ExpresionCompartida nodo) {
+            nodo.getExpresion().aceptar(this);
+            return null;
+        }
+
+        @Override
+        public Void visitarExpresionEspecializada(ExpresionEspecializada nodo) {
+            return nodo.getOriginal().aceptar(this);
+        }
+
+        @Override
+        public Void visitarRepiteContado(RepiteContado nodo) {
+            return nodo.getOriginal().aceptar(this);
+        }
+
+        /**
+         * El contador cuenta como asignado y las variables de reducción como
+         * asignadas y leídas, porque el bucle combina su valor anterior con
+         * el resultado.
+         */
+        @Override
+        public Void visitarParalelo(Paralelo nodo) {
+            nodo.getInicio().aceptar(this);
+            nodo.getFin().aceptar(this);
+            asignadas.add(nodo.getContador());
+            for (Paralelo.Reduccion reduccion : nodo.getReducciones()) {
+                asignadas.add(reduccion.getVariable());
+                leidas.add(reduccion.getVariable());
+            }
+            recorrerBloque(nodo.getCuerpo());
+            return null;
+        }
+
+        @Override
+        public Void visitarActualizacionCompuesta(ActualizacionCompuesta nodo) {
+            return nodo.getOriginal().aceptar(this);
+        }
+    }
+}
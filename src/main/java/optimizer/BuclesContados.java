@@ -0,0 +1,124 @@
+package optimizer;
+
+import ast.*;
+import lexer.Token;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Pasada que reconoce los bucles contados con la forma
+ *
+ * <pre>
+ * repite (i &lt; limite)      // o i &lt;= limite
+ *     ...
+ *     i = i + paso            // paso: literal entero positivo
+ * fin_repite
+ * </pre>
+ *
+ * y los sustituye por un nodo {@link RepiteContado}. El bucle se descarta si
+ * el contador se asigna en cualquier otro punto del cuerpo (incluidos los
+ * bloques anidados) o si se asigna alguna variable de la que dependa el límite.
+ */
+public class BuclesContados extends Reescritor {
+    private final Optimizador optimizador;
+
+    public BuclesContados(Optimizador optimizador) {
+        this.optimizador = optimizador;
+    }
+
+    @Override
+    public NodoAST visitarRepite(Repite nodo) {
+        NodoAST reescrito = super.visitarRepite(nodo);
+        if (!(reescrito instanceof Repite)) {
+            return reescrito;
+        }
+        Repite bucle = (Repite) reescrito;
+        RepiteContado contado = reconocer(bucle);
+        if (contado == null) {
+            return bucle;
+        }
+        optimizador.informar(bucle.getLinea(), "bucle contado sobre '" + contado.getContador()
+                + "' con paso " + contado.getPaso());
+        return contado;
+    }
+
+    private RepiteContado reconocer(Repite bucle) {
+        if (!(bucle.getCondicion() instanceof ExpresionBinaria) || bucle.getCuerpo().isEmpty()) {
+            return null;
+        }
+        ExpresionBinaria condicion = (ExpresionBinaria) bucle.getCondicion();
+        Token.Tipo comparador = condicion.getOperador();
+        if ((comparador != Token.Tipo.MENOR && comparador != Token.Tipo.MENOR_IGUAL)
+                || !(condicion.getIzquierda() instanceof Identificador)) {
+            return null;
+        }
+        String contador = ((Identificador) condicion.getIzquierda()).getNombre();
+        Expresion limite = condicion.getDerecha();
+
+        List<Declaracion> cuerpo = bucle.getCuerpo();
+        Declaracion ultima = cuerpo.get(cuerpo.size() - 1);
+        Integer paso = pasoDeIncremento(ultima, contador);
+        if (paso == null || paso <= 0) {
+            return null;
+        }
+
+        // Ni el contador ni el límite pueden cambiar en el resto del cuerpo
+        List<Declaracion> resto = cuerpo.subList(0, cuerpo.size() - 1);
+        Set<String> asignadas = Analisis.variablesAsignadas(resto);
+        if (asignadas.contains(contador)) {
+            return null;
+        }
+        for (String variable : Analisis.variablesLeidas(limite)) {
+            if (variable.equals(contador) || asignadas.contains(variable)) {
+                return null;
+            }
+        }
+
+        return new RepiteContado(bucle, contador, comparador, limite, paso);
+    }
+
+    /**
+     * Si la declaración es {@code contador = contador + k} (o {@code k + contador},
+     * ya sea como asignación o como actualización compuesta) con k un literal
+     * entero, retorna k; en otro caso retorna null.
+     */
+    private static Integer pasoDeIncremento(Declaracion declaracion, String contador) {
+        if (declaracion instanceof ActualizacionCompuesta) {
+            ActualizacionCompuesta actualizacion = (ActualizacionCompuesta) declaracion;
+            if (!actualizacion.getNombre().equals(contador) || actualizacion.getOperador() != Token.Tipo.SUMA) {
+                return null;
+            }
+            return literalEntero(actualizacion.getExpresion());
+        }
+        if (!(declaracion instanceof Asignacion)) {
+            return null;
+        }
+        Asignacion asignacion = (Asignacion) declaracion;
+        if (!asignacion.getNombre().equals(contador) || !(asignacion.getValor() instanceof ExpresionBinaria)) {
+            return null;
+        }
+        ExpresionBinaria suma = (ExpresionBinaria) asignacion.getValor();
+        if (suma.getOperador() != Token.Tipo.SUMA) {
+            return null;
+        }
+        if (esVariable(suma.getIzquierda(), contador)) {
+            return literalEntero(suma.getDerecha());
+        }
+        if (esVariable(suma.getDerecha(), contador)) {
+            return literalEntero(suma.getIzquierda());
+        }
+        return null;
+    }
+
+    private static boolean esVariable(Expresion expresion, String nombre) {
+        return expresion instanceof Identificador && ((Identificador) expresion).getNombre().equals(nombre);
+    }
+
+    private static Integer literalEntero(Expresion expresion) {
+        if (expresion instanceof Literal && ((Literal) expresion).getValor() instanceof Integer) {
+            return (Integer) ((Literal) expresion).getValor();
+        }
+        return null;
+    }
+}
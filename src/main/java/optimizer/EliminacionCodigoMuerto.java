@@ -0,0 +1,320 @@
+package optimizer;
+
+import ast.*;
+import interpreter.Interpreter;
+import symbols.Simbolo.TipoSimbolo;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Pasada que elimina las asignaciones cuyo valor nunca se lee y las ramas que
+ * no pueden ejecutarse.
+ *
+ * Una asignación se elimina solo si su expresión no puede fallar y si quitarla
+ * no cambia ni el tipo de la variable ni el ámbito en el que se define:
+ * - si la variable ya existe, el valor asignado debe ser compatible con su
+ *   tipo y no leerse antes de la siguiente asignación (análisis de variables
+ *   vivas hacia atrás, con punto fijo en los bucles);
+ * - si la asignación define la variable, el resto del bloque no debe usarla o
+ *   bien volver a definirla, en el mismo bloque, con el mismo tipo.
+ *
+ * Las condiciones formadas solo por literales se evalúan: un si con condición
+ * constante se sustituye por la rama elegida (integrada en el bloque que lo
+ * contiene cuando no define variables nuevas) y un repite con condición falsa
+ * se elimina. Eliminar código puede dejar muertas otras asignaciones, por lo
+ * que la pasada se repite hasta que no hay cambios.
+ */
+public class EliminacionCodigoMuerto extends Reescritor {
+    private final Optimizador optimizador;
+    private final Map<Asignacion, Set<String>> vivasDespues = new IdentityHashMap<>();
+    private TiposEstaticos tipos;
+
+    public EliminacionCodigoMuerto(Optimizador optimizador) {
+        this.optimizador = optimizador;
+    }
+
+    @Override
+    public Programa reescribirPrograma(Programa programa) {
+        Programa anterior;
+        do {
+            anterior = programa;
+            vivasDespues.clear();
+            vivasAntes(programa.getDeclaraciones(), new HashSet<>());
+            tipos = new TiposEstaticos();
+            programa = super.reescribirPrograma(programa);
+        } while (programa != anterior);
+        return programa;
+    }
+
+    @Override
+    protected List<Declaracion> reescribirBloque(List<Declaracion> bloque) {
+        if (bloque == null) {
+            return null;
+        }
+        List<Declaracion> resultado = new ArrayList<>(bloque.size());
+        boolean cambio = false;
+        for (int i = 0; i < bloque.size(); i++) {
+            Declaracion declaracion = bloque.get(i);
+
+            if (declaracion instanceof Asignacion && esAsignacionMuerta((Asignacion) declaracion, bloque, i)) {
+                optimizador.informar(declaracion.getLinea(), "asignación sin uso a '"
+                        + ((Asignacion) declaracion).getNombre() + "' eliminada");
+                cambio = true;
+                continue;
+            }
+
+            if (declaracion instanceof Si) {
+                Si si = (Si) declaracion;
+                Boolean condicion = valorConstante(si.getCondicion());
+                if (condicion != null) {
+                    cambio |= reducirSi(si, condicion, resultado);
+                    continue;
+                }
+            }
+
+            if (declaracion instanceof Repite
+                    && Boolean.FALSE.equals(valorConstante(((Repite) declaracion).getCondicion()))) {
+                optimizador.informar(declaracion.getLinea(), "repite con condición siempre falsa eliminado");
+                cambio = true;
+                continue;
+            }
+
+            Declaracion nueva = reescribir(declaracion);
+            resultado.add(nueva);
+            cambio |= nueva != declaracion;
+        }
+        return cambio ? resultado : bloque;
+    }
+
+    /**
+     * Sustituye un si con condición constante por la rama que siempre se
+     * ejecuta. Retorna true si el bloque cambió.
+     */
+    private boolean reducirSi(Si si, boolean condicion, List<Declaracion> resultado) {
+        List<Declaracion> rama = condicion ? si.getBloqueEntonces() : si.getBloqueSino();
+        if (rama == null) {
+            optimizador.informar(si.getLinea(), "si con condición siempre falsa eliminado");
+            return true;
+        }
+
+        List<Declaracion> nuevaRama = reescribirEnAmbito(rama);
+        if (definidasPorBloque(nuevaRama).isEmpty()) {
+            // Sin definiciones nuevas el ámbito propio de la rama no se observa
+            optimizador.informar(si.getLinea(), "si con condición constante sustituido por su rama");
+            resultado.addAll(nuevaRama);
+            return true;
+        }
+
+        boolean yaReducido = esVerdaderoLiteral(si.getCondicion()) && si.getBloqueSino() == null;
+        if (yaReducido && nuevaRama == rama) {
+            resultado.add(si);
+            return false;
+        }
+        if (!yaReducido) {
+            optimizador.informar(si.getLinea(), "si con condición constante sustituido por su rama");
+        }
+        resultado.add(new Si(new Literal(Boolean.TRUE, si.getLinea(), si.getColumna()), nuevaRama, null,
+                si.getLinea(), si.getColumna()));
+        return true;
+    }
+
+    @Override
+    public NodoAST visitarAsignacion(Asignacion nodo) {
+        NodoAST resultado = super.visitarAsignacion(nodo);
+        tipos.asignar(nodo.getNombre(), nodo.getValor());
+        return resultado;
+    }
+
+    @Override
+    public NodoAST visitarSi(Si nodo) {
+        List<Declaracion> entonces = reescribirEnAmbito(nodo.getBloqueEntonces());
+        List<Declaracion> sino = reescribirEnAmbito(nodo.getBloqueSino());
+        if (entonces == nodo.getBloqueEntonces() && sino == nodo.getBloqueSino()) {
+            return nodo;
+        }
+        return new Si(nodo.getCondicion(), entonces, sino, nodo.getLinea(), nodo.getColumna());
+    }
+
+    @Override
+    public NodoAST visitarRepite(Repite nodo) {
+        List<Declaracion> cuerpo = reescribirEnAmbito(nodo.getCuerpo());
+        if (cuerpo == nodo.getCuerpo()) {
+            return nodo;
+        }
+        return new Repite(nodo.getCondicion(), cuerpo, nodo.getInvariantes(), nodo.getLinea(), nodo.getColumna());
+    }
+
+    @Override
+    public NodoAST visitarParalelo(Paralelo nodo) {
+        // El contador se define en el ámbito de cada iteración, que envuelve al del cuerpo
+        List<Declaracion> cuerpo;
+        tipos.entrarAmbito();
+        try {
+            tipos.definir(nodo.getContador(), TipoSimbolo.ENTERO);
+            cuerpo = reescribirEnAmbito(nodo.getCuerpo());
+        } finally {
+            tipos.salirAmbito();
+        }
+        if (cuerpo == nodo.getCuerpo()) {
+            return nodo;
+        }
+        return new Paralelo(nodo.getContador(), nodo.getInicio(), nodo.getFin(), nodo.getReducciones(), cuerpo,
+                nodo.getLinea(), nodo.getColumna());
+    }
+
+    private List<Declaracion> reescribirEnAmbito(List<Declaracion> bloque) {
+        if (bloque == null) {
+            return null;
+        }
+        tipos.entrarAmbito();
+        try {
+            return reescribirBloque(bloque);
+        } finally {
+            tipos.salirAmbito();
+        }
+    }
+
+    private boolean esAsignacionMuerta(Asignacion asignacion, List<Declaracion> bloque, int posicion) {
+        String nombre = asignacion.getNombre();
+        if (tipos.puedeFallar(asignacion.getValor())) {
+            return false;
+        }
+        TiposEstaticos.Tipo tipo = tipos.tipo(asignacion.getValor());
+
+        if (tipos.estaDefinida(nombre)) {
+            Set<String> vivas = vivasDespues.get(asignacion);
+            return TiposEstaticos.esCompatible(tipos.tipoDeclarado(nombre), tipo)
+                    && vivas != null && !vivas.contains(nombre);
+        }
+
+        // La asignación define la variable en el ámbito de este bloque
+        TipoSimbolo declarado = TiposEstaticos.declarado(tipo);
+        if (declarado == null) {
+            return false;
+        }
+        for (int i = posicion + 1; i < bloque.size(); i++) {
+            Declaracion siguiente = bloque.get(i);
+            List<Declaracion> unica = List.of(siguiente);
+            if (!Analisis.variablesLeidas(unica).contains(nombre)
+                    && !Analisis.variablesAsignadas(unica).contains(nombre)) {
+                continue;
+            }
+            if (siguiente instanceof Asignacion && ((Asignacion) siguiente).getNombre().equals(nombre)
+                    && !Analisis.variablesLeidas(((Asignacion) siguiente).getValor()).contains(nombre)) {
+                return TiposEstaticos.declarado(tipos.tipo(((Asignacion) siguiente).getValor())) == declarado;
+            }
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Nombres asignados directamente en el bloque (sin contar los bloques
+     * anidados) que no existen en los ámbitos que lo rodean.
+     */
+    private Set<String> definidasPorBloque(List<Declaracion> bloque) {
+        Set<String> definidas = new HashSet<>();
+        for (Declaracion declaracion : bloque) {
+            if (declaracion instanceof Asignacion && !tipos.estaDefinida(((Asignacion) declaracion).getNombre())) {
+                definidas.add(((Asignacion) declaracion).getNombre());
+            }
+        }
+        return definidas;
+    }
+
+    /**
+     * Valor de verdad de una condición formada solo por literales, o null si la
+     * condición lee variables o su evaluación falla.
+     */
+    private static Boolean valorConstante(Expresion condicion) {
+        if (!Analisis.variablesLeidas(condicion).isEmpty()) {
+            return null;
+        }
+        try {
+            Interpreter evaluador = new Interpreter(new PrintStream(OutputStream.nullOutputStream()));
+            return Interpreter.esVerdadero(condicion.aceptar(evaluador));
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static boolean esVerdaderoLiteral(Expresion expresion) {
+        return expresion instanceof Literal && Boolean.TRUE.equals(((Literal) expresion).getValor());
+    }
+
+    // Análisis de variables vivas
+
+    /**
+     * Calcula las variables vivas antes del bloque a partir de las vivas
+     * después de él, anotando las vivas después de cada asignación.
+     */
+    private Set<String> vivasAntes(List<Declaracion> bloque, Set<String> despues) {
+        Set<String> vivas = despues;
+        for (int i = bloque.size() - 1; i >= 0; i--) {
+            vivas = vivasAntes(bloque.get(i), vivas);
+        }
+        return vivas;
+    }
+
+    private Set<String> vivasAntes(Declaracion declaracion, Set<String> despues) {
+        Set<String> vivas = new HashSet<>(despues);
+        if (declaracion instanceof Asignacion) {
+            Asignacion asignacion = (Asignacion) declaracion;
+            vivasDespues.put(asignacion, despues);
+            vivas.remove(asignacion.getNombre());
+            vivas.addAll(Analisis.variablesLeidas(asignacion.getValor()));
+        } else if (declaracion instanceof Si) {
+            Si si = (Si) declaracion;
+            vivas = new HashSet<>(vivasAntes(si.getBloqueEntonces(), despues));
+            vivas.addAll(si.getBloqueSino() == null ? despues : vivasAntes(si.getBloqueSino(), despues));
+            vivas.addAll(Analisis.variablesLeidas(si.getCondicion()));
+        } else if (declaracion instanceof Repite) {
+            // Lo vivo al final del cuerpo es lo vivo antes de la condición: punto fijo
+            Repite repite = (Repite) declaracion;
+            vivas.addAll(Analisis.variablesLeidas(repite.getCondicion()));
+            while (true) {
+                Set<String> siguiente = new HashSet<>(vivas);
+                siguiente.addAll(vivasAntes(repite.getCuerpo(), vivas));
+                if (siguiente.equals(vivas)) {
+                    break;
+                }
+                vivas = siguiente;
+            }
+        } else if (declaracion instanceof RepiteContado) {
+            return vivasAntes(((RepiteContado) declaracion).getOriginal(), despues);
+        } else if (declaracion instanceof Paralelo) {
+            // Al final de cada iteración siguen vivas las reducciones, que se
+            // combinan al terminar, y lo que lea cualquier otra iteración. Las
+            // demás variables asignadas también: si existían antes del bucle,
+            // asignarlas es un error que eliminar la asignación ocultaría
+            Paralelo paralelo = (Paralelo) declaracion;
+            vivas.addAll(Analisis.variablesAsignadas(paralelo.getCuerpo()));
+            for (Paralelo.Reduccion reduccion : paralelo.getReducciones()) {
+                vivas.add(reduccion.getVariable());
+            }
+            while (true) {
+                Set<String> siguiente = new HashSet<>(vivas);
+                siguiente.addAll(vivasAntes(paralelo.getCuerpo(), vivas));
+                if (siguiente.equals(vivas)) {
+                    break;
+                }
+                vivas = siguiente;
+            }
+            if (!despues.contains(paralelo.getContador())) {
+                vivas.remove(paralelo.getContador()); // El del cuerpo es el de cada iteración
+            }
+            vivas.addAll(Analisis.variablesLeidas(paralelo.getInicio()));
+            vivas.addAll(Analisis.variablesLeidas(paralelo.getFin()));
+        } else {
+            vivas.addAll(Analisis.variablesLeidas(List.of(declaracion)));
+        }
+        return vivas;
+    }
+}
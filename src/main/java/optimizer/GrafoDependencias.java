@@ -0,0 +1,197 @@
+package optimizer;
+
+import ast.*;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Divide las declaraciones de nivel superior de un programa en regiones y
+ * calcula qué regiones dependen de cuáles, para poder ejecutar en paralelo las
+ * que no comparten variables.
+ *
+ * Cada declaración que contiene un bucle forma su propia región; las demás se
+ * agrupan con las declaraciones sin bucles contiguas, porque ejecutarlas por
+ * separado costaría más que lo que ganaría. Una región depende de otra
+ * anterior si una de las dos escribe una variable global que la otra lee o
+ * asigna.
+ *
+ * Una asignación dentro de un bloque solo escribe una variable global si la
+ * variable ya está definida en el ámbito global en ese punto; si no, define
+ * una variable local del bloque. Como las variables definidas en cada punto
+ * del programa no dependen de la ejecución (ver {@link TiposEstaticos}), la
+ * distinción se hace estáticamente. Las variables locales cuentan igualmente
+ * como accesos: si una región posterior definiera la global con el mismo
+ * nombre, la asignación del bloque pasaría a escribirla. El contenido de los
+ * arreglos (ver {@link Analisis#CONTENIDO_ARREGLOS}) cuenta siempre como
+ * global, porque un arreglo local puede ser el mismo que uno global.
+ */
+public class GrafoDependencias {
+    private final List<Region> regiones = new ArrayList<>();
+
+    /**
+     * @param globales variables que ya están definidas en el ámbito global
+     *                 antes de ejecutar el programa
+     */
+    public GrafoDependencias(List<Declaracion> programa, Set<String> globales) {
+        Set<String> definidas = new HashSet<>(globales);
+        definidas.add(Analisis.CONTENIDO_ARREGLOS);
+        Region actual = null;
+        for (Declaracion declaracion : programa) {
+            boolean conBucles = contieneBucles(declaracion);
+            if (actual == null || conBucles || actual.conBucles) {
+                actual = new Region(regiones.size(), conBucles);
+                regiones.add(actual);
+            }
+            actual.agregar(declaracion, definidas);
+        }
+        enlazar();
+    }
+
+    public List<Region> getRegiones() {
+        return regiones;
+    }
+
+    /**
+     * Número de regiones que contienen algún bucle: con menos de dos no hay
+     * trabajo que repartir.
+     */
+    public int getRegionesConBucles() {
+        int total = 0;
+        for (Region region : regiones) {
+            if (region.conBucles) {
+                total++;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Añade las aristas recorriendo las regiones en orden y recordando, para
+     * cada variable, la última región que la escribió y las que accedieron a
+     * ella desde entonces. El resto de dependencias se cumple por transitividad.
+     */
+    private void enlazar() {
+        Map<String, Region> ultimaEscritura = new HashMap<>();
+        Map<String, List<Region>> accesosDesdeEscritura = new HashMap<>();
+        for (Region region : regiones) {
+            for (String variable : region.accedidas) {
+                Region escritora = ultimaEscritura.get(variable);
+                if (escritora != null) {
+                    escritora.enlazar(region);
+                }
+                if (region.escritasGlobales.contains(variable)) {
+                    List<Region> accesos = accesosDesdeEscritura.remove(variable);
+                    if (accesos != null) {
+                        for (Region acceso : accesos) {
+                            acceso.enlazar(region);
+                        }
+                    }
+                    ultimaEscritura.put(variable, region);
+                } else {
+                    accesosDesdeEscritura.computeIfAbsent(variable, v -> new ArrayList<>()).add(region);
+                }
+            }
+        }
+    }
+
+    static boolean contieneBucles(Declaracion declaracion) {
+        if (declaracion instanceof Repite || declaracion instanceof RepiteContado || declaracion instanceof Paralelo) {
+            return true;
+        }
+        if (declaracion instanceof Si) {
+            Si si = (Si) declaracion;
+            return contieneBucles(si.getBloqueEntonces()) || contieneBucles(si.getBloqueSino());
+        }
+        return false;
+    }
+
+    private static boolean contieneBucles(Collection<Declaracion> bloque) {
+        if (bloque != null) {
+            for (Declaracion declaracion : bloque) {
+                if (contieneBucles(declaracion)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Declaraciones contiguas de nivel superior que se ejecutan como una unidad.
+     */
+    public static class Region {
+        private final int indice;
+        private final boolean conBucles;
+        private final List<Declaracion> declaraciones = new ArrayList<>();
+        private final Set<String> escritasGlobales = new HashSet<>();
+        private final Set<String> accedidas = new HashSet<>();
+        private final Set<Region> sucesores = new LinkedHashSet<>();
+        private int predecesores;
+
+        Region(int indice, boolean conBucles) {
+            this.indice = indice;
+            this.conBucles = conBucles;
+        }
+
+        void agregar(Declaracion declaracion, Set<String> definidas) {
+            declaraciones.add(declaracion);
+            List<Declaracion> sola = List.of(declaracion);
+            Set<String> asignadas = Analisis.variablesAsignadas(sola);
+            accedidas.addAll(asignadas);
+            accedidas.addAll(Analisis.variablesLeidas(sola));
+
+            String directa = null;
+            if (declaracion instanceof Asignacion) {
+                directa = ((Asignacion) declaracion).getNombre();
+            } else if (declaracion instanceof ActualizacionCompuesta) {
+                directa = ((ActualizacionCompuesta) declaracion).getNombre();
+            }
+            for (String variable : asignadas) {
+                if (variable.equals(directa) || definidas.contains(variable)) {
+                    escritasGlobales.add(variable);
+                }
+            }
+            if (directa != null) {
+                definidas.add(directa);
+            }
+        }
+
+        void enlazar(Region sucesor) {
+            if (sucesor != this && sucesores.add(sucesor)) {
+                sucesor.predecesores++;
+            }
+        }
+
+        /**
+         * Posición de la región en el programa.
+         */
+        public int getIndice() {
+            return indice;
+        }
+
+        public List<Declaracion> getDeclaraciones() {
+            return declaraciones;
+        }
+
+        /**
+         * Regiones posteriores que deben esperar a que termine esta.
+         */
+        public Set<Region> getSucesores() {
+            return sucesores;
+        }
+
+        /**
+         * Número de regiones anteriores que deben terminar antes que esta.
+         */
+        public int getPredecesores() {
+            return predecesores;
+        }
+    }
+}
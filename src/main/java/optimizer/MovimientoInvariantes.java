@@ -0,0 +1,101 @@
+package optimizer;
+
+import ast.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Pasada que extrae de cada bucle repite las expresiones invariantes, es decir,
+ * las subexpresiones compuestas cuyas variables no se asignan en ninguna parte
+ * del cuerpo del bucle (incluidos los bloques anidados). Las llamadas a la
+ * biblioteca también se extraen, porque sus funciones son puras.
+ *
+ * Cada subexpresión invariante maximal se sustituye por un nodo
+ * {@link Invariante} que el intérprete evalúa una única vez por entrada al
+ * bucle. Los bucles se procesan de fuera hacia dentro, de modo que una
+ * expresión invariante respecto a varios bucles anidados se calcula solo una
+ * vez por entrada al bucle más externo.
+ */
+public class MovimientoInvariantes extends Reescritor {
+    private final Optimizador optimizador;
+
+    public MovimientoInvariantes(Optimizador optimizador) {
+        this.optimizador = optimizador;
+    }
+
+    @Override
+    public NodoAST visitarRepite(Repite nodo) {
+        Extractor extractor = new Extractor(Analisis.variablesAsignadas(nodo.getCuerpo()));
+        Expresion condicion = extractor.reescribir(nodo.getCondicion());
+        List<Declaracion> cuerpo = extractor.reescribirBloque(nodo.getCuerpo());
+        for (Invariante invariante : extractor.extraidas) {
+            optimizador.informar(nodo.getLinea(), "expresión invariante extraída del bucle repite (ranura "
+                    + invariante.getRanura() + ", línea " + invariante.getLinea() + ")");
+        }
+
+        // Los bucles anidados pueden tener sus propias invariantes
+        cuerpo = reescribirBloque(cuerpo);
+
+        if (extractor.extraidas.isEmpty() && condicion == nodo.getCondicion() && cuerpo == nodo.getCuerpo()) {
+            return nodo;
+        }
+        List<Invariante> invariantes = new ArrayList<>(nodo.getInvariantes());
+        invariantes.addAll(extractor.extraidas);
+        return new Repite(condicion, cuerpo, invariantes, nodo.getLinea(), nodo.getColumna());
+    }
+
+    /**
+     * Reemplaza las subexpresiones invariantes maximales respecto a un conjunto
+     * de variables asignadas. Recorre también las declaraciones anidadas, pero
+     * no entra en invariantes ya extraídas.
+     */
+    private class Extractor extends Reescritor {
+        private final Set<String> asignadas;
+        private final List<Invariante> extraidas = new ArrayList<>();
+
+        Extractor(Set<String> asignadas) {
+            this.asignadas = asignadas;
+        }
+
+        @Override
+        public NodoAST visitarExpresionBinaria(ExpresionBinaria nodo) {
+            if (esInvariante(nodo)) {
+                return extraer(nodo);
+            }
+            return super.visitarExpresionBinaria(nodo);
+        }
+
+        @Override
+        public NodoAST visitarExpresionUnaria(ExpresionUnaria nodo) {
+            if (esInvariante(nodo)) {
+                return extraer(nodo);
+            }
+            return super.visitarExpresionUnaria(nodo);
+        }
+
+        @Override
+        public NodoAST visitarLlamada(Llamada nodo) {
+            if (esInvariante(nodo)) {
+                return extraer(nodo);
+            }
+            return super.visitarLlamada(nodo);
+        }
+
+        private boolean esInvariante(Expresion expresion) {
+            for (String variable : Analisis.variablesLeidas(expresion)) {
+                if (asignadas.contains(variable)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private Invariante extraer(Expresion expresion) {
+            Invariante invariante = new Invariante(optimizador.nuevaRanura(), expresion);
+            extraidas.add(invariante);
+            return invariante;
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package optimizer;
+
+import ast.*;
+import ast.ExpresionEspecializada.Especializacion;
+import lexer.Token;
+import symbols.Simbolo.TipoSimbolo;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Pasada de reducción de fuerza: sustituye las operaciones binarias que
+ * tienen una forma más barata de evaluar por un nodo
+ * {@link ExpresionEspecializada}, cuando los tipos estáticos de los operandos
+ * (ver {@link TiposEstaticos}) indican que la forma rápida se aplicará:
+ * - {@code x % 2^k} con x entero: máscara de bits;
+ * - {@code x % 2^k == 0} y {@code x % 2^k != 0} con x entero: prueba de bits;
+ * - {@code x * 2^k} y {@code 2^k * x} con x entero: desplazamiento;
+ * - {@code x / c} con x numérico y c un literal distinto de cero: sin
+ *   comprobar el divisor, y multiplicando por el inverso si c es una potencia
+ *   de dos;
+ * - comparaciones entre dos números: entre enteros con int y entre enteros
+ *   y decimales con double, sin pasar por Double.
+ *
+ * Los tipos solo deciden qué operaciones se especializan: el nodo comprueba
+ * la clase de los operandos en ejecución y aplica la operación genérica si
+ * no es la esperada, así que un tipo estático impreciso nunca cambia el
+ * resultado. Se ejecuta la última, para no ocultar a las pasadas anteriores
+ * las formas que reconocen; las actualizaciones compuestas y los bucles
+ * contados se conservan.
+ */
+public class OperacionesEspecializadas extends Reescritor {
+    private static final Set<Token.Tipo> COMPARACIONES = EnumSet.of(Token.Tipo.IGUAL, Token.Tipo.DIFERENTE,
+            Token.Tipo.MAYOR, Token.Tipo.MAYOR_IGUAL, Token.Tipo.MENOR, Token.Tipo.MENOR_IGUAL);
+
+    private final Optimizador optimizador;
+    private TiposEstaticos tipos;
+
+    public OperacionesEspecializadas(Optimizador optimizador) {
+        this.optimizador = optimizador;
+    }
+
+    @Override
+    public Programa reescribirPrograma(Programa programa) {
+        tipos = new TiposEstaticos();
+        return super.reescribirPrograma(programa);
+    }
+
+    @Override
+    public NodoAST visitarExpresionBinaria(ExpresionBinaria nodo) {
+        NodoAST multiplo = multiploPotenciaDos(nodo);
+        if (multiplo != null) {
+            return multiplo;
+        }
+        ExpresionBinaria reescrita = (ExpresionBinaria) super.visitarExpresionBinaria(nodo);
+        Expresion izquierda = reescrita.getIzquierda();
+        Expresion derecha = reescrita.getDerecha();
+        switch (reescrita.getOperador()) {
+            case MODULO: {
+                int bits = potenciaDos(derecha);
+                if (bits > 0 && esEntero(izquierda)) {
+                    informar(nodo, "resto de una potencia de dos con máscara de bits");
+                    return ExpresionEspecializada.conPotenciaDos(Especializacion.RESTO_POTENCIA_DOS, nodo,
+                            izquierda, bits);
+                }
+                break;
+            }
+            case MULTIPLICACION: {
+                int bits = potenciaDos(derecha);
+                Expresion operando = izquierda;
+                if (bits <= 0) {
+                    bits = potenciaDos(izquierda);
+                    operando = derecha;
+                }
+                if (bits > 0 && esEntero(operando)) {
+                    informar(nodo, "producto por una potencia de dos con desplazamiento");
+                    return ExpresionEspecializada.conPotenciaDos(Especializacion.PRODUCTO_POTENCIA_DOS, nodo,
+                            operando, bits);
+                }
+                break;
+            }
+            case DIVISION: {
+                double divisor = divisorConstante(derecha);
+                if (divisor != 0 && esNumerico(izquierda)) {
+                    informar(nodo, ExpresionEspecializada.inversoExacto(divisor) != 0
+                            ? "división por una potencia de dos con producto por el inverso"
+                            : "división por una constante sin comprobar el divisor");
+                    return ExpresionEspecializada.cociente(nodo, izquierda, divisor);
+                }
+                break;
+            }
+            default:
+                if (COMPARACIONES.contains(reescrita.getOperador()) && esNumerico(izquierda) && esNumerico(derecha)) {
+                    informar(nodo, "comparación numérica especializada");
+                    return ExpresionEspecializada.comparacion(nodo, izquierda, derecha);
+                }
+                break;
+        }
+        return reescrita;
+    }
+
+    /**
+     * {@code x % 2^k == 0} y {@code x % 2^k != 0}, con el cero a cualquier
+     * lado, se convierten en una prueba de bits; retorna null si el nodo no
+     * tiene esa forma.
+     */
+    private NodoAST multiploPotenciaDos(ExpresionBinaria nodo) {
+        Token.Tipo operador = nodo.getOperador();
+        if (operador != Token.Tipo.IGUAL && operador != Token.Tipo.DIFERENTE) {
+            return null;
+        }
+        Expresion otro = esCero(nodo.getDerecha()) ? nodo.getIzquierda()
+                : esCero(nodo.getIzquierda()) ? nodo.getDerecha() : null;
+        if (!(otro instanceof ExpresionBinaria) || ((ExpresionBinaria) otro).getOperador() != Token.Tipo.MODULO) {
+            return null;
+        }
+        ExpresionBinaria resto = (ExpresionBinaria) otro;
+        int bits = potenciaDos(resto.getDerecha());
+        if (bits <= 0 || !esEntero(resto.getIzquierda())) {
+            return null;
+        }
+        informar(nodo, "comprobación de múltiplo de una potencia de dos con prueba de bits");
+        return ExpresionEspecializada.conPotenciaDos(operador == Token.Tipo.IGUAL
+                        ? Especializacion.MULTIPLO_POTENCIA_DOS : Especializacion.NO_MULTIPLO_POTENCIA_DOS,
+                nodo, reescribir(resto.getIzquierda()), bits);
+    }
+
+    private void informar(ExpresionBinaria nodo, String mensaje) {
+        optimizador.informar(nodo.getLinea(), mensaje);
+    }
+
+    private boolean esEntero(Expresion expresion) {
+        return tipos.tipo(expresion) == TiposEstaticos.Tipo.ENTERO;
+    }
+
+    private boolean esNumerico(Expresion expresion) {
+        TiposEstaticos.Tipo tipo = tipos.tipo(expresion);
+        return tipo == TiposEstaticos.Tipo.ENTERO || tipo == TiposEstaticos.Tipo.REAL
+                || tipo == TiposEstaticos.Tipo.NUMERO;
+    }
+
+    /**
+     * Exponente k si la expresión es un literal entero 2^k con k entre 1 y 30;
+     * 0 en otro caso.
+     */
+    private static int potenciaDos(Expresion expresion) {
+        if (!(expresion instanceof Literal) || !(((Literal) expresion).getValor() instanceof Integer)) {
+            return 0;
+        }
+        int valor = (Integer) ((Literal) expresion).getValor();
+        if (valor < 2 || Integer.bitCount(valor) != 1) {
+            return 0;
+        }
+        return Integer.numberOfTrailingZeros(valor);
+    }
+
+    /**
+     * Valor del divisor si la expresión es un literal numérico distinto de
+     * cero; 0 en otro caso.
+     */
+    private static double divisorConstante(Expresion expresion) {
+        if (!(expresion instanceof Literal)) {
+            return 0;
+        }
+        Object valor = ((Literal) expresion).getValor();
+        return valor instanceof Integer || valor instanceof Double ? ((Number) valor).doubleValue() : 0;
+    }
+
+    private static boolean esCero(Expresion expresion) {
+        return expresion instanceof Literal && Integer.valueOf(0).equals(((Literal) expresion).getValor());
+    }
+
+    // Las expresiones compartidas conservan su ranura
+
+    @Override
+    public NodoAST visitarExpresionCompartida(ExpresionCompartida nodo) {
+        Expresion expresion = reescribir(nodo.getExpresion());
+        if (expresion == nodo.getExpresion()) {
+            return nodo;
+        }
+        return new ExpresionCompartida(nodo.getRanura(), expresion, nodo.esCalculo());
+    }
+
+    // Seguimiento de los tipos de las variables por ámbitos
+
+    @Override
+    public NodoAST visitarAsignacion(Asignacion nodo) {
+        NodoAST resultado = super.visitarAsignacion(nodo);
+        tipos.asignar(nodo.getNombre(), nodo.getValor());
+        return resultado;
+    }
+
+    @Override
+    protected List<Declaracion> reescribirBloque(List<Declaracion> bloque) {
+        if (bloque == null) {
+            return null;
+        }
+        tipos.entrarAmbito();
+        try {
+            return super.reescribirBloque(bloque);
+        } finally {
+            tipos.salirAmbito();
+        }
+    }
+
+    @Override
+    public NodoAST visitarParalelo(Paralelo nodo) {
+        Expresion inicio = reescribir(nodo.getInicio());
+        Expresion fin = reescribir(nodo.getFin());
+        List<Declaracion> cuerpo;
+        // El contador se define en el ámbito de cada iteración, que envuelve al del cuerpo
+        tipos.entrarAmbito();
+        try {
+            tipos.definir(nodo.getContador(), TipoSimbolo.ENTERO);
+            cuerpo = reescribirBloque(nodo.getCuerpo());
+        } finally {
+            tipos.salirAmbito();
+        }
+        if (inicio == nodo.getInicio() && fin == nodo.getFin() && cuerpo == nodo.getCuerpo()) {
+            return nodo;
+        }
+        return new Paralelo(nodo.getContador(), inicio, fin, nodo.getReducciones(), cuerpo,
+                nodo.getLinea(), nodo.getColumna());
+    }
+
+    /**
+     * Se reescribe el cuerpo (incremento incluido) y se conserva el bucle
+     * contado; la condición original solo se usa si el contador o el límite
+     * no son enteros.
+     */
+    @Override
+    public NodoAST visitarRepiteContado(RepiteContado nodo) {
+        Repite original = nodo.getOriginal();
+        List<Declaracion> cuerpo = reescribirBloque(original.getCuerpo());
+        if (cuerpo == original.getCuerpo()) {
+            return nodo;
+        }
+        Repite bucle = new Repite(original.getCondicion(), cuerpo, original.getInvariantes(),
+                original.getLinea(), original.getColumna());
+        return new RepiteContado(bucle, nodo.getContador(), nodo.getComparador(), nodo.getLimite(), nodo.getPaso());
+    }
+
+    /**
+     * Se especializa el operando derecho y se conserva la actualización.
+     */
+    @Override
+    public NodoAST visitarActualizacionCompuesta(ActualizacionCompuesta nodo) {
+        Expresion expresion = reescribir(nodo.getExpresion());
+        if (expresion == nodo.getExpresion()) {
+            return nodo;
+        }
+        Asignacion original = nodo.getOriginal();
+        ExpresionBinaria valor = (ExpresionBinaria) original.getValor();
+        return new ActualizacionCompuesta(new Asignacion(nodo.getNombre(),
+                new ExpresionBinaria(valor.getIzquierda(), valor.getOperador(), expresion,
+                        valor.getLinea(), valor.getColumna()),
+                original.getLinea(), original.getColumna()));
+    }
+}
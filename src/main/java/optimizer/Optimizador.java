@@ -0,0 +1,69 @@
+package optimizer;
+
+import ast.Programa;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Aplica las pasadas de optimización sobre el AST de un programa.
+ *
+ * Cada pasada recibe el optimizador para reservar ranuras temporales del
+ * intérprete (que deben ser únicas en todo el programa) y para anotar en el
+ * informe las transformaciones que realiza.
+ */
+public class Optimizador {
+    private final List<String> informe = new ArrayList<>();
+    private final boolean programaCompleto;
+    private int ranuras;
+
+    public Optimizador() {
+        this(true);
+    }
+
+    /**
+     * @param programaCompleto false si el programa es un fragmento de una
+     *                         sesión interactiva: después puede ejecutarse más
+     *                         código que lea sus variables, así que se omiten
+     *                         las pasadas que suponen ver el programa entero
+     */
+    public Optimizador(boolean programaCompleto) {
+        this.programaCompleto = programaCompleto;
+    }
+
+    /**
+     * Retorna el programa optimizado. El programa original no se modifica.
+     */
+    public Programa optimizar(Programa programa) {
+        if (programaCompleto) {
+            programa = new EliminacionCodigoMuerto(this).reescribirPrograma(programa);
+        }
+        programa = new MovimientoInvariantes(this).reescribirPrograma(programa);
+        programa = new SubexpresionesComunes(this).reescribirPrograma(programa);
+        programa = new ActualizacionesCompuestas(this).reescribirPrograma(programa);
+        programa = new BuclesContados(this).reescribirPrograma(programa);
+        programa = new OperacionesEspecializadas(this).reescribirPrograma(programa);
+        return programa;
+    }
+
+    /**
+     * Reserva una nueva ranura temporal del intérprete.
+     */
+    int nuevaRanura() {
+        return ranuras++;
+    }
+
+    /**
+     * Anota una transformación en el informe.
+     */
+    void informar(int linea, String mensaje) {
+        informe.add("línea " + linea + ": " + mensaje);
+    }
+
+    /**
+     * Transformaciones realizadas, en el orden en que se aplicaron.
+     */
+    public List<String> getInforme() {
+        return informe;
+    }
+}
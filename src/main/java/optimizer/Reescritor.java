@@ -0,0 +1,231 @@
+package optimizer;
+
+import ast.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Visitante base de las pasadas del optimizador: reconstruye el árbol
+ * reescribiendo los hijos de cada nodo. Si ningún hijo cambia se devuelve el
+ * mismo nodo, de modo que las pasadas solo copian las ramas que modifican.
+ *
+ * Las subclases sobrescriben los métodos visitarX de los nodos que les
+ * interesan; una declaración puede eliminarse devolviendo null.
+ */
+public abstract class Reescritor implements VisitanteAST<NodoAST> {
+
+    /**
+     * Aplica la pasada a un programa completo.
+     */
+    public Programa reescribirPrograma(Programa programa) {
+        return (Programa) programa.aceptar(this);
+    }
+
+    protected Expresion reescribir(Expresion expresion) {
+        return (Expresion) expresion.aceptar(this);
+    }
+
+    protected Declaracion reescribir(Declaracion declaracion) {
+        return (Declaracion) declaracion.aceptar(this);
+    }
+
+    /**
+     * Reescribe cada declaración del bloque, descartando las eliminadas.
+     * Retorna la misma lista si no cambió nada.
+     */
+    protected List<Declaracion> reescribirBloque(List<Declaracion> bloque) {
+        if (bloque == null) {
+            return null;
+        }
+        List<Declaracion> resultado = new ArrayList<>(bloque.size());
+        boolean cambio = false;
+        for (Declaracion declaracion : bloque) {
+            Declaracion nueva = reescribir(declaracion);
+            if (nueva != null) {
+                resultado.add(nueva);
+            }
+            cambio |= nueva != declaracion;
+        }
+        return cambio ? resultado : bloque;
+    }
+
+    @Override
+    public NodoAST visitarPrograma(Programa nodo) {
+        List<Declaracion> declaraciones = reescribirBloque(nodo.getDeclaraciones());
+        return declaraciones == nodo.getDeclaraciones() ? nodo : new Programa(declaraciones);
+    }
+
+    @Override
+    public NodoAST visitarAsignacion(Asignacion nodo) {
+        Expresion valor = reescribir(nodo.getValor());
+        if (valor == nodo.getValor()) {
+            return nodo;
+        }
+        return new Asignacion(nodo.getNombre(), valor, nodo.getLinea(), nodo.getColumna());
+    }
+
+    @Override
+    public NodoAST visitarAsignacionElemento(AsignacionElemento nodo) {
+        Expresion arreglo = reescribir(nodo.getArreglo());
+        Expresion indice = reescribir(nodo.getIndice());
+        Expresion valor = reescribir(nodo.getValor());
+        if (arreglo == nodo.getArreglo() && indice == nodo.getIndice() && valor == nodo.getValor()) {
+            return nodo;
+        }
+        return new AsignacionElemento(arreglo, indice, valor, nodo.getLinea(), nodo.getColumna());
+    }
+
+    @Override
+    public NodoAST visitarSi(Si nodo) {
+        Expresion condicion = reescribir(nodo.getCondicion());
+        List<Declaracion> entonces = reescribirBloque(nodo.getBloqueEntonces());
+        List<Declaracion> sino = reescribirBloque(nodo.getBloqueSino());
+        if (condicion == nodo.getCondicion() && entonces == nodo.getBloqueEntonces()
+                && sino == nodo.getBloqueSino()) {
+            return nodo;
+        }
+        return new Si(condicion, entonces, sino, nodo.getLinea(), nodo.getColumna());
+    }
+
+    @Override
+    public NodoAST visitarRepite(Repite nodo) {
+        Expresion condicion = reescribir(nodo.getCondicion());
+        List<Declaracion> cuerpo = reescribirBloque(nodo.getCuerpo());
+        if (condicion == nodo.getCondicion() && cuerpo == nodo.getCuerpo()) {
+            return nodo;
+        }
+        return new Repite(condicion, cuerpo, nodo.getInvariantes(), nodo.getLinea(), nodo.getColumna());
+    }
+
+    @Override
+    public NodoAST visitarParalelo(Paralelo nodo) {
+        Expresion inicio = reescribir(nodo.getInicio());
+        Expresion fin = reescribir(nodo.getFin());
+        List<Declaracion> cuerpo = reescribirBloque(nodo.getCuerpo());
+        if (inicio == nodo.getInicio() && fin == nodo.getFin() && cuerpo == nodo.getCuerpo()) {
+            return nodo;
+        }
+        return new Paralelo(nodo.getContador(), inicio, fin, nodo.getReducciones(), cuerpo,
+                nodo.getLinea(), nodo.getColumna());
+    }
+
+    @Override
+    public NodoAST visitarEscribir(Escribir nodo) {
+        Expresion expresion = reescribir(nodo.getExpresion());
+        if (expresion == nodo.getExpresion()) {
+            return nodo;
+        }
+        return new Escribir(expresion, nodo.getLinea(), nodo.getColumna());
+    }
+
+    @Override
+    public NodoAST visitarExpresionBinaria(ExpresionBinaria nodo) {
+        Expresion izquierda = reescribir(nodo.getIzquierda());
+        Expresion derecha = reescribir(nodo.getDerecha());
+        if (izquierda == nodo.getIzquierda() && derecha == nodo.getDerecha()) {
+            return nodo;
+        }
+        return new ExpresionBinaria(izquierda, nodo.getOperador(), derecha, nodo.getLinea(), nodo.getColumna());
+    }
+
+    @Override
+    public NodoAST visitarExpresionUnaria(ExpresionUnaria nodo) {
+        Expresion expresion = reescribir(nodo.getExpresion());
+        if (expresion == nodo.getExpresion()) {
+            return nodo;
+        }
+        return new ExpresionUnaria(nodo.getOperador(), expresion, nodo.getLinea(), nodo.getColumna());
+    }
+
+    @Override
+    public NodoAST visitarCreacionArreglo(CreacionArreglo nodo) {
+        List<Expresion> elementos = new ArrayList<>(nodo.getElementos().size());
+        boolean cambio = false;
+        for (Expresion elemento : nodo.getElementos()) {
+            Expresion nuevo = reescribir(elemento);
+            elementos.add(nuevo);
+            cambio |= nuevo != elemento;
+        }
+        Expresion longitud = nodo.esRepeticion() ? reescribir(nodo.getLongitud()) : null;
+        if (!cambio && longitud == nodo.getLongitud()) {
+            return nodo;
+        }
+        return new CreacionArreglo(elementos, longitud, nodo.getLinea(), nodo.getColumna());
+    }
+
+    @Override
+    public NodoAST visitarIndexacion(Indexacion nodo) {
+        Expresion arreglo = reescribir(nodo.getArreglo());
+        Expresion indice = reescribir(nodo.getIndice());
+        if (arreglo == nodo.getArreglo() && indice == nodo.getIndice()) {
+            return nodo;
+        }
+        return new Indexacion(arreglo, indice, nodo.getLinea(), nodo.getColumna());
+    }
+
+    @Override
+    public NodoAST visitarLlamada(Llamada nodo) {
+        List<Expresion> argumentos = new ArrayList<>(nodo.getArgumentos().size());
+        boolean cambio = false;
+        for (Expresion argumento : nodo.getArgumentos()) {
+            Expresion nuevo = reescribir(argumento);
+            argumentos.add(nuevo);
+            cambio |= nuevo != argumento;
+        }
+        if (!cambio) {
+            return nodo;
+        }
+        return new Llamada(nodo.getFuncion(), argumentos, nodo.getLinea(), nodo.getColumna());
+    }
+
+    @Override
+    public NodoAST visitarLiteral(Literal nodo) {
+        return nodo;
+    }
+
+    @Override
+    public NodoAST visitarIdentificador(Identificador nodo) {
+        return nodo;
+    }
+
+    @Override
+    public NodoAST visitarInvariante(Invariante nodo) {
+        return nodo;
+    }
+
+    @Override
+    public NodoAST visitarExpresionCompartida(ExpresionCompartida nodo) {
+        return nodo;
+    }
+
+    /**
+     * Si la pasada modifica el bucle original se devuelve el bucle genérico:
+     * el reconocimiento de bucles contados se repite en su propia pasada.
+     */
+    @Override
+    public NodoAST visitarRepiteContado(RepiteContado nodo) {
+        NodoAST original = visitarRepite(nodo.getOriginal());
+        return original == nodo.getOriginal() ? nodo : original;
+    }
+
+    /**
+     * Si la pasada modifica la expresión original se devuelve la expresión
+     * genérica: la especialización se repite en su propia pasada.
+     */
+    @Override
+    public NodoAST visitarExpresionEspecializada(ExpresionEspecializada nodo) {
+        NodoAST original = visitarExpresionBinaria(nodo.getOriginal());
+        return original == nodo.getOriginal() ? nodo : original;
+    }
+
+    /**
+     * Si la pasada modifica la asignación original se devuelve la asignación
+     * genérica: el reconocimiento se repite en su propia pasada.
+     */
+    @Override
+    public NodoAST visitarActualizacionCompuesta(ActualizacionCompuesta nodo) {
+        NodoAST original = visitarAsignacion(nodo.getOriginal());
+        return original == nodo.getOriginal() ? nodo : original;
+    }
+}
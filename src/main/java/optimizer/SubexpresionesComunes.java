@@ -0,0 +1,503 @@
+package optimizer;
+
+import ast.*;
+import lexer.Token;
+import symbols.Simbolo.TipoSimbolo;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Pasada que elimina las subexpresiones comunes dentro de cada bloque: si una
+ * subexpresión compuesta vuelve a aparecer sin que ninguna de sus variables
+ * se haya asignado desde su aparición anterior, la nueva aparición reutiliza
+ * el valor ya calculado mediante un nodo {@link ExpresionCompartida}.
+ *
+ * Los valores disponibles se siguen declaración a declaración en el orden de
+ * evaluación (los operandos de izquierda a derecha). Una asignación invalida
+ * los que leen la variable asignada, una asignación de un elemento los que
+ * leen algún elemento de un arreglo, y un si o un bucle los que leen alguna
+ * variable asignada dentro de él. Los bloques anidados empiezan sin valores
+ * disponibles y sus valores no salen de ellos, porque pueden no ejecutarse o
+ * ejecutarse varias veces; por la misma razón las condiciones de los repite
+ * no participan. En el bloque del programa tampoco se comparten valores entre
+ * declaraciones con bucles y el resto, porque cada una puede ejecutarse como
+ * una región paralela con sus propias ranuras.
+ *
+ * Las expresiones se comparan por su estructura. La suma y la multiplicación
+ * se comparan sin tener en cuenta el orden de sus operandos, salvo la suma
+ * cuando algún operando puede ser una cadena: entonces concatena y
+ * {@code a + b} no vale lo mismo que {@code b + a}. El valor de una
+ * asignación {@code x = x op e} nunca se reutiliza entero, para que la pasada
+ * de actualizaciones compuestas y la de bucles contados la sigan reconociendo.
+ * Las llamadas a la biblioteca se comparten como cualquier operación, porque
+ * todas sus funciones son puras.
+ */
+public class SubexpresionesComunes extends Reescritor {
+    /**
+     * Tamaño mínimo, en nodos, de una expresión que merece compartirse: leer
+     * la ranura no sale más barato que evaluar, por ejemplo, {@code -x}.
+     */
+    private static final int TAMANO_MINIMO = 3;
+
+    private final Optimizador optimizador;
+    private final Map<Expresion, Integer> calculos = new IdentityHashMap<>();
+    private final Map<Expresion, Integer> reutilizaciones = new IdentityHashMap<>();
+
+    public SubexpresionesComunes(Optimizador optimizador) {
+        this.optimizador = optimizador;
+    }
+
+    @Override
+    public Programa reescribirPrograma(Programa programa) {
+        Analizador analizador = new Analizador();
+        analizador.recorrerBloque(programa.getDeclaraciones(), true);
+        for (Disponible disponible : analizador.compartidas) {
+            optimizador.informar(disponible.primera.getLinea(), "subexpresión común reutilizada "
+                    + disponible.usos + (disponible.usos == 1 ? " vez" : " veces") + " (ranura "
+                    + disponible.ranura + ", " + disponible.usos * (disponible.tamano - 1)
+                    + " nodos menos por evaluar)");
+        }
+        return calculos.isEmpty() ? programa : super.reescribirPrograma(programa);
+    }
+
+    @Override
+    public NodoAST visitarExpresionBinaria(ExpresionBinaria nodo) {
+        Integer ranura = reutilizaciones.get(nodo);
+        if (ranura != null) {
+            return new ExpresionCompartida(ranura, nodo, false);
+        }
+        return calcular(nodo, super.visitarExpresionBinaria(nodo));
+    }
+
+    @Override
+    public NodoAST visitarExpresionUnaria(ExpresionUnaria nodo) {
+        Integer ranura = reutilizaciones.get(nodo);
+        if (ranura != null) {
+            return new ExpresionCompartida(ranura, nodo, false);
+        }
+        return calcular(nodo, super.visitarExpresionUnaria(nodo));
+    }
+
+    @Override
+    public NodoAST visitarLlamada(Llamada nodo) {
+        Integer ranura = reutilizaciones.get(nodo);
+        if (ranura != null) {
+            return new ExpresionCompartida(ranura, nodo, false);
+        }
+        return calcular(nodo, super.visitarLlamada(nodo));
+    }
+
+    private NodoAST calcular(Expresion original, NodoAST reescrita) {
+        Integer ranura = calculos.get(original);
+        return ranura == null ? reescrita : new ExpresionCompartida(ranura, (Expresion) reescrita, true);
+    }
+
+    /**
+     * Subexpresión cuyo valor está disponible en un punto del bloque.
+     */
+    private static class Disponible {
+        private final Expresion primera;
+        private final int tamano;
+        private int ranura = -1; // Se reserva al encontrar la primera reutilización
+        private int usos;
+
+        Disponible(Expresion primera, int tamano) {
+            this.primera = primera;
+            this.tamano = tamano;
+        }
+    }
+
+    /**
+     * Recorre el programa en orden de ejecución y decide qué apariciones
+     * calculan un valor y cuáles lo reutilizan.
+     */
+    private class Analizador {
+        private final Numeracion numeracion = new Numeracion();
+        private final List<Disponible> compartidas = new ArrayList<>();
+        private Map<Integer, Disponible> disponibles = new HashMap<>();
+        private Map<String, List<Integer>> porVariable = new HashMap<>();
+
+        void recorrerBloque(List<Declaracion> bloque, boolean programa) {
+            if (bloque == null) {
+                return;
+            }
+            Map<Integer, Disponible> exteriores = disponibles;
+            Map<String, List<Integer>> indiceExterior = porVariable;
+            numeracion.tipos.entrarAmbito();
+            olvidarTodo();
+            try {
+                for (Declaracion declaracion : bloque) {
+                    boolean region = programa && GrafoDependencias.contieneBucles(declaracion);
+                    if (region) {
+                        olvidarTodo();
+                    }
+                    recorrer(declaracion);
+                    if (region) {
+                        olvidarTodo();
+                    }
+                }
+            } finally {
+                numeracion.tipos.salirAmbito();
+                disponibles = exteriores;
+                porVariable = indiceExterior;
+            }
+        }
+
+        private void olvidarTodo() {
+            disponibles = new HashMap<>();
+            porVariable = new HashMap<>();
+        }
+
+        private void recorrer(Declaracion declaracion) {
+            if (declaracion instanceof ActualizacionCompuesta) {
+                declaracion = ((ActualizacionCompuesta) declaracion).getOriginal();
+            } else if (declaracion instanceof RepiteContado) {
+                declaracion = ((RepiteContado) declaracion).getOriginal();
+            }
+
+            if (declaracion instanceof Asignacion) {
+                Asignacion asignacion = (Asignacion) declaracion;
+                Expresion valor = asignacion.getValor();
+                if (esActualizacion(asignacion)) {
+                    recorrer(((ExpresionBinaria) valor).getDerecha());
+                } else {
+                    recorrer(valor);
+                }
+                olvidar(asignacion.getNombre());
+                numeracion.tipos.asignar(asignacion.getNombre(), valor);
+            } else if (declaracion instanceof AsignacionElemento) {
+                AsignacionElemento asignacion = (AsignacionElemento) declaracion;
+                recorrer(asignacion.getValor());
+                recorrer(asignacion.getArreglo());
+                recorrer(asignacion.getIndice());
+                olvidar(Analisis.CONTENIDO_ARREGLOS);
+            } else if (declaracion instanceof Escribir) {
+                recorrer(((Escribir) declaracion).getExpresion());
+            } else if (declaracion instanceof Si) {
+                Si si = (Si) declaracion;
+                recorrer(si.getCondicion());
+                recorrerBloque(si.getBloqueEntonces(), false);
+                recorrerBloque(si.getBloqueSino(), false);
+                olvidar(Analisis.variablesAsignadas(List.of(si)));
+            } else if (declaracion instanceof Repite) {
+                recorrerBloque(((Repite) declaracion).getCuerpo(), false);
+                olvidar(Analisis.variablesAsignadas(List.of(declaracion)));
+            } else if (declaracion instanceof Paralelo) {
+                Paralelo paralelo = (Paralelo) declaracion;
+                recorrer(paralelo.getInicio());
+                recorrer(paralelo.getFin());
+                numeracion.tipos.entrarAmbito();
+                try {
+                    numeracion.tipos.definir(paralelo.getContador(), TipoSimbolo.ENTERO);
+                    recorrerBloque(paralelo.getCuerpo(), false);
+                } finally {
+                    numeracion.tipos.salirAmbito();
+                }
+                olvidar(Analisis.variablesAsignadas(List.of(paralelo)));
+            }
+        }
+
+        /**
+         * Recorre una expresión: si su valor ya está disponible la marca como
+         * reutilización sin entrar en ella; si no, recorre sus operandos y
+         * deja disponible su valor.
+         */
+        private void recorrer(Expresion expresion) {
+            if (expresion instanceof Indexacion) {
+                recorrer(((Indexacion) expresion).getArreglo());
+                recorrer(((Indexacion) expresion).getIndice());
+                return;
+            }
+            if (expresion instanceof CreacionArreglo) {
+                CreacionArreglo arreglo = (CreacionArreglo) expresion;
+                for (Expresion elemento : arreglo.getElementos()) {
+                    recorrer(elemento);
+                }
+                if (arreglo.esRepeticion()) {
+                    recorrer(arreglo.getLongitud());
+                }
+                return;
+            }
+            if (!(expresion instanceof ExpresionBinaria) && !(expresion instanceof ExpresionUnaria)
+                    && !(expresion instanceof Llamada)) {
+                return;
+            }
+            int clave = numeracion.numero(expresion);
+            Disponible disponible = disponibles.get(clave);
+            if (disponible != null) {
+                if (disponible.ranura < 0) {
+                    disponible.ranura = optimizador.nuevaRanura();
+                    calculos.put(disponible.primera, disponible.ranura);
+                    compartidas.add(disponible);
+                }
+                disponible.usos++;
+                reutilizaciones.put(expresion, disponible.ranura);
+                return;
+            }
+
+            if (expresion instanceof ExpresionBinaria) {
+                recorrer(((ExpresionBinaria) expresion).getIzquierda());
+                recorrer(((ExpresionBinaria) expresion).getDerecha());
+            } else if (expresion instanceof Llamada) {
+                for (Expresion argumento : ((Llamada) expresion).getArgumentos()) {
+                    recorrer(argumento);
+                }
+            } else {
+                recorrer(((ExpresionUnaria) expresion).getExpresion());
+            }
+
+            int tamano = numeracion.tamano(clave);
+            if (tamano >= TAMANO_MINIMO) {
+                disponibles.put(clave, new Disponible(expresion, tamano));
+                for (String variable : numeracion.variables(clave)) {
+                    porVariable.computeIfAbsent(variable, v -> new ArrayList<>()).add(clave);
+                }
+            }
+        }
+
+        private void olvidar(Set<String> variables) {
+            for (String variable : variables) {
+                olvidar(variable);
+            }
+        }
+
+        private void olvidar(String variable) {
+            List<Integer> claves = porVariable.remove(variable);
+            if (claves != null) {
+                for (Integer clave : claves) {
+                    disponibles.remove(clave);
+                }
+            }
+        }
+    }
+
+    /**
+     * Indica si la asignación tiene la forma {@code x = x op e} que reconoce
+     * {@link ActualizacionesCompuestas}.
+     */
+    private static boolean esActualizacion(Asignacion asignacion) {
+        if (!(asignacion.getValor() instanceof ExpresionBinaria)) {
+            return false;
+        }
+        Expresion izquierda = ((ExpresionBinaria) asignacion.getValor()).getIzquierda();
+        return izquierda instanceof Identificador
+                && ((Identificador) izquierda).getNombre().equals(asignacion.getNombre());
+    }
+
+    /**
+     * Asigna a cada expresión un número que solo comparten las expresiones
+     * con la misma estructura (salvo el orden de los operandos conmutativos),
+     * y recuerda el tamaño y las variables leídas de cada número.
+     */
+    private static class Numeracion implements VisitanteAST<Integer> {
+        private final TiposEstaticos tipos = new TiposEstaticos();
+        private final Map<Expresion, Integer> numeros = new IdentityHashMap<>();
+        private final Map<List<Object>, Integer> claves = new HashMap<>();
+        private final List<Integer> tamanos = new ArrayList<>();
+        private final List<Set<String>> variables = new ArrayList<>();
+
+        int numero(Expresion expresion) {
+            Integer numero = numeros.get(expresion);
+            if (numero == null) {
+                numero = expresion.aceptar(this);
+                numeros.put(expresion, numero);
+            }
+            return numero;
+        }
+
+        int tamano(int numero) {
+            return tamanos.get(numero);
+        }
+
+        Set<String> variables(int numero) {
+            return variables.get(numero);
+        }
+
+        private int numerar(List<Object> clave, int tamano, Set<String> leidas) {
+            Integer numero = claves.get(clave);
+            if (numero == null) {
+                numero = tamanos.size();
+                claves.put(clave, numero);
+                tamanos.add(tamano);
+                variables.add(leidas);
+            }
+            return numero;
+        }
+
+        private boolean esConmutativa(ExpresionBinaria nodo) {
+            if (nodo.getOperador() == Token.Tipo.MULTIPLICACION) {
+                return true;
+            }
+            return nodo.getOperador() == Token.Tipo.SUMA
+                    && esNumerico(tipos.tipo(nodo.getIzquierda())) && esNumerico(tipos.tipo(nodo.getDerecha()));
+        }
+
+        private static boolean esNumerico(TiposEstaticos.Tipo tipo) {
+            return tipo == TiposEstaticos.Tipo.ENTERO || tipo == TiposEstaticos.Tipo.REAL
+                    || tipo == TiposEstaticos.Tipo.NUMERO;
+        }
+
+        @Override
+        public Integer visitarExpresionBinaria(ExpresionBinaria nodo) {
+            int izquierda = numero(nodo.getIzquierda());
+            int derecha = numero(nodo.getDerecha());
+            if (izquierda > derecha && esConmutativa(nodo)) {
+                int mayor = izquierda;
+                izquierda = derecha;
+                derecha = mayor;
+            }
+            Set<String> leidas = new HashSet<>(variables.get(izquierda));
+            leidas.addAll(variables.get(derecha));
+            if (Analisis.leeContenidoArreglos(nodo)) {
+                leidas.add(Analisis.CONTENIDO_ARREGLOS);
+            }
+            return numerar(List.of(nodo.getOperador(), izquierda, derecha),
+                    1 + tamanos.get(izquierda) + tamanos.get(derecha), leidas);
+        }
+
+        @Override
+        public Integer visitarExpresionUnaria(ExpresionUnaria nodo) {
+            int operando = numero(nodo.getExpresion());
+            return numerar(List.of(nodo.getOperador(), operando), 1 + tamanos.get(operando), variables.get(operando));
+        }
+
+        @Override
+        public Integer visitarLiteral(Literal nodo) {
+            // La clase distingue, por ejemplo, 1 de 1.0
+            Object valor = nodo.getValor();
+            List<Object> clave = valor == null ? List.of("nulo") : List.of(valor.getClass(), valor);
+            return numerar(clave, 1, Set.of());
+        }
+
+        @Override
+        public Integer visitarIdentificador(Identificador nodo) {
+            return numerar(List.of("variable", nodo.getNombre()), 1, Set.of(nodo.getNombre()));
+        }
+
+        /**
+         * Cada creación de un arreglo da un arreglo distinto, así que nunca
+         * comparte número con otra.
+         */
+        @Override
+        public Integer visitarCreacionArreglo(CreacionArreglo nodo) {
+            int tamano = 1;
+            Set<String> leidas = new HashSet<>();
+            List<Expresion> hijos = new ArrayList<>(nodo.getElementos());
+            if (nodo.esRepeticion()) {
+                hijos.add(nodo.getLongitud());
+            }
+            for (Expresion hijo : hijos) {
+                int numero = numero(hijo);
+                tamano += tamanos.get(numero);
+                leidas.addAll(variables.get(numero));
+            }
+            return numerar(List.of("arreglo", new Object()), tamano, leidas);
+        }
+
+        @Override
+        public Integer visitarIndexacion(Indexacion nodo) {
+            int arreglo = numero(nodo.getArreglo());
+            int indice = numero(nodo.getIndice());
+            Set<String> leidas = new HashSet<>(variables.get(arreglo));
+            leidas.addAll(variables.get(indice));
+            leidas.add(Analisis.CONTENIDO_ARREGLOS);
+            return numerar(List.of("elemento", arreglo, indice), 1 + tamanos.get(arreglo) + tamanos.get(indice),
+                    leidas);
+        }
+
+        @Override
+        public Integer visitarLlamada(Llamada nodo) {
+            List<Object> clave = new ArrayList<>();
+            clave.add(nodo.getFuncion());
+            int tamano = 1;
+            Set<String> leidas = new HashSet<>();
+            for (Expresion argumento : nodo.getArgumentos()) {
+                int numero = numero(argumento);
+                clave.add(numero);
+                tamano += tamanos.get(numero);
+                leidas.addAll(variables.get(numero));
+            }
+            if (Analisis.leeContenidoArreglos(nodo)) {
+                leidas.add(Analisis.CONTENIDO_ARREGLOS);
+            }
+            return numerar(clave, tamano, leidas);
+        }
+
+        /**
+         * Cada invariante ya tiene su propia ranura; se compara por ella.
+         */
+        @Override
+        public Integer visitarInvariante(Invariante nodo) {
+            return numerar(List.of("invariante", nodo.getRanura()), 1,
+                    Analisis.variablesLeidas(nodo.getExpresion()));
+        }
+
+        @Override
+        public Integer visitarExpresionCompartida(ExpresionCompartida nodo) {
+            return numero(nodo.getExpresion());
+        }
+
+        @Override
+        public Integer visitarExpresionEspecializada(ExpresionEspecializada nodo) {
+            return numero(nodo.getOriginal());
+        }
+
+        // Las declaraciones no se numeran: el analizador solo pasa expresiones
+
+        private Integer noEsExpresion(NodoAST nodo) {
+            throw new IllegalStateException("Numeración de una declaración ("
+                    + nodo.getClass().getSimpleName() + " en la línea " + nodo.getLinea() + ")");
+        }
+
+        @Override
+        public Integer visitarPrograma(Programa nodo) {
+            return noEsExpresion(nodo);
+        }
+
+        @Override
+        public Integer visitarAsignacion(Asignacion nodo) {
+            return noEsExpresion(nodo);
+        }
+
+        @Override
+        public Integer visitarAsignacionElemento(AsignacionElemento nodo) {
+            return noEsExpresion(nodo);
+        }
+
+        @Override
+        public Integer visitarSi(Si nodo) {
+            return noEsExpresion(nodo);
+        }
+
+        @Override
+        public Integer visitarRepite(Repite nodo) {
+            return noEsExpresion(nodo);
+        }
+
+        @Override
+        public Integer visitarEscribir(Escribir nodo) {
+            return noEsExpresion(nodo);
+        }
+
+        @Override
+        public Integer visitarRepiteContado(RepiteContado nodo) {
+            return noEsExpresion(nodo);
+        }
+
+        @Override
+        public Integer visitarActualizacionCompuesta(ActualizacionCompuesta nodo) {
+            return noEsExpresion(nodo);
+        }
+
+        @Override
+        public Integer visitarParalelo(Paralelo nodo) {
+            return noEsExpresion(nodo);
+        }
+    }
+}
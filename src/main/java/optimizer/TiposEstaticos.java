@@ -0,0 +1,437 @@
+package optimizer;
+
+import ast.*;
+import biblioteca.Funcion;
+import symbols.Simbolo.TipoSimbolo;
+
+import java.math.BigInteger;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Réplica estática de la tabla de símbolos: sigue, declaración a declaración,
+ * qué variables están definidas en cada ámbito y con qué tipo.
+ *
+ * Como las variables definidas dentro de un bloque desaparecen al salir de él,
+ * el conjunto de variables definidas en cada punto del programa no depende de
+ * la ejecución; solo el tipo puede ser desconocido (null) cuando la expresión
+ * que define la variable no tiene un tipo determinado.
+ */
+public class TiposEstaticos {
+
+    /**
+     * Tipo del valor de una expresión. NUMERO es un valor que puede ser tanto
+     * entero como decimal (por ejemplo, el contenido de una variable DECIMAL).
+     */
+    public enum Tipo {
+        ENTERO,
+        REAL,
+        NUMERO,
+        CADENA,
+        BOOLEANO,
+        ARREGLO,
+        DESCONOCIDO
+    }
+
+    private final Deque<Map<String, TipoSimbolo>> ambitos = new ArrayDeque<>();
+
+    public TiposEstaticos() {
+        entrarAmbito();
+    }
+
+    public void entrarAmbito() {
+        ambitos.push(new HashMap<>());
+    }
+
+    public void salirAmbito() {
+        ambitos.pop();
+    }
+
+    public boolean estaDefinida(String nombre) {
+        for (Map<String, TipoSimbolo> ambito : ambitos) {
+            if (ambito.containsKey(nombre)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Tipo con el que se definió la variable, o null si no está definida o si
+     * su tipo no se conoce.
+     */
+    public TipoSimbolo tipoDeclarado(String nombre) {
+        for (Map<String, TipoSimbolo> ambito : ambitos) {
+            if (ambito.containsKey(nombre)) {
+                return ambito.get(nombre);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Registra el efecto de una asignación: si la variable no existe se define
+     * en el ámbito actual con el tipo de la expresión.
+     */
+    public void asignar(String nombre, Expresion valor) {
+        if (!estaDefinida(nombre)) {
+            ambitos.peek().put(nombre, declarado(tipo(valor)));
+        }
+    }
+
+    /**
+     * Define una variable en el ámbito actual con el tipo indicado, aunque
+     * exista en un ámbito exterior (como el contador de un bucle paralelo).
+     */
+    public void definir(String nombre, TipoSimbolo tipo) {
+        ambitos.peek().put(nombre, tipo);
+    }
+
+    /**
+     * Tipo del valor de la expresión suponiendo que su evaluación no falla.
+     */
+    public Tipo tipo(Expresion expresion) {
+        return expresion.aceptar(new Inferidor());
+    }
+
+    /**
+     * Indica si la evaluación de la expresión puede lanzar un error (variable
+     * no definida, tipos incompatibles o división por cero).
+     */
+    public boolean puedeFallar(Expresion expresion) {
+        Inferidor inferidor = new Inferidor();
+        expresion.aceptar(inferidor);
+        return inferidor.puedeFallar;
+    }
+
+    /**
+     * Tipo que tendrá una variable definida con un valor del tipo indicado.
+     */
+    public static TipoSimbolo declarado(Tipo tipo) {
+        switch (tipo) {
+            case ENTERO: return TipoSimbolo.ENTERO;
+            case REAL: return TipoSimbolo.DECIMAL;
+            case CADENA: return TipoSimbolo.CADENA;
+            case BOOLEANO: return TipoSimbolo.BOOLEANO;
+            case ARREGLO: return TipoSimbolo.ARREGLO;
+            default: return null;
+        }
+    }
+
+    /**
+     * Indica si asignar un valor del tipo indicado a una variable declarada con
+     * el tipo dado nunca produce un error de incompatibilidad.
+     */
+    public static boolean esCompatible(TipoSimbolo declarado, Tipo valor) {
+        if (declarado == null) {
+            return false;
+        }
+        switch (declarado) {
+            case ENTERO: return valor == Tipo.ENTERO;
+            case DECIMAL: return esNumerico(valor);
+            case CADENA: return valor == Tipo.CADENA;
+            case BOOLEANO: return valor == Tipo.BOOLEANO;
+            case ARREGLO: return valor == Tipo.ARREGLO;
+            default: return false;
+        }
+    }
+
+    private static boolean esNumerico(Tipo tipo) {
+        return tipo == Tipo.ENTERO || tipo == Tipo.REAL || tipo == Tipo.NUMERO;
+    }
+
+    private static Tipo aritmetico(Tipo izquierda, Tipo derecha) {
+        if (izquierda == Tipo.ENTERO && derecha == Tipo.ENTERO) {
+            return Tipo.ENTERO;
+        }
+        if (izquierda == Tipo.REAL || derecha == Tipo.REAL) {
+            return Tipo.REAL;
+        }
+        return Tipo.NUMERO;
+    }
+
+    private static boolean esLiteralNoNulo(Expresion expresion) {
+        if (!(expresion instanceof Literal)) {
+            return false;
+        }
+        Object valor = ((Literal) expresion).getValor();
+        return (valor instanceof Integer && (Integer) valor != 0)
+                || valor instanceof Long || valor instanceof BigInteger // Los literales grandes nunca son cero
+                || (valor instanceof Double && (Double) valor != 0.0);
+    }
+
+    private static boolean esLiteralNoNegativo(Expresion expresion) {
+        if (!(expresion instanceof Literal)) {
+            return false;
+        }
+        Object valor = ((Literal) expresion).getValor();
+        return valor instanceof Integer && (Integer) valor >= 0;
+    }
+
+    /**
+     * Indica si la expresión es un literal entero válido como longitud de un
+     * arreglo, con el que crearlo nunca falla.
+     */
+    private static boolean esLongitudValida(Expresion expresion) {
+        return esLiteralNoNegativo(expresion);
+    }
+
+    /**
+     * Calcula el tipo de una expresión siguiendo las reglas del intérprete y
+     * anota si alguna operación podría fallar.
+     */
+    private class Inferidor implements VisitanteAST<Tipo> {
+        private boolean puedeFallar;
+
+        private Tipo fallo(Tipo tipo) {
+            puedeFallar = true;
+            return tipo;
+        }
+
+        @Override
+        public Tipo visitarExpresionBinaria(ExpresionBinaria nodo) {
+            Tipo izquierda = nodo.getIzquierda().aceptar(this);
+            Tipo derecha = nodo.getDerecha().aceptar(this);
+            boolean numericos = esNumerico(izquierda) && esNumerico(derecha);
+
+            switch (nodo.getOperador()) {
+                case SUMA:
+                    if (izquierda == Tipo.CADENA || derecha == Tipo.CADENA) {
+                        return Tipo.CADENA;
+                    }
+                    return numericos ? aritmetico(izquierda, derecha) : fallo(Tipo.DESCONOCIDO);
+                case RESTA:
+                case MULTIPLICACION:
+                    return numericos ? aritmetico(izquierda, derecha) : fallo(Tipo.DESCONOCIDO);
+                case DIVISION:
+                    if (!numericos) {
+                        return fallo(Tipo.DESCONOCIDO);
+                    }
+                    return esLiteralNoNulo(nodo.getDerecha()) ? Tipo.REAL : fallo(Tipo.REAL);
+                case MODULO:
+                    if (izquierda != Tipo.ENTERO || derecha != Tipo.ENTERO) {
+                        return fallo(Tipo.DESCONOCIDO);
+                    }
+                    return esLiteralNoNulo(nodo.getDerecha()) ? Tipo.ENTERO : fallo(Tipo.ENTERO);
+                case MAYOR:
+                case MAYOR_IGUAL:
+                case MENOR:
+                case MENOR_IGUAL:
+                    if (numericos || (izquierda == Tipo.CADENA && derecha == Tipo.CADENA)) {
+                        return Tipo.BOOLEANO;
+                    }
+                    return fallo(Tipo.BOOLEANO);
+                case IGUAL:
+                case DIFERENTE:
+                case Y:
+                case O:
+                    return Tipo.BOOLEANO;
+                default:
+                    return fallo(Tipo.DESCONOCIDO);
+            }
+        }
+
+        @Override
+        public Tipo visitarExpresionUnaria(ExpresionUnaria nodo) {
+            Tipo operando = nodo.getExpresion().aceptar(this);
+            switch (nodo.getOperador()) {
+                case RESTA:
+                    return esNumerico(operando) ? operando : fallo(Tipo.DESCONOCIDO);
+                case NO:
+                    return Tipo.BOOLEANO;
+                default:
+                    return fallo(Tipo.DESCONOCIDO);
+            }
+        }
+
+        @Override
+        public Tipo visitarLiteral(Literal nodo) {
+            Object valor = nodo.getValor();
+            if (valor instanceof Integer || valor instanceof Long || valor instanceof BigInteger) {
+                return Tipo.ENTERO;
+            } else if (valor instanceof Double) {
+                return Tipo.REAL;
+            } else if (valor instanceof String) {
+                return Tipo.CADENA;
+            } else if (valor instanceof Boolean) {
+                return Tipo.BOOLEANO;
+            }
+            return Tipo.DESCONOCIDO;
+        }
+
+        @Override
+        public Tipo visitarIdentificador(Identificador nodo) {
+            if (!estaDefinida(nodo.getNombre())) {
+                return fallo(Tipo.DESCONOCIDO);
+            }
+            TipoSimbolo declarado = tipoDeclarado(nodo.getNombre());
+            if (declarado == null) {
+                return Tipo.DESCONOCIDO;
+            }
+            switch (declarado) {
+                case ENTERO: return Tipo.ENTERO;
+                case DECIMAL: return Tipo.NUMERO; // Admite también valores enteros
+                case CADENA: return Tipo.CADENA;
+                case BOOLEANO: return Tipo.BOOLEANO;
+                case ARREGLO: return Tipo.ARREGLO;
+                default: return Tipo.DESCONOCIDO;
+            }
+        }
+
+        @Override
+        public Tipo visitarInvariante(Invariante nodo) {
+            return nodo.getExpresion().aceptar(this);
+        }
+
+        @Override
+        public Tipo visitarExpresionCompartida(ExpresionCompartida nodo) {
+            return nodo.getExpresion().aceptar(this);
+        }
+
+        @Override
+        public Tipo visitarExpresionEspecializada(ExpresionEspecializada nodo) {
+            return nodo.getOriginal().aceptar(this);
+        }
+
+        @Override
+        public Tipo visitarCreacionArreglo(CreacionArreglo nodo) {
+            for (Expresion elemento : nodo.getElementos()) {
+                elemento.aceptar(this);
+            }
+            if (nodo.esRepeticion()) {
+                nodo.getLongitud().aceptar(this);
+                if (!esLongitudValida(nodo.getLongitud())) {
+                    return fallo(Tipo.ARREGLO);
+                }
+            }
+            return Tipo.ARREGLO;
+        }
+
+        /**
+         * El elemento puede ser de cualquier tipo y el índice puede quedar
+         * fuera del arreglo.
+         */
+        @Override
+        public Tipo visitarIndexacion(Indexacion nodo) {
+            nodo.getArreglo().aceptar(this);
+            nodo.getIndice().aceptar(this);
+            return fallo(Tipo.DESCONOCIDO);
+        }
+
+        /**
+         * Tipo del resultado de cada función de la biblioteca. Puede fallar
+         * toda llamada con argumentos de un tipo que la función no admite, y
+         * también las funciones con un dominio restringido (raiz, ln) o que
+         * no aceptan NaN ni infinito (piso, sen...).
+         */
+        @Override
+        public Tipo visitarLlamada(Llamada nodo) {
+            List<Expresion> argumentos = nodo.getArgumentos();
+            Tipo[] tipos = new Tipo[argumentos.size()];
+            for (int i = 0; i < tipos.length; i++) {
+                tipos[i] = argumentos.get(i).aceptar(this);
+            }
+            Tipo primero = tipos[0];
+            switch (nodo.getFuncion()) {
+                case ABS:
+                    return esNumerico(primero) ? primero : fallo(Tipo.DESCONOCIDO);
+                case RAIZ:
+                case SEN:
+                case COS:
+                case LN:
+                    return fallo(Tipo.REAL);
+                case POTENCIA:
+                    if (primero == Tipo.ENTERO && tipos[1] == Tipo.ENTERO && esLiteralNoNegativo(argumentos.get(1))) {
+                        return Tipo.ENTERO;
+                    }
+                    return fallo(primero == Tipo.REAL || tipos[1] == Tipo.REAL ? Tipo.REAL : Tipo.NUMERO);
+                case PISO:
+                case TECHO:
+                case REDONDEAR:
+                case ENTERO:
+                    return primero == Tipo.ENTERO || (primero == Tipo.BOOLEANO && nodo.getFuncion() == Funcion.ENTERO)
+                            ? Tipo.ENTERO : fallo(Tipo.ENTERO);
+                case MIN:
+                case MAX: {
+                    if (tipos.length == 1) {
+                        return fallo(Tipo.DESCONOCIDO);
+                    }
+                    Tipo resultado = primero;
+                    for (Tipo tipo : tipos) {
+                        if (esNumerico(resultado) && esNumerico(tipo)) {
+                            resultado = resultado == tipo ? tipo : Tipo.NUMERO;
+                        } else if (resultado != Tipo.CADENA || tipo != Tipo.CADENA) {
+                            return fallo(Tipo.DESCONOCIDO);
+                        }
+                    }
+                    return resultado;
+                }
+                case LONGITUD:
+                    return primero == Tipo.CADENA || primero == Tipo.ARREGLO ? Tipo.ENTERO : fallo(Tipo.ENTERO);
+                case MAYUSCULAS:
+                case MINUSCULAS:
+                    return primero == Tipo.CADENA ? Tipo.CADENA : fallo(Tipo.CADENA);
+                case SUBCADENA:
+                    return fallo(Tipo.CADENA);
+                case POSICION:
+                    return primero == Tipo.CADENA && tipos[1] == Tipo.CADENA ? Tipo.ENTERO : fallo(Tipo.ENTERO);
+                case DECIMAL:
+                    return esNumerico(primero) || primero == Tipo.BOOLEANO ? Tipo.REAL : fallo(Tipo.REAL);
+                case TEXTO:
+                    return Tipo.CADENA;
+                default:
+                    return fallo(Tipo.DESCONOCIDO);
+            }
+        }
+
+        // Las declaraciones no tienen tipo
+
+        @Override
+        public Tipo visitarPrograma(Programa nodo) {
+            return Tipo.DESCONOCIDO;
+        }
+
+        @Override
+        public Tipo visitarAsignacion(Asignacion nodo) {
+            return Tipo.DESCONOCIDO;
+        }
+
+        @Override
+        public Tipo visitarAsignacionElemento(AsignacionElemento nodo) {
+            return Tipo.DESCONOCIDO;
+        }
+
+        @Override
+        public Tipo visitarSi(Si nodo) {
+            return Tipo.DESCONOCIDO;
+        }
+
+        @Override
+        public Tipo visitarRepite(Repite nodo) {
+            return Tipo.DESCONOCIDO;
+        }
+
+        @Override
+        public Tipo visitarEscribir(Escribir nodo) {
+            return Tipo.DESCONOCIDO;
+        }
+
+        @Override
+        public Tipo visitarRepiteContado(RepiteContado nodo) {
+            return Tipo.DESCONOCIDO;
+        }
+
+        @Override
+        public Tipo visitarActualizacionCompuesta(ActualizacionCompuesta nodo) {
+            return Tipo.DESCONOCIDO;
+        }
+
+        @Override
+        public Tipo visitarParalelo(Paralelo nodo) {
+            return Tipo.DESCONOCIDO;
+        }
+    }
+}
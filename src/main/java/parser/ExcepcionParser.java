@@ -1,20 +1,29 @@
 package parser;
 
+import diagnosticos.Diagnostico;
+import diagnosticos.ExcepcionLenguaje;
 import lexer.Token;
 
 /**
  * Excepción lanzada cuando ocurre un error durante el análisis sintáctico.
  */
-public class ExcepcionParser extends RuntimeException {
+public class ExcepcionParser extends ExcepcionLenguaje {
     private final Token token;
 
     public ExcepcionParser(String mensaje, Token token) {
-        super(String.format("%s en línea %d, columna %d cerca de '%s'",
-                mensaje, token.getLinea(), token.getColumna(), token.getLexema()));
+        super(new Diagnostico(Diagnostico.Codigo.SINTAXIS, token.getLinea(), token.getColumna(),
+                mensaje, token.getLexema()), null);
         this.token = token;
     }
 
     public Token getToken() {
         return token;
     }
-} 
\ No newline at end of file
+
+    @Override
+    public String getMessage() {
+        Object[] argumentos = getDiagnostico().getArgumentos();
+        return String.format("%s en línea %d, columna %d cerca de '%s'",
+                argumentos[0], token.getLinea(), token.getColumna(), argumentos[1]);
+    }
+}
@@ -1,10 +1,14 @@
 package parser;
 
 import ast.*;
+import biblioteca.Funcion;
 import lexer.Token;
 
+import java.math.BigInteger;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Analizador sintáctico que convierte una secuencia de tokens en un AST.
@@ -12,10 +16,14 @@ import java.util.List;
  * Gramática del pseudocódigo (CFG):
  * 
  * programa         → declaracion* FIN_ARCHIVO
- * declaracion      → asignacion | si | repite | escribir
- * asignacion       → IDENTIFICADOR "=" expresion
+ * declaracion      → asignacion | si | repite | paralelo | escribir
+ * asignacion       → IDENTIFICADOR ("[" expresion "]")* "=" expresion
  * si               → "si" "(" expresion ")" "entonces" declaracion* ("sino" declaracion*)? "fin_si"
  * repite           → "repite" "(" expresion ")" declaracion* "fin_repite"
+ * paralelo         → "paralelo" "(" IDENTIFICADOR "desde" expresion "hasta" expresion ")"
+ *                    ("reduciendo" reduccion ("y" reduccion)*)? declaracion* "fin_paralelo"
+ * reduccion        → ("suma" | "producto" | "minimo" | "maximo") IDENTIFICADOR
+ *                    ("desde", "hasta" y "reduciendo" solo son palabras clave en esta cabecera)
  * escribir         → "escribir" expresion
  * 
  * expresion        → logica
@@ -24,11 +32,15 @@ import java.util.List;
  * comparacion      → termino ( (">" | ">=" | "<" | "<=") termino )*
  * termino          → factor ( ("+" | "-") factor )*
  * factor           → unario ( ("*" | "/" | "%") unario )*
- * unario           → ("no" | "-") unario | primario
- * primario         → NUMERO | CADENA | IDENTIFICADOR | "(" expresion ")"
+ * unario           → ("no" | "-") unario | postfijo
+ * postfijo         → primario ("[" expresion "]")*
+ * primario         → NUMERO | CADENA | llamada | IDENTIFICADOR | "(" expresion ")" | arreglo
+ * llamada          → IDENTIFICADOR "(" (expresion ("," expresion)*)? ")"
+ * arreglo          → "[" (expresion ("," expresion)* | expresion ";" expresion)? "]"
  */
 public class Parser {
     private final List<Token> tokens;
+    private final Map<Object, Object> compartidos = new HashMap<>(); // Nombres y valores literales ya vistos
     private int actual = 0;
 
     public Parser(List<Token> tokens) {
@@ -39,13 +51,25 @@ public class Parser {
      * Analiza los tokens y retorna el AST del programa.
      */
     public Programa analizarPrograma() {
-        List<Declaracion> declaraciones = new ArrayList<>();
+        ArrayList<Declaracion> declaraciones = new ArrayList<>();
         
         while (!esFin()) {
             declaraciones.add(declaracion());
         }
         
-        return new Programa(declaraciones);
+        return new Programa(ajustar(declaraciones));
+    }
+
+    /**
+     * Analiza los tokens como una única expresión (lo que escribe el usuario
+     * en la sesión interactiva para ver un valor).
+     */
+    public Expresion analizarExpresion() {
+        Expresion expresion = expresion();
+        if (!esFin()) {
+            throw new ExcepcionParser("Se esperaba el final de la expresión", actual());
+        }
+        return expresion;
     }
 
     private Declaracion declaracion() {
@@ -61,29 +85,55 @@ public class Parser {
         if (coincidir(Token.Tipo.ESCRIBIR)) {
             return escribir();
         }
+        if (coincidir(Token.Tipo.PARALELO)) {
+            return paralelo();
+        }
         
         throw new ExcepcionParser("Se esperaba una declaración", actual());
     }
 
-    private Asignacion asignacion() {
+    private Declaracion asignacion() {
         Token nombre = anterior();
+        if (verificar(Token.Tipo.CORCHETE_IZQ)) {
+            return asignacionElemento(nombre);
+        }
         consumir(Token.Tipo.ASIGNACION, "Se esperaba '=' después del identificador");
         Expresion valor = expresion();
-        return new Asignacion(nombre.getLexema(), valor);
+        return new Asignacion(compartir(nombre.getLexema()), valor, nombre.getLinea(), nombre.getColumna());
+    }
+
+    /**
+     * {@code v[i] = valor} o {@code m[i][j] = valor}: los índices anteriores
+     * al último forman el arreglo cuyo elemento se asigna.
+     */
+    private AsignacionElemento asignacionElemento(Token nombre) {
+        Expresion arreglo = new Identificador(compartir(nombre.getLexema()), nombre.getLinea(), nombre.getColumna());
+        while (true) {
+            Token corchete = consumir(Token.Tipo.CORCHETE_IZQ, "Se esperaba '['");
+            Expresion indice = expresion();
+            consumir(Token.Tipo.CORCHETE_DER, "Se esperaba ']' después del índice");
+            if (!verificar(Token.Tipo.CORCHETE_IZQ)) {
+                consumir(Token.Tipo.ASIGNACION, "Se esperaba '=' después del elemento");
+                Expresion valor = expresion();
+                return new AsignacionElemento(arreglo, indice, valor, nombre.getLinea(), nombre.getColumna());
+            }
+            arreglo = new Indexacion(arreglo, indice, corchete.getLinea(), corchete.getColumna());
+        }
     }
 
     private Si si() {
+        Token palabraClave = anterior();
         consumir(Token.Tipo.PARENTESIS_IZQ, "Se esperaba '(' después de 'si'");
         Expresion condicion = expresion();
         consumir(Token.Tipo.PARENTESIS_DER, "Se esperaba ')' después de la condición");
         consumir(Token.Tipo.ENTONCES, "Se esperaba 'entonces' después de la condición");
         
-        List<Declaracion> bloqueEntonces = new ArrayList<>();
+        ArrayList<Declaracion> bloqueEntonces = new ArrayList<>();
         while (!verificar(Token.Tipo.SINO) && !verificar(Token.Tipo.FIN_SI) && !esFin()) {
             bloqueEntonces.add(declaracion());
         }
         
-        List<Declaracion> bloqueSino = null;
+        ArrayList<Declaracion> bloqueSino = null;
         if (coincidir(Token.Tipo.SINO)) {
             bloqueSino = new ArrayList<>();
             while (!verificar(Token.Tipo.FIN_SI) && !esFin()) {
@@ -92,26 +142,75 @@ public class Parser {
         }
         
         consumir(Token.Tipo.FIN_SI, "Se esperaba 'fin_si'");
-        return new Si(condicion, bloqueEntonces, bloqueSino);
+        return new Si(condicion, ajustar(bloqueEntonces), bloqueSino == null ? null : ajustar(bloqueSino),
+                palabraClave.getLinea(), palabraClave.getColumna());
     }
 
     private Repite repite() {
+        Token palabraClave = anterior();
         consumir(Token.Tipo.PARENTESIS_IZQ, "Se esperaba '(' después de 'repite'");
         Expresion condicion = expresion();
         consumir(Token.Tipo.PARENTESIS_DER, "Se esperaba ')' después de la condición");
         
-        List<Declaracion> cuerpo = new ArrayList<>();
+        ArrayList<Declaracion> cuerpo = new ArrayList<>();
         while (!verificar(Token.Tipo.FIN_REPITE) && !esFin()) {
             cuerpo.add(declaracion());
         }
         
         consumir(Token.Tipo.FIN_REPITE, "Se esperaba 'fin_repite'");
-        return new Repite(condicion, cuerpo);
+        return new Repite(condicion, ajustar(cuerpo), palabraClave.getLinea(), palabraClave.getColumna());
+    }
+
+    private Paralelo paralelo() {
+        Token palabraClave = anterior();
+        consumir(Token.Tipo.PARENTESIS_IZQ, "Se esperaba '(' después de 'paralelo'");
+        Token contador = consumir(Token.Tipo.IDENTIFICADOR, "Se esperaba el nombre del contador");
+        consumirPalabra("desde", "Se esperaba 'desde' después del contador");
+        Expresion inicio = expresion();
+        consumirPalabra("hasta", "Se esperaba 'hasta' después del valor inicial");
+        Expresion fin = expresion();
+        consumir(Token.Tipo.PARENTESIS_DER, "Se esperaba ')' después del valor final");
+        
+        // reduciendo suma total y maximo mayor
+        ArrayList<Paralelo.Reduccion> reducciones = new ArrayList<>();
+        // Una declaración del cuerpo no puede empezar por dos identificadores seguidos
+        if (verificarPalabra("reduciendo") && siguiente().getTipo() == Token.Tipo.IDENTIFICADOR) {
+            avanzar();
+            do {
+                Token operacion = consumir(Token.Tipo.IDENTIFICADOR, "Se esperaba suma, producto, minimo o maximo");
+                Paralelo.TipoReduccion tipo = Paralelo.TipoReduccion.porNombre(operacion.getLexema());
+                if (tipo == null) {
+                    throw new ExcepcionParser("Reducción desconocida '" + operacion.getLexema()
+                            + "' (suma, producto, minimo o maximo)", operacion);
+                }
+                Token variable = consumir(Token.Tipo.IDENTIFICADOR, "Se esperaba la variable de la reducción");
+                for (Paralelo.Reduccion anterior : reducciones) {
+                    if (anterior.getVariable().equals(variable.getLexema())) {
+                        throw new ExcepcionParser("La variable '" + variable.getLexema()
+                                + "' aparece en dos reducciones", variable);
+                    }
+                }
+                if (variable.getLexema().equals(contador.getLexema())) {
+                    throw new ExcepcionParser("El contador no puede ser una variable de reducción", variable);
+                }
+                reducciones.add(new Paralelo.Reduccion(tipo, compartir(variable.getLexema())));
+            } while (coincidir(Token.Tipo.Y));
+        }
+        
+        ArrayList<Declaracion> cuerpo = new ArrayList<>();
+        while (!verificar(Token.Tipo.FIN_PARALELO) && !esFin()) {
+            cuerpo.add(declaracion());
+        }
+        
+        consumir(Token.Tipo.FIN_PARALELO, "Se esperaba 'fin_paralelo'");
+        return new Paralelo(compartir(contador.getLexema()), inicio, fin, List.copyOf(reducciones), ajustar(cuerpo),
+                palabraClave.getLinea(), palabraClave.getColumna());
     }
 
     private Escribir escribir() {
+        Token palabraClave = anterior();
         Expresion expresion = expresion();
-        return new Escribir(expresion);
+        return new Escribir(expresion, palabraClave.getLinea(), palabraClave.getColumna());
     }
 
     private Expresion expresion() {
@@ -124,7 +223,7 @@ public class Parser {
         while (coincidir(Token.Tipo.Y, Token.Tipo.O)) {
             Token operador = anterior();
             Expresion derecha = igualdad();
-            expr = new ExpresionBinaria(expr, operador, derecha);
+            expr = new ExpresionBinaria(expr, operador.getTipo(), derecha, operador.getLinea(), operador.getColumna());
         }
         
         return expr;
@@ -136,7 +235,7 @@ public class Parser {
         while (coincidir(Token.Tipo.IGUAL, Token.Tipo.DIFERENTE)) {
             Token operador = anterior();
             Expresion derecha = comparacion();
-            expr = new ExpresionBinaria(expr, operador, derecha);
+            expr = new ExpresionBinaria(expr, operador.getTipo(), derecha, operador.getLinea(), operador.getColumna());
         }
         
         return expr;
@@ -149,7 +248,7 @@ public class Parser {
                         Token.Tipo.MENOR, Token.Tipo.MENOR_IGUAL)) {
             Token operador = anterior();
             Expresion derecha = termino();
-            expr = new ExpresionBinaria(expr, operador, derecha);
+            expr = new ExpresionBinaria(expr, operador.getTipo(), derecha, operador.getLinea(), operador.getColumna());
         }
         
         return expr;
@@ -161,7 +260,7 @@ public class Parser {
         while (coincidir(Token.Tipo.SUMA, Token.Tipo.RESTA)) {
             Token operador = anterior();
             Expresion derecha = factor();
-            expr = new ExpresionBinaria(expr, operador, derecha);
+            expr = new ExpresionBinaria(expr, operador.getTipo(), derecha, operador.getLinea(), operador.getColumna());
         }
         
         return expr;
@@ -173,7 +272,7 @@ public class Parser {
         while (coincidir(Token.Tipo.MULTIPLICACION, Token.Tipo.DIVISION, Token.Tipo.MODULO)) {
             Token operador = anterior();
             Expresion derecha = unario();
-            expr = new ExpresionBinaria(expr, operador, derecha);
+            expr = new ExpresionBinaria(expr, operador.getTipo(), derecha, operador.getLinea(), operador.getColumna());
         }
         
         return expr;
@@ -183,40 +282,140 @@ public class Parser {
         if (coincidir(Token.Tipo.NO, Token.Tipo.RESTA)) {
             Token operador = anterior();
             Expresion expr = unario();
-            return new ExpresionUnaria(operador, expr);
+            return new ExpresionUnaria(operador.getTipo(), expr, operador.getLinea(), operador.getColumna());
         }
         
-        return primario();
+        return postfijo();
+    }
+
+    private Expresion postfijo() {
+        Expresion expr = primario();
+        
+        while (coincidir(Token.Tipo.CORCHETE_IZQ)) {
+            Token corchete = anterior();
+            Expresion indice = expresion();
+            consumir(Token.Tipo.CORCHETE_DER, "Se esperaba ']' después del índice");
+            expr = new Indexacion(expr, indice, corchete.getLinea(), corchete.getColumna());
+        }
+        
+        return expr;
+    }
+
+    /**
+     * Convierte un literal entero en Integer, Long o BigInteger según su tamaño.
+     */
+    private static Object parsearEntero(String lexema) {
+        if (lexema.length() <= 9) {
+            return Integer.parseInt(lexema);
+        }
+        BigInteger valor = new BigInteger(lexema);
+        if (valor.bitLength() < 32) {
+            return valor.intValue();
+        }
+        return valor.bitLength() < 64 ? (Object) valor.longValue() : valor;
     }
 
     private Expresion primario() {
         if (coincidir(Token.Tipo.NUMERO)) {
-            String lexema = anterior().getLexema();
+            Token numero = anterior();
+            String lexema = numero.getLexema();
             try {
                 if (lexema.contains(".")) {
-                    return new Literal(Double.parseDouble(lexema));
+                    return new Literal(compartir(Double.parseDouble(lexema)), numero.getLinea(), numero.getColumna());
                 } else {
-                    return new Literal(Integer.parseInt(lexema));
+                    return new Literal(compartir(parsearEntero(lexema)), numero.getLinea(), numero.getColumna());
                 }
             } catch (NumberFormatException e) {
                 throw new ExcepcionParser("Error al parsear número: " + lexema, anterior());
             }
         }
         if (coincidir(Token.Tipo.CADENA)) {
-            return new Literal(anterior().getLexema());
+            Token cadena = anterior();
+            return new Literal(compartir(cadena.getLexema()), cadena.getLinea(), cadena.getColumna());
         }
         if (coincidir(Token.Tipo.IDENTIFICADOR)) {
-            return new Identificador(anterior().getLexema());
+            Token nombre = anterior();
+            if (coincidir(Token.Tipo.PARENTESIS_IZQ)) {
+                return llamada(nombre);
+            }
+            return new Identificador(compartir(nombre.getLexema()), nombre.getLinea(), nombre.getColumna());
         }
         if (coincidir(Token.Tipo.PARENTESIS_IZQ)) {
             Expresion expr = expresion();
             consumir(Token.Tipo.PARENTESIS_DER, "Se esperaba ')' después de la expresión");
             return expr;
         }
+        if (coincidir(Token.Tipo.CORCHETE_IZQ)) {
+            return arreglo();
+        }
         throw new ExcepcionParser("Se esperaba una expresión", actual());
     }
 
+    private CreacionArreglo arreglo() {
+        Token corchete = anterior();
+        ArrayList<Expresion> elementos = new ArrayList<>();
+        Expresion longitud = null;
+        if (!verificar(Token.Tipo.CORCHETE_DER)) {
+            elementos.add(expresion());
+            if (coincidir(Token.Tipo.PUNTO_COMA)) {
+                longitud = expresion();
+            } else {
+                while (coincidir(Token.Tipo.COMA)) {
+                    elementos.add(expresion());
+                }
+            }
+        }
+        consumir(Token.Tipo.CORCHETE_DER, "Se esperaba ']' al final del arreglo");
+        elementos.trimToSize();
+        return new CreacionArreglo(elementos, longitud, corchete.getLinea(), corchete.getColumna());
+    }
+
+    /**
+     * Llamada a una función de la biblioteca, que se resuelve aquí: un nombre
+     * que no es de la biblioteca o un número de argumentos que la función no
+     * admite son errores de sintaxis.
+     */
+    private Llamada llamada(Token nombre) {
+        Funcion funcion = Funcion.buscar(nombre.getLexema());
+        if (funcion == null) {
+            throw new ExcepcionParser("Función desconocida '" + nombre.getLexema() + "'", nombre);
+        }
+        ArrayList<Expresion> argumentos = new ArrayList<>();
+        if (!verificar(Token.Tipo.PARENTESIS_DER)) {
+            do {
+                argumentos.add(expresion());
+            } while (coincidir(Token.Tipo.COMA));
+        }
+        consumir(Token.Tipo.PARENTESIS_DER, "Se esperaba ')' después de los argumentos");
+        if (!funcion.admite(argumentos.size())) {
+            throw new ExcepcionParser("La función '" + funcion.getNombre() + "' espera "
+                    + funcion.describirArgumentos(), nombre);
+        }
+        argumentos.trimToSize();
+        return new Llamada(funcion, argumentos, nombre.getLinea(), nombre.getColumna());
+    }
+
     // Métodos auxiliares
+
+    /**
+     * Retorna la primera instancia igual al valor que apareció en el programa,
+     * de modo que cada nombre y cada literal distinto se guarda una sola vez.
+     * Los valores de distinto tipo (1 y 1.0) no son iguales y no se mezclan.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T compartir(T valor) {
+        Object existente = compartidos.putIfAbsent(valor, valor);
+        return existente == null ? valor : (T) existente;
+    }
+
+    /**
+     * Libera la capacidad sobrante de un bloque ya completo.
+     */
+    private static List<Declaracion> ajustar(ArrayList<Declaracion> bloque) {
+        bloque.trimToSize();
+        return bloque;
+    }
+
     private boolean coincidir(Token.Tipo... tipos) {
         for (Token.Tipo tipo : tipos) {
             if (verificar(tipo)) {
@@ -245,10 +444,30 @@ public class Parser {
         return tokens.get(actual);
     }
 
+    private Token siguiente() {
+        return tokens.get(Math.min(actual + 1, tokens.size() - 1));
+    }
+
     private Token anterior() {
         return tokens.get(actual - 1);
     }
 
+    /**
+     * Las palabras desde, hasta y reduciendo solo tienen significado en la
+     * cabecera de un bucle paralelo: fuera de ella son identificadores
+     * normales, así que el lexer no las reserva y el parser las reconoce
+     * por el lexema.
+     */
+    private boolean verificarPalabra(String palabra) {
+        return verificar(Token.Tipo.IDENTIFICADOR) && actual().getLexema().equals(palabra);
+    }
+
+    private Token consumirPalabra(String palabra, String mensaje) {
+        if (verificarPalabra(palabra)) return avanzar();
+
+        throw new ExcepcionParser(mensaje, actual());
+    }
+
     private Token consumir(Token.Tipo tipo, String mensaje) {
         if (verificar(tipo)) return avanzar();
         
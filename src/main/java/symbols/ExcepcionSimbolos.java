@@ -1,15 +1,29 @@
 package symbols;
 
+import diagnosticos.Diagnostico;
+import diagnosticos.ExcepcionLenguaje;
+
 /**
  * Excepción lanzada cuando ocurre un error relacionado con la tabla de símbolos.
  */
-public class ExcepcionSimbolos extends RuntimeException {
+public class ExcepcionSimbolos extends ExcepcionLenguaje {
     
     public ExcepcionSimbolos(String mensaje) {
-        super(mensaje);
+        this(mensaje, null);
     }
     
     public ExcepcionSimbolos(String mensaje, Throwable causa) {
-        super(mensaje, causa);
+        super(Diagnostico.de(Diagnostico.Codigo.EJECUCION, mensaje), causa);
+    }
+    
+    public ExcepcionSimbolos(Diagnostico.Codigo codigo, Object... argumentos) {
+        super(Diagnostico.de(codigo, argumentos), null);
+    }
+    
+    /**
+     * Error de variable no definida, el más frecuente.
+     */
+    public static ExcepcionSimbolos noDefinida(String nombre) {
+        return new ExcepcionSimbolos(Diagnostico.Codigo.VARIABLE_NO_DEFINIDA, nombre);
     }
-} 
\ No newline at end of file
+}
@@ -3,6 +3,9 @@ package symbols;
 import lombok.Getter;
 import lombok.Setter;
 
+import java.math.BigInteger;
+import java.util.List;
+
 /**
  * Representa un símbolo (variable) en la tabla de símbolos.
  */
@@ -26,21 +29,24 @@ public class Simbolo {
         ENTERO,
         DECIMAL,
         CADENA,
-        BOOLEANO
+        BOOLEANO,
+        ARREGLO
     }
     
     /**
      * Infiere el tipo de un valor.
      */
     public static TipoSimbolo inferirTipo(Object valor) {
-        if (valor instanceof Integer) {
+        if (valor instanceof Integer || valor instanceof Long || valor instanceof BigInteger) {
             return TipoSimbolo.ENTERO;
         } else if (valor instanceof Double) {
             return TipoSimbolo.DECIMAL;
-        } else if (valor instanceof String) {
+        } else if (valor instanceof CharSequence) { // String o cadena incremental
             return TipoSimbolo.CADENA;
         } else if (valor instanceof Boolean) {
             return TipoSimbolo.BOOLEANO;
+        } else if (valor instanceof List) { // arreglo del intérprete
+            return TipoSimbolo.ARREGLO;
         }
         throw new IllegalArgumentException("Tipo no soportado: " + valor.getClass());
     }
@@ -1,6 +1,9 @@
 package symbols;
 
+import diagnosticos.Diagnostico;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Stack;
 
@@ -16,6 +19,16 @@ public class TablaSimbolos {
         entrarAmbito();
     }
     
+    /**
+     * Crea una tabla cuyo ámbito global es el mapa indicado, sin copiarlo:
+     * varias tablas pueden compartir así las variables globales (el mapa debe
+     * admitir entonces accesos concurrentes).
+     */
+    public TablaSimbolos(Map<String, Simbolo> global) {
+        this.pilaAmbitos = new Stack<>();
+        pilaAmbitos.push(global);
+    }
+    
     /**
      * Entra a un nuevo ámbito.
      */
@@ -47,7 +60,7 @@ public class TablaSimbolos {
     public Object obtener(String nombre) {
         Simbolo simbolo = buscarSimbolo(nombre);
         if (simbolo == null) {
-            throw new ExcepcionSimbolos("Variable no definida: " + nombre);
+            throw ExcepcionSimbolos.noDefinida(nombre);
         }
         return simbolo.getValor();
     }
@@ -58,15 +71,27 @@ public class TablaSimbolos {
     public void asignar(String nombre, Object valor) {
         Simbolo simbolo = buscarSimbolo(nombre);
         if (simbolo == null) {
-            throw new ExcepcionSimbolos("Variable no definida: " + nombre);
+            throw ExcepcionSimbolos.noDefinida(nombre);
+        }
+        asignar(simbolo, valor);
+    }
+    
+    /**
+     * Asigna un nuevo valor a un símbolo ya localizado con
+     * {@link #obtenerSimbolo}. Si el valor es de la misma clase que el actual
+     * se escribe sin volver a inferir el tipo.
+     */
+    public void asignar(Simbolo simbolo, Object valor) {
+        Object actual = simbolo.getValor();
+        if (valor != null && actual != null && valor.getClass() == actual.getClass()) {
+            simbolo.setValor(valor);
+            return;
         }
         
         // Verificar compatibilidad de tipos
         Simbolo.TipoSimbolo nuevoTipo = Simbolo.inferirTipo(valor);
         if (!sonTiposCompatibles(simbolo.getTipo(), nuevoTipo)) {
-            throw new ExcepcionSimbolos(
-                String.format("Incompatibilidad de tipos: no se puede asignar %s a %s", 
-                            nuevoTipo, simbolo.getTipo()));
+            throw new ExcepcionSimbolos(Diagnostico.Codigo.TIPOS_INCOMPATIBLES, nuevoTipo, simbolo.getTipo());
         }
         
         simbolo.setValor(valor);
@@ -124,6 +149,24 @@ public class TablaSimbolos {
         return pilaAmbitos.size();
     }
     
+    /**
+     * Retorna los ámbitos activos, del global al más interno (para guardar
+     * puntos de control).
+     */
+    public List<Map<String, Simbolo>> getAmbitos() {
+        return Collections.unmodifiableList(pilaAmbitos);
+    }
+    
+    /**
+     * Sustituye todos los ámbitos por los indicados, del global al más interno.
+     */
+    public void restaurarAmbitos(List<Map<String, Simbolo>> ambitos) {
+        pilaAmbitos.clear();
+        for (Map<String, Simbolo> ambito : ambitos) {
+            pilaAmbitos.push(new HashMap<>(ambito));
+        }
+    }
+    
     /**
      * Limpia todas las variables del ámbito actual.
      */
@@ -1,15 +1,18 @@
 package translator;
 
+import diagnosticos.Diagnostico;
+import diagnosticos.ExcepcionLenguaje;
+
 /**
  * Excepción lanzada cuando ocurre un error durante la traducción.
  */
-public class ExcepcionTraductor extends RuntimeException {
+public class ExcepcionTraductor extends ExcepcionLenguaje {
     
     public ExcepcionTraductor(String mensaje) {
-        super(mensaje);
+        this(mensaje, null);
     }
     
     public ExcepcionTraductor(String mensaje, Throwable causa) {
-        super(mensaje, causa);
+        super(Diagnostico.de(Diagnostico.Codigo.TRADUCCION, mensaje), causa);
     }
-} 
\ No newline at end of file
+}
@@ -2,14 +2,48 @@ package translator;
 
 import ast.*;
 import lexer.Token;
+import optimizer.Analisis;
+import optimizer.TiposEstaticos;
+import symbols.Simbolo.TipoSimbolo;
+
+import java.math.BigInteger;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 /**
  * Traductor que convierte el AST de pseudocódigo a código Python equivalente.
+ *
+ * Además de traducir, genera código que CPython ejecute deprisa: los bucles
+ * contados con contador y límite enteros se emiten como {@code for ... in range},
+ * las actualizaciones compuestas como asignaciones aumentadas ({@code +=}) y
+ * los paréntesis se ponen solo donde la precedencia de Python lo exige. Los
+ * bucles paralelos se ejecutan en secuencia. Los arreglos son listas de
+ * Python, que a diferencia del módulo array admiten enteros de cualquier
+ * tamaño y elementos de tipos distintos. Las funciones de la biblioteca se
+ * traducen a las funciones predefinidas de Python o del módulo math que hacen
+ * lo mismo; si el programa usa una variable con su nombre, se llaman a través
+ * del módulo builtins.
  */
 public class TraductorPython implements VisitanteAST<String> {
     private int nivelIndentacion = 0;
     private static final String INDENTACION = "    "; // 4 espacios
     
+    // Precedencias de Python, de menor a mayor
+    private static final int PRECEDENCIA_O = 1;
+    private static final int PRECEDENCIA_Y = 2;
+    private static final int PRECEDENCIA_NO = 3;
+    private static final int PRECEDENCIA_COMPARACION = 4;
+    private static final int PRECEDENCIA_SUMA = 5;
+    private static final int PRECEDENCIA_PRODUCTO = 6;
+    private static final int PRECEDENCIA_NEGACION = 7;
+    private static final int PRECEDENCIA_ATOMO = 8;
+    
+    private final TiposEstaticos tipos = new TiposEstaticos();
+    private final Set<String> nombresUsados = new HashSet<>();
+    private String moduloMath; // Nombre con el que se importan math y builtins, si se usan
+    private String moduloBuiltins;
+    
     /**
      * Traduce un programa completo a Python.
      */
@@ -19,7 +53,20 @@ public class TraductorPython implements VisitanteAST<String> {
         resultado.append("# -*- coding: utf-8 -*-\n");
         resultado.append("# Código generado automáticamente desde pseudocódigo\n\n");
         
+        // Los nombres auxiliares de los bucles no pueden coincidir con variables del programa
+        nombresUsados.addAll(Analisis.variablesAsignadas(programa.getDeclaraciones()));
+        nombresUsados.addAll(Analisis.variablesLeidas(programa.getDeclaraciones()));
+        
         String cuerpoPrincipal = programa.aceptar(this);
+        if (moduloMath != null) {
+            resultado.append(importar("math", moduloMath));
+        }
+        if (moduloBuiltins != null) {
+            resultado.append(importar("builtins", moduloBuiltins));
+        }
+        if (moduloMath != null || moduloBuiltins != null) {
+            resultado.append("\n");
+        }
         if (!cuerpoPrincipal.trim().isEmpty()) {
             resultado.append("def main():\n");
             nivelIndentacion++;
@@ -53,38 +100,39 @@ public class TraductorPython implements VisitanteAST<String> {
     public String visitarAsignacion(Asignacion nodo) {
         String nombre = nodo.getNombre();
         String valor = nodo.getValor().aceptar(this);
+        tipos.asignar(nombre, nodo.getValor());
         return obtenerIndentacion() + nombre + " = " + valor;
     }
     
+    @Override
+    public String visitarAsignacionElemento(AsignacionElemento nodo) {
+        String arreglo = operando(nodo.getArreglo(), PRECEDENCIA_ATOMO);
+        String indice = nodo.getIndice().aceptar(this);
+        String valor = nodo.getValor().aceptar(this);
+        return obtenerIndentacion() + arreglo + "[" + indice + "] = " + valor;
+    }
+    
     @Override
     public String visitarSi(Si nodo) {
         StringBuilder resultado = new StringBuilder();
         
+        if (esBloqueIncondicional(nodo)) {
+            // Python no tiene ámbitos de bloque: la rama se emite directamente
+            agregarBloqueEnAmbito(resultado, nodo.getBloqueEntonces());
+            return resultado.toString();
+        }
+        
         String condicion = nodo.getCondicion().aceptar(this);
         resultado.append(obtenerIndentacion()).append("if ").append(condicion).append(":\n");
         
         nivelIndentacion++;
-        if (nodo.getBloqueEntonces().isEmpty()) {
-            resultado.append(obtenerIndentacion()).append("pass\n");
-        } else {
-            for (Declaracion declaracion : nodo.getBloqueEntonces()) {
-                resultado.append(declaracion.aceptar(this));
-                if (!resultado.toString().endsWith("\n")) {
-                    resultado.append("\n");
-                }
-            }
-        }
+        agregarBloqueEnAmbito(resultado, nodo.getBloqueEntonces());
         nivelIndentacion--;
         
         if (nodo.getBloqueSino() != null && !nodo.getBloqueSino().isEmpty()) {
             resultado.append(obtenerIndentacion()).append("else:\n");
             nivelIndentacion++;
-            for (Declaracion declaracion : nodo.getBloqueSino()) {
-                resultado.append(declaracion.aceptar(this));
-                if (!resultado.toString().endsWith("\n")) {
-                    resultado.append("\n");
-                }
-            }
+            agregarBloqueEnAmbito(resultado, nodo.getBloqueSino());
             nivelIndentacion--;
         }
         
@@ -99,16 +147,7 @@ public class TraductorPython implements VisitanteAST<String> {
         resultado.append(obtenerIndentacion()).append("while ").append(condicion).append(":\n");
         
         nivelIndentacion++;
-        if (nodo.getCuerpo().isEmpty()) {
-            resultado.append(obtenerIndentacion()).append("pass\n");
-        } else {
-            for (Declaracion declaracion : nodo.getCuerpo()) {
-                resultado.append(declaracion.aceptar(this));
-                if (!resultado.toString().endsWith("\n")) {
-                    resultado.append("\n");
-                }
-            }
-        }
+        agregarBloqueEnAmbito(resultado, nodo.getCuerpo());
         nivelIndentacion--;
         
         return resultado.toString();
@@ -122,26 +161,79 @@ public class TraductorPython implements VisitanteAST<String> {
     
     @Override
     public String visitarExpresionBinaria(ExpresionBinaria nodo) {
-        String izquierda = nodo.getIzquierda().aceptar(this);
-        String derecha = nodo.getDerecha().aceptar(this);
+        int precedencia = precedencia(nodo);
+        // Las comparaciones de Python se encadenan (a < b == c), así que una
+        // comparación nunca puede ser operando directo de otra
+        int minimoIzquierda = precedencia == PRECEDENCIA_COMPARACION ? precedencia + 1 : precedencia;
+        String izquierda = operando(nodo.getIzquierda(), minimoIzquierda);
+        // Todos los operadores asocian por la izquierda
+        String derecha = operando(nodo.getDerecha(), precedencia + 1);
         String operador = convertirOperadorBinario(nodo.getOperador());
         
-        // Manejar precedencia con paréntesis si es necesario
-        if (necesitaParentesis(nodo)) {
-            return "(" + izquierda + " " + operador + " " + derecha + ")";
-        }
-        
         return izquierda + " " + operador + " " + derecha;
     }
     
     @Override
     public String visitarExpresionUnaria(ExpresionUnaria nodo) {
-        String expresion = nodo.getExpresion().aceptar(this);
+        String expresion = operando(nodo.getExpresion(), precedencia(nodo));
         String operador = convertirOperadorUnario(nodo.getOperador());
         
         return operador + expresion;
     }
     
+    /**
+     * {@code [a, b]} como lista y {@code [v; n]} como {@code [v] * n}.
+     */
+    @Override
+    public String visitarCreacionArreglo(CreacionArreglo nodo) {
+        StringBuilder elementos = new StringBuilder();
+        for (Expresion elemento : nodo.getElementos()) {
+            if (elementos.length() > 0) {
+                elementos.append(", ");
+            }
+            elementos.append(elemento.aceptar(this));
+        }
+        if (nodo.esRepeticion()) {
+            return "[" + elementos + "] * " + operando(nodo.getLongitud(), PRECEDENCIA_PRODUCTO + 1);
+        }
+        return "[" + elementos + "]";
+    }
+    
+    @Override
+    public String visitarIndexacion(Indexacion nodo) {
+        return operando(nodo.getArreglo(), PRECEDENCIA_ATOMO) + "[" + nodo.getIndice().aceptar(this) + "]";
+    }
+    
+    @Override
+    public String visitarLlamada(Llamada nodo) {
+        List<Expresion> argumentos = nodo.getArgumentos();
+        switch (nodo.getFuncion()) {
+            case ABS: return llamar(predefinida("abs"), argumentos);
+            case RAIZ: return llamar(deMath("sqrt"), argumentos);
+            case POTENCIA: return llamar(predefinida("pow"), argumentos);
+            case PISO: return llamar(deMath("floor"), argumentos);
+            case TECHO: return llamar(deMath("ceil"), argumentos);
+            case REDONDEAR: return llamar(predefinida("round"), argumentos);
+            case MIN: return llamar(predefinida("min"), argumentos);
+            case MAX: return llamar(predefinida("max"), argumentos);
+            case SEN: return llamar(deMath("sin"), argumentos);
+            case COS: return llamar(deMath("cos"), argumentos);
+            case LN: return llamar(deMath("log"), argumentos);
+            case LONGITUD: return llamar(predefinida("len"), argumentos);
+            case MAYUSCULAS: return llamar(predefinida("str") + ".upper", argumentos);
+            case MINUSCULAS: return llamar(predefinida("str") + ".lower", argumentos);
+            case SUBCADENA:
+                return operando(argumentos.get(0), PRECEDENCIA_ATOMO) + "[" + argumentos.get(1).aceptar(this)
+                        + ":" + argumentos.get(2).aceptar(this) + "]";
+            case POSICION: return llamar(predefinida("str") + ".find", argumentos);
+            case ENTERO: return llamar(predefinida("int"), argumentos);
+            case DECIMAL: return llamar(predefinida("float"), argumentos);
+            case TEXTO: return llamar(predefinida("str"), argumentos);
+            default:
+                throw new ExcepcionTraductor("Función no soportada: " + nodo.getFuncion().getNombre());
+        }
+    }
+    
     @Override
     public String visitarLiteral(Literal nodo) {
         Object valor = nodo.getValor();
@@ -155,8 +247,8 @@ public class TraductorPython implements VisitanteAST<String> {
                           .replace("\r", "\\r")
                           .replace("\t", "\\t");
             return "\"" + cadena + "\"";
-        } else if (valor instanceof Integer) {
-            return valor.toString();
+        } else if (valor instanceof Integer || valor instanceof Long || valor instanceof BigInteger) {
+            return valor.toString(); // Los enteros de Python tienen precisión arbitraria
         } else if (valor instanceof Double) {
             return valor.toString();
         } else if (valor instanceof Boolean) {
@@ -171,10 +263,150 @@ public class TraductorPython implements VisitanteAST<String> {
         return nodo.getNombre();
     }
     
+    @Override
+    public String visitarInvariante(Invariante nodo) {
+        return nodo.getExpresion().aceptar(this);
+    }
+    
+    @Override
+    public String visitarExpresionCompartida(ExpresionCompartida nodo) {
+        return nodo.getExpresion().aceptar(this);
+    }
+    
+    @Override
+    public String visitarExpresionEspecializada(ExpresionEspecializada nodo) {
+        return nodo.getOriginal().aceptar(this);
+    }
+    
+    /**
+     * Si el contador y el límite son enteros se emite un for sobre range, que
+     * en CPython evita evaluar la condición y el incremento en bytecode. Al
+     * terminar se deja el contador con el valor que tendría tras el bucle
+     * original (el primero que no cumple la condición), no con el último que
+     * recorrió el for.
+     */
+    @Override
+    public String visitarRepiteContado(RepiteContado nodo) {
+        String contador = nodo.getContador();
+        if (tipos.tipoDeclarado(contador) != TipoSimbolo.ENTERO
+                || tipos.tipo(nodo.getLimite()) != TiposEstaticos.Tipo.ENTERO
+                || nombresUsados.contains("range") || nombresUsados.contains("len")) {
+            return nodo.getOriginal().aceptar(this);
+        }
+        
+        String rango = nombreAuxiliar("rango_" + contador);
+        String limite;
+        if (nodo.getComparador() == Token.Tipo.MENOR_IGUAL && nodo.getLimite() instanceof Literal
+                && ((Literal) nodo.getLimite()).getValor() instanceof Integer) {
+            limite = String.valueOf((Integer) ((Literal) nodo.getLimite()).getValor() + 1L);
+        } else if (nodo.getComparador() == Token.Tipo.MENOR_IGUAL) {
+            limite = operando(nodo.getLimite(), PRECEDENCIA_SUMA) + " + 1";
+        } else {
+            limite = nodo.getLimite().aceptar(this);
+        }
+        String paso = nodo.getPaso() == 1 ? "" : ", " + nodo.getPaso();
+        
+        StringBuilder resultado = new StringBuilder();
+        String indentacion = obtenerIndentacion();
+        resultado.append(indentacion).append(rango).append(" = range(").append(contador).append(", ")
+                .append(limite).append(paso).append(")\n");
+        resultado.append(indentacion).append("for ").append(contador).append(" in ").append(rango).append(":\n");
+        nivelIndentacion++;
+        agregarBloqueEnAmbito(resultado, nodo.getCuerpo());
+        nivelIndentacion--;
+        resultado.append(indentacion).append(contador).append(" = ").append(rango).append(".start + len(")
+                .append(rango).append(")").append(nodo.getPaso() == 1 ? "" : " * " + nodo.getPaso()).append("\n");
+        return resultado.toString();
+    }
+    
+    /**
+     * Un bucle paralelo se traduce a su equivalente en secuencia: las
+     * reducciones acumulan directamente en la variable, que da el mismo
+     * resultado que combinar las copias privadas. Como el contador es local a
+     * cada iteración, si ya existe una variable con su nombre se guarda y se
+     * restaura al terminar; si no, se borra, porque en el intérprete no existe
+     * después del bucle.
+     */
+    @Override
+    public String visitarParalelo(Paralelo nodo) {
+        String contador = nodo.getContador();
+        String indentacion = obtenerIndentacion();
+        StringBuilder resultado = new StringBuilder();
+        
+        String anterior = null;
+        if (tipos.estaDefinida(contador)) {
+            anterior = nombreAuxiliar("anterior_" + contador);
+            nombresUsados.add(anterior);
+            resultado.append(indentacion).append(anterior).append(" = ").append(contador).append("\n");
+        }
+        
+        String inicio = nodo.getInicio().aceptar(this);
+        String fin;
+        if (nodo.getFin() instanceof Literal && ((Literal) nodo.getFin()).getValor() instanceof Integer) {
+            fin = String.valueOf((Integer) ((Literal) nodo.getFin()).getValor() + 1L);
+        } else {
+            fin = operando(nodo.getFin(), PRECEDENCIA_SUMA) + " + 1";
+        }
+        
+        tipos.entrarAmbito();
+        tipos.definir(contador, TipoSimbolo.ENTERO);
+        if (!nombresUsados.contains("range")) {
+            resultado.append(indentacion).append("for ").append(contador).append(" in range(").append(inicio)
+                    .append(", ").append(fin).append("):\n");
+            nivelIndentacion++;
+            agregarBloqueEnAmbito(resultado, nodo.getCuerpo());
+            nivelIndentacion--;
+        } else {
+            // El programa redefine range: se recorre con un contador auxiliar
+            String iteracion = nombreAuxiliar("iteracion_" + contador);
+            String limite = nombreAuxiliar("limite_" + contador);
+            nombresUsados.add(iteracion);
+            nombresUsados.add(limite);
+            resultado.append(indentacion).append(iteracion).append(" = ").append(inicio).append("\n");
+            resultado.append(indentacion).append(limite).append(" = ").append(fin).append("\n");
+            resultado.append(indentacion).append("while ").append(iteracion).append(" < ").append(limite)
+                    .append(":\n");
+            nivelIndentacion++;
+            resultado.append(obtenerIndentacion()).append(contador).append(" = ").append(iteracion).append("\n");
+            agregarBloqueEnAmbito(resultado, nodo.getCuerpo());
+            resultado.append(obtenerIndentacion()).append(iteracion).append(" += 1\n");
+            nivelIndentacion--;
+        }
+        tipos.salirAmbito();
+        
+        if (anterior != null) {
+            resultado.append(indentacion).append(contador).append(" = ").append(anterior).append("\n");
+        } else {
+            if (!recorreAlgunaVez(nodo)) {
+                // Con el rango vacío el for no llega a crear el contador
+                resultado.append(indentacion).append(contador).append(" = None\n");
+            }
+            resultado.append(indentacion).append("del ").append(contador).append("\n");
+        }
+        return resultado.toString();
+    }
+    
+    /**
+     * Si los límites del bucle paralelo son literales y el rango no está vacío.
+     */
+    private static boolean recorreAlgunaVez(Paralelo nodo) {
+        return nodo.getInicio() instanceof Literal && nodo.getFin() instanceof Literal
+                && ((Literal) nodo.getInicio()).getValor() instanceof Integer
+                && ((Literal) nodo.getFin()).getValor() instanceof Integer
+                && (Integer) ((Literal) nodo.getInicio()).getValor() <= (Integer) ((Literal) nodo.getFin()).getValor();
+    }
+    
+    @Override
+    public String visitarActualizacionCompuesta(ActualizacionCompuesta nodo) {
+        String operador = convertirOperadorBinario(nodo.getOperador());
+        String expresion = nodo.getExpresion().aceptar(this);
+        return obtenerIndentacion() + nodo.getNombre() + " " + operador + "= " + expresion;
+    }
+    
     // Métodos auxiliares
     
-    private String convertirOperadorBinario(Token operador) {
-        switch (operador.getTipo()) {
+    private String convertirOperadorBinario(Token.Tipo operador) {
+        switch (operador) {
             case SUMA: return "+";
             case RESTA: return "-";
             case MULTIPLICACION: return "*";
@@ -189,24 +421,162 @@ public class TraductorPython implements VisitanteAST<String> {
             case Y: return "and";
             case O: return "or";
             default:
-                throw new ExcepcionTraductor("Operador binario no soportado: " + operador.getTipo());
+                throw new ExcepcionTraductor("Operador binario no soportado: " + operador);
         }
     }
     
-    private String convertirOperadorUnario(Token operador) {
-        switch (operador.getTipo()) {
+    private String convertirOperadorUnario(Token.Tipo operador) {
+        switch (operador) {
             case RESTA: return "-";
             case NO: return "not ";
             default:
-                throw new ExcepcionTraductor("Operador unario no soportado: " + operador.getTipo());
+                throw new ExcepcionTraductor("Operador unario no soportado: " + operador);
+        }
+    }
+    
+    /**
+     * Un si con condición literal verdadera y sin sino, como los que deja el
+     * optimizador al eliminar una rama inalcanzable.
+     */
+    private boolean esBloqueIncondicional(Si nodo) {
+        return nodo.getCondicion() instanceof Literal
+                && Boolean.TRUE.equals(((Literal) nodo.getCondicion()).getValor())
+                && nodo.getBloqueSino() == null
+                && !nodo.getBloqueEntonces().isEmpty();
+    }
+    
+    /**
+     * Precedencia en Python de la expresión traducida.
+     */
+    private static int precedencia(Expresion expresion) {
+        if (expresion instanceof Invariante) {
+            return precedencia(((Invariante) expresion).getExpresion());
+        }
+        if (expresion instanceof ExpresionCompartida) {
+            return precedencia(((ExpresionCompartida) expresion).getExpresion());
+        }
+        if (expresion instanceof ExpresionEspecializada) {
+            return precedencia(((ExpresionEspecializada) expresion).getOriginal());
+        }
+        if (expresion instanceof ExpresionBinaria) {
+            switch (((ExpresionBinaria) expresion).getOperador()) {
+                case O: return PRECEDENCIA_O;
+                case Y: return PRECEDENCIA_Y;
+                case SUMA:
+                case RESTA: return PRECEDENCIA_SUMA;
+                case MULTIPLICACION:
+                case DIVISION:
+                case MODULO: return PRECEDENCIA_PRODUCTO;
+                default: return PRECEDENCIA_COMPARACION;
+            }
+        }
+        if (expresion instanceof ExpresionUnaria) {
+            return ((ExpresionUnaria) expresion).getOperador() == Token.Tipo.NO
+                    ? PRECEDENCIA_NO : PRECEDENCIA_NEGACION;
+        }
+        if (expresion instanceof CreacionArreglo && ((CreacionArreglo) expresion).esRepeticion()) {
+            return PRECEDENCIA_PRODUCTO; // [v] * n
+        }
+        if (expresion instanceof Literal && esNegativo(((Literal) expresion).getValor())) {
+            return PRECEDENCIA_NEGACION; // Se escribe con signo delante
         }
+        return PRECEDENCIA_ATOMO;
     }
     
-    private boolean necesitaParentesis(ExpresionBinaria nodo) {
-        // Para simplificar, siempre usar paréntesis en expresiones complejas
-        // Una implementación más sofisticada verificaría la precedencia real
-        return !(nodo.getIzquierda() instanceof Literal || nodo.getIzquierda() instanceof Identificador) ||
-               !(nodo.getDerecha() instanceof Literal || nodo.getDerecha() instanceof Identificador);
+    private static boolean esNegativo(Object valor) {
+        return (valor instanceof Integer && (Integer) valor < 0)
+                || (valor instanceof Long && (Long) valor < 0)
+                || (valor instanceof BigInteger && ((BigInteger) valor).signum() < 0)
+                || (valor instanceof Double && (Double) valor < 0);
+    }
+    
+    /**
+     * Traduce un operando, entre paréntesis si su precedencia es menor que la
+     * mínima que admite su posición.
+     */
+    private String operando(Expresion expresion, int minima) {
+        String traducida = expresion.aceptar(this);
+        return precedencia(expresion) < minima ? "(" + traducida + ")" : traducida;
+    }
+    
+    /**
+     * Emite las declaraciones de un bloque con el nivel de indentación actual,
+     * o pass si está vacío.
+     */
+    private void agregarBloque(StringBuilder resultado, List<Declaracion> bloque) {
+        if (bloque.isEmpty()) {
+            resultado.append(obtenerIndentacion()).append("pass\n");
+            return;
+        }
+        for (Declaracion declaracion : bloque) {
+            String linea = declaracion.aceptar(this);
+            resultado.append(linea);
+            if (!linea.endsWith("\n")) {
+                resultado.append("\n");
+            }
+        }
+    }
+    
+    /**
+     * Como agregarBloque, siguiendo en los tipos el ámbito propio que el
+     * intérprete abre para el bloque.
+     */
+    private void agregarBloqueEnAmbito(StringBuilder resultado, List<Declaracion> bloque) {
+        tipos.entrarAmbito();
+        try {
+            agregarBloque(resultado, bloque);
+        } finally {
+            tipos.salirAmbito();
+        }
+    }
+    
+    private String llamar(String funcion, List<Expresion> argumentos) {
+        StringBuilder llamada = new StringBuilder(funcion).append('(');
+        for (int i = 0; i < argumentos.size(); i++) {
+            if (i > 0) {
+                llamada.append(", ");
+            }
+            llamada.append(argumentos.get(i).aceptar(this));
+        }
+        return llamada.append(')').toString();
+    }
+    
+    /**
+     * Nombre con el que se llama a una función predefinida de Python: el
+     * suyo, o a través de builtins si el programa tiene una variable así.
+     */
+    private String predefinida(String nombre) {
+        if (!nombresUsados.contains(nombre)) {
+            return nombre;
+        }
+        if (moduloBuiltins == null) {
+            moduloBuiltins = nombreAuxiliar("builtins");
+            nombresUsados.add(moduloBuiltins);
+        }
+        return moduloBuiltins + "." + nombre;
+    }
+    
+    private String deMath(String nombre) {
+        if (moduloMath == null) {
+            moduloMath = nombreAuxiliar("math");
+            nombresUsados.add(moduloMath);
+        }
+        return moduloMath + "." + nombre;
+    }
+    
+    private static String importar(String modulo, String nombre) {
+        return "import " + modulo + (nombre.equals(modulo) ? "" : " as " + nombre) + "\n";
+    }
+    
+    /**
+     * Primer nombre a partir de base que no usa el programa.
+     */
+    private String nombreAuxiliar(String base) {
+        String nombre = base;
+        for (int i = 2; nombresUsados.contains(nombre); i++) {
+            nombre = base + "_" + i;
+        }
+        return nombre;
     }
     
     private String obtenerIndentacion() {
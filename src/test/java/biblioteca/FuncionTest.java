@@ -0,0 +1,98 @@
+package biblioteca;
+
+import diagnosticos.Diagnostico;
+import interpreter.Motores;
+import lexer.Lexer;
+import org.junit.jupiter.api.Test;
+import parser.ExcepcionParser;
+import parser.Parser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FuncionTest {
+
+    @Test
+    void funcionesMatematicas() {
+        String codigo = """
+                escribir abs(-5)
+                escribir abs(-2147483648)
+                escribir raiz(16)
+                escribir potencia(2, 70)
+                escribir potencia(2, -1)
+                escribir piso(-2.5)
+                escribir techo(2.1)
+                escribir redondear(2.5)
+                escribir min(3, 1, 2)
+                escribir max(1.5, 2)
+                """;
+        Motores.comprobarSalida(codigo,
+                "5\n2147483648\n4.0\n1180591620717411303424\n0.5\n-3\n3\n2\n1\n2\n");
+    }
+
+    @Test
+    void funcionesDeCadenasYConversiones() {
+        String codigo = """
+                t = "Hola Mundo"
+                escribir longitud(t)
+                escribir mayusculas(t)
+                escribir minusculas(t)
+                escribir subcadena(t, 5, 10)
+                escribir posicion(t, "Mundo")
+                escribir entero("  42 ")
+                escribir entero(-3.9)
+                escribir decimal(3)
+                escribir texto([1, 2]) + "!"
+                """;
+        Motores.comprobarSalida(codigo, "10\nHOLA MUNDO\nhola mundo\nMundo\n5\n42\n-3\n3.0\n[1, 2]!\n");
+    }
+
+    @Test
+    void llamadaInvarianteEnUnBucle() {
+        String codigo = """
+                a = [5, 3, 9]
+                i = 0
+                total = 0
+                repite (i < 3)
+                    total = total + max(a) * longitud(a) + i
+                    i = i + 1
+                fin_repite
+                escribir total
+                """;
+        assertTrue(Motores.informe(codigo).stream().anyMatch(t -> t.contains("expresión invariante extraída")),
+                () -> "no se extrajo la llamada: " + Motores.informe(codigo));
+        Motores.comprobarSalida(codigo, "84\n");
+    }
+
+    @Test
+    void argumentosFueraDelDominio() {
+        Motores.comprobarError("escribir raiz(-1)", Diagnostico.Codigo.ARGUMENTO_NO_VALIDO);
+        Motores.comprobarError("escribir ln(0)", Diagnostico.Codigo.ARGUMENTO_NO_VALIDO);
+        Motores.comprobarError("escribir subcadena(\"abc\", 2, 5)", Diagnostico.Codigo.ARGUMENTO_NO_VALIDO);
+        Motores.comprobarError("a = [0; 0]\nescribir max(a)", Diagnostico.Codigo.ARGUMENTO_NO_VALIDO);
+        Motores.comprobarError("escribir entero(\"doce\")", Diagnostico.Codigo.CONVERSION_NUMERICA);
+        Motores.comprobarError("escribir potencia(0, -1)", Diagnostico.Codigo.DIVISION_POR_CERO);
+    }
+
+    @Test
+    void funcionDesconocidaONumeroDeArgumentosIncorrecto() {
+        ExcepcionParser desconocida = assertThrows(ExcepcionParser.class,
+                () -> new Parser(new Lexer("escribir seno(1)").analizarTokens()).analizarPrograma());
+        assertTrue(desconocida.getMessage().contains("Función desconocida 'seno'"), desconocida.getMessage());
+
+        ExcepcionParser argumentos = assertThrows(ExcepcionParser.class,
+                () -> new Parser(new Lexer("escribir raiz(1, 2)").analizarTokens()).analizarPrograma());
+        assertTrue(argumentos.getMessage().contains("La función 'raiz' espera 1 argumento"), argumentos.getMessage());
+    }
+
+    @Test
+    void buscarPorNombre() {
+        assertEquals(Funcion.SUBCADENA, Funcion.buscar("subcadena"));
+        assertNull(Funcion.buscar("Subcadena"));
+        assertTrue(Funcion.MIN.admite(5));
+        assertFalse(Funcion.RAIZ.admite(2));
+    }
+}
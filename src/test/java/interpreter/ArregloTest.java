@@ -0,0 +1,97 @@
+package interpreter;
+
+import diagnosticos.Diagnostico;
+import org.junit.jupiter.api.Test;
+
+class ArregloTest {
+
+    @Test
+    void arregloDeEnterosQueSeGeneraliza() {
+        String codigo = """
+                a = [1, 2, 3]
+                a[1] = 2.5
+                a[2] = "tres"
+                escribir a
+                escribir a[0] + a[1]
+                """;
+        Motores.comprobarSalida(codigo, "[1, 2.5, tres]\n3.5\n");
+    }
+
+    @Test
+    void arregloDeDecimalesYEnterosGrandes() {
+        String codigo = """
+                d = [0.5; 3]
+                d[0] = d[1] + d[2]
+                escribir d
+                e = [0; 2]
+                e[0] = 3000000000
+                e[1] = e[0] * e[0]
+                escribir e
+                """;
+        Motores.comprobarSalida(codigo, "[1.0, 0.5, 0.5]\n[3000000000, 9000000000000000000]\n");
+    }
+
+    @Test
+    void asignarPorOtroNombreModificaElMismoArreglo() {
+        String codigo = """
+                a = [0; 5]
+                b = a
+                i = 0
+                repite (i < 5)
+                    b[i] = i * i
+                    i = i + 1
+                fin_repite
+                escribir a
+                escribir longitud(a)
+                """;
+        Motores.comprobarSalida(codigo, "[0, 1, 4, 9, 16]\n5\n");
+    }
+
+    @Test
+    void arregloDeArreglos() {
+        String codigo = """
+                m = [[1, 2], [3, 4]]
+                m[1][0] = m[0][1] * 10
+                escribir m
+                """;
+        Motores.comprobarSalida(codigo, "[[1, 2], [20, 4]]\n");
+    }
+
+    @Test
+    void escrituraEnParaleloSobreUnArreglo() {
+        String codigo = """
+                a = [0; 100]
+                paralelo (i desde 0 hasta 99)
+                    a[i] = i * 2
+                fin_paralelo
+                escribir max(a)
+                escribir min(a)
+                escribir a[50]
+                """;
+        Motores.comprobarSalida(codigo, "198\n0\n100\n");
+    }
+
+    @Test
+    void indiceFueraDeRango() {
+        String codigo = """
+                a = [1, 2, 3]
+                escribir a[3]
+                """;
+        Motores.comprobarError(codigo, Diagnostico.Codigo.INDICE_FUERA_DE_RANGO);
+    }
+
+    @Test
+    void indiceNoEntero() {
+        Motores.comprobarError("a = [1, 2]\nescribir a[0.5]", Diagnostico.Codigo.INDICE_NO_ENTERO);
+    }
+
+    @Test
+    void longitudNegativa() {
+        Motores.comprobarError("n = -1\na = [0; n]", Diagnostico.Codigo.LONGITUD_NO_VALIDA);
+    }
+
+    @Test
+    void indexarAlgoQueNoEsUnArreglo() {
+        Motores.comprobarError("x = 5\nescribir x[0]", Diagnostico.Codigo.NO_ES_ARREGLO);
+    }
+}
@@ -0,0 +1,74 @@
+package interpreter;
+
+import org.junit.jupiter.api.Test;
+
+class CadenaIncrementalTest {
+
+    @Test
+    void concatenacionEnUnBucle() {
+        String codigo = """
+                texto = ""
+                i = 0
+                repite (i < 200)
+                    texto = texto + "ab"
+                    i = i + 1
+                fin_repite
+                escribir longitud(texto)
+                escribir subcadena(texto, 396, 400)
+                """;
+        Motores.comprobarSalida(codigo, "400\nabab\n");
+    }
+
+    @Test
+    void copiaAnteriorNoVeLosAnadidosPosteriores() {
+        String codigo = """
+                a = "inicio"
+                i = 0
+                repite (i < 300)
+                    a = a + "-"
+                    i = i + 1
+                fin_repite
+                b = a
+                a = a + "fin"
+                c = b + "otro"
+                escribir longitud(a)
+                escribir longitud(b)
+                escribir subcadena(c, 300, 310)
+                escribir subcadena(a, 300, 309)
+                """;
+        Motores.comprobarSalida(codigo, "309\n306\n------otro\n------fin\n");
+    }
+
+    @Test
+    void dosRamasDesdeLaMismaCadena() {
+        String codigo = """
+                base = "x"
+                i = 0
+                repite (i < 300)
+                    base = base + "y"
+                    i = i + 1
+                fin_repite
+                uno = base + "1"
+                dos = base + "2"
+                escribir subcadena(uno, 299, 302)
+                escribir subcadena(dos, 299, 302)
+                """;
+        Motores.comprobarSalida(codigo, "yy1\nyy2\n");
+    }
+
+    @Test
+    void concatenarConNumeros() {
+        String codigo = """
+                texto = "n="
+                i = 0
+                repite (i < 100)
+                    texto = texto + i + ","
+                    i = i + 1
+                fin_repite
+                escribir longitud(texto)
+                escribir subcadena(texto, 0, 8)
+                escribir subcadena(texto, 283, 292)
+                """;
+        Motores.comprobarSalida(codigo, "292\nn=0,1,2,\n97,98,99,\n");
+    }
+}
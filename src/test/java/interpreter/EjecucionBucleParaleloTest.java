@@ -0,0 +1,115 @@
+package interpreter;
+
+import diagnosticos.Diagnostico;
+import org.junit.jupiter.api.Test;
+
+class EjecucionBucleParaleloTest {
+
+    @Test
+    void cuerpoQueSoloAsignaLaReduccion() {
+        String codigo = """
+                total = 0
+                paralelo (i desde 1 hasta 1000) reduciendo suma total
+                    total = total + i
+                fin_paralelo
+                escribir total
+                """;
+        Motores.comprobarSalida(codigo, "500500\n");
+    }
+
+    @Test
+    void variasReduccionesConVariablesLocales() {
+        String codigo = """
+                total = 0
+                mayor = 0
+                producto = 1
+                paralelo (i desde 1 hasta 20) reduciendo suma total y maximo mayor y producto producto
+                    cuadrado = i * i
+                    total = total + cuadrado
+                    si (cuadrado % 17 > mayor) entonces
+                        mayor = cuadrado % 17
+                    fin_si
+                    producto = producto * i
+                fin_paralelo
+                escribir total
+                escribir mayor
+                escribir producto
+                """;
+        Motores.comprobarSalida(codigo, "2870\n16\n2432902008176640000\n");
+    }
+
+    @Test
+    void reduccionQueDesbordaElEntero() {
+        String codigo = """
+                total = 0
+                paralelo (i desde 1 hasta 100000) reduciendo suma total
+                    total = total + i * 100000
+                fin_paralelo
+                escribir total
+                """;
+        Motores.comprobarSalida(codigo, "500005000000000\n");
+    }
+
+    @Test
+    void salidaEnElOrdenDeLasIteraciones() {
+        String codigo = """
+                paralelo (i desde 1 hasta 5)
+                    escribir i * 10
+                fin_paralelo
+                """;
+        Motores.comprobarSalida(codigo, "10\n20\n30\n40\n50\n");
+    }
+
+    @Test
+    void asignarUnaVariableQueNoEsDeReduccion() {
+        String codigo = """
+                total = 0
+                otra = 0
+                paralelo (i desde 1 hasta 10) reduciendo suma total
+                    total = total + i
+                    otra = i
+                fin_paralelo
+                """;
+        Motores.comprobarError(codigo, Diagnostico.Codigo.ASIGNACION_EN_PARALELO);
+    }
+
+    @Test
+    void limitesQueNoSonEnteros() {
+        String codigo = """
+                paralelo (i desde 1 hasta 2.5)
+                    escribir i
+                fin_paralelo
+                """;
+        Motores.comprobarError(codigo, Diagnostico.Codigo.LIMITES_PARALELO);
+    }
+
+    @Test
+    void desdeHastaYReduciendoComoVariables() {
+        String codigo = """
+                hasta = 10
+                desde = 2
+                total = 0
+                paralelo (i desde desde hasta hasta) reduciendo suma total
+                    reduciendo = i * 2
+                    total = total + reduciendo
+                fin_paralelo
+                escribir total
+                escribir hasta + desde
+                """;
+        Motores.comprobarSalida(codigo, "108\n12\n");
+    }
+
+    @Test
+    void errorEnUnaIteracion() {
+        String codigo = """
+                cero = 0
+                paralelo (i desde 1 hasta 100)
+                    escribir i
+                    si (i == 60) entonces
+                        escribir i / cero
+                    fin_si
+                fin_paralelo
+                """;
+        Motores.comprobarError(codigo, Diagnostico.Codigo.DIVISION_POR_CERO);
+    }
+}
@@ -0,0 +1,67 @@
+package interpreter;
+
+import diagnosticos.Diagnostico;
+import org.junit.jupiter.api.Test;
+
+class EnterosTest {
+
+    @Test
+    void sumaYProductoQueDesbordanElEntero() {
+        String codigo = """
+                a = 2147483647
+                escribir a + 1
+                escribir a * a
+                escribir -2147483647 - 2
+                """;
+        Motores.comprobarSalida(codigo, "2147483648\n4611686014132420609\n-2147483649\n");
+    }
+
+    @Test
+    void productoQueDesbordaElLargo() {
+        String codigo = """
+                x = 1
+                i = 0
+                repite (i < 30)
+                    x = x * 10
+                    i = i + 1
+                fin_repite
+                escribir x
+                escribir x - 1
+                escribir x % 7
+                """;
+        Motores.comprobarSalida(codigo, "1000000000000000000000000000000\n999999999999999999999999999999\n1\n");
+    }
+
+    @Test
+    void vuelveAlEnteroAlReducirse() {
+        String codigo = """
+                x = 9223372036854775807
+                x = x + 1
+                x = x - 9223372036854775800
+                escribir x
+                escribir x * 2 == 16
+                """;
+        Motores.comprobarSalida(codigo, "8\ntrue\n");
+    }
+
+    @Test
+    void comparacionesEntreRepresentaciones() {
+        String codigo = """
+                grande = 100000000000000000000
+                escribir grande > 2147483647
+                escribir 3000000000 < grande
+                escribir 2.5 < 3000000000
+                """;
+        Motores.comprobarSalida(codigo, "true\ntrue\ntrue\n");
+    }
+
+    @Test
+    void divisionPorCeroConEnterosGrandes() {
+        String codigo = """
+                grande = 100000000000000000000
+                cero = 0
+                escribir grande / cero
+                """;
+        Motores.comprobarError(codigo, Diagnostico.Codigo.DIVISION_POR_CERO);
+    }
+}
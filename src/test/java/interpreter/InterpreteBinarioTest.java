@@ -0,0 +1,105 @@
+package interpreter;
+
+import ast.CodificadorBinario;
+import ast.FormatoBinario;
+import optimizer.Optimizador;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InterpreteBinarioTest {
+    private static final String PROGRAMA = """
+            nombre = "suma"
+            x = 0
+            i = 0
+            repite (i < 10)
+                x = x + i * 2
+                i = i + 1
+            fin_repite
+            escribir nombre + " " + texto(x)
+            """;
+
+    private static byte[] compilar() {
+        return CodificadorBinario.codificar(Motores.preparar(PROGRAMA, new Optimizador()));
+    }
+
+    private static String ejecutar(byte[] programa) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        PrintStream salida = new PrintStream(bytes, true, StandardCharsets.UTF_8);
+        new InterpreteBinario(salida).interpretar(ByteBuffer.wrap(programa));
+        return bytes.toString(StandardCharsets.UTF_8).trim();
+    }
+
+    /**
+     * Comprueba que el programa dañado se rechaza con un error del
+     * intérprete que menciona el detalle indicado.
+     */
+    private static void comprobarDanado(byte[] programa, String detalle) {
+        ExcepcionInterpreter error = assertThrows(ExcepcionInterpreter.class, () -> ejecutar(programa));
+        assertTrue(error.getMessage().startsWith("Programa compilado dañado: "), error.getMessage());
+        assertTrue(error.getMessage().contains(detalle), error.getMessage());
+    }
+
+    private static byte[] conCampo(int posicion, int valor) {
+        byte[] programa = compilar();
+        ByteBuffer.wrap(programa).putInt(posicion, valor);
+        return programa;
+    }
+
+    @Test
+    void ejecutaElProgramaCompilado() {
+        assertEquals("suma 90", ejecutar(compilar()));
+        Motores.comprobarSalida(PROGRAMA, "suma 90\n");
+    }
+
+    @Test
+    void rechazaOtraVersion() {
+        byte[] programa = compilar();
+        ByteBuffer.wrap(programa).putShort(FormatoBinario.CABECERA_VERSION, (short) (FormatoBinario.VERSION - 1));
+        ExcepcionInterpreter error = assertThrows(ExcepcionInterpreter.class, () -> ejecutar(programa));
+        assertTrue(error.getMessage().startsWith("Versión de programa compilado no soportada"), error.getMessage());
+    }
+
+    @Test
+    void rechazaCamposDeLaCabeceraFueraDelArchivo() {
+        comprobarDanado(conCampo(FormatoBinario.CABECERA_NODOS, -5), "número de nodos -5");
+        comprobarDanado(conCampo(FormatoBinario.CABECERA_RAIZ, 1 << 30), "posición del bloque raíz");
+        comprobarDanado(conCampo(FormatoBinario.CABECERA_CONSTANTES, -1), "posición de la tabla de constantes -1");
+        comprobarDanado(conCampo(FormatoBinario.CABECERA_NUM_CONSTANTES, -7), "número de constantes -7");
+        comprobarDanado(conCampo(FormatoBinario.CABECERA_NUM_CONSTANTES, Integer.MAX_VALUE), "número de constantes");
+    }
+
+    @Test
+    void rechazaUnArchivoTruncado() {
+        byte[] programa = compilar();
+        for (int longitud = FormatoBinario.TAMANO_CABECERA; longitud < programa.length; longitud++) {
+            byte[] truncado = Arrays.copyOf(programa, longitud);
+            comprobarDanado(truncado, "");
+        }
+    }
+
+    @Test
+    void rechazaReferenciasDeNodoDanadas() {
+        byte[] programa = compilar();
+        int raiz = ByteBuffer.wrap(programa).getInt(FormatoBinario.CABECERA_RAIZ);
+        comprobarDanado(conCampo(raiz + 1, -3), "número de elementos -3 en el campo de la posición " + (raiz + 1));
+        comprobarDanado(conCampo(raiz + 5, 3), "posición de nodo 3 en el campo de la posición " + (raiz + 5));
+
+        // Un hijo que apunta a su propio nodo o a un antecesor formaría un ciclo
+        comprobarDanado(conCampo(raiz + 5, raiz), "posición de nodo " + raiz + " en el campo de la posición " + (raiz + 5));
+        int cantidad = ByteBuffer.wrap(programa).getInt(raiz + 1);
+        int escribir = ByteBuffer.wrap(programa).getInt(raiz + 5 + 4 * (cantidad - 1));
+        int suma = ByteBuffer.wrap(programa).getInt(escribir + 1);
+        comprobarDanado(conCampo(suma + 2, suma), "posición de nodo " + suma + " en el campo de la posición " + (suma + 2));
+        comprobarDanado(conCampo(suma + 6, escribir),
+                "posición de nodo " + escribir + " en el campo de la posición " + (suma + 6));
+    }
+}
@@ -0,0 +1,172 @@
+package interpreter;
+
+import ast.CodificadorBinario;
+import ast.Programa;
+import diagnosticos.Diagnostico;
+import diagnosticos.ExcepcionLenguaje;
+import lexer.Lexer;
+import optimizer.Optimizador;
+import parser.Parser;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Ejecuta un programa con cada motor, con y sin optimizar, para las pruebas
+ * diferenciales: todas las combinaciones tienen que escribir la misma salida
+ * y terminar con el mismo error.
+ *
+ * El formato binario no guarda posiciones, así que de sus errores solo se
+ * compara el código y el mensaje sin la línea y la columna.
+ */
+public final class Motores {
+
+    public enum Motor {
+        ARBOL, CLAUSURAS, BINARIO, REGIONES_PARALELAS
+    }
+
+    private Motores() {
+    }
+
+    /**
+     * Salida escrita por el programa y error del lenguaje con el que terminó
+     * (null si terminó bien).
+     */
+    public static final class Resultado {
+        private final String etiqueta;
+        private final String salida;
+        private final ExcepcionLenguaje error;
+
+        Resultado(String etiqueta, String salida, ExcepcionLenguaje error) {
+            this.etiqueta = etiqueta;
+            this.salida = salida;
+            this.error = error;
+        }
+
+        public String getSalida() {
+            return salida;
+        }
+
+        public ExcepcionLenguaje getError() {
+            return error;
+        }
+
+        @Override
+        public String toString() {
+            return etiqueta + (error == null ? "" : " (error: " + error.getMessage() + ")");
+        }
+    }
+
+    /**
+     * Analiza el programa y, si se pide, lo optimiza.
+     */
+    public static Programa preparar(String codigo, Optimizador optimizador) {
+        Programa programa = new Parser(new Lexer(codigo).analizarTokens()).analizarPrograma();
+        return optimizador == null ? programa : optimizador.optimizar(programa);
+    }
+
+    /**
+     * Transformaciones que hace el optimizador en el programa, para comprobar
+     * que una prueba ejercita de verdad la optimización que quiere probar.
+     */
+    public static List<String> informe(String codigo) {
+        Optimizador optimizador = new Optimizador();
+        preparar(codigo, optimizador);
+        return optimizador.getInforme();
+    }
+
+    public static Resultado ejecutar(String codigo, Motor motor, boolean optimizar) {
+        Programa programa = preparar(codigo, optimizar ? new Optimizador() : null);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        PrintStream salida = new PrintStream(bytes, false, StandardCharsets.UTF_8);
+        ExcepcionLenguaje error = null;
+        try {
+            switch (motor) {
+                case ARBOL:
+                    new Interpreter(salida).interpretar(programa);
+                    break;
+                case CLAUSURAS:
+                    new CompiladorClausuras(salida).interpretar(programa);
+                    break;
+                case BINARIO:
+                    new InterpreteBinario(salida).interpretar(ByteBuffer.wrap(CodificadorBinario.codificar(programa)));
+                    break;
+                case REGIONES_PARALELAS: {
+                    Interpreter interpreter = new Interpreter(salida);
+                    interpreter.setRegionesParalelas(ForkJoinPool.commonPool());
+                    interpreter.interpretar(programa);
+                    break;
+                }
+            }
+        } catch (ExcepcionLenguaje e) {
+            error = e;
+        }
+        salida.flush();
+        String texto = bytes.toString(StandardCharsets.UTF_8).replace(System.lineSeparator(), "\n");
+        return new Resultado(motor + (optimizar ? "" : " sin optimizar"), texto, error);
+    }
+
+    /**
+     * Ejecuta el programa con todos los motores, con y sin optimizar,
+     * comprueba que los resultados coinciden y retorna el del intérprete de
+     * árbol sin optimizar.
+     */
+    public static Resultado ejecutarEnTodos(String codigo) {
+        Resultado referencia = ejecutar(codigo, Motor.ARBOL, false);
+        for (Motor motor : Motor.values()) {
+            for (boolean optimizar : new boolean[] {false, true}) {
+                if (motor == Motor.ARBOL && !optimizar) {
+                    continue;
+                }
+                comprobarIguales(referencia, ejecutar(codigo, motor, optimizar), motor != Motor.BINARIO);
+            }
+        }
+        return referencia;
+    }
+
+    /**
+     * Comprueba que el programa termina bien en todas las combinaciones y
+     * escribe la salida esperada.
+     */
+    public static void comprobarSalida(String codigo, String esperada) {
+        Resultado resultado = ejecutarEnTodos(codigo);
+        assertNull(resultado.getError(), () -> "error inesperado: " + resultado);
+        assertEquals(esperada, resultado.getSalida());
+    }
+
+    /**
+     * Comprueba que el programa termina en todas las combinaciones con un
+     * error del código indicado y retorna el resultado de referencia.
+     */
+    public static Resultado comprobarError(String codigo, Diagnostico.Codigo esperado) {
+        Resultado resultado = ejecutarEnTodos(codigo);
+        assertNotNull(resultado.getError(), () -> "se esperaba un error " + esperado + ": " + resultado);
+        assertEquals(esperado, resultado.getError().getDiagnostico().getCodigo());
+        return resultado;
+    }
+
+    private static void comprobarIguales(Resultado referencia, Resultado resultado, boolean conPosicion) {
+        assertEquals(referencia.getSalida(), resultado.getSalida(), () -> "salida de " + resultado);
+        if (referencia.getError() == null || resultado.getError() == null) {
+            assertEquals(String.valueOf(referencia.getError()), String.valueOf(resultado.getError()),
+                    () -> "error de " + resultado);
+            return;
+        }
+        assertEquals(referencia.getError().getDiagnostico().getCodigo(),
+                resultado.getError().getDiagnostico().getCodigo(), () -> "código de error de " + resultado);
+        assertEquals(referencia.getError().getDiagnostico().getMensaje(),
+                resultado.getError().getDiagnostico().getMensaje(), () -> "mensaje de error de " + resultado);
+        if (conPosicion) {
+            assertEquals(referencia.getError().getMessage(), resultado.getError().getMessage(),
+                    () -> "posición del error de " + resultado);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package interpreter;
+
+import ast.Programa;
+import org.junit.jupiter.api.Test;
+import symbols.Simbolo;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PuntosDeControlTest {
+    private static final long HUELLA = 42;
+    // Cabecera del archivo (16 bytes) y cabecera de la ranura 0 (16 bytes)
+    private static final int DATOS_RANURA_0 = 32;
+
+    private static PuntoDeControl punto(long declaraciones, int elementos) {
+        int[] datos = new int[elementos];
+        datos[elementos - 1] = (int) declaraciones;
+        Map<String, Simbolo> ambito = new HashMap<>();
+        ambito.put("a", new Simbolo("a", Arreglo.conDatos(datos), Simbolo.TipoSimbolo.ARREGLO));
+        return new PuntoDeControl(HUELLA, declaraciones, declaraciones * 10, new int[]{0}, new int[]{1}, List.of(ambito));
+    }
+
+    private static long leer(Path ruta) throws IOException {
+        try (PuntosDeControl puntos = PuntosDeControl.abrir(ruta, HUELLA, 0)) {
+            PuntoDeControl ultimo = puntos.ultimo();
+            assertNotNull(ultimo, "no se leyó ningún punto de control");
+            Arreglo arreglo = (Arreglo) ultimo.getAmbitos().get(0).get("a").getValor();
+            int[] datos = (int[]) arreglo.getDatos();
+            assertEquals(ultimo.getDeclaracionesEjecutadas(), datos[datos.length - 1]);
+            assertEquals(ultimo.getDeclaracionesEjecutadas() * 10, ultimo.getBytesSalida());
+            return ultimo.getDeclaracionesEjecutadas();
+        }
+    }
+
+    @Test
+    void creceEnUnaSecuenciaImparSinPerderElPuntoAnterior() throws IOException {
+        Path ruta = Files.createTempFile("puntos", ".pscp");
+        try {
+            try (PuntosDeControl puntos = PuntosDeControl.abrir(ruta, HUELLA, 0)) {
+                puntos.descartar();
+                puntos.guardar(punto(100, 10));
+                puntos.guardar(punto(200, 10));
+                puntos.guardar(punto(300, 40_000)); // Secuencia 3: no cabe y el archivo crece
+            }
+            assertEquals(300, leer(ruta));
+
+            try (PuntosDeControl puntos = PuntosDeControl.abrir(ruta, HUELLA, 0)) {
+                puntos.guardar(punto(400, 40_000));
+            }
+            assertEquals(400, leer(ruta));
+
+            // La secuencia 4 va a la ranura 0; si se estropea queda la 3 en la ranura 1
+            try (FileChannel canal = FileChannel.open(ruta, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                ByteBuffer octeto = ByteBuffer.allocate(1);
+                canal.read(octeto, DATOS_RANURA_0 + 100);
+                octeto.put(0, (byte) ~octeto.get(0)).rewind();
+                canal.write(octeto, DATOS_RANURA_0 + 100);
+            }
+            assertEquals(300, leer(ruta));
+        } finally {
+            Files.deleteIfExists(ruta);
+        }
+    }
+
+    @Test
+    void reanudarDaLaMismaSalidaQueUnaEjecucionCompleta() throws IOException {
+        String codigo = """
+                a = [0; 20000]
+                i = 0
+                total = 0
+                repite (i < 20000)
+                    a[i] = i % 7
+                    si (i % 1000 == 0) entonces
+                        escribir i
+                    fin_si
+                    total = total + a[i]
+                    i = i + 1
+                fin_repite
+                escribir total
+                """;
+        Programa programa = Motores.preparar(codigo, null);
+        String completa = Motores.ejecutar(codigo, Motores.Motor.ARBOL, false).getSalida();
+
+        Path ruta = Files.createTempFile("puntos", ".pscp");
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (PuntosDeControl puntos = PuntosDeControl.abrir(ruta, HUELLA, 0)) {
+                puntos.descartar();
+                PrintStream salida = new PrintStream(bytes, true, StandardCharsets.UTF_8);
+                Interpreter interprete = new Interpreter(salida);
+                interprete.setPuntosDeControl(puntos, bytes::size);
+                interprete.interpretar(programa);
+            }
+            assertEquals(completa, bytes.toString(StandardCharsets.UTF_8));
+
+            // El archivo conserva el último punto, tomado antes de terminar
+            try (PuntosDeControl puntos = PuntosDeControl.abrir(ruta, HUELLA, 0)) {
+                PuntoDeControl ultimo = puntos.ultimo();
+                assertNotNull(ultimo);
+                assertTrue(ultimo.getDeclaracionesEjecutadas() > 0);
+
+                ByteArrayOutputStream resto = new ByteArrayOutputStream();
+                Interpreter interprete = new Interpreter(new PrintStream(resto, true, StandardCharsets.UTF_8));
+                interprete.reanudar(ultimo);
+                interprete.interpretar(Motores.preparar(codigo, null));
+
+                byte[] previos = completa.getBytes(StandardCharsets.UTF_8);
+                String reanudada = new String(previos, 0, (int) ultimo.getBytesSalida(), StandardCharsets.UTF_8)
+                        + resto.toString(StandardCharsets.UTF_8);
+                assertEquals(completa, reanudada);
+            }
+        } finally {
+            Files.deleteIfExists(ruta);
+        }
+    }
+}
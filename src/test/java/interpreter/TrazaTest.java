@@ -0,0 +1,95 @@
+package interpreter;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class TrazaTest {
+
+    @Test
+    void leeLosRegistrosEscritos() throws IOException {
+        ByteArrayOutputStream destino = new ByteArrayOutputStream();
+        try (Traza traza = new Traza(destino, 42L)) {
+            traza.declaracion(1, 1);
+            traza.asignacion(1, 1, "x", 5);
+            traza.declaracion(2, 3);
+            traza.rama(2, 3, Traza.RAMA_ENTONCES);
+            traza.asignacion(3, 5, "texto", "hola");
+        }
+
+        try (LectorTraza lector = new LectorTraza(new ByteArrayInputStream(destino.toByteArray()))) {
+            assertEquals(42L, lector.getCrcFuente());
+            assertEquals(Traza.DECLARACION, lector.siguiente().getTipo());
+            LectorTraza.Evento asignacion = lector.siguiente();
+            assertEquals("x", asignacion.getNombre());
+            assertEquals(5, asignacion.getValor());
+            LectorTraza.Evento declaracion = lector.siguiente();
+            assertEquals(2, declaracion.getLinea());
+            assertEquals(3, declaracion.getColumna());
+            assertEquals(Traza.RAMA_ENTONCES, lector.siguiente().getDecision());
+            assertEquals("hola", lector.siguiente().getValor());
+            LectorTraza.Evento fin = lector.siguiente();
+            assertEquals(Traza.FIN, fin.getTipo());
+            assertEquals(7L, fin.getValor()); // Incluye los dos registros NOMBRE
+            assertEquals(0, fin.getCantidad());
+            assertNull(lector.siguiente());
+        }
+    }
+
+    @Test
+    void recortaLosTextosLargosDeCualquierClase() throws IOException {
+        String largo = "ñ".repeat(200) + "😀".repeat(100);
+        CharSequence incremental = CadenaIncremental.concatenar(largo, "fin");
+        String esperado = "ñ".repeat(Traza.MAXIMO_TEXTO) + "… (" + incremental.length() + " caracteres)";
+
+        ByteArrayOutputStream destino = new ByteArrayOutputStream();
+        try (Traza traza = new Traza(destino, 0L)) {
+            traza.asignacion(1, 1, "t", incremental);
+            traza.asignacion(2, 1, "t", new StringBuilder(largo));
+            traza.asignacion(3, 1, "t", "😀".repeat(40));
+        }
+
+        try (LectorTraza lector = new LectorTraza(new ByteArrayInputStream(destino.toByteArray()))) {
+            assertEquals(esperado, lector.siguiente().getValor());
+            assertEquals("ñ".repeat(Traza.MAXIMO_TEXTO) + "… (" + largo.length() + " caracteres)",
+                    lector.siguiente().getValor());
+            // 64 caracteres son 32 pares sustitutos completos
+            assertEquals("😀".repeat(32) + "… (80 caracteres)", lector.siguiente().getValor());
+        }
+    }
+
+    @Test
+    void cuentaLosRegistrosDescartados() throws IOException {
+        ByteArrayOutputStream destino = new ByteArrayOutputStream();
+        long descartados;
+        try (Traza traza = new Traza(destino, 0L, 1024)) {
+            for (int i = 0; i < 100_000; i++) {
+                traza.declaracion(1, 1);
+                traza.asignacion(1, 1, "x", i);
+            }
+            descartados = traza.getDescartados();
+        }
+        byte[] archivo = destino.toByteArray();
+        assertEquals(descartados, LectorTraza.contarDescartados(new ByteArrayInputStream(archivo)));
+
+        // Sin el registro FIN (el proceso murió) se suman los HUECO leídos
+        long huecos = 0;
+        try (LectorTraza lector = new LectorTraza(new ByteArrayInputStream(archivo))) {
+            LectorTraza.Evento evento;
+            while ((evento = lector.siguiente()) != null) {
+                if (evento.getTipo() == Traza.HUECO) {
+                    huecos += evento.getCantidad();
+                }
+            }
+        }
+        assertEquals(descartados, huecos);
+        byte[] cortado = Arrays.copyOf(archivo, archivo.length - 17); // Sin FIN
+        assertEquals(huecos, LectorTraza.contarDescartados(new ByteArrayInputStream(cortado)));
+    }
+}
@@ -0,0 +1,73 @@
+package optimizer;
+
+import diagnosticos.Diagnostico;
+import interpreter.Motores;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ActualizacionesCompuestasTest {
+
+    private static void comprobarActualizacion(String codigo, String variable) {
+        assertTrue(Motores.informe(codigo).stream().anyMatch(t -> t.contains("actualización en el sitio de '"
+                + variable + "'")), () -> "no se fusionó la asignación a " + variable + ": " + Motores.informe(codigo));
+    }
+
+    @Test
+    void actualizacionesConCadaOperador() {
+        String codigo = """
+                x = 100
+                x = x + 5
+                x = x - 3
+                x = x * 4
+                x = x % 7
+                escribir x
+                z = 7.0
+                z = z / 2
+                escribir z
+                """;
+        comprobarActualizacion(codigo, "x");
+        comprobarActualizacion(codigo, "z");
+        Motores.comprobarSalida(codigo, "2\n3.5\n");
+    }
+
+    @Test
+    void actualizacionQueCambiaDeRepresentacion() {
+        String codigo = """
+                x = 2147483000
+                i = 0
+                repite (i < 3)
+                    x = x + 1000
+                    i = i + 1
+                fin_repite
+                escribir x
+                x = x * 10000000000
+                escribir x
+                """;
+        comprobarActualizacion(codigo, "x");
+        Motores.comprobarSalida(codigo, "2147486000\n21474860000000000000\n");
+    }
+
+    @Test
+    void copiaDeUnaCadenaAntesDeActualizarla() {
+        String codigo = """
+                s = "a"
+                t = s
+                s = s + "b"
+                escribir t
+                escribir s
+                """;
+        comprobarActualizacion(codigo, "s");
+        Motores.comprobarSalida(codigo, "a\nab\n");
+    }
+
+    @Test
+    void actualizacionQueFalla() {
+        String codigo = """
+                x = 5
+                cero = 0
+                x = x % cero
+                """;
+        Motores.comprobarError(codigo, Diagnostico.Codigo.MODULO_POR_CERO);
+    }
+}
@@ -0,0 +1,108 @@
+package optimizer;
+
+import diagnosticos.Diagnostico;
+import interpreter.Motores;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BuclesContadosTest {
+
+    private static void comprobarContado(String codigo) {
+        assertTrue(Motores.informe(codigo).stream().anyMatch(t -> t.contains("bucle contado")),
+                () -> "el bucle no se reconoció como contado: " + Motores.informe(codigo));
+    }
+
+    @Test
+    void bucleContadoSencillo() {
+        String codigo = """
+                i = 1
+                suma = 0
+                repite (i <= 100)
+                    suma = suma + i
+                    i = i + 1
+                fin_repite
+                escribir suma
+                escribir i
+                """;
+        comprobarContado(codigo);
+        Motores.comprobarSalida(codigo, "5050\n101\n");
+    }
+
+    @Test
+    void contadorQueDesbordaElEnteroAlSalir() {
+        String codigo = """
+                i = 2147483645
+                vueltas = 0
+                repite (i <= 2147483647)
+                    vueltas = vueltas + 1
+                    i = i + 1
+                fin_repite
+                escribir vueltas
+                escribir i
+                """;
+        comprobarContado(codigo);
+        Motores.comprobarSalida(codigo, "3\n2147483648\n");
+    }
+
+    @Test
+    void pasoQueSaltaPorEncimaDelMaximoEntero() {
+        String codigo = """
+                i = 2147483600
+                ultimo = 0
+                repite (i < 2147483647)
+                    ultimo = i
+                    i = i + 30
+                fin_repite
+                escribir ultimo
+                escribir i
+                """;
+        comprobarContado(codigo);
+        Motores.comprobarSalida(codigo, "2147483630\n2147483660\n");
+    }
+
+    @Test
+    void contadorQueYaNoCabeEnUnEntero() {
+        String codigo = """
+                i = 4000000000
+                vueltas = 0
+                repite (i < 4000000003)
+                    vueltas = vueltas + 1
+                    i = i + 1
+                fin_repite
+                escribir vueltas
+                escribir i
+                """;
+        comprobarContado(codigo);
+        Motores.comprobarSalida(codigo, "3\n4000000003\n");
+    }
+
+    @Test
+    void contadorYLimiteDecimales() {
+        String codigo = """
+                i = 0.5
+                vueltas = 0
+                repite (i < 3)
+                    vueltas = vueltas + 1
+                    i = i + 1
+                fin_repite
+                escribir vueltas
+                escribir i
+                """;
+        comprobarContado(codigo);
+        Motores.comprobarSalida(codigo, "3\n3.5\n");
+    }
+
+    @Test
+    void limiteQueNoSePuedeComparar() {
+        String codigo = """
+                i = 0
+                limite = "diez"
+                repite (i < limite)
+                    i = i + 1
+                fin_repite
+                """;
+        comprobarContado(codigo);
+        Motores.comprobarError(codigo, Diagnostico.Codigo.TIPOS_NO_COMPARABLES);
+    }
+}
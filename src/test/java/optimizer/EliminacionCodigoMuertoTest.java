@@ -0,0 +1,82 @@
+package optimizer;
+
+import diagnosticos.Diagnostico;
+import interpreter.Motores;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EliminacionCodigoMuertoTest {
+
+    private static void comprobarInforme(String codigo, String transformacion) {
+        assertTrue(Motores.informe(codigo).stream().anyMatch(t -> t.contains(transformacion)),
+                () -> "falta '" + transformacion + "' en " + Motores.informe(codigo));
+    }
+
+    @Test
+    void asignacionSinUsoEliminada() {
+        String codigo = """
+                x = 1
+                x = 2
+                escribir x
+                """;
+        comprobarInforme(codigo, "asignación sin uso a 'x'");
+        Motores.comprobarSalida(codigo, "2\n");
+    }
+
+    @Test
+    void asignacionSinUsoQuePuedeFallarSeConserva() {
+        String codigo = """
+                cero = 0
+                x = 1 / cero
+                x = 2
+                escribir x
+                """;
+        Motores.comprobarError(codigo, Diagnostico.Codigo.DIVISION_POR_CERO);
+    }
+
+    @Test
+    void asignacionSinUsoDeOtroTipoSeConserva() {
+        String codigo = """
+                x = "texto"
+                x = 5
+                escribir x
+                """;
+        Motores.comprobarError(codigo, Diagnostico.Codigo.TIPOS_INCOMPATIBLES);
+    }
+
+    @Test
+    void ramasConCondicionConstante() {
+        String codigo = """
+                x = 0
+                si (2 > 1) entonces
+                    x = 10
+                sino
+                    x = 20
+                fin_si
+                repite (1 > 2)
+                    x = 30
+                fin_repite
+                escribir x
+                """;
+        comprobarInforme(codigo, "si con condición constante sustituido por su rama");
+        comprobarInforme(codigo, "repite con condición siempre falsa eliminado");
+        Motores.comprobarSalida(codigo, "10\n");
+    }
+
+    @Test
+    void variableLeidaEnLaSiguienteVueltaDelBucle() {
+        String codigo = """
+                i = 0
+                anterior = 0
+                actual = 0
+                repite (i < 4)
+                    anterior = actual
+                    actual = i * i
+                    i = i + 1
+                fin_repite
+                escribir anterior
+                """;
+        Motores.comprobarSalida(codigo, "4\n");
+    }
+}
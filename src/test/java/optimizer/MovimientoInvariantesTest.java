@@ -0,0 +1,87 @@
+package optimizer;
+
+import diagnosticos.Diagnostico;
+import interpreter.Motores;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MovimientoInvariantesTest {
+
+    private static void comprobarExtraida(String codigo) {
+        assertTrue(Motores.informe(codigo).stream().anyMatch(t -> t.contains("expresión invariante extraída")),
+                () -> "no se extrajo ninguna invariante: " + Motores.informe(codigo));
+    }
+
+    @Test
+    void invarianteCalculadaUnaVezDaElMismoResultado() {
+        String codigo = """
+                a = 6
+                b = 7
+                i = 0
+                total = 0
+                repite (i < 5)
+                    total = total + a * b + i
+                    i = i + 1
+                fin_repite
+                escribir total
+                """;
+        comprobarExtraida(codigo);
+        Motores.comprobarSalida(codigo, "220\n");
+    }
+
+    @Test
+    void invarianteQueFallaNoSeEvaluaSiElBucleNoEntra() {
+        String codigo = """
+                cero = 0
+                i = 10
+                x = 0
+                repite (i < 5)
+                    x = x + 100 / cero
+                    i = i + 1
+                fin_repite
+                escribir x
+                """;
+        comprobarExtraida(codigo);
+        Motores.comprobarSalida(codigo, "0\n");
+    }
+
+    @Test
+    void invarianteQueFallaEnUnaRamaNoTomadaNoSeEvalua() {
+        String codigo = """
+                cero = 0
+                i = 0
+                x = 0
+                repite (i < 3)
+                    si (i > 5) entonces
+                        x = 100 / cero
+                    fin_si
+                    x = x + i
+                    i = i + 1
+                fin_repite
+                escribir x
+                """;
+        comprobarExtraida(codigo);
+        Motores.comprobarSalida(codigo, "3\n");
+    }
+
+    @Test
+    void invarianteQueFallaLanzaElErrorDondeLoHariaElBucleOriginal() {
+        String codigo = """
+                cero = 0
+                i = 0
+                repite (i < 3)
+                    escribir i
+                    si (i == 1) entonces
+                        escribir 100 / cero
+                    fin_si
+                    i = i + 1
+                fin_repite
+                """;
+        comprobarExtraida(codigo);
+        Motores.Resultado resultado = Motores.comprobarError(codigo, Diagnostico.Codigo.DIVISION_POR_CERO);
+        assertEquals("0\n1\n", resultado.getSalida());
+        assertEquals(6, resultado.getError().getDiagnostico().getLinea());
+    }
+}
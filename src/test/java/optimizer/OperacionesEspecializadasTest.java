@@ -0,0 +1,102 @@
+package optimizer;
+
+import diagnosticos.Diagnostico;
+import interpreter.Motores;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OperacionesEspecializadasTest {
+
+    private static void comprobarInforme(String codigo, String transformacion) {
+        assertTrue(Motores.informe(codigo).stream().anyMatch(t -> t.contains(transformacion)),
+                () -> "falta '" + transformacion + "' en " + Motores.informe(codigo));
+    }
+
+    @Test
+    void restoDeUnaPotenciaDeDosConNegativos() {
+        String codigo = """
+                i = -10
+                texto = ""
+                repite (i <= 10)
+                    texto = texto + (i % 8) + " "
+                    i = i + 1
+                fin_repite
+                escribir texto
+                """;
+        comprobarInforme(codigo, "resto de una potencia de dos con máscara de bits");
+        Motores.comprobarSalida(codigo, "-2 -1 0 -7 -6 -5 -4 -3 -2 -1 0 1 2 3 4 5 6 7 0 1 2 \n");
+    }
+
+    @Test
+    void productoPorUnaPotenciaDeDosQueDesborda() {
+        String codigo = """
+                i = 0
+                x = 1
+                repite (i < 40)
+                    siguiente = x * 4
+                    x = siguiente
+                    i = i + 1
+                fin_repite
+                escribir x
+                """;
+        comprobarInforme(codigo, "producto por una potencia de dos con desplazamiento");
+        Motores.comprobarSalida(codigo, "1208925819614629174706176\n");
+    }
+
+    @Test
+    void divisionPorUnaConstante() {
+        String codigo = """
+                i = -3
+                total = 0.0
+                repite (i <= 3)
+                    total = total + i / 4 + i / 3
+                    i = i + 1
+                fin_repite
+                escribir total
+                escribir 7 / 4
+                """;
+        Motores.comprobarSalida(codigo, "0.0\n1.75\n");
+    }
+
+    @Test
+    void multiploDeUnaPotenciaDeDos() {
+        String codigo = """
+                i = -6
+                pares = 0
+                repite (i <= 6)
+                    si (i % 2 == 0) entonces
+                        pares = pares + 1
+                    fin_si
+                    i = i + 1
+                fin_repite
+                escribir pares
+                """;
+        comprobarInforme(codigo, "comprobación de múltiplo de una potencia de dos con prueba de bits");
+        Motores.comprobarSalida(codigo, "7\n");
+    }
+
+    @Test
+    void operandoDeOtraClaseUsaLaOperacionGenerica() {
+        String codigo = """
+                x = 3000000000
+                i = 0
+                repite (i < 3)
+                    escribir x % 8
+                    escribir x * 2 < 6000000001
+                    x = x + 1
+                    i = i + 1
+                fin_repite
+                """;
+        Motores.comprobarSalida(codigo, "0\ntrue\n1\nfalse\n2\nfalse\n");
+    }
+
+    @Test
+    void restoConUnOperandoNoEntero() {
+        String codigo = """
+                x = 2.5
+                escribir x % 4
+                """;
+        Motores.comprobarError(codigo, Diagnostico.Codigo.MODULO_NO_ENTERO);
+    }
+}
@@ -0,0 +1,107 @@
+package optimizer;
+
+import diagnosticos.Diagnostico;
+import interpreter.Motores;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SubexpresionesComunesTest {
+
+    private static void comprobarReutilizada(String codigo) {
+        assertTrue(Motores.informe(codigo).stream().anyMatch(t -> t.contains("subexpresión común reutilizada")),
+                () -> "no se reutilizó ninguna subexpresión: " + Motores.informe(codigo));
+    }
+
+    @Test
+    void subexpresionReutilizada() {
+        String codigo = """
+                a = 7
+                b = 5
+                x = (a + b) * (a - b)
+                z = (a + b) * 2 + (a - b)
+                escribir x
+                escribir z
+                """;
+        comprobarReutilizada(codigo);
+        Motores.comprobarSalida(codigo, "24\n26\n");
+    }
+
+    @Test
+    void asignarLaVariableInvalidaLaSubexpresion() {
+        String codigo = """
+                a = 7
+                x = a * a + 1
+                a = 3
+                z = a * a + 1
+                escribir x
+                escribir z
+                """;
+        Motores.comprobarSalida(codigo, "50\n10\n");
+    }
+
+    @Test
+    void asignarUnElementoPorOtroNombreInvalidaLaLectura() {
+        String codigo = """
+                a = [1, 2, 3]
+                b = a
+                x = a[0] * 10 + 1
+                b[0] = 9
+                z = a[0] * 10 + 1
+                escribir x
+                escribir z
+                escribir a
+                """;
+        Motores.comprobarSalida(codigo, "11\n91\n[9, 2, 3]\n");
+    }
+
+    @Test
+    void asignarUnElementoInvalidaLasFuncionesQueLoLeen() {
+        String codigo = """
+                a = [4, 8, 6]
+                alias = a
+                x = max(a) + min(a)
+                alias[1] = 1
+                z = max(a) + min(a)
+                escribir x
+                escribir z
+                escribir longitud(a) + longitud(a)
+                """;
+        Motores.comprobarSalida(codigo, "12\n7\n6\n");
+    }
+
+    @Test
+    void reutilizacionDentroDeUnBucleConAlias() {
+        String codigo = """
+                a = [0; 4]
+                b = a
+                i = 0
+                total = 0
+                repite (i < 4)
+                    total = total + a[i] * 2 + a[i] * 2
+                    b[i] = i + 1
+                    total = total + a[i] * 2
+                    i = i + 1
+                fin_repite
+                escribir total
+                """;
+        comprobarReutilizada(codigo);
+        Motores.comprobarSalida(codigo, "20\n");
+    }
+
+    @Test
+    void subexpresionQueFallaNoSeCalculaAntes() {
+        String codigo = """
+                cero = 0
+                a = 1
+                escribir a
+                si (a > 5) entonces
+                    escribir 10 / cero + 10 / cero
+                fin_si
+                escribir 10 / cero * 2 + 10 / cero
+                """;
+        Motores.Resultado resultado = Motores.comprobarError(codigo, Diagnostico.Codigo.DIVISION_POR_CERO);
+        assertEquals("1\n", resultado.getSalida());
+    }
+}
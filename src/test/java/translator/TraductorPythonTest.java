@@ -0,0 +1,175 @@
+package translator;
+
+import interpreter.Motores;
+import optimizer.Optimizador;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TraductorPythonTest {
+
+    private static String traducir(String codigo) {
+        return new TraductorPython().traducir(Motores.preparar(codigo, new Optimizador()));
+    }
+
+    private static void comprobarContiene(String python, String fragmento) {
+        assertTrue(python.contains(fragmento), () -> "falta\n" + fragmento + "\nen\n" + python);
+    }
+
+    @Test
+    void bucleContadoConRangeYContadorAlTerminar() {
+        String python = traducir("""
+                i = 0
+                total = 0
+                repite (i < 10)
+                    total = total + i * 2
+                    i = i + 1
+                fin_repite
+                j = 1
+                repite (j <= 20)
+                    total = total - j
+                    j = j + 3
+                fin_repite
+                escribir i + j + total
+                """);
+        comprobarContiene(python, """
+                    rango_i = range(i, 10)
+                    for i in rango_i:
+                        total += i * 2
+                    i = rango_i.start + len(rango_i)
+                """);
+        comprobarContiene(python, """
+                    rango_j = range(j, 21, 3)
+                    for j in rango_j:
+                        total -= j
+                    j = rango_j.start + len(rango_j) * 3
+                """);
+    }
+
+    @Test
+    void contadorDecimalUsaWhile() {
+        String python = traducir("""
+                x = 0.5
+                repite (x < 3)
+                    escribir x
+                    x = x + 1
+                fin_repite
+                """);
+        comprobarContiene(python, """
+                    while x < 3:
+                        print(x)
+                        x += 1
+                """);
+        assertFalse(python.contains("range("), python);
+    }
+
+    @Test
+    void nombresAuxiliaresQueNoChocanConVariables() {
+        String python = traducir("""
+                rango_i = 5
+                i = 0
+                repite (i < rango_i)
+                    escribir i
+                    i = i + 1
+                fin_repite
+                """);
+        comprobarContiene(python, "rango_i_2 = range(i, rango_i)\n");
+
+        String sinRange = traducir("""
+                range = 2
+                i = 0
+                repite (i < 3)
+                    escribir i * range
+                    i = i + 1
+                fin_repite
+                paralelo (k desde 1 hasta 3)
+                    escribir k
+                fin_paralelo
+                """);
+        comprobarContiene(sinRange, "while i < 3:\n");
+        comprobarContiene(sinRange, "while iteracion_k < limite_k:\n");
+        assertFalse(sinRange.contains("range("), sinRange);
+    }
+
+    @Test
+    void soloLosParentesisQueExigeLaPrecedencia() {
+        String python = traducir("""
+                a = 7
+                b = 2
+                escribir (a - b) - (a - b)
+                escribir a - (b - a)
+                escribir (a + b) * -b
+                escribir -(a + b)
+                escribir no (a < b) y (a > b o b == 2)
+                escribir (a < b) == (b < a)
+                escribir a / (b * 2)
+                escribir [0; a + b]
+                """);
+        comprobarContiene(python, """
+                    print(a - b - (a - b))
+                    print(a - (b - a))
+                    print((a + b) * -b)
+                    print(-(a + b))
+                    print(not a < b and (a > b or b == 2))
+                    print((a < b) == (b < a))
+                    print(a / (b * 2))
+                    print([0] * (a + b))
+                """);
+    }
+
+    @Test
+    void funcionesConNombreDeVariable() {
+        String python = traducir("""
+                len = 3
+                abs = -2
+                math = 1
+                escribir raiz(16) + len + math
+                escribir abs(abs) + longitud([1, 2, 3])
+                """);
+        comprobarContiene(python, "import math as math_2\nimport builtins\n");
+        comprobarContiene(python, "print(math_2.sqrt(16) + len + math)\n");
+        comprobarContiene(python, "print(builtins.abs(abs) + builtins.len([1, 2, 3]))\n");
+
+        String sinColision = traducir("escribir raiz(16) + longitud(\"abc\")");
+        comprobarContiene(sinColision, "import math\n");
+        comprobarContiene(sinColision, "print(math.sqrt(16) + len(\"abc\"))\n");
+        assertFalse(sinColision.contains("builtins"), sinColision);
+    }
+
+    @Test
+    void contadorDelParaleloNoExisteDespues() {
+        String python = traducir("""
+                total = 0
+                paralelo (i desde 1 hasta 4) reduciendo suma total
+                    total = total + i
+                fin_paralelo
+                n = 0
+                paralelo (k desde 1 hasta n)
+                    escribir k
+                fin_paralelo
+                j = "antes"
+                paralelo (j desde 1 hasta 2)
+                    escribir j
+                fin_paralelo
+                escribir j + texto(total)
+                """);
+        comprobarContiene(python, """
+                    for i in range(1, 5):
+                        total += i
+                    del i
+                """);
+        comprobarContiene(python, """
+                    for k in range(1, n + 1):
+                        print(k)
+                    k = None
+                    del k
+                """);
+        comprobarContiene(python, """
+                    anterior_j = j
+                    for j in range(1, 3):
+                        print(j)
+                    j = anterior_j
+                """);
+    }
+}